@@ -0,0 +1,175 @@
+package com.pizzamaestro.benchmark;
+
+import com.mongodb.MongoClientSettings;
+import com.pizzamaestro.model.ActivePizza;
+import com.pizzamaestro.model.ActivePizza.ActivePizzaStatus;
+import com.pizzamaestro.model.ActivePizza.ScheduledStep;
+import com.pizzamaestro.model.ActivePizza.StepStatus;
+import com.pizzamaestro.model.ActivePizza.StepType;
+import com.pizzamaestro.model.PizzaStyle;
+import com.pizzamaestro.repository.ActivePizzaUpdates;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wolumen zapisu zmian aktywnej pizzy: zapis całego dokumentu (load-modify-save)
+ * kontra aktualizacja punktowa z {@link ActivePizzaUpdates}.
+ *
+ * Każda operacja mapuje zmianę tak jak MongoTemplate i koduje ją do BSON - czyli to,
+ * co faktycznie idzie do serwera. Rozmiary w bajtach są wypisywane przy starcie triala,
+ * benchmark mierzy koszt przygotowania zapisu po stronie aplikacji.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActivePizzaWriteVolumeBenchmark {
+
+    public enum Operation { COMPLETE_STEP, MARK_NOTIFIED, PAUSE }
+
+    @Param
+    private Operation operation;
+
+    @Param({"12", "24"})
+    private int steps;
+
+    private final DocumentCodec codec = new DocumentCodec(MongoClientSettings.getDefaultCodecRegistry());
+
+    private MappingMongoConverter converter;
+    private QueryMapper queryMapper;
+    private UpdateMapper updateMapper;
+    private MongoPersistentEntity<?> entity;
+    private ActivePizza pizza;
+    private LocalDateTime now;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Konwersje jak w Spring Boot (java.time jako typy proste)
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        queryMapper = new QueryMapper(converter);
+        updateMapper = new UpdateMapper(converter);
+        entity = mappingContext.getRequiredPersistentEntity(ActivePizza.class);
+
+        now = LocalDateTime.of(2025, 3, 1, 12, 0);
+        pizza = pizza(steps, now);
+
+        System.out.printf("%n[%s, %d kroków] zapis całego dokumentu: %d B, aktualizacja punktowa: %d B%n",
+                operation, steps, fullDocumentSave(), positionalUpdate());
+    }
+
+    /**
+     * Przed: cały dokument po zmianie w Javie (replace przy save()).
+     */
+    @Benchmark
+    public int fullDocumentSave() {
+        switch (operation) {
+            case COMPLETE_STEP -> {
+                pizza.getSteps().get(2).setStatus(StepStatus.COMPLETED);
+                pizza.getSteps().get(2).setActualTime(now);
+                pizza.getSteps().get(3).setStatus(StepStatus.IN_PROGRESS);
+            }
+            case MARK_NOTIFIED -> {
+                pizza.getSteps().get(3).setNotificationSent(true);
+                pizza.getSteps().get(3).setNotificationSentAt(now);
+            }
+            case PAUSE -> pizza.setStatus(ActivePizzaStatus.PAUSED);
+        }
+        Document document = new Document();
+        converter.write(pizza, document);
+        Document filter = new Document("_id", pizza.getId()).append("version", pizza.getVersion());
+        return encodedSize(filter) + encodedSize(document);
+    }
+
+    /**
+     * Po: filtr + {@code $set}/{@code $inc} + arrayFilters.
+     */
+    @Benchmark
+    public int positionalUpdate() {
+        Query query;
+        Update update;
+        switch (operation) {
+            case COMPLETE_STEP -> {
+                query = ActivePizzaUpdates.stepQuery(pizza.getId(), pizza.getUserId(), 3, StepStatus.IN_PROGRESS);
+                update = ActivePizzaUpdates.stepStatus(3, StepStatus.COMPLETED, now, 4, now);
+            }
+            case MARK_NOTIFIED -> {
+                query = new Query(Criteria.where("id").is(pizza.getId()));
+                update = ActivePizzaUpdates.stepNotified(4, now);
+            }
+            default -> {
+                query = ActivePizzaUpdates.pizzaQuery(pizza.getId(), pizza.getUserId(), null);
+                update = ActivePizzaUpdates.status(ActivePizzaStatus.PAUSED, now);
+            }
+        }
+        int size = encodedSize(queryMapper.getMappedObject(query.getQueryObject(), entity))
+                + encodedSize(updateMapper.getMappedObject(update.getUpdateObject(), entity));
+        for (var filter : update.getArrayFilters()) {
+            size += encodedSize(queryMapper.getMappedObject(filter.asDocument(), entity));
+        }
+        return size;
+    }
+
+    private int encodedSize(Document document) {
+        return new RawBsonDocument(document, codec).getByteBuffer().remaining();
+    }
+
+    private static ActivePizza pizza(int stepCount, LocalDateTime start) {
+        List<ScheduledStep> stepList = new ArrayList<>();
+        StepType[] types = StepType.values();
+        for (int i = 1; i <= stepCount; i++) {
+            StepType type = types[i % types.length];
+            stepList.add(ScheduledStep.builder()
+                    .stepNumber(i)
+                    .type(type)
+                    .title("Krok " + i + " - " + type.name())
+                    .description("Opis kroku " + i + ": wymieszaj, odstaw, sprawdź konsystencję ciasta i temperaturę.")
+                    .scheduledTime(start.plusMinutes(45L * i))
+                    .durationMinutes(30)
+                    .temperature(22.0)
+                    .status(i < 3 ? StepStatus.COMPLETED : i == 3 ? StepStatus.IN_PROGRESS : StepStatus.PENDING)
+                    .icon(type.getIcon())
+                    .build());
+        }
+        return ActivePizza.builder()
+                .id("65f1c0ffee0000000000abcd")
+                .version(7L)
+                .userId("65f1c0ffee00000000001234")
+                .name("Neapolitańska na sobotę")
+                .pizzaStyle(PizzaStyle.NEAPOLITAN)
+                .numberOfPizzas(6)
+                .targetBakeTime(start.plusHours(24))
+                .adjustedBakeTime(start.plusHours(24))
+                .steps(stepList)
+                .status(ActivePizzaStatus.IN_PROGRESS)
+                .notificationPhone("+48123456789")
+                .smsNotificationsEnabled(true)
+                .createdAt(start.minusHours(1))
+                .lastUpdatedAt(start)
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+package com.pizzamaestro.benchmark;
+
+import com.pizzamaestro.dto.request.CalculationRequest;
+import com.pizzamaestro.model.PizzaStyle;
+import com.pizzamaestro.model.Recipe;
+import com.pizzamaestro.service.DoughCalculatorService;
+import com.pizzamaestro.service.EnvironmentalCorrectionService;
+import com.pizzamaestro.service.engine.DoughCalculationEngine;
+import com.pizzamaestro.service.strategy.ColdFermentationStrategy;
+import com.pizzamaestro.service.strategy.FermentationStrategyFactory;
+import com.pizzamaestro.service.strategy.MixedFermentationStrategy;
+import com.pizzamaestro.service.strategy.RoomTemperatureStrategy;
+import com.pizzamaestro.service.strategy.SameDayStrategy;
+
+import java.util.List;
+
+/**
+ * Wspólne fixtury benchmarków - serwisy składane ręcznie, bez kontekstu Springa.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static FermentationStrategyFactory fermentationStrategyFactory() {
+        return fermentationStrategyFactory("");
+    }
+
+    /**
+     * @param tabulatedMethods metody obsługiwane tablicami (jak pizzamaestro.fermentation.lookup-tables.methods)
+     */
+    static FermentationStrategyFactory fermentationStrategyFactory(String tabulatedMethods) {
+        FermentationStrategyFactory factory = new FermentationStrategyFactory(List.of(
+                new RoomTemperatureStrategy(),
+                new ColdFermentationStrategy(),
+                new MixedFermentationStrategy(),
+                new SameDayStrategy()), tabulatedMethods, 0.01);
+        factory.init();
+        return factory;
+    }
+
+    static DoughCalculationEngine doughCalculationEngine() {
+        return new DoughCalculationEngine(fermentationStrategyFactory());
+    }
+
+    static DoughCalculatorService doughCalculatorService() {
+        // IngredientService jest potrzebny tylko dla miksów mąk - poza ścieżką calculate()
+        return new DoughCalculatorService(
+                doughCalculationEngine(), null, new EnvironmentalCorrectionService());
+    }
+
+    /**
+     * Żądanie z domyślnymi parametrami stylu i typowym czasem dla metody fermentacji.
+     */
+    static CalculationRequest requestFor(PizzaStyle style, Recipe.FermentationMethod method) {
+        return CalculationRequest.builder()
+                .pizzaStyle(style)
+                .numberOfPizzas(4)
+                .ballWeight(style.getDefaultBallWeight())
+                .hydration(style.getDefaultHydration())
+                .saltPercentage(style.getDefaultSaltPercentage())
+                .oilPercentage(style.getDefaultOilPercentage())
+                .sugarPercentage(style.getDefaultSugarPercentage())
+                .yeastType(Recipe.YeastType.INSTANT_DRY)
+                .fermentationMethod(method)
+                .totalFermentationHours(typicalHours(method))
+                .roomTemperature(22.0)
+                .fridgeTemperature(4.0)
+                .build();
+    }
+
+    static int typicalHours(Recipe.FermentationMethod method) {
+        return switch (method) {
+            case ROOM_TEMPERATURE -> 8;
+            case COLD_FERMENTATION -> 48;
+            case MIXED -> 24;
+            case SAME_DAY -> 4;
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package com.pizzamaestro.benchmark;
+
+import com.pizzamaestro.model.PizzaStyle;
+import com.pizzamaestro.model.Recipe;
+import com.pizzamaestro.service.engine.DoughCalculationEngine;
+import com.pizzamaestro.service.engine.DoughCalculationInput;
+import com.pizzamaestro.service.engine.DoughCalculationOutput;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark rdzenia obliczeń na prymitywach ({@link DoughCalculationEngine}).
+ *
+ * Wejście i wyjście są współdzielone między wywołaniami, więc
+ * gc.alloc.rate.norm powinno wynosić ~0 B/op - każdy wzrost to regresja.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DoughCalculationEngineBenchmark {
+
+    @Param
+    private Recipe.FermentationMethod fermentationMethod;
+
+    @Param({"false", "true"})
+    private boolean usePreferment;
+
+    private DoughCalculationEngine engine;
+    private final DoughCalculationInput input = new DoughCalculationInput();
+    private final DoughCalculationOutput output = new DoughCalculationOutput();
+    private double hydration;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = BenchmarkFixtures.doughCalculationEngine();
+
+        PizzaStyle style = PizzaStyle.NEAPOLITAN;
+        input.setNumberOfPizzas(4);
+        input.setBallWeight(style.getDefaultBallWeight());
+        input.setSaltPercentage(style.getDefaultSaltPercentage());
+        input.setYeastConversionFactor(Recipe.YeastType.INSTANT_DRY.getConversionFactor());
+        input.setFermentationMethod(fermentationMethod);
+        input.setTotalFermentationHours(BenchmarkFixtures.typicalHours(fermentationMethod));
+        if (usePreferment) {
+            input.setPrefermentPercentage(30.0);
+            input.setPrefermentHydration(Recipe.PrefermentType.POOLISH.getHydration());
+            input.setPrefermentYeastRatio(0.001);
+        }
+    }
+
+    @Benchmark
+    public double calculate() {
+        // Symulacja suwaka hydratacji 60-75%
+        hydration = hydration >= 75.0 ? 60.0 : hydration + 0.5;
+        input.setHydration(hydration);
+        engine.calculate(input, output);
+        return output.getYeastGrams();
+    }
+}
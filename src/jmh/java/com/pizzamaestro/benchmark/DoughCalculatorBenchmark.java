@@ -0,0 +1,74 @@
+package com.pizzamaestro.benchmark;
+
+import com.pizzamaestro.dto.request.CalculationRequest;
+import com.pizzamaestro.dto.response.CalculationResponse;
+import com.pizzamaestro.model.PizzaStyle;
+import com.pizzamaestro.model.Recipe;
+import com.pizzamaestro.service.DoughCalculatorService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark głównej ścieżki kalkulatora - {@link DoughCalculatorService#calculate}.
+ *
+ * Pokrywa każdą kombinację PizzaStyle × FermentationMethod, z prefermentem
+ * i bez, z harmonogramem i bez oraz z dodatkowymi składnikami i bez.
+ * Uruchamiać z profilerem gc (domyślnie w profilu Maven "benchmark"),
+ * żeby widzieć alokacje na operację obok ops/s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DoughCalculatorBenchmark {
+
+    @Param
+    private PizzaStyle pizzaStyle;
+
+    @Param
+    private Recipe.FermentationMethod fermentationMethod;
+
+    @Param({"false", "true"})
+    private boolean usePreferment;
+
+    @Param({"false", "true"})
+    private boolean generateSchedule;
+
+    @Param({"false", "true"})
+    private boolean additionalIngredients;
+
+    private DoughCalculatorService calculatorService;
+    private CalculationRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        calculatorService = BenchmarkFixtures.doughCalculatorService();
+        request = BenchmarkFixtures.requestFor(pizzaStyle, fermentationMethod);
+
+        if (usePreferment) {
+            request.setUsePreferment(true);
+            request.setPrefermentType(Recipe.PrefermentType.POOLISH);
+            request.setPrefermentPercentage(30.0);
+            request.setPrefermentFermentationHours(12);
+        }
+        if (generateSchedule) {
+            request.setGenerateSchedule(true);
+            request.setPlannedBakeTime(LocalDateTime.now().plusDays(3));
+        }
+        if (additionalIngredients) {
+            request.setAdditionalIngredients(List.of(
+                    new CalculationRequest.AdditionalIngredientRequest(null, "Słód diastatyczny", 0.5),
+                    new CalculationRequest.AdditionalIngredientRequest(null, "Mleko w proszku", 2.0)));
+        }
+    }
+
+    @Benchmark
+    public CalculationResponse calculate() {
+        return calculatorService.calculate(request);
+    }
+}
@@ -0,0 +1,56 @@
+package com.pizzamaestro.benchmark;
+
+import com.pizzamaestro.model.Recipe;
+import com.pizzamaestro.service.strategy.FermentationStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark pojedynczych strategii fermentacji ({@link FermentationStrategy}).
+ *
+ * Każda metoda fermentacji jest mierzona osobno, na siatce czasu i temperatur
+ * typowej dla ruchu z suwaków kalkulatora - raz z modelem analitycznym,
+ * raz z tablicą ({@link com.pizzamaestro.service.strategy.TabulatedFermentationStrategy}).
+ * Temperatury są niecałkowite, żeby tablica zawsze interpolowała.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FermentationStrategyBenchmark {
+
+    private static final int[] HOURS = {2, 4, 8, 12, 24, 36, 48, 72, 96};
+    private static final double[] ROOM_TEMPS = {18.1, 20.3, 22.2, 24.4, 26.1, 28.3};
+    private static final double[] FRIDGE_TEMPS = {2.1, 4.1, 6.3};
+
+    public enum Mode { ANALYTIC, TABLE }
+
+    @Param
+    private Recipe.FermentationMethod fermentationMethod;
+
+    @Param
+    private Mode mode;
+
+    private FermentationStrategy strategy;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String tabulated = mode == Mode.TABLE ? fermentationMethod.name() : "";
+        strategy = BenchmarkFixtures.fermentationStrategyFactory(tabulated)
+                .getStrategy(fermentationMethod);
+    }
+
+    @Benchmark
+    public double calculateYeastPercentage() {
+        int i = index++;
+        return strategy.calculateYeastPercentage(
+                HOURS[i % HOURS.length],
+                ROOM_TEMPS[i % ROOM_TEMPS.length],
+                FRIDGE_TEMPS[i % FRIDGE_TEMPS.length],
+                fermentationMethod);
+    }
+}
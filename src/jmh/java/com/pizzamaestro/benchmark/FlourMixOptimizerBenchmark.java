@@ -0,0 +1,76 @@
+package com.pizzamaestro.benchmark;
+
+import com.pizzamaestro.model.Ingredient;
+import com.pizzamaestro.service.engine.FlourMixOptimizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Czas pełnego przeszukania katalogu przez {@link FlourMixOptimizer} (miksy 1-4 mąk, top 5).
+ *
+ * Katalog losowy, ale powtarzalny (stałe ziarno); cel średni (łatwo osiągalny miksem)
+ * i skrajny (mocna mąka z wysokim W - mało podzbiorów odpada na ograniczeniach).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlourMixOptimizerBenchmark {
+
+    @Param({"20", "200"})
+    private int catalogSize;
+
+    @Param({"typical", "extreme"})
+    private String target;
+
+    private final FlourMixOptimizer optimizer = new FlourMixOptimizer();
+    private List<Ingredient> flours;
+    private FlourMixOptimizer.MixTarget mixTarget;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(7);
+        Ingredient.FlourType[] types = Ingredient.FlourType.values();
+        flours = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            double protein = 8.5 + random.nextDouble() * 7.5;
+            flours.add(Ingredient.builder()
+                    .id("flour-" + i)
+                    .name("Mąka " + i)
+                    .type(Ingredient.IngredientType.FLOUR)
+                    .active(true)
+                    .flourParameters(Ingredient.FlourParameters.builder()
+                            .flourType(types[random.nextInt(types.length)])
+                            .proteinContent(protein)
+                            .strength(i % 7 == 0 ? null : 120 + (protein - 8.5) * 35 + random.nextGaussian() * 25)
+                            .extensibility(0.4 + random.nextDouble() * 0.4)
+                            .recommendedHydrationMin(55 + random.nextInt(10))
+                            .recommendedHydrationMax(68 + random.nextInt(12))
+                            .build())
+                    .build());
+        }
+        boolean typical = "typical".equals(target);
+        mixTarget = FlourMixOptimizer.MixTarget.builder()
+                .protein(typical ? 12.5 : 15.8)
+                .proteinTolerance(1.0)
+                .strength(typical ? 280.0 : 420.0)
+                .strengthTolerance(40.0)
+                .extensibility(0.55)
+                .extensibilityTolerance(0.15)
+                .hydration(typical ? 65.0 : 75.0)
+                .hydrationTolerance(5.0)
+                .preferType00(typical)
+                .build();
+    }
+
+    @Benchmark
+    public List<FlourMixOptimizer.Blend> optimize() {
+        return optimizer.optimize(flours, mixTarget, FlourMixOptimizer.MAX_FLOURS, 5);
+    }
+}
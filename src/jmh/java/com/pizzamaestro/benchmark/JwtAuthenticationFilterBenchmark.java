@@ -0,0 +1,93 @@
+package com.pizzamaestro.benchmark;
+
+import com.pizzamaestro.security.JwtAuthenticationFilter;
+import com.pizzamaestro.security.JwtTokenProvider;
+import com.pizzamaestro.security.UserPrincipal;
+import com.pizzamaestro.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Przepustowość {@link JwtAuthenticationFilter} dla żądań z tym samym tokenem:
+ * poprzednia ścieżka (validateToken + getEmailFromToken + loadUserByUsername, czyli dwa
+ * parsowania z weryfikacją HMAC i odczyt użytkownika) kontra filtr z {@link VerifiedTokenCache}.
+ *
+ * Odczyt użytkownika symuluje zapytanie do MongoDB opóźnieniem {@code userLookupMicros}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKeyMustBeAtLeast32CharsLongForHS256";
+
+    @Param({"0", "200"})
+    private long userLookupMicros;
+
+    private JwtTokenProvider tokenProvider;
+    private UserDetailsService userDetailsService;
+    private JwtAuthenticationFilter filter;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider(SECRET, TimeUnit.HOURS.toMillis(1), TimeUnit.DAYS.toMillis(7));
+        UserDetails user = new UserPrincipal("u1", "jan@example.com", "hash", true, true, true, true,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        userDetailsService = email -> {
+            if (userLookupMicros > 0) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(userLookupMicros));
+            }
+            return user;
+        };
+        filter = new JwtAuthenticationFilter(tokenProvider, userDetailsService,
+                new VerifiedTokenCache(new SimpleMeterRegistry(), 10_000, 300));
+        token = tokenProvider.generateAccessToken("jan@example.com");
+    }
+
+    /**
+     * Poprzednia treść JwtAuthenticationFilter.doFilterInternal - ten sam narzut żądania co w cachedFilter.
+     */
+    @Benchmark
+    public Object legacy() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/recipes");
+        request.addHeader("Authorization", "Bearer " + token);
+        String jwt = request.getHeader("Authorization").substring(7);
+        Object principal = null;
+        if (tokenProvider.validateToken(jwt)) {
+            String email = tokenProvider.getEmailFromToken(jwt);
+            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+            principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        }
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+
+    @Benchmark
+    public Object cachedFilter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/recipes");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+}
@@ -0,0 +1,35 @@
+package com.pizzamaestro.benchmark;
+
+import com.pizzamaestro.service.engine.Q10FactorTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark współczynnika Q10 z AdvancedDoughCalculationService.calculateEffectiveFermentationTime:
+ * {@link Math#pow} kontra {@link Q10FactorTable}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Q10FactorBenchmark {
+
+    private static final double[] TEMPS = {2.1, 4.1, 6.3, 18.1, 20.3, 22.2, 24.4, 26.1, 28.3};
+
+    private final Q10FactorTable table = new Q10FactorTable(2.5, 20.0);
+    private int index;
+
+    @Benchmark
+    public double analytic() {
+        double temp = TEMPS[index++ % TEMPS.length];
+        return Math.pow(2.5, (temp - 20.0) / 10);
+    }
+
+    @Benchmark
+    public double table() {
+        return table.factor(TEMPS[index++ % TEMPS.length]);
+    }
+}
@@ -0,0 +1,96 @@
+package com.pizzamaestro.benchmark;
+
+import com.pizzamaestro.config.ratelimit.BucketType;
+import com.pizzamaestro.config.ratelimit.TokenBucketRateLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limit żądań pod konkurencją 64 wątków: poprzedni kubełek (synchronized, Instant.now(),
+ * klucz {@code ip + ":" + typ}) kontra {@link TokenBucketRateLimiter}.
+ *
+ * - SAME_CLIENT: wszystkie wątki biją w jeden kubełek (jeden klient za NAT-em)
+ * - DISTINCT_CLIENTS: każdy wątek to inny adres (typowy ruch)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(64)
+@Fork(1)
+public class RateLimiterContentionBenchmark {
+
+    public enum Contention { SAME_CLIENT, DISTINCT_CLIENTS }
+
+    @Param
+    private Contention contention;
+
+    private TokenBucketRateLimiter limiter;
+    private final Map<String, LegacyBucket> legacyBuckets = new ConcurrentHashMap<>();
+    private final AtomicInteger threadCounter = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        limiter = new TokenBucketRateLimiter(60, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        limiter.shutdown();
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        String ip;
+
+        @Setup(Level.Trial)
+        public void setUp(RateLimiterContentionBenchmark benchmark) {
+            int thread = benchmark.threadCounter.getAndIncrement();
+            ip = benchmark.contention == Contention.SAME_CLIENT ? "203.0.113.7" : "10.0." + thread + ".1";
+        }
+    }
+
+    @Benchmark
+    public boolean legacy(Client client) {
+        String key = client.ip + ":" + "general";
+        return legacyBuckets.computeIfAbsent(key, k -> new LegacyBucket(BucketType.GENERAL.getLimit())).tryConsume(1);
+    }
+
+    @Benchmark
+    public boolean tokenBucket(Client client) {
+        return limiter.client(client.ip).tryConsume(BucketType.GENERAL, 1);
+    }
+
+    /**
+     * Poprzednia implementacja RateLimitingConfig.RateLimitBucket (okno stałe, monitor).
+     */
+    static final class LegacyBucket {
+        private final int limit;
+        private final AtomicInteger count = new AtomicInteger();
+        private volatile Instant windowStart = Instant.now();
+
+        LegacyBucket(int limit) {
+            this.limit = limit;
+        }
+
+        synchronized boolean tryConsume(int permits) {
+            Instant now = Instant.now();
+            if (now.isAfter(windowStart.plus(Duration.ofMinutes(1)))) {
+                windowStart = now;
+                count.set(0);
+            }
+            if (count.get() + permits <= limit) {
+                count.addAndGet(permits);
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.pizzamaestro.benchmark;
+
+import com.pizzamaestro.PizzaMaestroApplication;
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Zimny start aplikacji: czas od uruchomienia {@link PizzaMaestroApplication}
+ * do pierwszej odpowiedzi 200 z {@code /actuator/health}, na wbudowanym MongoDB.
+ *
+ * Każdy fork to świeża JVM i pusta baza (pełny seed danych), jeden pomiar na fork.
+ * {@code fast-start} odracza indeksy i bazę wiedzy na czas po gotowości aplikacji.
+ * Archiwum CDS z Dockerfile: {@code -Djmh.args="-jvmArgsAppend -XX:SharedArchiveFile=app.jsa"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class StartupBenchmark {
+
+    @Param({"default", "fast-start"})
+    private String profile;
+
+    private TransitionWalker.ReachedState<RunningMongodProcess> mongo;
+    private HttpClient httpClient;
+    private int port;
+    private CompletableFuture<ConfigurableApplicationContext> application;
+
+    @Setup(Level.Trial)
+    public void startMongo() throws IOException {
+        mongo = Mongod.instance().start(Version.Main.V7_0);
+        httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+    }
+
+    @Benchmark
+    public int timeToFirstHealthy() throws InterruptedException {
+        ServerAddress address = mongo.current().getServerAddress();
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(PizzaMaestroApplication.class)
+                .properties(
+                        "server.port=" + port,
+                        "spring.data.mongodb.uri=mongodb://" + address.getHost() + ":" + address.getPort()
+                                + "/pizzamaestro-startup",
+                        "spring.autoconfigure.exclude="
+                                + "de.flapdoodle.embed.mongo.spring.autoconfigure.EmbeddedMongoAutoConfiguration",
+                        "logging.level.com.pizzamaestro=WARN");
+        if (!"default".equals(profile)) {
+            builder.profiles(profile);
+        }
+        application = CompletableFuture.supplyAsync(builder::run);
+
+        HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        while (true) {
+            if (application.isCompletedExceptionally()) {
+                throw new IllegalStateException("Aplikacja nie wystartowała", application.exceptionNow());
+            }
+            try {
+                HttpResponse<Void> response = httpClient.send(health, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return response.statusCode();
+                }
+            } catch (IOException e) {
+                // serwer jeszcze nie nasłuchuje
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopApplication() {
+        if (application != null) {
+            application.join().close();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopMongo() {
+        mongo.close();
+    }
+}
@@ -1,38 +1,48 @@
 package com.pizzamaestro.config;
 
+import com.pizzamaestro.config.startup.Seed;
+import com.pizzamaestro.config.startup.SeedWriter;
+import com.pizzamaestro.config.startup.StartupStage;
+import com.pizzamaestro.config.startup.StartupStageProvider;
 import com.pizzamaestro.constants.AppConstants;
 import com.pizzamaestro.model.Ingredient;
 import com.pizzamaestro.model.PizzaStyle;
 import com.pizzamaestro.model.Recipe;
 import com.pizzamaestro.model.User;
-import com.pizzamaestro.repository.IngredientRepository;
 import com.pizzamaestro.repository.RecipeRepository;
 import com.pizzamaestro.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.boot.CommandLineRunner;
+import org.bson.Document;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 import org.springframework.beans.factory.annotation.Value;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Inicjalizacja danych początkowych w bazie.
- * Tworzy użytkowników testowych, składniki i przykładowe receptury.
+ * Tworzy użytkowników testowych, składniki i przykładowe receptury
+ * (etapy {@link com.pizzamaestro.config.startup.StartupOrchestrator}, zapis przez {@link SeedWriter}).
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
-public class DataInitializer implements CommandLineRunner {
+public class DataInitializer implements StartupStageProvider {
+    
+    /** Pola składnika zmieniane przez admina - seed ich nie nadpisuje. */
+    private static final Set<String> ADMIN_OWNED_INGREDIENT_FIELDS = Set.of(
+            "active", "verified", "description", "flourParameters", "waterParameters");
     
     private final UserRepository userRepository;
-    private final IngredientRepository ingredientRepository;
     private final RecipeRepository recipeRepository;
+    private final SeedWriter seedWriter;
     private final PasswordEncoder passwordEncoder;
     
     @Value("${app.test-users.admin-password:#{null}}")
@@ -50,11 +60,15 @@ public class DataInitializer implements CommandLineRunner {
     @Value("${app.test-users.user-password:#{null}}")
     private String userPassword;
     
+    /**
+     * Składniki są niezależne od użytkowników, receptury potrzebują ich id.
+     */
     @Override
-    public void run(String... args) {
-        initializeUsers();
-        initializeIngredients();
-        initializeRecipes();
+    public List<StartupStage> startupStages() {
+        return List.of(
+                StartupStage.required("seed-users", this::initializeUsers),
+                StartupStage.required("seed-ingredients", this::initializeIngredients),
+                StartupStage.required("seed-recipes", this::initializeRecipes, "seed-users"));
     }
     
     /**
@@ -68,16 +82,20 @@ public class DataInitializer implements CommandLineRunner {
         return fallbackPrefix + java.util.UUID.randomUUID().toString().substring(0, 8) + "!@#";
     }
     
+    /**
+     * Użytkownicy testowi - tylko do pustej kolekcji, żeby usunięte przez operatora konta
+     * (w tym admin) nie wracały po wdrożeniu.
+     */
     private void initializeUsers() {
         if (userRepository.count() > 0) {
             log.info("Użytkownicy już istnieją, pomijam inicjalizację");
             return;
         }
         
-        log.info("Tworzenie użytkowników testowych...");
+        List<Seed<User>> seeds = new ArrayList<>();
         
         // ADMIN
-        User admin = User.builder()
+        seeds.add(new Seed<>(new Document("email", "admin@pizzamaestro.pl"), () -> User.builder()
                 .email("admin@pizzamaestro.pl")
                 .password(passwordEncoder.encode(getSecurePassword(adminPassword, "Admin")))
                 .firstName("Admin")
@@ -107,11 +125,10 @@ public class DataInitializer implements CommandLineRunner {
                         .lastCalculationAt(LocalDateTime.now())
                         .monthResetAt(LocalDateTime.now())
                         .build())
-                .build();
-        userRepository.save(admin);
+                .build()));
         
         // USER FREE
-        User testUser = User.builder()
+        seeds.add(new Seed<>(new Document("email", "test@pizzamaestro.pl"), () -> User.builder()
                 .email("test@pizzamaestro.pl")
                 .password(passwordEncoder.encode(getSecurePassword(testPassword, "Test")))
                 .firstName("Jan")
@@ -140,11 +157,10 @@ public class DataInitializer implements CommandLineRunner {
                         .lastCalculationAt(LocalDateTime.now())
                         .monthResetAt(LocalDateTime.now())
                         .build())
-                .build();
-        userRepository.save(testUser);
+                .build()));
         
         // USER PREMIUM
-        User premiumUser = User.builder()
+        seeds.add(new Seed<>(new Document("email", "premium@pizzamaestro.pl"), () -> User.builder()
                 .email("premium@pizzamaestro.pl")
                 .password(passwordEncoder.encode(getSecurePassword(premiumPassword, "Premium")))
                 .firstName("Anna")
@@ -174,11 +190,10 @@ public class DataInitializer implements CommandLineRunner {
                         .lastCalculationAt(LocalDateTime.now())
                         .monthResetAt(LocalDateTime.now())
                         .build())
-                .build();
-        userRepository.save(premiumUser);
+                .build()));
         
         // USER PRO
-        User proUser = User.builder()
+        seeds.add(new Seed<>(new Document("email", "pro@pizzamaestro.pl"), () -> User.builder()
                 .email("pro@pizzamaestro.pl")
                 .password(passwordEncoder.encode(getSecurePassword(proPassword, "Pro")))
                 .firstName("Marek")
@@ -208,11 +223,10 @@ public class DataInitializer implements CommandLineRunner {
                         .lastCalculationAt(LocalDateTime.now())
                         .monthResetAt(LocalDateTime.now())
                         .build())
-                .build();
-        userRepository.save(proUser);
+                .build()));
         
         // USER do testów (simple)
-        User user = User.builder()
+        seeds.add(new Seed<>(new Document("email", "user@pizzamaestro.pl"), () -> User.builder()
                 .email("user@pizzamaestro.pl")
                 .password(passwordEncoder.encode(getSecurePassword(userPassword, "User")))
                 .firstName("Piotr")
@@ -234,10 +248,13 @@ public class DataInitializer implements CommandLineRunner {
                         .totalPizzasBaked(0)
                         .monthResetAt(LocalDateTime.now())
                         .build())
-                .build();
-        userRepository.save(user);
+                .build()));
         
-        log.info("Utworzono 5 użytkowników testowych:");
+        int created = seedWriter.insertMissing("users", User.class, seeds);
+        if (created == 0) {
+            return;
+        }
+        log.info("Utworzono {} użytkowników testowych:", created);
         log.info("  - admin@pizzamaestro.pl (ADMIN, PRO)");
         log.info("  - test@pizzamaestro.pl (USER, FREE)");
         log.info("  - premium@pizzamaestro.pl (USER, PREMIUM)");
@@ -246,20 +263,27 @@ public class DataInitializer implements CommandLineRunner {
         log.info("  Hasła: patrz dokumentacja lub zmienne środowiskowe");
     }
     
+    /**
+     * Baza składników utrzymywana w kodzie - upsert po typie, nazwie i marce.
+     * Pola edytowane przez admina (IngredientService) zapisywane tylko przy wstawieniu.
+     */
     private void initializeIngredients() {
-        if (ingredientRepository.count() > 0) {
-            log.info("Składniki już istnieją, pomijam inicjalizację");
-            return;
-        }
-        
-        log.info("Tworzenie rozbudowanej bazy składników...");
-        
         List<Ingredient> flours = initializeFlours();
         List<Ingredient> waters = initializeWaters();
         List<Ingredient> yeasts = initializeYeasts();
         List<Ingredient> salts = initializeSalts();
         
-        log.info("Utworzono rozbudowaną bazę składników:");
+        List<Seed<Ingredient>> seeds = new ArrayList<>();
+        for (List<Ingredient> group : List.of(flours, waters, yeasts, salts)) {
+            group.forEach(ingredient -> seeds.add(Seed.of(new Document("type", ingredient.getType().name())
+                    .append("name", ingredient.getName())
+                    .append("brand", ingredient.getBrand()), ingredient)));
+        }
+        if (seedWriter.upsert("ingredients", Ingredient.class, seeds, ADMIN_OWNED_INGREDIENT_FIELDS) == 0) {
+            return;
+        }
+        
+        log.info("Zapisano rozbudowaną bazę składników:");
         log.info("  - {} mąk (włoskie, polskie, amerykańskie, europejskie)", flours.size());
         log.info("  - {} wód (z parametrami twardości i mineralizacji)", waters.size());
         log.info("  - {} drożdży (świeże, instant, zakwas)", yeasts.size());
@@ -267,7 +291,7 @@ public class DataInitializer implements CommandLineRunner {
     }
     
     /**
-     * Inicjalizuje mąki w bazie danych.
+     * Mąki w bazie danych.
      */
     private List<Ingredient> initializeFlours() {
         List<Ingredient> flours = Arrays.asList(
@@ -428,12 +452,11 @@ public class DataInitializer implements CommandLineRunner {
                         Ingredient.FlourType.TYPE_00, 11.5, 230.0, 55.0, 63.0, 0.55,
                         List.of(PizzaStyle.NEAPOLITAN, PizzaStyle.NEW_YORK))
         );
-        ingredientRepository.saveAll(flours);
         return flours;
     }
     
     /**
-     * Inicjalizuje wody w bazie danych.
+     * Wody w bazie danych.
      */
     private List<Ingredient> initializeWaters() {
         List<Ingredient> waters = Arrays.asList(
@@ -505,12 +528,11 @@ public class DataInitializer implements CommandLineRunner {
                         "Bardzo miękka z Catskills. Można naśladować mieszając RO z odrobiną minerałów.",
                         50.0, Ingredient.HardnessLevel.VERY_SOFT, 7.2, 65.0)
         );
-        ingredientRepository.saveAll(waters);
         return waters;
     }
     
     /**
-     * Inicjalizuje drożdże w bazie danych.
+     * Drożdże w bazie danych.
      */
     private List<Ingredient> initializeYeasts() {
         List<Ingredient> yeasts = Arrays.asList(
@@ -545,12 +567,11 @@ public class DataInitializer implements CommandLineRunner {
                         "Dodaj 10-15% do mąki pszennej.",
                         Ingredient.YeastVariety.SOURDOUGH, 0.0, 0, true)
         );
-        ingredientRepository.saveAll(yeasts);
         return yeasts;
     }
     
     /**
-     * Inicjalizuje sole w bazie danych.
+     * Sole w bazie danych.
      */
     private List<Ingredient> initializeSalts() {
         List<Ingredient> salts = Arrays.asList(
@@ -582,7 +603,6 @@ public class DataInitializer implements CommandLineRunner {
                         "Klasyczny wybór do włoskiej pizzy.",
                         Ingredient.SaltType.SEA_SALT, 38.5, false)
         );
-        ingredientRepository.saveAll(salts);
         return salts;
     }
     
@@ -674,6 +694,9 @@ public class DataInitializer implements CommandLineRunner {
                 .build();
     }
     
+    /**
+     * Przykładowe receptury - tylko do pustej kolekcji (usunięte przez użytkownika nie wracają).
+     */
     private void initializeRecipes() {
         if (recipeRepository.count() > 0) {
             log.info("Receptury już istnieją, pomijam inicjalizację");
@@ -690,8 +713,6 @@ public class DataInitializer implements CommandLineRunner {
             return;
         }
         
-        log.info("Tworzenie przykładowych receptur...");
-        
         // Receptura 1 - test user
         Recipe recipe1 = Recipe.builder()
                 .userId(testUser.getId())
@@ -736,8 +757,6 @@ public class DataInitializer implements CommandLineRunner {
                 .feedback("Cornicione puszysty, spód chrupiący. Idealna pizza!")
                 .tags(List.of("neapolitańska", "pierwsza", "udana"))
                 .build();
-        recipeRepository.save(recipe1);
-        
         // Receptura 2 - premium user
         Recipe recipe2 = Recipe.builder()
                 .userId(premiumUser.getId())
@@ -776,8 +795,6 @@ public class DataInitializer implements CommandLineRunner {
                 .rating(4)
                 .tags(List.of("rzymska", "poolish", "eksperyment"))
                 .build();
-        recipeRepository.save(recipe2);
-        
         // Receptura 3 - admin
         Recipe recipe3 = Recipe.builder()
                 .userId(admin.getId())
@@ -813,8 +830,14 @@ public class DataInitializer implements CommandLineRunner {
                 .rating(5)
                 .tags(List.of("focaccia", "impreza", "ulubiona"))
                 .build();
-        recipeRepository.save(recipe3);
         
-        log.info("Utworzono 3 przykładowe receptury");
+        List<Seed<Recipe>> seeds = Stream.of(recipe1, recipe2, recipe3)
+                .map(recipe -> Seed.of(new Document("userId", recipe.getUserId())
+                        .append("name", recipe.getName()), recipe))
+                .toList();
+        int created = seedWriter.insertMissing("recipes", Recipe.class, seeds);
+        if (created > 0) {
+            log.info("Utworzono {} przykładowe receptury", created);
+        }
     }
 }
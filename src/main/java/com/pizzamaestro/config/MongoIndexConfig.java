@@ -1,19 +1,22 @@
 package com.pizzamaestro.config;
 
+import com.pizzamaestro.config.ratelimit.MongoWindowCounter;
+import com.pizzamaestro.config.startup.StartupStage;
+import com.pizzamaestro.config.startup.StartupStageProvider;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.boot.context.event.ApplicationReadyEvent;
-import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.index.Index;
 import org.springframework.data.mongodb.core.index.IndexOperations;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * Konfiguracja indeksów MongoDB.
  * 
- * Tworzy indeksy automatycznie przy starcie aplikacji dla:
+ * Tworzy indeksy przy starcie aplikacji ({@link com.pizzamaestro.config.startup.StartupOrchestrator}) dla:
  * - Szybszego wyszukiwania użytkowników
  * - Wydajniejszych zapytań o receptury
  * - Optymalizacji zapytań o składniki
@@ -22,51 +25,24 @@ import org.springframework.stereotype.Component;
 @Component
 @RequiredArgsConstructor
 @Slf4j
-public class MongoIndexConfig {
+public class MongoIndexConfig implements StartupStageProvider {
     
     private final MongoTemplate mongoTemplate;
     
-    @EventListener(ApplicationReadyEvent.class)
-    public void initIndexes() {
-        log.info("📇 Inicjalizacja indeksów MongoDB...");
-        
-        try {
-            createUserIndexes();
-        } catch (Exception e) {
-            log.warn("⚠️ Problem z indeksami users: {}", e.getMessage());
-        }
-        
-        try {
-            createRecipeIndexes();
-        } catch (Exception e) {
-            log.warn("⚠️ Problem z indeksami recipes: {}", e.getMessage());
-        }
-        
-        try {
-            createIngredientIndexes();
-        } catch (Exception e) {
-            log.warn("⚠️ Problem z indeksami ingredients: {}", e.getMessage());
-        }
-        
-        try {
-            createTechniqueGuideIndexes();
-        } catch (Exception e) {
-            log.warn("⚠️ Problem z indeksami technique_guides: {}", e.getMessage());
-        }
-        
-        try {
-            createNotificationIndexes();
-        } catch (Exception e) {
-            log.warn("⚠️ Problem z indeksami notifications: {}", e.getMessage());
-        }
-        
-        try {
-            createActivePizzaIndexes();
-        } catch (Exception e) {
-            log.warn("⚠️ Problem z indeksami active_pizzas: {}", e.getMessage());
-        }
-        
-        log.info("✅ Inicjalizacja indeksów MongoDB zakończona");
+    /**
+     * Jeden etap na kolekcję - indeksy różnych kolekcji tworzone są równolegle.
+     * Błąd indeksu nie zatrzymuje startu (etapy opcjonalne).
+     */
+    @Override
+    public List<StartupStage> startupStages() {
+        return List.of(
+                StartupStage.optional("indexes-users", this::createUserIndexes),
+                StartupStage.optional("indexes-recipes", this::createRecipeIndexes),
+                StartupStage.optional("indexes-ingredients", this::createIngredientIndexes),
+                StartupStage.optional("indexes-technique-guides", this::createTechniqueGuideIndexes),
+                StartupStage.optional("indexes-notifications", this::createNotificationIndexes),
+                StartupStage.optional("indexes-active-pizzas", this::createActivePizzaIndexes),
+                StartupStage.optional("indexes-rate-limit-windows", this::createRateLimitIndexes));
     }
     
     /**
@@ -268,4 +244,16 @@ public class MongoIndexConfig {
         
         log.debug("  ✓ Indeksy active_pizzas przetworzone");
     }
+    
+    private void createRateLimitIndexes() {
+        IndexOperations indexOps = mongoTemplate.indexOps(MongoWindowCounter.COLLECTION);
+        
+        // TTL indeks - okno limitu znika zaraz po expireAt
+        safeEnsureIndex(indexOps, new Index()
+                .on("expireAt", Sort.Direction.ASC)
+                .expire(0)
+                .named("rate_limit_window_ttl_idx"), "rate_limit_window_ttl_idx");
+        
+        log.debug("  ✓ Indeksy rate_limit_windows przetworzone");
+    }
 }
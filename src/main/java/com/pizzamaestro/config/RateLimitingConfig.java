@@ -1,22 +1,25 @@
 package com.pizzamaestro.config;
 
+import com.pizzamaestro.config.ratelimit.BucketType;
+import com.pizzamaestro.config.ratelimit.ChunkedRateLimitStore;
+import com.pizzamaestro.config.ratelimit.MongoWindowCounter;
+import com.pizzamaestro.config.ratelimit.RateLimitClient;
+import com.pizzamaestro.config.ratelimit.RateLimitStore;
+import com.pizzamaestro.config.ratelimit.TokenBucketRateLimiter;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.time.Duration;
-import java.time.Instant;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Konfiguracja Rate Limiting dla API.
@@ -27,19 +30,42 @@ import java.util.concurrent.atomic.AtomicInteger;
  * - DDoS
  * 
  * Limity:
- * - Publiczne kalkulacje: 30 req/min
+ * - Publiczne kalkulacje: 30 req/min (batch: 1 żeton na każde rozpoczęte 10 pozycji)
  * - Login: 5 req/min
  * - Register: 3 req/min
  * - Ogólne API: 100 req/min
+ * 
+ * Limity działają jak token bucket ({@link TokenBucketRateLimiter}): pojemność równa
+ * limitowi, żetony wracają płynnie (limit na minutę), a nie skokowo co minutę.
+ * 
+ * Przy wielu replikach {@code pizzamaestro.rate-limit.store: mongo} włącza limity wspólne
+ * ({@link ChunkedRateLimitStore}) - stałe okna w MongoDB, rezerwowane paczkami żetonów.
  */
 @Configuration
 @Slf4j
 public class RateLimitingConfig {
     
+    @Bean(destroyMethod = "shutdown")
+    public RateLimitStore rateLimitStore(
+            @Value("${pizzamaestro.rate-limit.store:memory}") String store,
+            @Value("${pizzamaestro.rate-limit.window-seconds:60}") long windowSeconds,
+            @Value("${pizzamaestro.rate-limit.idle-expiry-interval-seconds:60}") long expiryIntervalSeconds,
+            @Value("${pizzamaestro.rate-limit.chunk-fraction:0.1}") double chunkFraction,
+            ObjectProvider<MongoTemplate> mongoTemplate) {
+        TokenBucketRateLimiter local = new TokenBucketRateLimiter(windowSeconds, expiryIntervalSeconds);
+        if (!"mongo".equalsIgnoreCase(store)) {
+            return local;
+        }
+        log.info("🚦 Limity żądań wspólne dla replik (MongoDB), paczka: {}% limitu", Math.round(chunkFraction * 100));
+        return new ChunkedRateLimitStore(new MongoWindowCounter(mongoTemplate.getObject()), local,
+                windowSeconds, chunkFraction, expiryIntervalSeconds);
+    }
+    
     @Bean
-    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter() {
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimitFilter filter) {
+        // Ta sama instancja co bean - kontrolery mogą pobierać dodatkowe żetony (batch)
         FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>();
-        registration.setFilter(new RateLimitFilter());
+        registration.setFilter(filter);
         registration.addUrlPatterns("/api/*");
         registration.setOrder(1);
         registration.setName("rateLimitFilter");
@@ -50,19 +76,11 @@ public class RateLimitingConfig {
     @Slf4j
     public static class RateLimitFilter implements Filter {
         
-        // Rate limit buckets: IP -> bucket
-        private final Map<String, RateLimitBucket> buckets = new ConcurrentHashMap<>();
+        private final RateLimitStore limiter;
         
-        // Config
-        private static final int GENERAL_LIMIT = 100; // req per minute
-        private static final int LOGIN_LIMIT = 5;
-        private static final int REGISTER_LIMIT = 3;
-        private static final int CALCULATION_LIMIT = 30;
-        private static final Duration WINDOW = Duration.ofMinutes(1);
-        
-        // Cleanup old buckets periodically
-        private Instant lastCleanup = Instant.now();
-        private static final Duration CLEANUP_INTERVAL = Duration.ofMinutes(5);
+        public RateLimitFilter(RateLimitStore limiter) {
+            this.limiter = limiter;
+        }
         
         @Override
         public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
@@ -71,65 +89,65 @@ public class RateLimitingConfig {
             HttpServletRequest httpRequest = (HttpServletRequest) request;
             HttpServletResponse httpResponse = (HttpServletResponse) response;
             
-            String ip = getClientIP(httpRequest);
             String path = httpRequest.getRequestURI();
-            
-            // Determine rate limit for this path
-            int limit = determineLimit(path);
-            String bucketKey = ip + ":" + getBucketType(path);
-            
-            // Get or create bucket
-            RateLimitBucket bucket = buckets.computeIfAbsent(bucketKey, 
-                    k -> new RateLimitBucket(limit));
+            BucketType type = BucketType.forPath(path);
+            RateLimitClient client = resolveClient(httpRequest);
             
             // Check rate limit
-            if (!bucket.tryConsume()) {
-                log.warn("🚫 Rate limit exceeded: IP={}, path={}, bucketKey={}", ip, path, bucketKey);
+            if (!client.tryConsume(type, 1)) {
+                log.warn("🚫 Rate limit exceeded: IP={}, path={}, bucket={}", getClientIP(httpRequest), path, type);
                 
                 httpResponse.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
                 httpResponse.setContentType("application/json");
                 httpResponse.getWriter().write(String.format(
                         "{\"error\":\"Rate limit exceeded\",\"message\":\"Zbyt wiele żądań. Poczekaj chwilę i spróbuj ponownie.\",\"retryAfter\":%d}",
-                        bucket.getSecondsUntilReset()
+                        toSecondsCeil(client.nanosUntilAvailable(type))
                 ));
                 return;
             }
             
             // Add rate limit headers
-            httpResponse.setHeader("X-RateLimit-Limit", String.valueOf(limit));
-            httpResponse.setHeader("X-RateLimit-Remaining", String.valueOf(bucket.getRemaining()));
-            httpResponse.setHeader("X-RateLimit-Reset", String.valueOf(bucket.getResetTime().getEpochSecond()));
-            
-            // Periodic cleanup
-            maybeCleanup();
+            httpResponse.setHeader("X-RateLimit-Limit", String.valueOf(type.getLimit()));
+            httpResponse.setHeader("X-RateLimit-Remaining", String.valueOf(client.getRemaining(type)));
+            httpResponse.setHeader("X-RateLimit-Reset", String.valueOf(
+                    (System.currentTimeMillis() + client.nanosUntilFull(type) / 1_000_000) / 1000));
             
             chain.doFilter(request, response);
         }
         
-        private int determineLimit(String path) {
-            if (path.contains("/auth/login")) {
-                return LOGIN_LIMIT;
-            }
-            if (path.contains("/auth/register")) {
-                return REGISTER_LIMIT;
+        /**
+         * Pobiera dodatkowe żetony z kubełka kalkulatora klienta.
+         * 
+         * Dla żądań, których koszt znany jest dopiero po odczytaniu body
+         * (kalkulacja wsadowa) - pierwszy żeton pobrał już sam filtr.
+         * 
+         * @return false gdy limit nie pozwala na dodatkowe żetony (nic nie zostaje pobrane)
+         */
+        public boolean tryConsumeCalculations(HttpServletRequest request, int permits) {
+            if (permits <= 0) {
+                return true;
             }
-            if (path.contains("/calculator/")) {
-                return CALCULATION_LIMIT;
+            boolean allowed = resolveClient(request).tryConsume(BucketType.CALCULATOR, permits);
+            if (!allowed) {
+                log.warn("🚫 Rate limit exceeded (batch): IP={}, permits={}", getClientIP(request), permits);
             }
-            return GENERAL_LIMIT;
+            return allowed;
         }
         
-        private String getBucketType(String path) {
-            if (path.contains("/auth/login")) {
-                return "login";
-            }
-            if (path.contains("/auth/register")) {
-                return "register";
+        /**
+         * Kubełki klienta - adres z nagłówków proxy jest parsowany w miejscu, bez split().
+         */
+        private RateLimitClient resolveClient(HttpServletRequest request) {
+            String xForwardedFor = request.getHeader("X-Forwarded-For");
+            if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
+                int comma = xForwardedFor.indexOf(',');
+                return limiter.client(xForwardedFor, 0, comma < 0 ? xForwardedFor.length() : comma);
             }
-            if (path.contains("/calculator/")) {
-                return "calculator";
+            String xRealIP = request.getHeader("X-Real-IP");
+            if (xRealIP != null && !xRealIP.isEmpty()) {
+                return limiter.client(xRealIP);
             }
-            return "general";
+            return limiter.client(request.getRemoteAddr());
         }
         
         private String getClientIP(HttpServletRequest request) {
@@ -144,63 +162,8 @@ public class RateLimitingConfig {
             return request.getRemoteAddr();
         }
         
-        private void maybeCleanup() {
-            if (Instant.now().isAfter(lastCleanup.plus(CLEANUP_INTERVAL))) {
-                synchronized (this) {
-                    if (Instant.now().isAfter(lastCleanup.plus(CLEANUP_INTERVAL))) {
-                        Instant cutoff = Instant.now().minus(WINDOW.multipliedBy(2));
-                        buckets.entrySet().removeIf(entry -> 
-                                entry.getValue().getResetTime().isBefore(cutoff));
-                        lastCleanup = Instant.now();
-                        log.debug("🧹 Cleaned up rate limit buckets, remaining: {}", buckets.size());
-                    }
-                }
-            }
-        }
-    }
-    
-    /**
-     * Simple sliding window rate limit bucket.
-     */
-    public static class RateLimitBucket {
-        private final int limit;
-        private final AtomicInteger count;
-        private volatile Instant windowStart;
-        
-        public RateLimitBucket(int limit) {
-            this.limit = limit;
-            this.count = new AtomicInteger(0);
-            this.windowStart = Instant.now();
-        }
-        
-        public synchronized boolean tryConsume() {
-            Instant now = Instant.now();
-            
-            // Reset window if expired
-            if (now.isAfter(windowStart.plus(Duration.ofMinutes(1)))) {
-                windowStart = now;
-                count.set(0);
-            }
-            
-            // Check and increment
-            if (count.get() < limit) {
-                count.incrementAndGet();
-                return true;
-            }
-            
-            return false;
-        }
-        
-        public int getRemaining() {
-            return Math.max(0, limit - count.get());
-        }
-        
-        public Instant getResetTime() {
-            return windowStart.plus(Duration.ofMinutes(1));
-        }
-        
-        public long getSecondsUntilReset() {
-            return Math.max(0, Duration.between(Instant.now(), getResetTime()).getSeconds());
+        private static long toSecondsCeil(long nanos) {
+            return (nanos + 999_999_999L) / 1_000_000_000L;
         }
     }
 }
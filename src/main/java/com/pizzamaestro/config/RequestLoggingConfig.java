@@ -1,15 +1,22 @@
 package com.pizzamaestro.config;
 
+import com.pizzamaestro.config.logging.CapturingResponseWrapper;
+import com.pizzamaestro.config.logging.RequestLogSampler;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.CommonsRequestLoggingFilter;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.util.ContentCachingRequestWrapper;
@@ -17,9 +24,11 @@ import org.springframework.web.util.ContentCachingResponseWrapper;
 
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Collections;
+import java.util.List;
 import java.util.stream.Collectors;
 
 /**
@@ -30,15 +39,22 @@ import java.util.stream.Collectors;
  * - Czas odpowiedzi
  * - Status odpowiedzi
  * - Błędy
+ * 
+ * Tryby ({@code pizzamaestro.request-logging.mode}):
+ * - detailed - kilka linii na request, body buforowane w całości (development)
+ * - compact - jedna linia klucz=wartość na request, odpowiedź przepuszczana bez
+ *   buforowania; body (ucięte do max-body-bytes) tylko dla próbkowanych requestów
+ *   i odpowiedzi z błędem. Stawki próbkowania per ścieżka w path-sample-rates.
  */
 @Configuration
 @Slf4j
 public class RequestLoggingConfig {
     
     /**
-     * Standardowy filtr logowania Spring.
+     * Standardowy filtr logowania Spring (tylko tryb detailed - buforuje payload).
      */
     @Bean
+    @ConditionalOnProperty(name = "pizzamaestro.request-logging.mode", havingValue = "detailed", matchIfMissing = true)
     public CommonsRequestLoggingFilter logFilter() {
         CommonsRequestLoggingFilter filter = new CommonsRequestLoggingFilter();
         filter.setIncludeQueryString(true);
@@ -60,12 +76,49 @@ public class RequestLoggingConfig {
     @Slf4j
     public static class DetailedLoggingFilter extends OncePerRequestFilter {
         
+        /**
+         * Endpointy odpowiadające strumieniowo (wzorce Ant) - ich body nie może być buforowane
+         * w ContentCachingResponseWrapper (zniknęłaby strumieniowość i rosłaby pamięć).
+         * Dla nich logowany jest tylko status, rozmiar i czas.
+         */
+        private static final List<String> STREAMING_PATHS = List.of(
+                "/api/calculator/public/batch",
+                "/api/recipes/*/pdf",
+                "/api/active-pizza/*/calendar.ics"
+        );
+        
+        private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+        
+        private final boolean compact;
+        private final RequestLogSampler sampler;
+        private final int maxBodyBytes;
+        
+        public DetailedLoggingFilter(
+                @Value("${pizzamaestro.request-logging.mode:detailed}") String mode,
+                @Value("${pizzamaestro.request-logging.sample-rate:0.01}") double sampleRate,
+                @Value("${pizzamaestro.request-logging.path-sample-rates:}") String pathSampleRates,
+                @Value("${pizzamaestro.request-logging.max-body-bytes:2048}") int maxBodyBytes) {
+            this.compact = "compact".equalsIgnoreCase(mode);
+            this.sampler = new RequestLogSampler(sampleRate, pathSampleRates);
+            this.maxBodyBytes = maxBodyBytes;
+        }
+        
         @Override
         protected void doFilterInternal(HttpServletRequest request, 
                                         HttpServletResponse response, 
                                         FilterChain filterChain) 
                 throws ServletException, IOException {
             
+            if (isStreaming(request.getRequestURI())) {
+                doFilterStreaming(request, response, filterChain);
+                return;
+            }
+            
+            if (compact) {
+                doFilterCompact(request, response, filterChain);
+                return;
+            }
+            
             // Opakuj request i response do cachowania zawartości
             ContentCachingRequestWrapper wrappedRequest = 
                     new ContentCachingRequestWrapper(request);
@@ -99,6 +152,149 @@ public class RequestLoggingConfig {
             }
         }
         
+        private static boolean isStreaming(String uri) {
+            for (String pattern : STREAMING_PATHS) {
+                if (PATH_MATCHER.match(pattern, uri)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        /**
+         * Odpowiedź strumieniowa: bez buforowania, tylko licznik bajtów.
+         * 
+         * StreamingResponseBody pisze po zakończeniu filtra (async) - wtedy log
+         * trafia z AsyncListenera, gdy odpowiedź jest kompletna.
+         */
+        private void doFilterStreaming(HttpServletRequest request,
+                                       HttpServletResponse response,
+                                       FilterChain filterChain)
+                throws ServletException, IOException {
+            long start = System.nanoTime();
+            CapturingResponseWrapper counted = new CapturingResponseWrapper(response, false, 0);
+            try {
+                filterChain.doFilter(request, counted);
+            } finally {
+                if (request.isAsyncStarted()) {
+                    request.getAsyncContext().addListener(new AsyncListener() {
+                        @Override
+                        public void onComplete(AsyncEvent event) {
+                            logStreaming(request, counted, start);
+                        }
+                        
+                        @Override
+                        public void onTimeout(AsyncEvent event) {
+                        }
+                        
+                        @Override
+                        public void onError(AsyncEvent event) {
+                        }
+                        
+                        @Override
+                        public void onStartAsync(AsyncEvent event) {
+                        }
+                    });
+                } else {
+                    counted.flushWriter();
+                    logStreaming(request, counted, start);
+                }
+            }
+        }
+        
+        private void logStreaming(HttpServletRequest request, CapturingResponseWrapper response, long start) {
+            log.info("📤 {} {} - odpowiedź strumieniowa, status: {}, rozmiar: {} B, czas: {} ms",
+                    request.getMethod(), request.getRequestURI(), response.getStatus(),
+                    response.getBytesWritten(), (System.nanoTime() - start) / 1_000_000);
+        }
+        
+        /**
+         * Tryb compact: bez buforowania odpowiedzi, jedna linia logu na request.
+         */
+        private void doFilterCompact(HttpServletRequest request,
+                                     HttpServletResponse response,
+                                     FilterChain filterChain)
+                throws ServletException, IOException {
+            long start = System.nanoTime();
+            boolean sampled = sampler.shouldSample(request.getRequestURI());
+            // Request buforowany tylko przy próbkowaniu, i to najwyżej do limitu
+            HttpServletRequest loggedRequest = sampled
+                    ? new ContentCachingRequestWrapper(request, maxBodyBytes)
+                    : request;
+            CapturingResponseWrapper loggedResponse = new CapturingResponseWrapper(response, sampled, maxBodyBytes);
+            
+            Exception failure = null;
+            try {
+                filterChain.doFilter(loggedRequest, loggedResponse);
+            } catch (ServletException | IOException | RuntimeException e) {
+                failure = e;
+                throw e;
+            } finally {
+                loggedResponse.flushWriter();
+                logCompact(loggedRequest, loggedResponse, sampled, System.nanoTime() - start, failure);
+            }
+        }
+        
+        private void logCompact(HttpServletRequest request, CapturingResponseWrapper response,
+                                boolean sampled, long durationNanos, Exception failure) {
+            int status = failure != null && response.getStatus() < 400 ? 500 : response.getStatus();
+            boolean serverError = status >= 500;
+            if (!(serverError ? log.isWarnEnabled() : log.isInfoEnabled())) {
+                return;
+            }
+            
+            StringBuilder line = new StringBuilder(160)
+                    .append("http method=").append(request.getMethod())
+                    .append(" path=").append(request.getRequestURI());
+            if (request.getQueryString() != null) {
+                appendQuoted(line, "query", request.getQueryString());
+            }
+            line.append(" status=").append(status)
+                    .append(" ms=").append(durationNanos / 1_000_000)
+                    .append(" bytes=").append(response.getBytesWritten())
+                    .append(" ip=").append(getClientIp(request));
+            if (sampled) {
+                line.append(" sampled=true");
+            }
+            if (failure != null) {
+                line.append(" error=").append(failure.getClass().getSimpleName());
+            }
+            if (request instanceof ContentCachingRequestWrapper cached && cached.getContentAsByteArray().length > 0) {
+                appendQuoted(line, "req_body", new String(cached.getContentAsByteArray(), StandardCharsets.UTF_8));
+            }
+            String responseBody = response.getCapturedBody();
+            if (responseBody != null) {
+                appendQuoted(line, "resp_body", response.isTruncated() ? responseBody + "..." : responseBody);
+            }
+            
+            if (failure != null) {
+                log.error(line.toString(), failure);
+            } else if (serverError) {
+                log.warn(line.toString());
+            } else {
+                log.info(line.toString());
+            }
+        }
+        
+        /**
+         * Dopisuje {@code key="value"} z ucieczką cudzysłowów i znaków nowej linii.
+         */
+        private static void appendQuoted(StringBuilder line, String key, String value) {
+            line.append(' ').append(key).append("=\"");
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"' -> line.append("\\\"");
+                    case '\\' -> line.append("\\\\");
+                    case '\n' -> line.append("\\n");
+                    case '\r' -> line.append("\\r");
+                    case '\t' -> line.append("\\t");
+                    default -> line.append(c);
+                }
+            }
+            line.append('"');
+        }
+        
         private void logRequest(ContentCachingRequestWrapper request, String requestId) {
             String method = request.getMethod();
             String uri = request.getRequestURI();
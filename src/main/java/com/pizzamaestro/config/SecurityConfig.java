@@ -2,6 +2,7 @@ package com.pizzamaestro.config;
 
 import com.pizzamaestro.security.JwtAuthenticationFilter;
 import jakarta.annotation.PostConstruct;
+import jakarta.servlet.DispatcherType;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -70,6 +71,10 @@ public class SecurityConfig {
                 .sessionManagement(session -> 
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Dokończenie odpowiedzi strumieniowych (eksport PDF/iCal) - autoryzacja
+                        // była przy pierwszym dispatchu, filtr JWT nie działa przy ASYNC
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        
                         // Publiczne endpointy
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/calculator/**").permitAll()
@@ -2,64 +2,70 @@ package com.pizzamaestro.config;
 
 import com.pizzamaestro.model.PizzaStyle;
 import com.pizzamaestro.model.TechniqueGuide;
-import com.pizzamaestro.repository.TechniqueGuideRepository;
+import com.pizzamaestro.config.startup.Seed;
+import com.pizzamaestro.config.startup.SeedWriter;
+import com.pizzamaestro.config.startup.StartupStage;
+import com.pizzamaestro.config.startup.StartupStageProvider;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.boot.CommandLineRunner;
-import org.springframework.core.annotation.Order;
+import org.bson.Document;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 
 /**
  * Inicjalizator bazy wiedzy - przewodniki po technikach pizzy.
+ * Przewodniki są utrzymywane w kodzie - zmiana treści trafia do bazy przy starcie (upsert po slug).
  */
 @Component
-@Order(2)
 @RequiredArgsConstructor
 @Slf4j
-public class TechniqueDataInitializer implements CommandLineRunner {
+public class TechniqueDataInitializer implements StartupStageProvider {
     
-    private final TechniqueGuideRepository repository;
+    private final SeedWriter seedWriter;
     
     @Override
-    public void run(String... args) {
-        if (repository.count() > 0) {
-            log.info("📚 Przewodniki już istnieją w bazie");
-            return;
-        }
-        
-        log.info("📚 Inicjalizacja bazy wiedzy - przewodniki po technikach");
-        
-        // Prefermenty
-        createPoolishGuide();
-        createBigaGuide();
-        createSourdoughGuide();
-        
-        // Techniki składania
-        createStretchAndFoldGuide();
-        createCoilFoldGuide();
-        createSlapAndFoldGuide();
-        
-        // Kulkowanie
-        createBallShapingGuide();
-        createPreshapeGuide();
-        
-        // Rozciąganie
-        createHandStretchingGuide();
-        
-        // Fermentacja
-        createColdFermentationGuide();
+    public List<StartupStage> startupStages() {
+        return List.of(StartupStage.required("seed-technique-guides", this::initializeGuides));
+    }
+    
+    private void initializeGuides() {
+        List<TechniqueGuide> guides = List.of(
+                // Prefermenty
+                createPoolishGuide(),
+                createBigaGuide(),
+                createSourdoughGuide(),
+                
+                // Techniki składania
+                createStretchAndFoldGuide(),
+                createCoilFoldGuide(),
+                createSlapAndFoldGuide(),
+                
+                // Kulkowanie
+                createBallShapingGuide(),
+                createPreshapeGuide(),
+                
+                // Rozciąganie
+                createHandStretchingGuide(),
+                
+                // Fermentacja
+                createColdFermentationGuide()
+        );
         
-        log.info("✅ Zainicjalizowano {} przewodników", repository.count());
+        int written = seedWriter.upsert("technique_guides", TechniqueGuide.class, guides.stream()
+                .map(guide -> Seed.of(new Document("slug", guide.getSlug()), guide))
+                .toList());
+        if (written > 0) {
+            log.info("📚 Zapisano {} przewodników po technikach", written);
+        }
     }
     
     // ========================================
     // PREFERMENTY
     // ========================================
     
-    private void createPoolishGuide() {
-        repository.save(TechniqueGuide.builder()
+    private TechniqueGuide createPoolishGuide() {
+        return TechniqueGuide.builder()
                 .category(TechniqueGuide.TechniqueCategory.PREFERMENT)
                 .slug("poolish")
                 .title("Poolish - polski prefrement")
@@ -181,13 +187,11 @@ public class TechniqueDataInitializer implements CommandLineRunner {
                 .recommendedForStyles(List.of(PizzaStyle.NEAPOLITAN, PizzaStyle.NEW_YORK, PizzaStyle.FOCACCIA))
                 .premium(false)
                 .active(true)
-                .build());
-        
-        log.info("  ✓ Utworzono przewodnik: Poolish");
+                .build();
     }
     
-    private void createBigaGuide() {
-        repository.save(TechniqueGuide.builder()
+    private TechniqueGuide createBigaGuide() {
+        return TechniqueGuide.builder()
                 .category(TechniqueGuide.TechniqueCategory.PREFERMENT)
                 .slug("biga")
                 .title("Biga - włoski preferment")
@@ -289,13 +293,11 @@ public class TechniqueDataInitializer implements CommandLineRunner {
                 .recommendedForStyles(List.of(PizzaStyle.NEAPOLITAN, PizzaStyle.FOCACCIA))
                 .premium(false)
                 .active(true)
-                .build());
-        
-        log.info("  ✓ Utworzono przewodnik: Biga");
+                .build();
     }
     
-    private void createSourdoughGuide() {
-        repository.save(TechniqueGuide.builder()
+    private TechniqueGuide createSourdoughGuide() {
+        return TechniqueGuide.builder()
                 .category(TechniqueGuide.TechniqueCategory.PREFERMENT)
                 .slug("sourdough-starter")
                 .title("Zakwas - lievito madre")
@@ -351,17 +353,15 @@ public class TechniqueDataInitializer implements CommandLineRunner {
                 .recommendedForStyles(List.of(PizzaStyle.NEAPOLITAN, PizzaStyle.ROMAN, PizzaStyle.FOCACCIA))
                 .premium(true)
                 .active(true)
-                .build());
-        
-        log.info("  ✓ Utworzono przewodnik: Zakwas");
+                .build();
     }
     
     // ========================================
     // TECHNIKI SKŁADANIA
     // ========================================
     
-    private void createStretchAndFoldGuide() {
-        repository.save(TechniqueGuide.builder()
+    private TechniqueGuide createStretchAndFoldGuide() {
+        return TechniqueGuide.builder()
                 .category(TechniqueGuide.TechniqueCategory.FOLDING)
                 .slug("stretch-and-fold")
                 .title("Stretch and Fold")
@@ -437,13 +437,11 @@ public class TechniqueDataInitializer implements CommandLineRunner {
                 .recommendedForStyles(List.of(PizzaStyle.NEAPOLITAN, PizzaStyle.ROMAN, PizzaStyle.FOCACCIA))
                 .premium(false)
                 .active(true)
-                .build());
-        
-        log.info("  ✓ Utworzono przewodnik: Stretch and Fold");
+                .build();
     }
     
-    private void createCoilFoldGuide() {
-        repository.save(TechniqueGuide.builder()
+    private TechniqueGuide createCoilFoldGuide() {
+        return TechniqueGuide.builder()
                 .category(TechniqueGuide.TechniqueCategory.FOLDING)
                 .slug("coil-fold")
                 .title("Coil Fold")
@@ -513,13 +511,11 @@ public class TechniqueDataInitializer implements CommandLineRunner {
                 .recommendedForStyles(List.of(PizzaStyle.ROMAN, PizzaStyle.FOCACCIA))
                 .premium(false)
                 .active(true)
-                .build());
-        
-        log.info("  ✓ Utworzono przewodnik: Coil Fold");
+                .build();
     }
     
-    private void createSlapAndFoldGuide() {
-        repository.save(TechniqueGuide.builder()
+    private TechniqueGuide createSlapAndFoldGuide() {
+        return TechniqueGuide.builder()
                 .category(TechniqueGuide.TechniqueCategory.FOLDING)
                 .slug("slap-and-fold")
                 .title("Slap and Fold (French Fold)")
@@ -595,17 +591,15 @@ public class TechniqueDataInitializer implements CommandLineRunner {
                 .recommendedForStyles(List.of(PizzaStyle.NEAPOLITAN, PizzaStyle.NEW_YORK))
                 .premium(false)
                 .active(true)
-                .build());
-        
-        log.info("  ✓ Utworzono przewodnik: Slap and Fold");
+                .build();
     }
     
     // ========================================
     // KULKOWANIE
     // ========================================
     
-    private void createBallShapingGuide() {
-        repository.save(TechniqueGuide.builder()
+    private TechniqueGuide createBallShapingGuide() {
+        return TechniqueGuide.builder()
                 .category(TechniqueGuide.TechniqueCategory.SHAPING)
                 .slug("ball-shaping")
                 .title("Kulkowanie - technika włoska")
@@ -690,13 +684,11 @@ public class TechniqueDataInitializer implements CommandLineRunner {
                 .recommendedForStyles(List.of(PizzaStyle.NEAPOLITAN, PizzaStyle.NEW_YORK))
                 .premium(false)
                 .active(true)
-                .build());
-        
-        log.info("  ✓ Utworzono przewodnik: Kulkowanie");
+                .build();
     }
     
-    private void createPreshapeGuide() {
-        repository.save(TechniqueGuide.builder()
+    private TechniqueGuide createPreshapeGuide() {
+        return TechniqueGuide.builder()
                 .category(TechniqueGuide.TechniqueCategory.SHAPING)
                 .slug("preshape")
                 .title("Pre-shape (wstępne formowanie)")
@@ -749,17 +741,15 @@ public class TechniqueDataInitializer implements CommandLineRunner {
                 .recommendedForStyles(List.of(PizzaStyle.NEAPOLITAN, PizzaStyle.NEW_YORK, PizzaStyle.ROMAN))
                 .premium(false)
                 .active(true)
-                .build());
-        
-        log.info("  ✓ Utworzono przewodnik: Pre-shape");
+                .build();
     }
     
     // ========================================
     // ROZCIĄGANIE
     // ========================================
     
-    private void createHandStretchingGuide() {
-        repository.save(TechniqueGuide.builder()
+    private TechniqueGuide createHandStretchingGuide() {
+        return TechniqueGuide.builder()
                 .category(TechniqueGuide.TechniqueCategory.STRETCHING)
                 .slug("hand-stretching")
                 .title("Rozciąganie ręczne")
@@ -854,17 +844,15 @@ public class TechniqueDataInitializer implements CommandLineRunner {
                 .recommendedForStyles(List.of(PizzaStyle.NEAPOLITAN, PizzaStyle.NEW_YORK))
                 .premium(false)
                 .active(true)
-                .build());
-        
-        log.info("  ✓ Utworzono przewodnik: Rozciąganie ręczne");
+                .build();
     }
     
     // ========================================
     // FERMENTACJA
     // ========================================
     
-    private void createColdFermentationGuide() {
-        repository.save(TechniqueGuide.builder()
+    private TechniqueGuide createColdFermentationGuide() {
+        return TechniqueGuide.builder()
                 .category(TechniqueGuide.TechniqueCategory.FERMENTATION)
                 .slug("cold-fermentation")
                 .title("Fermentacja zimna (retardacja)")
@@ -957,8 +945,6 @@ public class TechniqueDataInitializer implements CommandLineRunner {
                 .recommendedForStyles(List.of(PizzaStyle.NEAPOLITAN, PizzaStyle.NEW_YORK, PizzaStyle.ROMAN))
                 .premium(false)
                 .active(true)
-                .build());
-        
-        log.info("  ✓ Utworzono przewodnik: Fermentacja zimna");
+                .build();
     }
 }
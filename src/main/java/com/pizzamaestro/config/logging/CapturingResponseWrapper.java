@@ -0,0 +1,165 @@
+package com.pizzamaestro.config.logging;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Odpowiedź przepuszczana wprost do klienta (bez buforowania całego body).
+ *
+ * - liczy wysłane bajty
+ * - kopiuje najwyżej {@code maxCaptureBytes} początkowych bajtów, gdy żądanie jest
+ *   próbkowane albo status w chwili zapisu to błąd (4xx/5xx)
+ *
+ * W przeciwieństwie do ContentCachingResponseWrapper nie trzyma odpowiedzi w pamięci
+ * i nie wymaga copyBodyToResponse().
+ */
+public class CapturingResponseWrapper extends HttpServletResponseWrapper {
+
+    private final boolean sampled;
+    private final int maxCaptureBytes;
+    private ByteArrayOutputStream captured;
+    private long bytesWritten;
+    private CountingOutputStream outputStream;
+    private PrintWriter writer;
+
+    public CapturingResponseWrapper(HttpServletResponse response, boolean sampled, int maxCaptureBytes) {
+        super(response);
+        this.sampled = sampled;
+        this.maxCaptureBytes = maxCaptureBytes;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() zostało już wywołane");
+        }
+        if (outputStream == null) {
+            outputStream = new CountingOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (outputStream != null) {
+                throw new IllegalStateException("getOutputStream() zostało już wywołane");
+            }
+            outputStream = new CountingOutputStream(super.getOutputStream());
+            writer = new PrintWriter(new OutputStreamWriter(outputStream, charset()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        flushWriter();
+        super.flushBuffer();
+    }
+
+    /**
+     * Opróżnia writer aplikacji - wołane przez filtr po obsłużeniu żądania.
+     */
+    public void flushWriter() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Przechwycony początek body albo null, gdy nie był przechwytywany.
+     */
+    public String getCapturedBody() {
+        flushWriter();
+        if (captured == null || captured.size() == 0) {
+            return null;
+        }
+        return captured.toString(charset());
+    }
+
+    public boolean isTruncated() {
+        return captured != null && bytesWritten > captured.size();
+    }
+
+    private Charset charset() {
+        String encoding = getCharacterEncoding();
+        return encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+    }
+
+    private void capture(byte[] bytes, int offset, int length) {
+        if (captured == null) {
+            // Decyzja przy pierwszym zapisie - status jest już wtedy ustawiony
+            if (!sampled && getStatus() < 400) {
+                return;
+            }
+            captured = new ByteArrayOutputStream(Math.min(maxCaptureBytes, 256));
+        }
+        int room = maxCaptureBytes - captured.size();
+        if (room > 0) {
+            captured.write(bytes, offset, Math.min(room, length));
+        }
+    }
+
+    private final class CountingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private boolean skipCapture;
+
+        CountingOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            bytesWritten++;
+            if (!skipCapture) {
+                capture(new byte[]{(byte) b}, 0, 1);
+                skipCapture = captured == null;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            bytesWritten += len;
+            if (!skipCapture && len > 0) {
+                capture(b, off, len);
+                skipCapture = captured == null;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            delegate.setWriteListener(listener);
+        }
+    }
+}
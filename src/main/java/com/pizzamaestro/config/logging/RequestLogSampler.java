@@ -0,0 +1,77 @@
+package com.pizzamaestro.config.logging;
+
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decyduje, dla których żądań logować body.
+ *
+ * Reguły w formacie {@code "/api/auth/**=1.0,/api/calculator/**=0.05"} - wygrywa pierwszy
+ * pasujący wzorzec (AntPathMatcher), pozostałe ścieżki dostają stawkę domyślną.
+ */
+public class RequestLogSampler {
+
+    private record Rule(String pattern, double rate) {
+    }
+
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final double defaultRate;
+    private final List<Rule> rules;
+
+    public RequestLogSampler(double defaultRate, String pathRates) {
+        this.defaultRate = validateRate(defaultRate);
+        this.rules = parse(pathRates);
+    }
+
+    /**
+     * Część żądań na ścieżce, dla których logowane jest body (0..1).
+     */
+    public double rateFor(String path) {
+        for (Rule rule : rules) {
+            if (matcher.match(rule.pattern(), path)) {
+                return rule.rate();
+            }
+        }
+        return defaultRate;
+    }
+
+    public boolean shouldSample(String path) {
+        double rate = rateFor(path);
+        return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private static List<Rule> parse(String pathRates) {
+        List<Rule> parsed = new ArrayList<>();
+        if (pathRates == null || pathRates.isBlank()) {
+            return parsed;
+        }
+        for (String entry : pathRates.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int eq = entry.lastIndexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Nieprawidłowa reguła próbkowania: " + entry.trim());
+            }
+            String pattern = entry.substring(0, eq).trim();
+            double rate;
+            try {
+                rate = Double.parseDouble(entry.substring(eq + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Nieprawidłowa stawka próbkowania: " + entry.trim());
+            }
+            parsed.add(new Rule(pattern, validateRate(rate)));
+        }
+        return List.copyOf(parsed);
+    }
+
+    private static double validateRate(double rate) {
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException("Stawka próbkowania musi być z zakresu 0..1, podano: " + rate);
+        }
+        return rate;
+    }
+}
@@ -0,0 +1,50 @@
+package com.pizzamaestro.config.ratelimit;
+
+/**
+ * Typ kubełka limitu - jedna stała na rodzaj ścieżki zamiast klucza budowanego
+ * z napisów przy każdym żądaniu.
+ */
+public enum BucketType {
+
+    LOGIN(5),
+    REGISTER(3),
+    CALCULATOR(30),
+    GENERAL(100);
+
+    private static final BucketType[] VALUES = values();
+
+    /** Żądania na okno (domyślnie minutę) */
+    private final int limit;
+
+    BucketType(int limit) {
+        this.limit = limit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    static int count() {
+        return VALUES.length;
+    }
+
+    static BucketType of(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Klasyfikuje ścieżkę żądania.
+     */
+    public static BucketType forPath(String path) {
+        if (path.contains("/auth/login")) {
+            return LOGIN;
+        }
+        if (path.contains("/auth/register")) {
+            return REGISTER;
+        }
+        if (path.contains("/calculator/")) {
+            return CALCULATOR;
+        }
+        return GENERAL;
+    }
+}
@@ -0,0 +1,263 @@
+package com.pizzamaestro.config.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Limity wspólne dla wszystkich replik - stałe okna liczone we współdzielonym
+ * {@link WindowCounter}, z lokalną rezerwacją paczek żetonów.
+ *
+ * - instancja nie pyta bazy o każde żądanie: rezerwuje paczkę (np. 10% limitu) jednym
+ *   {@code $inc} i wydaje z niej żetony lokalnie, bez blokad
+ * - ostatnia paczka w oknie jest przycinana do tego, co zostało z limitu - suma
+ *   przyjętych żądań wszystkich replik nigdy nie przekracza limitu
+ * - niewykorzystana reszta paczki przepada z końcem okna (najwyżej jedna paczka
+ *   na replikę i klienta - limit może być lekko zaniżony, nigdy zawyżony)
+ * - przy awarii bazy limity liczy lokalny {@link RateLimitStore} (fail-open na limit per replika)
+ */
+@Slf4j
+public class ChunkedRateLimitStore implements RateLimitStore {
+
+    private static final long FALLBACK_WARN_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final WindowCounter counter;
+    private final RateLimitStore fallback;
+    private final long windowMillis;
+    private final int[] chunkSizes;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, Client> clients = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService expiry;
+    private volatile long lastFallbackWarn;
+
+    /**
+     * @param chunkFraction część limitu rezerwowana jednym zapytaniem (0 - po jednym żetonie)
+     */
+    public ChunkedRateLimitStore(WindowCounter counter, RateLimitStore fallback, long windowSeconds,
+                                 double chunkFraction, long expiryIntervalSeconds) {
+        this(counter, fallback, windowSeconds, chunkFraction, expiryIntervalSeconds, System::currentTimeMillis);
+    }
+
+    ChunkedRateLimitStore(WindowCounter counter, RateLimitStore fallback, long windowSeconds,
+                          double chunkFraction, long expiryIntervalSeconds, LongSupplier clock) {
+        if (chunkFraction < 0 || chunkFraction > 1) {
+            throw new IllegalArgumentException("Część limitu w paczce musi być z zakresu 0..1");
+        }
+        this.counter = counter;
+        this.fallback = fallback;
+        this.windowMillis = Duration.ofSeconds(windowSeconds).toMillis();
+        this.clock = clock;
+        this.chunkSizes = new int[BucketType.count()];
+        for (int i = 0; i < chunkSizes.length; i++) {
+            chunkSizes[i] = Math.max(1, (int) (BucketType.of(i).getLimit() * chunkFraction));
+        }
+
+        if (expiryIntervalSeconds > 0) {
+            expiry = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("rate-limit-window-expiry").daemon(true).factory());
+            expiry.scheduleWithFixedDelay(this::expireIdle, expiryIntervalSeconds, expiryIntervalSeconds, TimeUnit.SECONDS);
+        } else {
+            expiry = null;
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        if (expiry != null) {
+            expiry.shutdownNow();
+        }
+        fallback.shutdown();
+    }
+
+    @Override
+    public RateLimitClient client(CharSequence text, int from, int to) {
+        String key = text.subSequence(from, to).toString().trim();
+        return clients.computeIfAbsent(key, Client::new);
+    }
+
+    /**
+     * Usuwa klientów bez paczek w bieżącym oknie.
+     *
+     * @return liczba usuniętych klientów
+     */
+    public int expireIdle() {
+        long window = clock.getAsLong() / windowMillis;
+        int before = clients.size();
+        clients.values().removeIf(client -> client.isIdle(window));
+        int removed = before - clients.size();
+        if (removed > 0) {
+            log.debug("🧹 Usunięto {} nieaktywnych klientów limitu, pozostało: {}", removed, clients.size());
+        }
+        return removed;
+    }
+
+    /**
+     * Liczba śledzonych klientów.
+     */
+    public int size() {
+        return clients.size();
+    }
+
+    private void warnFallback(DataAccessException e) {
+        long now = clock.getAsLong();
+        if (now - lastFallbackWarn >= FALLBACK_WARN_INTERVAL_MILLIS) {
+            lastFallbackWarn = now;
+            log.warn("⚠️ Wspólny licznik limitów niedostępny, limity liczone lokalnie: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Żetony zarezerwowane w jednym oknie dla jednego typu.
+     */
+    private static final class Lease {
+
+        final long window;
+        final AtomicInteger tokens = new AtomicInteger();
+        /** Licznik okna po ostatniej rezerwacji (przycięty do limitu) */
+        volatile long reserved;
+        /** Limit okna wyczerpany - nie ma sensu pytać bazy ponownie */
+        volatile boolean exhausted;
+
+        Lease(long window) {
+            this.window = window;
+        }
+
+        boolean take(int permits) {
+            while (true) {
+                int available = tokens.get();
+                if (available < permits) {
+                    return false;
+                }
+                if (tokens.compareAndSet(available, available - permits)) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    private final class Client implements RateLimitClient {
+
+        private final String key;
+        private final AtomicReferenceArray<Lease> leases = new AtomicReferenceArray<>(BucketType.count());
+
+        Client(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public boolean tryConsume(BucketType type, int permits) {
+            long window = clock.getAsLong() / windowMillis;
+            Lease lease = lease(type, window);
+            if (lease.take(permits)) {
+                return true;
+            }
+            if (lease.exhausted || permits > type.getLimit()) {
+                return false;
+            }
+            // Jedna rezerwacja na raz - pozostałe wątki czekają na jej wynik
+            synchronized (lease) {
+                if (lease.take(permits)) {
+                    return true;
+                }
+                if (lease.exhausted) {
+                    return false;
+                }
+                return reserve(type, lease, permits);
+            }
+        }
+
+        private boolean reserve(BucketType type, Lease lease, int permits) {
+            int limit = type.getLimit();
+            int chunk = Math.max(permits - lease.tokens.get(), chunkSizes[type.ordinal()]);
+            long count;
+            try {
+                String windowId = key + "|" + type.name() + "|" + lease.window;
+                // Dokument żyje jeszcze jedno okno - zapas na rozjechane zegary replik
+                count = counter.increment(windowId, chunk, Instant.ofEpochMilli((lease.window + 2) * windowMillis));
+            } catch (DataAccessException e) {
+                warnFallback(e);
+                return fallback.client(key).tryConsume(type, permits);
+            }
+            // Przed tą rezerwacją licznik wynosił count - chunk
+            int granted = (int) Math.max(0, Math.min(chunk, limit - (count - chunk)));
+            lease.reserved = Math.min(count, limit);
+            if (granted < chunk) {
+                lease.exhausted = true;
+            }
+            lease.tokens.addAndGet(granted);
+            return lease.take(permits);
+        }
+
+        private Lease lease(BucketType type, long window) {
+            int i = type.ordinal();
+            while (true) {
+                Lease current = leases.get(i);
+                if (current != null && current.window == window) {
+                    return current;
+                }
+                Lease fresh = new Lease(window);
+                if (leases.compareAndSet(i, current, fresh)) {
+                    return fresh;
+                }
+            }
+        }
+
+        /**
+         * Bieżąca paczka lub null, gdy klient nic nie pobrał w tym oknie.
+         */
+        private Lease currentLease(BucketType type) {
+            Lease lease = leases.get(type.ordinal());
+            return lease != null && lease.window == clock.getAsLong() / windowMillis ? lease : null;
+        }
+
+        @Override
+        public int getRemaining(BucketType type) {
+            Lease lease = currentLease(type);
+            if (lease == null) {
+                return type.getLimit();
+            }
+            // Szacunek: lokalne żetony + to, czego inne repliki jeszcze nie zarezerwowały
+            long unreserved = lease.exhausted ? 0 : type.getLimit() - lease.reserved;
+            return (int) Math.min(type.getLimit(), lease.tokens.get() + unreserved);
+        }
+
+        @Override
+        public long nanosUntilAvailable(BucketType type) {
+            Lease lease = currentLease(type);
+            if (lease == null || !lease.exhausted || lease.tokens.get() > 0) {
+                return 0;
+            }
+            return nanosUntilWindowEnd(lease);
+        }
+
+        @Override
+        public long nanosUntilFull(BucketType type) {
+            Lease lease = currentLease(type);
+            return lease == null ? 0 : nanosUntilWindowEnd(lease);
+        }
+
+        private long nanosUntilWindowEnd(Lease lease) {
+            long millis = (lease.window + 1) * windowMillis - clock.getAsLong();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+        }
+
+        boolean isIdle(long window) {
+            for (int i = 0; i < leases.length(); i++) {
+                Lease lease = leases.get(i);
+                if (lease != null && lease.window >= window) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
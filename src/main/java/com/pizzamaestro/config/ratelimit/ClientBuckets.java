@@ -0,0 +1,99 @@
+package com.pizzamaestro.config.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Kubełki jednego klienta - po jednym na {@link BucketType}.
+ *
+ * Token bucket w wariancie GCRA: stan kubełka to jedna liczba - teoretyczny czas
+ * (System.nanoTime), w którym kubełek będzie znów pełny. Pobranie żetonów to
+ * przesunięcie tego czasu o {@code permits × interwał} jednym CAS-em; odmowa nie
+ * zapisuje niczego. Pojemność = limit typu, uzupełnianie płynne (limit na okno).
+ */
+public final class ClientBuckets implements RateLimitClient {
+
+    /** Czas pełnego kubełka (nanoTime) per typ */
+    private final AtomicLongArray fullAt;
+    private final long windowNanos;
+    private final long[] intervalNanos;
+
+    ClientBuckets(long windowNanos, long[] intervalNanos, long now) {
+        this.windowNanos = windowNanos;
+        this.intervalNanos = intervalNanos;
+        this.fullAt = new AtomicLongArray(intervalNanos.length);
+        for (int i = 0; i < intervalNanos.length; i++) {
+            fullAt.set(i, now);
+        }
+    }
+
+    /**
+     * Pobiera {@code permits} żetonów naraz - wszystkie albo żaden.
+     */
+    @Override
+    public boolean tryConsume(BucketType type, int permits) {
+        return tryConsume(type, permits, System.nanoTime());
+    }
+
+    boolean tryConsume(BucketType type, int permits, long now) {
+        int i = type.ordinal();
+        long increment = intervalNanos[i] * permits;
+        while (true) {
+            long current = fullAt.get(i);
+            long next = Math.max(current, now) + increment;
+            if (next - now > windowNanos) {
+                return false;
+            }
+            if (fullAt.compareAndSet(i, current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Liczba żetonów dostępnych teraz.
+     */
+    @Override
+    public int getRemaining(BucketType type) {
+        return getRemaining(type, System.nanoTime());
+    }
+
+    int getRemaining(BucketType type, long now) {
+        int i = type.ordinal();
+        long debt = Math.max(fullAt.get(i), now) - now;
+        return (int) Math.max(0, (windowNanos - debt) / intervalNanos[i]);
+    }
+
+    /**
+     * Nanosekundy do ponownego zapełnienia kubełka.
+     */
+    @Override
+    public long nanosUntilFull(BucketType type) {
+        long now = System.nanoTime();
+        return Math.max(fullAt.get(type.ordinal()), now) - now;
+    }
+
+    /**
+     * Nanosekundy do chwili, gdy dostępny będzie choć jeden żeton.
+     */
+    @Override
+    public long nanosUntilAvailable(BucketType type) {
+        return nanosUntilAvailable(type, System.nanoTime());
+    }
+
+    long nanosUntilAvailable(BucketType type, long now) {
+        int i = type.ordinal();
+        return Math.max(0, Math.max(fullAt.get(i), now) + intervalNanos[i] - windowNanos - now);
+    }
+
+    /**
+     * Wszystkie kubełki pełne - klienta można zapomnieć bez utraty stanu.
+     */
+    boolean isIdle(long now) {
+        for (int i = 0; i < fullAt.length(); i++) {
+            if (fullAt.get(i) - now > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,51 @@
+package com.pizzamaestro.config.ratelimit;
+
+/**
+ * Parsowanie adresów IPv4 do liczby bez tworzenia obiektów.
+ */
+final class Ipv4Addresses {
+
+    static final long NOT_IPV4 = -1;
+
+    private Ipv4Addresses() {
+    }
+
+    /**
+     * Parsuje fragment {@code [from, to)} (z pominięciem spacji na brzegach) jako IPv4.
+     *
+     * @return adres jako liczba 0..2^32-1 albo {@link #NOT_IPV4}
+     */
+    static long parse(CharSequence text, int from, int to) {
+        while (from < to && text.charAt(from) == ' ') {
+            from++;
+        }
+        while (to > from && text.charAt(to - 1) == ' ') {
+            to--;
+        }
+
+        long address = 0;
+        int octets = 0;
+        int octet = 0;
+        int digits = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = octet * 10 + (c - '0');
+                if (++digits > 3 || octet > 255) {
+                    return NOT_IPV4;
+                }
+            } else if (c == '.' && digits > 0 && octets < 3) {
+                address = (address << 8) | octet;
+                octets++;
+                octet = 0;
+                digits = 0;
+            } else {
+                return NOT_IPV4;
+            }
+        }
+        if (octets != 3 || digits == 0) {
+            return NOT_IPV4;
+        }
+        return (address << 8) | octet;
+    }
+}
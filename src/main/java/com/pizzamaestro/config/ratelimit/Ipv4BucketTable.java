@@ -0,0 +1,174 @@
+package com.pizzamaestro.config.ratelimit;
+
+/**
+ * Mapa adres IPv4 (long) → {@link ClientBuckets} bez pakowania kluczy.
+ *
+ * Podzielona na segmenty z otwartym adresowaniem:
+ * - odczyt bez blokad (tablica segmentu jest volatile)
+ * - wstawianie pod blokadą segmentu; czytelnik, który trafi na niedokończony wpis,
+ *   przechodzi na ścieżkę z blokadą
+ * - powiększanie i usuwanie bezczynnych klientów budują nową tablicę i publikują ją atomowo
+ */
+final class Ipv4BucketTable {
+
+    private static final int SEGMENT_BITS = 6;
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Fabryka nowych kubełków - bez lambdy przy każdym wywołaniu */
+    interface Factory {
+        ClientBuckets create(long now);
+    }
+
+    private final Segment[] segments = new Segment[1 << SEGMENT_BITS];
+
+    Ipv4BucketTable() {
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Zwraca kubełki klienta, tworząc je przy pierwszym żądaniu.
+     *
+     * @param address adres IPv4 jako liczba 0..2^32-1
+     */
+    ClientBuckets getOrCreate(long address, Factory factory, long now) {
+        long key = address + 1; // 0 oznacza wolne miejsce
+        long hash = mix(key);
+        Segment segment = segments[(int) (hash >>> (64 - SEGMENT_BITS))];
+        ClientBuckets buckets = segment.get(key, (int) hash);
+        if (buckets != null) {
+            return buckets;
+        }
+        return segment.getOrInsert(key, (int) hash, factory, now);
+    }
+
+    /**
+     * Usuwa klientów, których wszystkie kubełki są pełne.
+     *
+     * @return liczba usuniętych wpisów
+     */
+    int removeIdle(long now) {
+        int removed = 0;
+        for (Segment segment : segments) {
+            removed += segment.removeIdle(now);
+        }
+        return removed;
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    private static final class Table {
+        final long[] keys;
+        final ClientBuckets[] values;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            values = new ClientBuckets[capacity];
+        }
+    }
+
+    private static final class Segment {
+
+        private volatile Table table = new Table(INITIAL_CAPACITY);
+        private int size;
+
+        ClientBuckets get(long key, int hash) {
+            Table t = table;
+            int mask = t.keys.length - 1;
+            for (int i = hash & mask; ; i = (i + 1) & mask) {
+                long k = t.keys[i];
+                if (k == key) {
+                    return t.values[i];
+                }
+                if (k == 0) {
+                    return null;
+                }
+            }
+        }
+
+        synchronized ClientBuckets getOrInsert(long key, int hash, Factory factory, long now) {
+            ClientBuckets existing = get(key, hash);
+            if (existing != null) {
+                return existing;
+            }
+            if ((size + 1) * 2 > table.keys.length) {
+                table = copy(table, table.keys.length * 2, false, now);
+            }
+            ClientBuckets created = factory.create(now);
+            insert(table, key, hash, created);
+            size++;
+            return created;
+        }
+
+        synchronized int removeIdle(long now) {
+            Table current = table;
+            int live = 0;
+            for (int i = 0; i < current.keys.length; i++) {
+                if (current.keys[i] != 0 && !current.values[i].isIdle(now)) {
+                    live++;
+                }
+            }
+            if (live == size) {
+                return 0;
+            }
+            // Tablica kurczy się po fali nowych adresów
+            int capacity = INITIAL_CAPACITY;
+            while (capacity < live * 4) {
+                capacity <<= 1;
+            }
+            Table compacted = copy(current, capacity, true, now);
+            int kept = 0;
+            for (long k : compacted.keys) {
+                if (k != 0) {
+                    kept++;
+                }
+            }
+            table = compacted;
+            int removed = size - kept;
+            size = kept;
+            return removed;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        /**
+         * Kopia tablicy, opcjonalnie bez klientów bezczynnych.
+         */
+        private static Table copy(Table source, int capacity, boolean dropIdle, long now) {
+            Table target = new Table(capacity);
+            for (int i = 0; i < source.keys.length; i++) {
+                long k = source.keys[i];
+                ClientBuckets v = source.values[i];
+                if (k != 0 && !(dropIdle && v.isIdle(now))) {
+                    insert(target, k, (int) mix(k), v);
+                }
+            }
+            return target;
+        }
+
+        private static void insert(Table t, long key, int hash, ClientBuckets value) {
+            int mask = t.keys.length - 1;
+            int i = hash & mask;
+            while (t.keys[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            // Najpierw wartość - czytelnik widzący klucz bez wartości pójdzie ścieżką z blokadą
+            t.values[i] = value;
+            t.keys[i] = key;
+        }
+    }
+}
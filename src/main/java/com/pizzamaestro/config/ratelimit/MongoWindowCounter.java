@@ -0,0 +1,48 @@
+package com.pizzamaestro.config.ratelimit;
+
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Liczniki okien w kolekcji {@value #COLLECTION}: jeden dokument na klienta, typ i okno,
+ * zwiększany atomowo przez {@code $inc} (upsert). Dokumenty znikają same dzięki
+ * indeksowi TTL na {@code expireAt} (zob. MongoIndexConfig).
+ */
+public class MongoWindowCounter implements WindowCounter {
+
+    public static final String COLLECTION = "rate_limit_windows";
+
+    private static final FindAndModifyOptions UPSERT_RETURN_NEW = FindAndModifyOptions.options()
+            .upsert(true)
+            .returnNew(true);
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoWindowCounter(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public long increment(String windowId, int amount, Instant expireAt) {
+        Query query = new Query(Criteria.where("_id").is(windowId));
+        Update update = new Update()
+                .inc("count", amount)
+                .setOnInsert("expireAt", Date.from(expireAt));
+        Document document;
+        try {
+            document = mongoTemplate.findAndModify(query, update, UPSERT_RETURN_NEW, Document.class, COLLECTION);
+        } catch (DuplicateKeyException e) {
+            // Dwie repliki utworzyły dokument równocześnie - teraz już istnieje
+            document = mongoTemplate.findAndModify(query, update, UPSERT_RETURN_NEW, Document.class, COLLECTION);
+        }
+        return document.get("count", Number.class).longValue();
+    }
+}
@@ -0,0 +1,27 @@
+package com.pizzamaestro.config.ratelimit;
+
+/**
+ * Limity jednego klienta (adresu) - po jednym na {@link BucketType}.
+ */
+public interface RateLimitClient {
+
+    /**
+     * Pobiera {@code permits} żetonów naraz - wszystkie albo żaden.
+     */
+    boolean tryConsume(BucketType type, int permits);
+
+    /**
+     * Liczba żetonów dostępnych teraz.
+     */
+    int getRemaining(BucketType type);
+
+    /**
+     * Nanosekundy do chwili, gdy dostępny będzie choć jeden żeton.
+     */
+    long nanosUntilAvailable(BucketType type);
+
+    /**
+     * Nanosekundy do pełnego odnowienia limitu.
+     */
+    long nanosUntilFull(BucketType type);
+}
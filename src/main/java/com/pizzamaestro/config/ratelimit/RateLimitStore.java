@@ -0,0 +1,26 @@
+package com.pizzamaestro.config.ratelimit;
+
+/**
+ * Magazyn limitów żądań.
+ *
+ * - {@link TokenBucketRateLimiter} - w pamięci jednej instancji (domyślnie)
+ * - {@link ChunkedRateLimitStore} z {@link MongoWindowCounter} - limity wspólne dla wszystkich
+ *   replik, z lokalnie rezerwowanymi paczkami żetonów
+ */
+public interface RateLimitStore {
+
+    /**
+     * Limity klienta o adresie zapisanym w {@code text[from, to)}.
+     */
+    RateLimitClient client(CharSequence text, int from, int to);
+
+    default RateLimitClient client(String ip) {
+        return client(ip, 0, ip.length());
+    }
+
+    /**
+     * Zatrzymuje zadania w tle.
+     */
+    default void shutdown() {
+    }
+}
@@ -0,0 +1,101 @@
+package com.pizzamaestro.config.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejestr kubełków limitu żądań per klient.
+ *
+ * - adresy IPv4 są parsowane do liczby i trzymane w {@link Ipv4BucketTable} (bez napisów i pakowania)
+ * - pozostałe adresy (IPv6, nazwy) trafiają do zwykłej mapy po napisie
+ * - kubełki są bezblokadowe ({@link ClientBuckets}, CAS na System.nanoTime)
+ * - klienci z pełnymi kubełkami są usuwani w tle, poza ścieżką żądania
+ *
+ * Domyślny {@link RateLimitStore} - tworzony w RateLimitingConfig.
+ */
+@Slf4j
+public class TokenBucketRateLimiter implements RateLimitStore, Ipv4BucketTable.Factory {
+
+    private final long windowNanos;
+    private final long[] intervalNanos;
+    private final Ipv4BucketTable ipv4Clients = new Ipv4BucketTable();
+    private final ConcurrentHashMap<String, ClientBuckets> otherClients = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService expiry;
+
+    public TokenBucketRateLimiter(long windowSeconds, long expiryIntervalSeconds) {
+        this.windowNanos = Duration.ofSeconds(windowSeconds).toNanos();
+        this.intervalNanos = new long[BucketType.count()];
+        for (int i = 0; i < intervalNanos.length; i++) {
+            intervalNanos[i] = windowNanos / BucketType.of(i).getLimit();
+        }
+
+        if (expiryIntervalSeconds > 0) {
+            expiry = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("rate-limit-expiry").daemon(true).factory());
+            expiry.scheduleWithFixedDelay(this::expireIdle, expiryIntervalSeconds, expiryIntervalSeconds, TimeUnit.SECONDS);
+        } else {
+            expiry = null;
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        if (expiry != null) {
+            expiry.shutdownNow();
+        }
+    }
+
+    /**
+     * Kubełki klienta o adresie zapisanym w {@code text[from, to)} - np. pierwszy
+     * element nagłówka X-Forwarded-For bez wycinania podnapisu.
+     */
+    @Override
+    public ClientBuckets client(CharSequence text, int from, int to) {
+        long now = System.nanoTime();
+        long ipv4 = Ipv4Addresses.parse(text, from, to);
+        if (ipv4 != Ipv4Addresses.NOT_IPV4) {
+            return ipv4Clients.getOrCreate(ipv4, this, now);
+        }
+        String key = text.subSequence(from, to).toString().trim();
+        return otherClients.computeIfAbsent(key, k -> create(now));
+    }
+
+    @Override
+    public ClientBuckets client(String ip) {
+        return client(ip, 0, ip.length());
+    }
+
+    @Override
+    public ClientBuckets create(long now) {
+        return new ClientBuckets(windowNanos, intervalNanos, now);
+    }
+
+    /**
+     * Usuwa klientów z pełnymi kubełkami (ich stan jest równy nowemu kubełkowi).
+     *
+     * @return liczba usuniętych klientów
+     */
+    public int expireIdle() {
+        long now = System.nanoTime();
+        int removed = ipv4Clients.removeIdle(now);
+        int before = otherClients.size();
+        otherClients.values().removeIf(buckets -> buckets.isIdle(now));
+        removed += before - otherClients.size();
+        if (removed > 0) {
+            log.debug("🧹 Usunięto {} nieaktywnych klientów limitu, pozostało: {}", removed, size());
+        }
+        return removed;
+    }
+
+    /**
+     * Liczba śledzonych klientów.
+     */
+    public int size() {
+        return ipv4Clients.size() + otherClients.size();
+    }
+}
@@ -0,0 +1,19 @@
+package com.pizzamaestro.config.ratelimit;
+
+import java.time.Instant;
+
+/**
+ * Współdzielony licznik żądań w oknie czasowym (np. dokument w MongoDB).
+ */
+public interface WindowCounter {
+
+    /**
+     * Atomowo zwiększa licznik okna, tworząc go w razie potrzeby.
+     *
+     * @param windowId identyfikator klienta, typu i okna
+     * @param amount o ile zwiększyć
+     * @param expireAt kiedy licznik może zostać usunięty
+     * @return wartość licznika po zwiększeniu
+     */
+    long increment(String windowId, int amount, Instant expireAt);
+}
@@ -0,0 +1,19 @@
+package com.pizzamaestro.config.startup;
+
+import org.bson.Document;
+
+import java.util.function.Supplier;
+
+/**
+ * Jeden wpis danych początkowych.
+ *
+ * @param key    pola identyfikujące dokument w kolekcji (np. email, slug)
+ * @param entity encja - przy {@link SeedWriter#insertMissing} budowana tylko dla brakujących
+ *               dokumentów (np. użytkownicy z hasłem BCrypt)
+ */
+public record Seed<T>(Document key, Supplier<T> entity) {
+
+    public static <T> Seed<T> of(Document key, T entity) {
+        return new Seed<>(key, () -> entity);
+    }
+}
@@ -0,0 +1,180 @@
+package com.pizzamaestro.config.startup;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Zapis danych początkowych operacjami zbiorczymi, z pominięciem niezmienionych seedów.
+ *
+ * Po zapisie w kolekcji {@value #METADATA_COLLECTION} zostaje skrót (SHA-256) danych seeda -
+ * przy kolejnym starcie ten sam skrót oznacza, że nie trzeba nic czytać ani zapisywać.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SeedWriter {
+
+    public static final String METADATA_COLLECTION = "seed_metadata";
+
+    /** Pola zmieniające się przy każdym zapisie - nie wchodzą do skrótu. */
+    private static final Set<String> VOLATILE_FIELDS = Set.of("_id", "version", "createdAt", "updatedAt");
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Wstawia (jednym insertMany) dokumenty, których klucza nie ma jeszcze w kolekcji.
+     * Istniejące dokumenty nie są zmieniane - dla danych, które użytkownik może edytować.
+     * Skrót liczony jest z samych kluczy, więc encje budowane są tylko dla brakujących.
+     *
+     * @return liczba wstawionych dokumentów (0 - seed bez zmian)
+     */
+    public <T> int insertMissing(String seedName, Class<T> type, List<Seed<T>> seeds) {
+        List<Document> keys = seeds.stream().map(Seed::key).toList();
+        String hash = contentHash(keys);
+        if (isUnchanged(seedName, hash)) {
+            return 0;
+        }
+
+        Document projection = new Document();
+        keys.forEach(key -> key.keySet().forEach(field -> projection.put(field, 1)));
+        Set<Document> existing = new HashSet<>();
+        for (Document document : mongoTemplate.find(
+                new BasicQuery(new Document("$or", keys), projection), Document.class,
+                mongoTemplate.getCollectionName(type))) {
+            document.remove("_id");
+            existing.add(document);
+        }
+
+        List<T> missing = seeds.stream()
+                .filter(seed -> !existing.contains(seed.key()))
+                .map(seed -> seed.entity().get())
+                .toList();
+        if (!missing.isEmpty()) {
+            mongoTemplate.insert(missing, type);
+        }
+        markApplied(seedName, hash, seeds.size());
+        return missing.size();
+    }
+
+    /**
+     * Wstawia lub aktualizuje (jednym bulkWrite z upsertami) wszystkie dokumenty seeda -
+     * dla danych referencyjnych, które utrzymuje kod (przewodniki).
+     *
+     * @return liczba zapisanych dokumentów (0 - seed bez zmian)
+     */
+    public <T> int upsert(String seedName, Class<T> type, List<Seed<T>> seeds) {
+        return upsert(seedName, type, seeds, Set.of());
+    }
+
+    /**
+     * Jak {@link #upsert(String, Class, List)}, ale pola {@code insertOnlyFields} są zapisywane
+     * tylko przy wstawieniu ($setOnInsert) - dla pól, które po wstawieniu należą do admina
+     * (np. {@code active}, {@code verified} składnika). Edycja lub dezaktywacja przez admina
+     * nie jest więc cofana przy zmianie seeda.
+     * Aktualizacja nie zmienia {@code _id}, podbija {@code version}.
+     *
+     * @return liczba zapisanych dokumentów (0 - seed bez zmian)
+     */
+    public <T> int upsert(String seedName, Class<T> type, List<Seed<T>> seeds, Set<String> insertOnlyFields) {
+        List<Document> documents = new ArrayList<>(seeds.size());
+        for (Seed<T> seed : seeds) {
+            Document document = new Document();
+            mongoTemplate.getConverter().write(seed.entity().get(), document);
+            VOLATILE_FIELDS.forEach(document::remove);
+            documents.add(document);
+        }
+        String hash = contentHash(documents);
+        if (isUnchanged(seedName, hash)) {
+            return 0;
+        }
+
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(type);
+        MongoPersistentProperty createdDate = entity.getPersistentProperty(CreatedDate.class);
+        MongoPersistentProperty lastModifiedDate = entity.getPersistentProperty(LastModifiedDate.class);
+        LocalDateTime now = LocalDateTime.now();
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+        for (int i = 0; i < seeds.size(); i++) {
+            Update update = seedUpdate(documents.get(i), insertOnlyFields);
+            if (createdDate != null) {
+                update.setOnInsert(createdDate.getFieldName(), now);
+            }
+            if (lastModifiedDate != null) {
+                update.set(lastModifiedDate.getFieldName(), now);
+            }
+            bulk.upsert(new BasicQuery(seeds.get(i).key()), update);
+        }
+        bulk.execute();
+        markApplied(seedName, hash, seeds.size());
+        return seeds.size();
+    }
+
+    /**
+     * Aktualizacja jednego dokumentu seeda: $set dla pól kodu, $setOnInsert dla pól admina.
+     */
+    static Update seedUpdate(Document document, Set<String> insertOnlyFields) {
+        Update update = new Update();
+        document.forEach((field, value) -> {
+            if (insertOnlyFields.contains(field)) {
+                update.setOnInsert(field, value);
+            } else {
+                update.set(field, value);
+            }
+        });
+        return update.inc("version", 1);
+    }
+
+    /**
+     * SHA-256 z postaci JSON dokumentów (kolejność ma znaczenie).
+     */
+    static String contentHash(List<Document> documents) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Document document : documents) {
+                digest.update(document.toJson().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 niedostępne", e);
+        }
+    }
+
+    private boolean isUnchanged(String seedName, String hash) {
+        Document applied = mongoTemplate.findById(seedName, Document.class, METADATA_COLLECTION);
+        if (applied != null && hash.equals(applied.getString("hash"))) {
+            log.info("📦 Seed {} bez zmian - pomijam", seedName);
+            return true;
+        }
+        return false;
+    }
+
+    private void markApplied(String seedName, String hash, int count) {
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(seedName)),
+                new Update().set("hash", hash).set("count", count).set("appliedAt", LocalDateTime.now()),
+                METADATA_COLLECTION);
+    }
+}
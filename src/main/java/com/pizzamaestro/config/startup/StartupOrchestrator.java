@@ -0,0 +1,235 @@
+package com.pizzamaestro.config.startup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Uruchamia etapy startu (seed danych, indeksy) równolegle, z zachowaniem zależności.
+ *
+ * Etapy zbierane są ze wszystkich {@link StartupStageProvider}. Każdy rusza, gdy jego
+ * zależności się udały - niezależne seedy i indeksy różnych kolekcji idą jednocześnie,
+ * więc start trwa tyle, co najdłuższa ścieżka, a nie suma etapów.
+ * Etapy, których zależność się nie udała, są pomijane.
+ *
+ * Etapy z {@code pizzamaestro.startup.deferred-stages} (nazwy, {@code prefiks*}) ruszają
+ * dopiero po {@link ApplicationReadyEvent}, w tle - aplikacja przyjmuje ruch bez czekania
+ * na nie (profil {@code fast-start}). Ich błąd jest tylko logowany.
+ *
+ * Czasy etapów: log po starcie i metryka {@code startup.stage} (tagi stage, status).
+ */
+@Component
+@Slf4j
+public class StartupOrchestrator implements CommandLineRunner {
+
+    enum Status { OK, FAILED, SKIPPED }
+
+    record StageResult(StartupStage stage, Status status, long durationNanos, Throwable error) {
+    }
+
+    private final List<StartupStageProvider> providers;
+    private final MeterRegistry meterRegistry;
+    private final List<String> deferredPatterns;
+    private List<StartupStage> deferred = List.of();
+
+    public StartupOrchestrator(
+            List<StartupStageProvider> providers,
+            MeterRegistry meterRegistry,
+            @Value("${pizzamaestro.startup.deferred-stages:}") List<String> deferredPatterns) {
+        this.providers = providers;
+        this.meterRegistry = meterRegistry;
+        this.deferredPatterns = deferredPatterns.stream().map(String::trim).filter(p -> !p.isEmpty()).toList();
+    }
+
+    @Override
+    public void run(String... args) {
+        List<StartupStage> stages = providers.stream()
+                .flatMap(provider -> provider.startupStages().stream())
+                .toList();
+        List<StartupStage> eager = new ArrayList<>();
+        List<StartupStage> later = new ArrayList<>();
+        stages.forEach(stage -> (isDeferred(stage.name(), deferredPatterns) ? later : eager).add(stage));
+        deferred = withoutEagerDependencies(later, eager);
+        log.info("🚀 Start: {} etapów inicjalizacji ({} odroczonych)", stages.size(), deferred.size());
+
+        long start = System.nanoTime();
+        List<StageResult> results;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            results = runStages(eager, executor);
+        }
+        report(results, System.nanoTime() - start);
+
+        List<StageResult> failed = results.stream()
+                .filter(result -> result.stage().required() && result.status() != Status.OK)
+                .toList();
+        if (!failed.isEmpty()) {
+            IllegalStateException exception = new IllegalStateException("Nieudane etapy startu: "
+                    + failed.stream().map(result -> result.stage().name()).toList());
+            failed.stream()
+                    .filter(result -> result.error() != null)
+                    .forEach(result -> exception.addSuppressed(result.error()));
+            throw exception;
+        }
+    }
+
+    /**
+     * Etapy odroczone - w tle, po gotowości aplikacji.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void runDeferred() {
+        if (deferred.isEmpty()) {
+            return;
+        }
+        List<StartupStage> stages = deferred;
+        Thread.ofVirtual().name("startup-deferred").start(() -> {
+            long start = System.nanoTime();
+            List<StageResult> results;
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                results = runStages(stages, executor);
+            }
+            log.info("🐢 Etapy odroczone:");
+            report(results, System.nanoTime() - start);
+        });
+    }
+
+    static boolean isDeferred(String stageName, List<String> patterns) {
+        return patterns.stream().anyMatch(pattern -> pattern.endsWith("*")
+                ? stageName.startsWith(pattern.substring(0, pattern.length() - 1))
+                : stageName.equals(pattern));
+    }
+
+    /**
+     * Zależności odroczonych etapów od etapów startu są spełnione przed gotowością aplikacji;
+     * etap startu nie może czekać na odroczony.
+     *
+     * @throws IllegalArgumentException gdy etap startu zależy od odroczonego
+     */
+    static List<StartupStage> withoutEagerDependencies(List<StartupStage> deferred, List<StartupStage> eager) {
+        Set<String> deferredNames = new HashSet<>();
+        deferred.forEach(stage -> deferredNames.add(stage.name()));
+        for (StartupStage stage : eager) {
+            for (String dependency : stage.dependsOn()) {
+                if (deferredNames.contains(dependency)) {
+                    throw new IllegalArgumentException(
+                            "Etap " + stage.name() + " zależy od odroczonego etapu: " + dependency);
+                }
+            }
+        }
+        return deferred.stream()
+                .map(stage -> new StartupStage(stage.name(),
+                        stage.dependsOn().stream().filter(deferredNames::contains).collect(Collectors.toSet()),
+                        stage.required(), stage.action()))
+                .toList();
+    }
+
+    /**
+     * Uruchamia etapy na podanym executorze i czeka na wszystkie.
+     *
+     * @return wyniki w kolejności etapów
+     * @throws IllegalArgumentException przy powtórzonej nazwie, nieznanej zależności lub cyklu
+     */
+    static List<StageResult> runStages(List<StartupStage> stages, ExecutorService executor) {
+        Map<String, StartupStage> byName = new LinkedHashMap<>();
+        for (StartupStage stage : stages) {
+            if (byName.putIfAbsent(stage.name(), stage) != null) {
+                throw new IllegalArgumentException("Powtórzony etap startu: " + stage.name());
+            }
+        }
+        Map<String, CompletableFuture<StageResult>> futures = new LinkedHashMap<>();
+        for (StartupStage stage : stages) {
+            schedule(stage, byName, futures, new HashSet<>(), executor);
+        }
+        return byName.keySet().stream()
+                .map(name -> futures.get(name).join())
+                .toList();
+    }
+
+    private static CompletableFuture<StageResult> schedule(
+            StartupStage stage, Map<String, StartupStage> byName,
+            Map<String, CompletableFuture<StageResult>> futures, Set<String> visiting,
+            ExecutorService executor) {
+        CompletableFuture<StageResult> existing = futures.get(stage.name());
+        if (existing != null) {
+            return existing;
+        }
+        if (!visiting.add(stage.name())) {
+            throw new IllegalArgumentException("Cykl zależności etapów startu: " + visiting);
+        }
+        List<CompletableFuture<StageResult>> dependencies = new ArrayList<>();
+        for (String dependency : stage.dependsOn()) {
+            StartupStage required = byName.get(dependency);
+            if (required == null) {
+                throw new IllegalArgumentException(
+                        "Etap " + stage.name() + " zależy od nieznanego etapu: " + dependency);
+            }
+            dependencies.add(schedule(required, byName, futures, visiting, executor));
+        }
+        visiting.remove(stage.name());
+
+        CompletableFuture<StageResult> future = CompletableFuture
+                .allOf(dependencies.toArray(CompletableFuture[]::new))
+                .thenApplyAsync(ignored -> {
+                    boolean dependenciesOk = dependencies.stream()
+                            .allMatch(dependency -> dependency.join().status() == Status.OK);
+                    return dependenciesOk ? execute(stage) : new StageResult(stage, Status.SKIPPED, 0, null);
+                }, executor);
+        futures.put(stage.name(), future);
+        return future;
+    }
+
+    private static StageResult execute(StartupStage stage) {
+        long start = System.nanoTime();
+        try {
+            stage.action().run();
+            return new StageResult(stage, Status.OK, System.nanoTime() - start, null);
+        } catch (RuntimeException e) {
+            return new StageResult(stage, Status.FAILED, System.nanoTime() - start, e);
+        }
+    }
+
+    private void report(List<StageResult> results, long totalNanos) {
+        long sumNanos = 0;
+        for (StageResult result : results) {
+            sumNanos += result.durationNanos();
+            long millis = TimeUnit.NANOSECONDS.toMillis(result.durationNanos());
+            switch (result.status()) {
+                case OK -> log.info("  ✓ {} - {} ms", result.stage().name(), millis);
+                case SKIPPED -> log.warn("  ⏭️ {} - pominięty (nieudana zależność)", result.stage().name());
+                case FAILED -> {
+                    if (result.stage().required()) {
+                        log.error("  ❌ {} - błąd po {} ms: {}", result.stage().name(), millis,
+                                result.error().getMessage(), result.error());
+                    } else {
+                        log.warn("  ⚠️ {} - błąd po {} ms: {}", result.stage().name(), millis,
+                                result.error().getMessage());
+                    }
+                }
+            }
+            Timer.builder("startup.stage")
+                    .description("Czas etapu startu aplikacji")
+                    .tag("stage", result.stage().name())
+                    .tag("status", result.status().name().toLowerCase())
+                    .register(meterRegistry)
+                    .record(result.durationNanos(), TimeUnit.NANOSECONDS);
+        }
+        log.info("✅ Inicjalizacja zakończona w {} ms (suma etapów {} ms)",
+                TimeUnit.NANOSECONDS.toMillis(totalNanos), TimeUnit.NANOSECONDS.toMillis(sumNanos));
+    }
+}
@@ -0,0 +1,22 @@
+package com.pizzamaestro.config.startup;
+
+import java.util.Set;
+
+/**
+ * Etap startu aplikacji (seed danych, indeksy) uruchamiany przez {@link StartupOrchestrator}.
+ *
+ * @param name      unikalna nazwa etapu (w logach i metryce {@code startup.stage})
+ * @param dependsOn etapy, które muszą się udać przed tym etapem
+ * @param required  błąd etapu wymaganego zatrzymuje start, opcjonalnego - tylko ostrzeżenie
+ * @param action    praca etapu
+ */
+public record StartupStage(String name, Set<String> dependsOn, boolean required, Runnable action) {
+
+    public static StartupStage required(String name, Runnable action, String... dependsOn) {
+        return new StartupStage(name, Set.of(dependsOn), true, action);
+    }
+
+    public static StartupStage optional(String name, Runnable action, String... dependsOn) {
+        return new StartupStage(name, Set.of(dependsOn), false, action);
+    }
+}
@@ -0,0 +1,11 @@
+package com.pizzamaestro.config.startup;
+
+import java.util.List;
+
+/**
+ * Komponent dostarczający etapy startu do {@link StartupOrchestrator}.
+ */
+public interface StartupStageProvider {
+
+    List<StartupStage> startupStages();
+}
@@ -16,6 +16,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -23,6 +24,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -45,6 +47,7 @@ public class ActivePizzaController {
 
     private final ActivePizzaService activePizzaService;
     private final RecipeService recipeService;
+    @Lazy
     private final CalendarExportService calendarExportService;
 
     // ==================== Pobieranie ====================
@@ -262,22 +265,24 @@ public class ActivePizzaController {
 
     @GetMapping(value = "/{id}/calendar.ics", produces = "text/calendar")
     @Operation(summary = "Eksportuj harmonogram do pliku iCalendar")
-    public ResponseEntity<String> exportToCalendar(
+    public ResponseEntity<StreamingResponseBody> exportToCalendar(
             @PathVariable String id,
             @AuthenticationPrincipal UserDetails userDetails) {
         
         log.info("📅 Eksport harmonogramu do iCal dla pizzy: {}", id);
         
         ActivePizza pizza = activePizzaService.getById(id);
-        String icalContent = calendarExportService.generateICalForActivePizza(pizza);
         
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.parseMediaType("text/calendar"));
+        headers.setContentType(MediaType.parseMediaType("text/calendar;charset=UTF-8"));
         headers.setContentDispositionFormData("attachment", "pizza-" + id + ".ics");
         
+        // Zapis strumieniowy, bez buforowania całego pliku (DetailedLoggingFilter.STREAMING_PATHS)
+        StreamingResponseBody body = out -> calendarExportService.writeICalForActivePizza(pizza, out);
+        
         return ResponseEntity.ok()
                 .headers(headers)
-                .body(icalContent);
+                .body(body);
     }
 
     // ==================== DTO ====================
@@ -1,5 +1,7 @@
 package com.pizzamaestro.controller;
 
+import com.pizzamaestro.config.RateLimitingConfig;
+import com.pizzamaestro.dto.request.BatchCalculationRequest;
 import com.pizzamaestro.dto.request.CalculationRequest;
 import com.pizzamaestro.dto.request.FlourIdsRequest;
 import com.pizzamaestro.dto.request.FlourMixRequest;
@@ -8,23 +10,33 @@ import com.pizzamaestro.model.OvenType;
 import com.pizzamaestro.model.PizzaStyle;
 import com.pizzamaestro.model.Recipe;
 import com.pizzamaestro.security.CurrentUser;
+import com.pizzamaestro.service.BatchCalculationService;
+import com.pizzamaestro.service.CalculationResultCache;
 import com.pizzamaestro.service.DoughCalculatorService;
 import com.pizzamaestro.service.EnvironmentalCorrectionService;
+import com.pizzamaestro.service.FlourMixSuggestionIndex;
 import com.pizzamaestro.service.FlourMixSuggestionService;
 import com.pizzamaestro.service.RecipeService;
 import com.pizzamaestro.service.UserService;
+import com.pizzamaestro.service.usage.CalculationQuotaService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import com.pizzamaestro.security.UserPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -42,10 +54,16 @@ import java.util.stream.Collectors;
 public class CalculatorController {
     
     private final DoughCalculatorService calculatorService;
+    private final CalculationResultCache calculationResultCache;
+    private final BatchCalculationService batchCalculationService;
+    private final RateLimitingConfig.RateLimitFilter rateLimitFilter;
+    private final ObjectMapper objectMapper;
     private final EnvironmentalCorrectionService environmentalCorrectionService;
     private final FlourMixSuggestionService flourMixSuggestionService;
+    private final FlourMixSuggestionIndex flourMixSuggestionIndex;
     private final RecipeService recipeService;
     private final UserService userService;
+    private final CalculationQuotaService calculationQuotaService;
     
     @Value("${pizzamaestro.free-tier.max-calculations-per-month}")
     private int maxFreeCalculations;
@@ -78,7 +96,7 @@ public class CalculatorController {
         request.setSaveRecipe(false);
         
         long startTime = System.currentTimeMillis();
-        CalculationResponse response = calculatorService.calculate(request);
+        CalculationResponse response = calculationResultCache.calculate(request);
         long duration = System.currentTimeMillis() - startTime;
         
         log.info("═══════════════════════════════════════════════════════════");
@@ -95,6 +113,49 @@ public class CalculatorController {
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Publiczna kalkulacja wsadowa - lista żądań albo siatka parametrów "co jeśli".
+     * 
+     * Wyniki są strumieniowane jako NDJSON (jedna linia na pozycję, w kolejności pozycji).
+     * Limit: jeden żeton kalkulatora na każde rozpoczęte 10 pozycji (konfigurowalne).
+     */
+    @PostMapping(value = "/public/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Publiczna kalkulacja wsadowa (lista żądań lub siatka parametrów, NDJSON)")
+    public ResponseEntity<StreamingResponseBody> calculateBatch(
+            @Valid @RequestBody BatchCalculationRequest request,
+            HttpServletRequest httpRequest) {
+        
+        List<CalculationRequest> requests = batchCalculationService.expand(request);
+        int cost = batchCalculationService.rateLimitCost(requests.size());
+        
+        // Jeden żeton pobrał już RateLimitFilter
+        if (!rateLimitFilter.tryConsumeCalculations(httpRequest, cost - 1)) {
+            return ResponseEntity.status(429).build();
+        }
+        
+        log.info("📦 Kalkulacja wsadowa: {} pozycji, koszt limitu: {} żetonów", requests.size(), cost);
+        
+        StreamingResponseBody body = out -> {
+            try {
+                batchCalculationService.process(requests, result -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(result));
+                        out.write('\n');
+                        out.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+    
     /**
      * Kalkulacja receptury - działa zarówno dla zalogowanych jak i niezalogowanych.
      * Dla zalogowanych: możliwość zapisu i śledzenie limitów.
@@ -111,7 +172,7 @@ public class CalculatorController {
         if (userPrincipal == null) {
             log.info("📊 Kalkulacja bez zalogowania - tryb publiczny");
             request.setSaveRecipe(false);
-            CalculationResponse response = calculatorService.calculate(request);
+            CalculationResponse response = calculationResultCache.calculate(request);
             return ResponseEntity.ok(response);
         }
         
@@ -119,18 +180,19 @@ public class CalculatorController {
         log.info("Kalkulacja dla użytkownika {}: {} pizz, styl: {}", 
                 userId, request.getNumberOfPizzas(), request.getPizzaStyle());
         
-        // Sprawdź limit kalkulacji dla darmowych użytkowników
-        if (!userService.canPerformCalculation(userId, maxFreeCalculations)) {
+        // Sprawdź limit i zalicz kalkulację jedną atomową operacją
+        if (!calculationQuotaService.tryConsume(userId, maxFreeCalculations)) {
             return ResponseEntity.status(429)
                     .body(null); // Rate limit exceeded
         }
         
-        CalculationResponse response = recipeService.calculateAndSave(request, userId);
-        
-        // Zwiększ licznik kalkulacji
-        userService.incrementCalculationCount(userId);
-        
-        return ResponseEntity.ok(response);
+        try {
+            return ResponseEntity.ok(recipeService.calculateAndSave(request, userId));
+        } catch (RuntimeException e) {
+            // Nieudana kalkulacja nie zużywa limitu
+            calculationQuotaService.release(userId);
+            throw e;
+        }
     }
     
     /**
@@ -307,7 +369,7 @@ public class CalculatorController {
                 style, availableFlourIds != null ? availableFlourIds.size() : "wszystkie");
         
         FlourMixSuggestionService.FlourMixSuggestion suggestion = 
-                flourMixSuggestionService.suggestForStyle(style, availableFlourIds);
+                flourMixSuggestionIndex.suggestForStyle(style, availableFlourIds);
         
         return ResponseEntity.ok(suggestion);
     }
@@ -340,7 +402,7 @@ public class CalculatorController {
         }
         
         FlourMixSuggestionService.FlourMixSuggestion suggestion = 
-                flourMixSuggestionService.suggestForStyle(style, availableFlourIds);
+                flourMixSuggestionIndex.suggestForStyle(style, availableFlourIds);
         
         return ResponseEntity.ok(suggestion);
     }
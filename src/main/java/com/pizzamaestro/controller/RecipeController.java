@@ -10,6 +10,7 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
@@ -19,7 +20,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import com.pizzamaestro.security.UserPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -34,6 +37,7 @@ import java.util.List;
 public class RecipeController {
     
     private final RecipeService recipeService;
+    @Lazy
     private final PdfExportService pdfExportService;
     
     /**
@@ -163,10 +167,13 @@ public class RecipeController {
     
     /**
      * Eksportuje przepis do PDF.
+     * 
+     * PDF jest zapisywany strumieniowo wprost do odpowiedzi - bez bufora byte[]
+     * i bez buforowania w filtrze logowania (DetailedLoggingFilter.STREAMING_PATHS).
      */
     @GetMapping(value = "/{id}/pdf", produces = MediaType.APPLICATION_PDF_VALUE)
     @Operation(summary = "Eksportuj przepis do PDF")
-    public ResponseEntity<byte[]> exportToPdf(
+    public ResponseEntity<StreamingResponseBody> exportToPdf(
             @PathVariable String id,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
         
@@ -175,21 +182,22 @@ public class RecipeController {
         String userId = userPrincipal.getUserId();
         Recipe recipe = recipeService.findByIdAndUserId(id, userId);
         
-        try {
-            byte[] pdfBytes = pdfExportService.generateRecipePdf(recipe);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", "przepis-" + id + ".pdf");
-            headers.setContentLength(pdfBytes.length);
-            
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(pdfBytes);
-        } catch (Exception e) {
-            log.error("❌ Błąd generowania PDF: {}", e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
-        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", "przepis-" + id + ".pdf");
+        
+        StreamingResponseBody body = out -> {
+            try {
+                pdfExportService.writeRecipePdf(recipe, out);
+            } catch (IOException e) {
+                log.error("❌ Błąd generowania PDF: {}", e.getMessage(), e);
+                throw e;
+            }
+        };
+        
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
     }
     
     /**
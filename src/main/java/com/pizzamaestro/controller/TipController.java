@@ -3,6 +3,7 @@ package com.pizzamaestro.controller;
 import com.pizzamaestro.model.PizzaStyle;
 import com.pizzamaestro.model.Recipe;
 import com.pizzamaestro.service.TipEngineService;
+import com.pizzamaestro.service.TipResultCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -31,6 +32,7 @@ import java.util.List;
 public class TipController {
     
     private final TipEngineService tipEngineService;
+    private final TipResultCache tipResultCache;
     
     /**
      * Pobiera wszystkie tipy dla aktualnej konfiguracji.
@@ -46,7 +48,7 @@ public class TipController {
                 request.isUsePreferment(), request.getYeastType(), request.getRoomTemperature());
         
         TipEngineService.CalculationContext context = buildContext(request);
-        TipEngineService.TipCollection tips = tipEngineService.generateAllTips(context);
+        TipEngineService.TipCollection tips = tipResultCache.generateAllTips(context);
         
         log.debug("   Wygenerowano: {} tipów, {} ostrzeżeń, {} rekomendacji",
                 tips.getTips().size(), tips.getWarnings().size(), tips.getRecommendations().size());
@@ -106,7 +108,7 @@ public class TipController {
                 .fermentationHours(24)
                 .build();
         
-        TipEngineService.TipCollection tips = tipEngineService.generateAllTips(context);
+        TipEngineService.TipCollection tips = tipResultCache.generateAllTips(context);
         return ResponseEntity.ok(tips.getTips());
     }
     
@@ -136,7 +138,7 @@ public class TipController {
                 .hydration(65)
                 .build();
         
-        TipEngineService.TipCollection tips = tipEngineService.generateAllTips(context);
+        TipEngineService.TipCollection tips = tipResultCache.generateAllTips(context);
         return ResponseEntity.ok(tips.getTips());
     }
     
@@ -160,7 +162,7 @@ public class TipController {
                     .fermentationHours(24)
                     .build();
             
-            TipEngineService.TipCollection tips = tipEngineService.generateAllTips(context);
+            TipEngineService.TipCollection tips = tipResultCache.generateAllTips(context);
             return ResponseEntity.ok(tips.getTips());
             
         } catch (IllegalArgumentException e) {
@@ -197,7 +199,7 @@ public class TipController {
                 .fermentationHours(24)
                 .build();
         
-        TipEngineService.TipCollection tips = tipEngineService.generateAllTips(context);
+        TipEngineService.TipCollection tips = tipResultCache.generateAllTips(context);
         return ResponseEntity.ok(tips.getTips());
     }
     
@@ -1,6 +1,9 @@
 package com.pizzamaestro.controller;
 
+import com.pizzamaestro.dto.response.AdvancedCalculationResponse;
+import com.pizzamaestro.service.AdvancedDoughCalculationService;
 import com.pizzamaestro.service.WeatherService;
+import com.pizzamaestro.service.engine.HourlyFermentationProfile;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -10,10 +13,14 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
 /**
  * Kontroler pogody do integracji z kalkulatorem.
  * Wykorzystuje darmowe API Open-Meteo.
@@ -27,6 +34,7 @@ import org.springframework.web.bind.annotation.*;
 public class WeatherController {
     
     private final WeatherService weatherService;
+    private final AdvancedDoughCalculationService advancedDoughCalculationService;
     
     /**
      * Pobiera pogodę na podstawie współrzędnych GPS.
@@ -140,6 +148,61 @@ public class WeatherController {
                 .build());
     }
     
+    /**
+     * Korekta fermentacji pokojowej z godzinowej prognozy temperatury wewnętrznej.
+     */
+    @GetMapping("/fermentation-forecast")
+    @Operation(summary = "Korekta fermentacji na podstawie prognozy godzinowej")
+    public ResponseEntity<AdvancedCalculationResponse.ForecastFermentation> getFermentationForecast(
+            @RequestParam 
+            @DecimalMin(value = "-90.0", message = "Szerokość geograficzna musi być >= -90")
+            @DecimalMax(value = "90.0", message = "Szerokość geograficzna musi być <= 90")
+            double latitude,
+            
+            @RequestParam 
+            @DecimalMin(value = "-180.0", message = "Długość geograficzna musi być >= -180")
+            @DecimalMax(value = "180.0", message = "Długość geograficzna musi być <= 180")
+            double longitude,
+            
+            @RequestParam 
+            @DecimalMin(value = "0.5", message = "Czas fermentacji musi wynosić co najmniej 0.5 h")
+            @DecimalMax(value = "72.0", message = "Czas fermentacji nie może przekroczyć 72 h")
+            @Parameter(description = "Czas fermentacji w temperaturze pokojowej (h)")
+            double roomHours,
+            
+            @RequestParam(defaultValue = "22.0") 
+            @DecimalMin(value = "10.0", message = "Temperatura pokojowa musi wynosić co najmniej 10°C")
+            @DecimalMax(value = "40.0", message = "Temperatura pokojowa nie może przekroczyć 40°C")
+            @Parameter(description = "Planowana temperatura pokojowa (°C)")
+            double roomTemperature,
+            
+            @RequestParam(required = false) 
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            @Parameter(description = "Początek fermentacji w czasie lokalnym lokalizacji (domyślnie teraz)")
+            LocalDateTime start) {
+        
+        log.info("🌡️ Korekta fermentacji z prognozy dla: lat={}, lon={}, {}h", latitude, longitude, roomHours);
+        
+        WeatherService.WeatherData weather = weatherService.getWeatherByCoordinates(latitude, longitude);
+        LocalDateTime localNow = LocalDateTime.now(ZoneOffset.ofTotalSeconds(weather.getUtcOffsetSeconds()));
+        LocalDateTime fermentationStart = start != null ? start : localNow;
+        
+        double[] hourlyIndoorTemperatures = weather.getHourlyIndoorTemperatures();
+        HourlyFermentationProfile profile;
+        if (weather.getHourlyStart() != null && hourlyIndoorTemperatures != null) {
+            profile = advancedDoughCalculationService.hourlyProfile(
+                    weather.getHourlyStart(), hourlyIndoorTemperatures);
+        } else {
+            // Brak prognozy godzinowej - stała bieżąca temperatura wewnętrzna
+            log.debug("   Brak prognozy godzinowej, używam temp. wewnętrznej {}°C", weather.getIndoorTemperature());
+            profile = advancedDoughCalculationService.hourlyProfile(
+                    fermentationStart, new double[] { weather.getIndoorTemperature() });
+        }
+        
+        return ResponseEntity.ok(advancedDoughCalculationService.calculateForecastFermentation(
+                profile, fermentationStart, roomHours, roomTemperature));
+    }
+    
     @lombok.Data
     @lombok.Builder
     @lombok.NoArgsConstructor
@@ -0,0 +1,65 @@
+package com.pizzamaestro.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO żądania kalkulacji wsadowej.
+ *
+ * Dwa tryby (wzajemnie wykluczające się):
+ * - {@code requests} - jawna lista żądań kalkulacji
+ * - {@code base} + zakresy - siatka "co jeśli", np. hydratacja 60-75% × fermentacja 8-72h;
+ *   nieustawiony zakres oznacza wartość z {@code base}
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCalculationRequest {
+
+    /** Jawna lista żądań - każde walidowane osobno, błędy zwracane per pozycja */
+    private List<CalculationRequest> requests;
+
+    /** Żądanie bazowe dla siatki parametrów */
+    private CalculationRequest base;
+
+    @Valid
+    private ParameterRange hydration;
+
+    @Valid
+    private ParameterRange fermentationHours;
+
+    @Valid
+    private ParameterRange roomTemperature;
+
+    public boolean isGrid() {
+        return base != null;
+    }
+
+    /**
+     * Zakres wartości parametru (włącznie z obu stron).
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ParameterRange {
+
+        @NotNull(message = "Początek zakresu jest wymagany")
+        private Double from;
+
+        @NotNull(message = "Koniec zakresu jest wymagany")
+        private Double to;
+
+        @NotNull(message = "Krok zakresu jest wymagany")
+        @DecimalMin(value = "0.1", message = "Krok zakresu musi wynosić co najmniej 0.1")
+        private Double step;
+    }
+}
@@ -20,7 +20,7 @@ import java.util.List;
  * - Typ miksera (dla obliczeń tarcia)
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class CalculationRequest {
@@ -85,7 +85,26 @@ public class AdvancedCalculationResponse {
         private Map<String, Object> calculationDetails;
         private List<String> adjustments;
     }
-    
+
+    /**
+     * Korekta fermentacji w temperaturze pokojowej z godzinowej prognozy pogody.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ForecastFermentation {
+        private LocalDateTime start;
+        private double roomHours;
+        private double plannedRoomTemperature;
+        private double averageForecastTemperature;
+        private double nominalEffectiveHours;     // W stałej temperaturze z planu
+        private double forecastEffectiveHours;    // Całkowane po prognozie godzinowej
+        private double correctionFactor;          // > 1 = szybciej niż w planie
+        private double yeastAdjustmentPercent;
+        private double adjustedRoomHours;         // Czas do zebrania planowanych godzin efektywnych
+    }
+
     /**
      * Analiza mąki.
      */
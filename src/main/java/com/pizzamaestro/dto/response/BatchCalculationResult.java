@@ -0,0 +1,36 @@
+package com.pizzamaestro.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pojedyncza pozycja wyniku kalkulacji wsadowej (jedna linia NDJSON).
+ *
+ * Zawiera parametry różnicujące pozycję, żeby klient mógł ułożyć wyniki
+ * w siatkę bez odwoływania się do żądania.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchCalculationResult {
+
+    /** Pozycja w rozwiniętej liście żądań (od 0) */
+    private int index;
+
+    private double hydration;
+
+    private int totalFermentationHours;
+
+    private Double roomTemperature;
+
+    /** Wynik - null gdy pozycja zakończyła się błędem */
+    private CalculationResponse result;
+
+    /** Komunikat błędu - null gdy kalkulacja się powiodła */
+    private String error;
+}
@@ -12,7 +12,7 @@ import java.util.List;
  * DTO odpowiedzi kalkulacji receptury.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class CalculationResponse {
@@ -59,7 +59,7 @@ public class CalculationResponse {
      * Wynik - składniki.
      */
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     @NoArgsConstructor
     @AllArgsConstructor
     public static class IngredientsResult {
@@ -84,7 +84,7 @@ public class CalculationResponse {
      * Wynik - porcja mąki w miksie.
      */
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     @NoArgsConstructor
     @AllArgsConstructor
     public static class FlourPortionResult {
@@ -101,7 +101,7 @@ public class CalculationResponse {
      * Wynik - parametry mąki/miksu.
      */
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     @NoArgsConstructor
     @AllArgsConstructor
     public static class FlourParametersResult {
@@ -117,7 +117,7 @@ public class CalculationResponse {
      * Wynik - dodatkowy składnik.
      */
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     @NoArgsConstructor
     @AllArgsConstructor
     public static class AdditionalIngredientResult {
@@ -130,7 +130,7 @@ public class CalculationResponse {
      * Wynik - procenty piekarskie.
      */
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     @NoArgsConstructor
     @AllArgsConstructor
     public static class BakerPercentagesResult {
@@ -146,7 +146,7 @@ public class CalculationResponse {
      * Wynik - preferment.
      */
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     @NoArgsConstructor
     @AllArgsConstructor
     public static class PrefermentResult {
@@ -163,7 +163,7 @@ public class CalculationResponse {
      * Wynik - ciasto główne.
      */
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     @NoArgsConstructor
     @AllArgsConstructor
     public static class MainDoughResult {
@@ -179,7 +179,7 @@ public class CalculationResponse {
      * Krok harmonogramu.
      */
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     @NoArgsConstructor
     @AllArgsConstructor
     public static class ScheduleStep {
@@ -198,7 +198,7 @@ public class CalculationResponse {
      * Informacje o piecu.
      */
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     @NoArgsConstructor
     @AllArgsConstructor
     public static class OvenInfo {
@@ -12,9 +12,10 @@ import java.util.Optional;
 
 /**
  * Repozytorium dla aktywnych pizz (w trakcie przygotowania).
+ * Zmiany kroków i statusu idą przez atomowe aktualizacje z {@link ActivePizzaRepositoryCustom}.
  */
 @Repository
-public interface ActivePizzaRepository extends MongoRepository<ActivePizza, String> {
+public interface ActivePizzaRepository extends MongoRepository<ActivePizza, String>, ActivePizzaRepositoryCustom {
 
     /**
      * Znajduje aktywną pizzę użytkownika (status IN_PROGRESS lub PLANNING)
@@ -0,0 +1,47 @@
+package com.pizzamaestro.repository;
+
+import com.pizzamaestro.model.ActivePizza;
+import com.pizzamaestro.model.ActivePizza.ActivePizzaStatus;
+import com.pizzamaestro.model.ActivePizza.StepStatus;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Atomowe, punktowe aktualizacje aktywnych pizz (bez wczytywania i zapisu całego dokumentu).
+ *
+ * Metody zwracające {@link ActivePizza} oddają dokument po zmianie albo null,
+ * gdy warunek nie został spełniony (brak pizzy, inny właściciel, zmieniony status).
+ */
+public interface ActivePizzaRepositoryCustom {
+
+    /**
+     * Pobiera tylko pola potrzebne do decyzji o zmianie kroku (właściciel, statusy, czasy kroków).
+     */
+    Optional<ActivePizza> findStepStates(String id);
+
+    /**
+     * Zmienia status kroku, o ile nadal ma status {@code expectedStatus} (null - dowolny).
+     *
+     * @param nextStepNumber krok przechodzący w IN_PROGRESS, jeśli nadal PENDING (null - żaden)
+     */
+    ActivePizza updateStepStatus(String id, String userId, int stepNumber, StepStatus expectedStatus,
+                                 StepStatus newStatus, LocalDateTime actualTime, Integer nextStepNumber);
+
+    /**
+     * Oznacza pizzę jako COMPLETED, jeśli żaden krok nie czeka ani nie jest w trakcie.
+     */
+    ActivePizza completeIfAllStepsDone(String id);
+
+    /**
+     * Zmienia status pizzy, o ile ma status {@code expectedStatus} (null - dowolny).
+     */
+    ActivePizza updateStatus(String id, String userId, ActivePizzaStatus expectedStatus, ActivePizzaStatus newStatus);
+
+    /**
+     * Oznacza krok jako powiadomiony.
+     *
+     * @return false gdy pizza nie istnieje
+     */
+    boolean markStepNotified(String id, int stepNumber, LocalDateTime sentAt);
+}
@@ -0,0 +1,68 @@
+package com.pizzamaestro.repository;
+
+import com.pizzamaestro.model.ActivePizza;
+import com.pizzamaestro.model.ActivePizza.ActivePizzaStatus;
+import com.pizzamaestro.model.ActivePizza.StepStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Implementacja {@link ActivePizzaRepositoryCustom} na {@link MongoTemplate}
+ * (fragment dołączany przez Spring Data do {@link ActivePizzaRepository}).
+ */
+@RequiredArgsConstructor
+public class ActivePizzaRepositoryCustomImpl implements ActivePizzaRepositoryCustom {
+
+    private static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<ActivePizza> findStepStates(String id) {
+        Query query = new Query(Criteria.where("id").is(id));
+        query.fields().include("userId", "status", "steps.stepNumber", "steps.status", "steps.scheduledTime");
+        return Optional.ofNullable(mongoTemplate.findOne(query, ActivePizza.class));
+    }
+
+    @Override
+    public ActivePizza updateStepStatus(String id, String userId, int stepNumber, StepStatus expectedStatus,
+                                        StepStatus newStatus, LocalDateTime actualTime, Integer nextStepNumber) {
+        return mongoTemplate.findAndModify(
+                ActivePizzaUpdates.stepQuery(id, userId, stepNumber, expectedStatus),
+                ActivePizzaUpdates.stepStatus(stepNumber, newStatus, actualTime, nextStepNumber, actualTime),
+                RETURN_NEW,
+                ActivePizza.class);
+    }
+
+    @Override
+    public ActivePizza completeIfAllStepsDone(String id) {
+        return mongoTemplate.findAndModify(
+                ActivePizzaUpdates.allStepsDoneQuery(id),
+                ActivePizzaUpdates.status(ActivePizzaStatus.COMPLETED, LocalDateTime.now()),
+                RETURN_NEW,
+                ActivePizza.class);
+    }
+
+    @Override
+    public ActivePizza updateStatus(String id, String userId, ActivePizzaStatus expectedStatus, ActivePizzaStatus newStatus) {
+        return mongoTemplate.findAndModify(
+                ActivePizzaUpdates.pizzaQuery(id, userId, expectedStatus),
+                ActivePizzaUpdates.status(newStatus, LocalDateTime.now()),
+                RETURN_NEW,
+                ActivePizza.class);
+    }
+
+    @Override
+    public boolean markStepNotified(String id, int stepNumber, LocalDateTime sentAt) {
+        return mongoTemplate.updateFirst(
+                new Query(Criteria.where("id").is(id)),
+                ActivePizzaUpdates.stepNotified(stepNumber, sentAt),
+                ActivePizza.class).getMatchedCount() > 0;
+    }
+}
@@ -0,0 +1,101 @@
+package com.pizzamaestro.repository;
+
+import com.pizzamaestro.model.ActivePizza.ActivePizzaStatus;
+import com.pizzamaestro.model.ActivePizza.StepStatus;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+
+/**
+ * Zapytania i aktualizacje punktowe dla aktywnych pizz.
+ *
+ * Każda aktualizacja zmienia tylko wskazane pola ({@code $set} na elementach tablicy
+ * {@code steps} wybranych przez {@code arrayFilters}) i zawsze:
+ * - podbija {@code version} - zapisy całego dokumentu (save) oparte na starszej wersji
+ *   dostaną konflikt zamiast nadpisać zmianę
+ * - ustawia {@code lastUpdatedAt} - auditing Springa nie działa dla aktualizacji punktowych
+ */
+public final class ActivePizzaUpdates {
+
+    static final String STEP = "s";
+    static final String NEXT_STEP = "next";
+
+    private ActivePizzaUpdates() {
+    }
+
+    /**
+     * Pizza użytkownika zawierająca krok o danym numerze (opcjonalnie w oczekiwanym statusie).
+     */
+    public static Query stepQuery(String id, String userId, int stepNumber, StepStatus expectedStatus) {
+        Criteria step = Criteria.where("stepNumber").is(stepNumber);
+        if (expectedStatus != null) {
+            step.and("status").is(expectedStatus);
+        }
+        Criteria criteria = Criteria.where("id").is(id).and("steps").elemMatch(step);
+        if (userId != null) {
+            criteria.and("userId").is(userId);
+        }
+        return new Query(criteria);
+    }
+
+    /**
+     * Pizza użytkownika (opcjonalnie w oczekiwanym statusie).
+     */
+    public static Query pizzaQuery(String id, String userId, ActivePizzaStatus expectedStatus) {
+        Criteria criteria = Criteria.where("id").is(id).and("userId").is(userId);
+        if (expectedStatus != null) {
+            criteria.and("status").is(expectedStatus);
+        }
+        return new Query(criteria);
+    }
+
+    /**
+     * Niezakończona pizza, w której żaden krok nie czeka ani nie jest w trakcie.
+     */
+    public static Query allStepsDoneQuery(String id) {
+        return new Query(Criteria.where("id").is(id)
+                .and("status").ne(ActivePizzaStatus.COMPLETED)
+                .and("steps.status").nin(StepStatus.PENDING, StepStatus.IN_PROGRESS));
+    }
+
+    /**
+     * Status i czas wykonania kroku; opcjonalnie następny krok (jeśli nadal PENDING) przechodzi w IN_PROGRESS.
+     */
+    public static Update stepStatus(int stepNumber, StepStatus status, LocalDateTime actualTime,
+                                    Integer nextStepNumber, LocalDateTime now) {
+        Update update = new Update()
+                .set("steps.$[" + STEP + "].status", status)
+                .set("steps.$[" + STEP + "].actualTime", actualTime)
+                .filterArray(Criteria.where(STEP + ".stepNumber").is(stepNumber));
+        if (nextStepNumber != null) {
+            update.set("steps.$[" + NEXT_STEP + "].status", StepStatus.IN_PROGRESS)
+                    .filterArray(Criteria.where(NEXT_STEP + ".stepNumber").is(nextStepNumber)
+                            .and(NEXT_STEP + ".status").is(StepStatus.PENDING));
+        }
+        return touch(update, now);
+    }
+
+    /**
+     * Oznaczenie kroku jako powiadomionego.
+     */
+    public static Update stepNotified(int stepNumber, LocalDateTime sentAt) {
+        Update update = new Update()
+                .set("steps.$[" + STEP + "].notificationSent", true)
+                .set("steps.$[" + STEP + "].notificationSentAt", sentAt)
+                .filterArray(Criteria.where(STEP + ".stepNumber").is(stepNumber));
+        return touch(update, sentAt);
+    }
+
+    /**
+     * Zmiana statusu pizzy.
+     */
+    public static Update status(ActivePizzaStatus status, LocalDateTime now) {
+        return touch(new Update().set("status", status), now);
+    }
+
+    private static Update touch(Update update, LocalDateTime now) {
+        return update.inc("version", 1).set("lastUpdatedAt", now);
+    }
+}
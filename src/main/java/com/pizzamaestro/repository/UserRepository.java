@@ -10,9 +10,10 @@ import java.util.Optional;
 
 /**
  * Repozytorium użytkowników.
+ * Atomowe liczniki użycia - {@link UserRepositoryCustom}.
  */
 @Repository
-public interface UserRepository extends MongoRepository<User, String> {
+public interface UserRepository extends MongoRepository<User, String>, UserRepositoryCustom {
     
     Optional<User> findByEmail(String email);
     
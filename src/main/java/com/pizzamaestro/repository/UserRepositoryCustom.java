@@ -0,0 +1,50 @@
+package com.pizzamaestro.repository;
+
+import com.pizzamaestro.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Atomowe aktualizacje liczników użycia użytkownika (bez wczytywania i zapisu całego dokumentu).
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Sprawdza limit i dolicza jedną kalkulację w jednej operacji.
+     *
+     * @return użytkownik z samymi {@code usageStats} po zmianie albo null, gdy limit
+     *         jest wyczerpany lub użytkownik nie istnieje
+     */
+    User consumeCalculation(String userId, int monthlyLimit);
+
+    /**
+     * Dolicza kalkulacje bez sprawdzania limitu.
+     *
+     * @return false gdy użytkownik nie istnieje
+     */
+    boolean addCalculations(String userId, int count);
+
+    /**
+     * Zwraca jedną kalkulację bieżącego miesiąca (po resecie miesięcznym nie ma czego zwracać).
+     *
+     * @return false gdy licznik nie został zmieniony
+     */
+    boolean releaseCalculation(String userId);
+
+    /**
+     * Dolicza kalkulacje wielu użytkownikom jednym bulkWrite.
+     *
+     * @param countsByUserId liczba kalkulacji per id użytkownika
+     * @return liczba zaktualizowanych użytkowników
+     */
+    int addCalculations(Map<String, Integer> countsByUserId);
+
+    /**
+     * Zapisuje datę ostatniego logowania wielu użytkowników jednym bulkWrite.
+     *
+     * @param lastLoginByUserId data logowania per id użytkownika
+     * @return liczba zaktualizowanych użytkowników
+     */
+    int recordLogins(Map<String, LocalDateTime> lastLoginByUserId);
+}
@@ -0,0 +1,72 @@
+package com.pizzamaestro.repository;
+
+import com.pizzamaestro.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Implementacja {@link UserRepositoryCustom} na {@link MongoTemplate}
+ * (fragment dołączany przez Spring Data do {@link UserRepository}).
+ */
+@RequiredArgsConstructor
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public User consumeCalculation(String userId, int monthlyLimit) {
+        LocalDateTime now = LocalDateTime.now();
+        return mongoTemplate.findAndModify(
+                UserUsageUpdates.calculationAllowedQuery(userId, monthlyLimit, now),
+                UserUsageUpdates.addCalculations(1, now),
+                RETURN_NEW,
+                User.class);
+    }
+
+    @Override
+    public boolean addCalculations(String userId, int count) {
+        return mongoTemplate.updateFirst(
+                UserUsageUpdates.userQuery(userId),
+                UserUsageUpdates.addCalculations(count, LocalDateTime.now()),
+                User.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public boolean releaseCalculation(String userId) {
+        LocalDateTime now = LocalDateTime.now();
+        return mongoTemplate.updateFirst(
+                UserUsageUpdates.calculationReleasableQuery(userId, now),
+                UserUsageUpdates.releaseCalculation(now),
+                User.class).getModifiedCount() > 0;
+    }
+
+    @Override
+    public int addCalculations(Map<String, Integer> countsByUserId) {
+        if (countsByUserId.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        countsByUserId.forEach((userId, count) ->
+                bulk.updateOne(UserUsageUpdates.userQuery(userId), UserUsageUpdates.addCalculations(count, now)));
+        return bulk.execute().getMatchedCount();
+    }
+
+    @Override
+    public int recordLogins(Map<String, LocalDateTime> lastLoginByUserId) {
+        if (lastLoginByUserId.isEmpty()) {
+            return 0;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        lastLoginByUserId.forEach((userId, lastLoginAt) ->
+                bulk.updateOne(UserUsageUpdates.userQuery(userId), UserUsageUpdates.recordLogin(lastLoginAt)));
+        return bulk.execute().getMatchedCount();
+    }
+}
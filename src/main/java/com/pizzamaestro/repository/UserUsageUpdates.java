@@ -0,0 +1,130 @@
+package com.pizzamaestro.repository;
+
+import com.pizzamaestro.model.User.AccountType;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Zapytania i aktualizacje liczników użycia ({@code usageStats}) użytkownika.
+ *
+ * Sprawdzenie limitu, reset miesięczny i inkrementacja idą jednym warunkowym
+ * findAndModify z aktualizacją-pipeline ({@code $set} z {@code $cond}), więc równoległe
+ * kalkulacje jednego konta nie gubią zliczeń i nie przekraczają limitu.
+ *
+ * Jak w {@link ActivePizzaUpdates}: każda aktualizacja podbija {@code version}
+ * (zapis całego dokumentu na starszej wersji dostanie konflikt zamiast nadpisać licznik)
+ * i ustawia {@code updatedAt}.
+ */
+public final class UserUsageUpdates {
+
+    static final String CALCULATIONS_THIS_MONTH = "usageStats.calculationsThisMonth";
+    static final String TOTAL_CALCULATIONS = "usageStats.totalCalculations";
+    static final String SMS_USED_THIS_MONTH = "usageStats.smsUsedThisMonth";
+    static final String LAST_CALCULATION_AT = "usageStats.lastCalculationAt";
+    static final String MONTH_RESET_AT = "usageStats.monthResetAt";
+
+    static final String LAST_LOGIN_AT = "lastLoginAt";
+
+    private static final Date EPOCH = new Date(0);
+
+    private UserUsageUpdates() {
+    }
+
+    /**
+     * Pierwsza chwila miesiąca - wcześniejszy {@code monthResetAt} oznacza nowy okres rozliczeniowy.
+     */
+    public static LocalDateTime monthStart(LocalDateTime now) {
+        return now.toLocalDate().withDayOfMonth(1).atStartOfDay();
+    }
+
+    /**
+     * Użytkownik, który może wykonać kalkulację: premium, nowy miesiąc albo limit nieosiągnięty.
+     * Zwracane są tylko pola {@code usageStats}.
+     */
+    public static Query calculationAllowedQuery(String userId, int monthlyLimit, LocalDateTime now) {
+        Query query = new Query(Criteria.where("id").is(userId).orOperator(
+                Criteria.where("accountType").in(AccountType.PREMIUM, AccountType.PRO),
+                Criteria.where("premiumExpiresAt").gt(now),
+                Criteria.where(MONTH_RESET_AT).is(null),
+                Criteria.where(MONTH_RESET_AT).lt(monthStart(now)),
+                Criteria.where(CALCULATIONS_THIS_MONTH).lt(monthlyLimit)));
+        query.fields().include("usageStats");
+        return query;
+    }
+
+    public static Query userQuery(String userId) {
+        return new Query(Criteria.where("id").is(userId));
+    }
+
+    /**
+     * Dolicza {@code count} kalkulacji; w nowym miesiącu najpierw zeruje liczniki miesięczne
+     * (jak dotychczasowy UserService.incrementCalculationCount).
+     */
+    public static AggregationUpdate addCalculations(int count, LocalDateTime now) {
+        Date nowDate = toDate(now);
+        Document newMonth = new Document("$lt", List.of(
+                new Document("$ifNull", List.of("$" + MONTH_RESET_AT, EPOCH)),
+                toDate(monthStart(now))));
+
+        Document set = new Document()
+                .append(CALCULATIONS_THIS_MONTH, new Document("$cond", List.of(
+                        newMonth, count, add(CALCULATIONS_THIS_MONTH, count))))
+                .append(SMS_USED_THIS_MONTH, new Document("$cond", List.of(
+                        newMonth, 0, new Document("$ifNull", List.of("$" + SMS_USED_THIS_MONTH, 0)))))
+                .append(MONTH_RESET_AT, new Document("$cond", List.of(
+                        newMonth, nowDate, "$" + MONTH_RESET_AT)))
+                .append(TOTAL_CALCULATIONS, add(TOTAL_CALCULATIONS, count))
+                .append(LAST_CALCULATION_AT, nowDate)
+                .append("version", add("version", 1))
+                .append("updatedAt", nowDate);
+        return AggregationUpdate.from(List.of(context -> new Document("$set", set)));
+    }
+
+    /**
+     * Konto, któremu można zwrócić kalkulację: licznik z bieżącego miesiąca i większy od zera.
+     * Kalkulacja zaliczona przed resetem miesięcznym przepada razem ze starym miesiącem.
+     */
+    public static Query calculationReleasableQuery(String userId, LocalDateTime now) {
+        return new Query(Criteria.where("id").is(userId)
+                .and(MONTH_RESET_AT).gte(monthStart(now))
+                .and(CALCULATIONS_THIS_MONTH).gt(0));
+    }
+
+    /**
+     * Zwrot kalkulacji - tylko licznik miesięczny; {@code totalCalculations}
+     * i {@code lastCalculationAt} zostają bez zmian.
+     */
+    public static Update releaseCalculation(LocalDateTime now) {
+        return new Update()
+                .inc(CALCULATIONS_THIS_MONTH, -1)
+                .inc("version", 1)
+                .set("updatedAt", now);
+    }
+
+    /**
+     * Data ostatniego logowania przez {@code $max} (spóźniony zapis paczki nie cofnie daty).
+     * Bez podbijania {@code version} - zapis w tle nie psuje optymistycznej blokady edycji profilu.
+     */
+    public static Update recordLogin(LocalDateTime lastLoginAt) {
+        return new Update().max(LAST_LOGIN_AT, lastLoginAt);
+    }
+
+    private static Document add(String field, int amount) {
+        return new Document("$add", List.of(new Document("$ifNull", List.of("$" + field, 0)), amount));
+    }
+
+    /**
+     * Daty w pipeline nie przechodzą przez konwertery Springa - ta sama strefa co przy zapisie encji.
+     */
+    private static Date toDate(LocalDateTime time) {
+        return Date.from(time.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
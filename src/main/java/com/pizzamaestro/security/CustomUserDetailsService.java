@@ -4,7 +4,6 @@ import com.pizzamaestro.model.User;
 import com.pizzamaestro.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -28,8 +27,11 @@ public class CustomUserDetailsService implements UserDetailsService {
     
     private final UserRepository userRepository;
     
+    /**
+     * Ładuje użytkownika z bazy - bez cache: przy logowaniu hasło musi być aktualne,
+     * a żądania z tokenem korzystają z {@link VerifiedTokenCache}.
+     */
     @Override
-    @Cacheable(value = "userDetails", key = "#email.toLowerCase()", unless = "#result == null")
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         if (email == null || email.trim().isEmpty()) {
             log.warn("⚠️ loadUserByUsername: email jest null lub pusty");
@@ -20,6 +20,10 @@ import java.io.IOException;
 /**
  * Filtr autentykacji JWT.
  * Przechwytuje żądania i weryfikuje tokeny JWT.
+ * 
+ * Token jest weryfikowany (podpis + exp) jednym parsowaniem tylko przy pierwszym użyciu;
+ * użytkownik trafia wtedy do {@link VerifiedTokenCache} i kolejne żądania z tym samym
+ * tokenem nie parsują go ani nie czytają użytkownika z bazy.
  */
 @Component
 @RequiredArgsConstructor
@@ -28,6 +32,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtTokenProvider tokenProvider;
     private final UserDetailsService userDetailsService;
+    private final VerifiedTokenCache tokenCache;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -37,19 +42,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
             
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String email = tokenProvider.getEmailFromToken(jwt);
-                
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                        );
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            if (StringUtils.hasText(jwt)) {
+                UserDetails userDetails = resolveUser(jwt);
+                if (userDetails != null) {
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(
+                                    userDetails,
+                                    null,
+                                    userDetails.getAuthorities()
+                            );
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception ex) {
             log.error("Nie można ustawić autentykacji użytkownika: {}", ex.getMessage());
@@ -58,6 +63,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    /**
+     * Użytkownik tokenu - z cache albo po weryfikacji tokenu i odczycie z bazy.
+     * 
+     * @return null gdy token jest nieprawidłowy lub wygasł
+     */
+    private UserDetails resolveUser(String jwt) {
+        UserDetails cached = tokenCache.get(jwt);
+        if (cached != null) {
+            return cached;
+        }
+        JwtTokenProvider.VerifiedToken verified = tokenProvider.parseToken(jwt);
+        if (verified == null) {
+            return null;
+        }
+        UserDetails userDetails = userDetailsService.loadUserByUsername(verified.subject());
+        tokenCache.put(jwt, verified, userDetails);
+        return userDetails;
+    }
+    
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -3,6 +3,7 @@ package com.pizzamaestro.security;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
@@ -15,19 +16,36 @@ import java.util.Date;
 /**
  * Provider tokenów JWT.
  * Odpowiada za generowanie i walidację tokenów.
+ * 
+ * Klucz i parser są budowane raz - {@link JwtParser} jest bezstanowy i bezpieczny wątkowo.
  */
 @Component
 @Slf4j
 public class JwtTokenProvider {
     
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    /**
+     * Zweryfikowany token: podpis i termin ważności sprawdzone jednym parsowaniem.
+     * 
+     * @param subject email użytkownika
+     * @param expiresAtMillis koniec ważności (claim exp)
+     */
+    public record VerifiedToken(String subject, long expiresAtMillis) {
+    }
     
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
+    private final long jwtExpiration;
+    private final long refreshExpiration;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
     
-    @Value("${jwt.refresh-expiration}")
-    private long refreshExpiration;
+    public JwtTokenProvider(
+            @Value("${jwt.secret}") String jwtSecret,
+            @Value("${jwt.expiration}") long jwtExpiration,
+            @Value("${jwt.refresh-expiration}") long refreshExpiration) {
+        this.jwtExpiration = jwtExpiration;
+        this.refreshExpiration = refreshExpiration;
+        this.signingKey = createSigningKey(jwtSecret);
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+    }
     
     /**
      * Generuje token dostępu.
@@ -59,43 +77,47 @@ public class JwtTokenProvider {
                 .subject(subject)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
     
     /**
-     * Pobiera email z tokenu.
+     * Weryfikuje token i odczytuje z niego dane jednym parsowaniem.
+     * 
+     * @return zweryfikowany token albo null, gdy token jest nieprawidłowy lub wygasł
      */
-    public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        
-        return claims.getSubject();
-    }
-    
-    /**
-     * Waliduje token.
-     */
-    public boolean validateToken(String token) {
+    public VerifiedToken parseToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            Date expiration = claims.getExpiration();
+            return new VerifiedToken(claims.getSubject(),
+                    expiration != null ? expiration.getTime() : Long.MAX_VALUE);
         } catch (MalformedJwtException ex) {
             log.error("Nieprawidłowy token JWT");
         } catch (ExpiredJwtException ex) {
             log.error("Token JWT wygasł");
         } catch (UnsupportedJwtException ex) {
             log.error("Nieobsługiwany token JWT");
+        } catch (SecurityException ex) {
+            log.error("Nieprawidłowy podpis tokenu JWT");
         } catch (IllegalArgumentException ex) {
             log.error("Pusty claim JWT");
         }
-        return false;
+        return null;
+    }
+    
+    /**
+     * Pobiera email z tokenu.
+     */
+    public String getEmailFromToken(String token) {
+        return parser.parseSignedClaims(token).getPayload().getSubject();
+    }
+    
+    /**
+     * Waliduje token.
+     */
+    public boolean validateToken(String token) {
+        return parseToken(token) != null;
     }
     
     /**
@@ -105,7 +127,7 @@ public class JwtTokenProvider {
         return jwtExpiration;
     }
     
-    private SecretKey getSigningKey() {
+    private static SecretKey createSigningKey(String jwtSecret) {
         // Użyj secret bezpośrednio jako bytes (UTF-8) jeśli nie jest Base64
         // lub dekoduj jeśli jest poprawnym Base64
         byte[] keyBytes;
@@ -0,0 +1,133 @@
+package com.pizzamaestro.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache zweryfikowanych tokenów JWT dla {@link JwtAuthenticationFilter}.
+ *
+ * - kluczem jest SHA-256 tokenu (surowe tokeny nie leżą w pamięci)
+ * - wpis trzyma użytkownika załadowanego przy pierwszym użyciu tokenu, więc kolejne
+ *   żądania nie weryfikują podpisu i nie czytają użytkownika z bazy
+ * - wpis wygasa razem z tokenem (claim exp), ale najpóźniej po {@code max-ttl-seconds} -
+ *   zmiany zrobione poza aplikacją (np. role w bazie) są widoczne po tym czasie
+ * - {@link #invalidateUser} usuwa od razu wszystkie tokeny użytkownika
+ *   (zmiana hasła, ról, stanu konta)
+ *
+ * Metryki: cache.* z tagiem cache=verifiedTokens.
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    static final String CACHE_NAME = "verifiedTokens";
+
+    private record Entry(UserDetails user, long expiresAtMillis) {
+    }
+
+    private final long maxTtlMillis;
+    private final LongSupplier clock;
+    private final Cache<String, Entry> cache;
+
+    public VerifiedTokenCache(
+            MeterRegistry meterRegistry,
+            @Value("${pizzamaestro.security.token-cache.maximum-size:10000}") long maximumSize,
+            @Value("${pizzamaestro.security.token-cache.max-ttl-seconds:300}") long maxTtlSeconds) {
+        this(meterRegistry, maximumSize, maxTtlSeconds, System::currentTimeMillis);
+    }
+
+    VerifiedTokenCache(MeterRegistry meterRegistry, long maximumSize, long maxTtlSeconds, LongSupplier clock) {
+        this.maxTtlMillis = TimeUnit.SECONDS.toMillis(maxTtlSeconds);
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        long ttlMillis = Math.min(entry.expiresAtMillis() - clock.getAsLong(), maxTtlMillis);
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, ttlMillis));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.getAsLong()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+
+        log.info("🔑 Cache tokenów JWT: maks. {} wpisów, maks. TTL {} s", maximumSize, maxTtlSeconds);
+    }
+
+    /**
+     * Użytkownik zweryfikowanego wcześniej tokenu albo null (brak wpisu lub token wygasł).
+     */
+    public UserDetails get(String token) {
+        Entry entry = cache.getIfPresent(hash(token));
+        if (entry == null || entry.expiresAtMillis() <= clock.getAsLong()) {
+            return null;
+        }
+        return entry.user();
+    }
+
+    /**
+     * Zapamiętuje użytkownika tokenu, który przeszedł weryfikację podpisu.
+     */
+    public void put(String token, JwtTokenProvider.VerifiedToken verified, UserDetails user) {
+        if (verified.expiresAtMillis() > clock.getAsLong()) {
+            cache.put(hash(token), new Entry(user, verified.expiresAtMillis()));
+        }
+    }
+
+    /**
+     * Usuwa wszystkie tokeny użytkownika - kolejne żądanie załaduje go od nowa.
+     */
+    public void invalidateUser(String email) {
+        if (email == null) {
+            return;
+        }
+        boolean removed = cache.asMap().values().removeIf(entry -> email.equalsIgnoreCase(entry.user().getUsername()));
+        if (removed) {
+            log.debug("🔑 Usunięto tokeny użytkownika {} z cache", email);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 niedostępne", e);
+        }
+    }
+}
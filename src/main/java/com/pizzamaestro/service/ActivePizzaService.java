@@ -6,6 +6,7 @@ import com.pizzamaestro.model.ActivePizza.*;
 import com.pizzamaestro.model.PizzaStyle;
 import com.pizzamaestro.model.Recipe;
 import com.pizzamaestro.repository.ActivePizzaRepository;
+import com.pizzamaestro.repository.ActivePizzaRepositoryCustom;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -20,12 +21,19 @@ import java.util.Optional;
 /**
  * Serwis zarządzania aktywną pizzą.
  * Obsługuje tworzenie, śledzenie postępu, przesuwanie harmonogramu i powiadomienia.
+ * 
+ * Ukończenie/pominięcie kroku, powiadomienia oraz pauza/wznowienie to atomowe aktualizacje
+ * punktowe ({@link ActivePizzaRepositoryCustom}) - bez zapisu całego dokumentu i bez
+ * konfliktów wersji przy równoczesnych kliknięciach w aplikacji i zapisach schedulera.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ActivePizzaService {
 
+    /** Ile razy ponowić ukończenie kroku, gdy jego status zmienił się między odczytem a zapisem */
+    static final int MAX_STEP_UPDATE_ATTEMPTS = 3;
+
     private final ActivePizzaRepository activePizzaRepository;
 
     // ==================== Tworzenie ====================
@@ -157,50 +165,69 @@ public class ActivePizzaService {
 
     /**
      * Oznacza krok jako ukończony.
+     * 
+     * Decyzja (status wg czasu, następny krok) zapada na podstawie odczytu samych statusów kroków,
+     * a zapis jest warunkowy - tylko jeśli krok nadal ma odczytany status. Gdy w międzyczasie
+     * ktoś go zmienił, odczyt i decyzja są powtarzane.
      */
     @Transactional
     public ActivePizza completeStep(String activePizzaId, int stepNumber, String userId, StepStatus completionStatus) {
-        ActivePizza pizza = getById(activePizzaId);
-        validateOwnership(pizza, userId);
+        for (int attempt = 1; ; attempt++) {
+            ActivePizza state = activePizzaRepository.findStepStates(activePizzaId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Aktywna pizza nie znaleziona"));
+            validateOwnership(state, userId);
+
+            ScheduledStep step = state.getSteps().stream()
+                    .filter(s -> s.getStepNumber() == stepNumber)
+                    .findFirst()
+                    .orElseThrow(() -> new ResourceNotFoundException("Krok nie znaleziony"));
+
+            // Określ status na podstawie czasu
+            LocalDateTime now = LocalDateTime.now();
+            StepStatus status = completionStatus != null ? completionStatus : statusByTime(step, now);
+
+            // Następny oczekujący krok przejdzie w tryb "w trakcie"
+            Integer nextStepNumber = state.getSteps().stream()
+                    .filter(s -> s.getStatus() == StepStatus.PENDING && s.getStepNumber() != stepNumber)
+                    .map(ScheduledStep::getStepNumber)
+                    .findFirst()
+                    .orElse(null);
+
+            ActivePizza updated = activePizzaRepository.updateStepStatus(
+                    activePizzaId, userId, stepNumber, step.getStatus(), status, now, nextStepNumber);
+
+            if (updated != null) {
+                log.info("✅ Ukończono krok {} w aktywnej pizzy {}: {}", stepNumber, activePizzaId, status);
+                
+                // Sprawdź czy wszystkie kroki ukończone
+                if (updated.isCompleted() && updated.getStatus() != ActivePizzaStatus.COMPLETED) {
+                    ActivePizza completed = activePizzaRepository.completeIfAllStepsDone(activePizzaId);
+                    if (completed != null) {
+                        log.info("🎉 Aktywna pizza {} zakończona!", activePizzaId);
+                        return completed;
+                    }
+                    return getById(activePizzaId);
+                }
+                return updated;
+            }
 
-        ScheduledStep step = pizza.getSteps().stream()
-                .filter(s -> s.getStepNumber() == stepNumber)
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException("Krok nie znaleziony"));
-
-        // Określ status na podstawie czasu
-        LocalDateTime now = LocalDateTime.now();
-        if (completionStatus == null) {
-            if (step.getScheduledTime() == null) {
-                completionStatus = StepStatus.COMPLETED;
-            } else if (now.isBefore(step.getScheduledTime().minusMinutes(5))) {
-                completionStatus = StepStatus.COMPLETED_EARLY;
-            } else if (now.isAfter(step.getScheduledTime().plusMinutes(15))) {
-                completionStatus = StepStatus.COMPLETED_LATE;
-            } else {
-                completionStatus = StepStatus.COMPLETED;
+            if (attempt >= MAX_STEP_UPDATE_ATTEMPTS) {
+                throw new IllegalStateException("Krok został równocześnie zmieniony - odśwież i spróbuj ponownie");
             }
+            log.debug("🔁 Krok {} pizzy {} zmieniony równocześnie - ponawiam (próba {})",
+                    stepNumber, activePizzaId, attempt + 1);
         }
+    }
 
-        step.setStatus(completionStatus);
-        step.setActualTime(now);
-
-        log.info("✅ Ukończono krok {} w aktywnej pizzy {}: {}", stepNumber, activePizzaId, completionStatus);
-
-        // Znajdź i oznacz następny krok jako w trakcie
-        Optional<ScheduledStep> nextStep = pizza.getSteps().stream()
-                .filter(s -> s.getStatus() == StepStatus.PENDING)
-                .findFirst();
-
-        nextStep.ifPresent(s -> s.setStatus(StepStatus.IN_PROGRESS));
-
-        // Sprawdź czy wszystkie kroki ukończone
-        if (pizza.isCompleted()) {
-            pizza.setStatus(ActivePizzaStatus.COMPLETED);
-            log.info("🎉 Aktywna pizza {} zakończona!", activePizzaId);
+    private StepStatus statusByTime(ScheduledStep step, LocalDateTime now) {
+        if (step.getScheduledTime() == null) {
+            return StepStatus.COMPLETED;
+        } else if (now.isBefore(step.getScheduledTime().minusMinutes(5))) {
+            return StepStatus.COMPLETED_EARLY;
+        } else if (now.isAfter(step.getScheduledTime().plusMinutes(15))) {
+            return StepStatus.COMPLETED_LATE;
         }
-
-        return activePizzaRepository.save(pizza);
+        return StepStatus.COMPLETED;
     }
 
     /**
@@ -208,20 +235,16 @@ public class ActivePizzaService {
      */
     @Transactional
     public ActivePizza skipStep(String activePizzaId, int stepNumber, String userId) {
-        ActivePizza pizza = getById(activePizzaId);
-        validateOwnership(pizza, userId);
+        ActivePizza updated = activePizzaRepository.updateStepStatus(
+                activePizzaId, userId, stepNumber, null, StepStatus.SKIPPED, LocalDateTime.now(), null);
 
-        ScheduledStep step = pizza.getSteps().stream()
-                .filter(s -> s.getStepNumber() == stepNumber)
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException("Krok nie znaleziony"));
-
-        step.setStatus(StepStatus.SKIPPED);
-        step.setActualTime(LocalDateTime.now());
+        if (updated == null) {
+            requireOwned(activePizzaId, userId);
+            throw new ResourceNotFoundException("Krok nie znaleziony");
+        }
 
         log.info("⏭️ Pominięto krok {} w aktywnej pizzy {}", stepNumber, activePizzaId);
-
-        return activePizzaRepository.save(pizza);
+        return updated;
     }
 
     // ==================== Przesuwanie harmonogramu ====================
@@ -270,13 +293,16 @@ public class ActivePizzaService {
      */
     @Transactional
     public ActivePizza pause(String activePizzaId, String userId) {
-        ActivePizza pizza = getById(activePizzaId);
-        validateOwnership(pizza, userId);
+        ActivePizza updated = activePizzaRepository.updateStatus(
+                activePizzaId, userId, null, ActivePizzaStatus.PAUSED);
 
-        pizza.setStatus(ActivePizzaStatus.PAUSED);
-        log.info("⏸️ Wstrzymano aktywną pizzę: {}", activePizzaId);
+        if (updated == null) {
+            requireOwned(activePizzaId, userId);
+            throw new ResourceNotFoundException("Aktywna pizza nie znaleziona");
+        }
 
-        return activePizzaRepository.save(pizza);
+        log.info("⏸️ Wstrzymano aktywną pizzę: {}", activePizzaId);
+        return updated;
     }
 
     /**
@@ -284,17 +310,16 @@ public class ActivePizzaService {
      */
     @Transactional
     public ActivePizza resume(String activePizzaId, String userId) {
-        ActivePizza pizza = getById(activePizzaId);
-        validateOwnership(pizza, userId);
+        ActivePizza updated = activePizzaRepository.updateStatus(
+                activePizzaId, userId, ActivePizzaStatus.PAUSED, ActivePizzaStatus.IN_PROGRESS);
 
-        if (pizza.getStatus() != ActivePizzaStatus.PAUSED) {
+        if (updated == null) {
+            requireOwned(activePizzaId, userId);
             throw new IllegalStateException("Można wznowić tylko wstrzymaną pizzę");
         }
 
-        pizza.setStatus(ActivePizzaStatus.IN_PROGRESS);
         log.info("▶️ Wznowiono aktywną pizzę: {}", activePizzaId);
-
-        return activePizzaRepository.save(pizza);
+        return updated;
     }
 
     /**
@@ -348,17 +373,9 @@ public class ActivePizzaService {
      */
     @Transactional
     public void markStepNotified(String activePizzaId, int stepNumber) {
-        ActivePizza pizza = getById(activePizzaId);
-        
-        pizza.getSteps().stream()
-                .filter(s -> s.getStepNumber() == stepNumber)
-                .findFirst()
-                .ifPresent(step -> {
-                    step.setNotificationSent(true);
-                    step.setNotificationSentAt(LocalDateTime.now());
-                });
-
-        activePizzaRepository.save(pizza);
+        if (!activePizzaRepository.markStepNotified(activePizzaId, stepNumber, LocalDateTime.now())) {
+            throw new ResourceNotFoundException("Aktywna pizza nie znaleziona");
+        }
     }
 
     // ==================== Generowanie harmonogramu ====================
@@ -573,6 +590,15 @@ public class ActivePizzaService {
         return steps;
     }
 
+    /**
+     * Wyjaśnia nieudaną aktualizację warunkową: brak pizzy (404) lub cudza pizza (400).
+     */
+    private ActivePizza requireOwned(String activePizzaId, String userId) {
+        ActivePizza pizza = getById(activePizzaId);
+        validateOwnership(pizza, userId);
+        return pizza;
+    }
+
     private void validateOwnership(ActivePizza pizza, String userId) {
         if (!pizza.getUserId().equals(userId)) {
             throw new IllegalArgumentException("Brak dostępu do tej aktywnej pizzy");
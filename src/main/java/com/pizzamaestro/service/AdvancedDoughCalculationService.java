@@ -3,8 +3,10 @@ package com.pizzamaestro.service;
 import com.pizzamaestro.dto.request.CalculationRequest;
 import com.pizzamaestro.dto.response.AdvancedCalculationResponse;
 import com.pizzamaestro.model.*;
-import lombok.RequiredArgsConstructor;
+import com.pizzamaestro.service.engine.HourlyFermentationProfile;
+import com.pizzamaestro.service.engine.Q10FactorTable;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -23,10 +25,25 @@ import java.util.*;
  * @author PizzaMaestro Team
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class AdvancedDoughCalculationService {
     
+    // Q10 dla drożdży ≈ 2-3, używamy 2.5; referencja 20°C
+    private static final double YEAST_Q10 = 2.5;
+    private static final double Q10_REFERENCE_TEMP = 20.0;
+    
+    /** Tablica współczynników Q10 - null gdy liczone analitycznie */
+    private final Q10FactorTable q10Table;
+    
+    public AdvancedDoughCalculationService(
+            @Value("${pizzamaestro.fermentation.lookup-tables.effective-time:false}") boolean useLookupTable) {
+        this.q10Table = useLookupTable ? new Q10FactorTable(YEAST_Q10, Q10_REFERENCE_TEMP) : null;
+        if (q10Table != null) {
+            log.info("📋 Efektywny czas fermentacji z tablicy Q10 (maks. błąd względny: {})",
+                    String.format("%.2e", q10Table.getMaxRelativeError()));
+        }
+    }
+    
     // ========================================
     // STAŁE PROFESJONALNE
     // ========================================
@@ -249,9 +266,7 @@ public class AdvancedDoughCalculationService {
         double baseYeastPercentage = 0.2; // 0.2% świeżych drożdży
         
         // Współczynnik czasowy (model logarytmiczny)
-        double timeFactor = Math.log(8) / Math.log(effectiveHours);
-        if (effectiveHours < 4) timeFactor = Math.min(timeFactor, 2.0);
-        if (effectiveHours > 96) timeFactor = Math.max(timeFactor, 0.15);
+        double timeFactor = timeFactor(effectiveHours);
         
         double yeastPercentage = baseYeastPercentage * timeFactor;
         
@@ -316,6 +331,49 @@ public class AdvancedDoughCalculationService {
                 .build();
     }
     
+    /**
+     * Profil godzinowy aktywności drożdży na tym samym modelu Q10 co
+     * {@link #calculateEffectiveFermentationTime}.
+     * 
+     * @param start pierwsza godzina prognozy
+     * @param hourlyIndoorTemps temperatura wewnętrzna godzina po godzinie
+     */
+    public HourlyFermentationProfile hourlyProfile(LocalDateTime start, double[] hourlyIndoorTemps) {
+        return new HourlyFermentationProfile(start, hourlyIndoorTemps, this::q10Factor);
+    }
+    
+    /**
+     * Korekta fazy pokojowej względem stałej temperatury z żądania: ile godzin efektywnych
+     * da prognoza i jak długo faza musi trwać, żeby ciasto dojrzało tak samo.
+     */
+    public AdvancedCalculationResponse.ForecastFermentation calculateForecastFermentation(
+            HourlyFermentationProfile profile, LocalDateTime start, double roomHours, double roomTemp) {
+        
+        if (roomHours <= 0) {
+            throw new IllegalArgumentException("Czas fermentacji musi być dodatni");
+        }
+        double nominalEffective = roomHours * q10Factor(roomTemp);
+        double forecastEffective = profile.effectiveHours(start, roomHours);
+        double correction = forecastEffective / nominalEffective;
+        double adjustedHours = profile.hoursToReach(start, nominalEffective);
+        
+        log.debug("🌡️ Prognoza: {}h od {} → {} h efektywnych (plan {}), korekta {}",
+                roomHours, start, round(forecastEffective, 1), round(nominalEffective, 1), round(correction, 3));
+        
+        return AdvancedCalculationResponse.ForecastFermentation.builder()
+                .start(start)
+                .roomHours(roomHours)
+                .plannedRoomTemperature(roomTemp)
+                .averageForecastTemperature(round(temperatureForFactor(forecastEffective / roomHours), 1))
+                .nominalEffectiveHours(round(nominalEffective, 2))
+                .forecastEffectiveHours(round(forecastEffective, 2))
+                .correctionFactor(round(correction, 3))
+                .yeastAdjustmentPercent(round((timeFactor(Math.max(1, forecastEffective))
+                        / timeFactor(Math.max(1, nominalEffective)) - 1) * 100, 1))
+                .adjustedRoomHours(round(adjustedHours, 2))
+                .build();
+    }
+    
     /**
      * Oblicza efektywny czas fermentacji w "godzinach równoważnych w 20°C".
      * Wykorzystuje uproszczone równanie Arrheniusa dla aktywności drożdży.
@@ -327,15 +385,11 @@ public class AdvancedDoughCalculationService {
             double roomHours, double roomTemp, 
             double fridgeHours, double fridgeTemp) {
         
-        // Q10 dla drożdży ≈ 2-3, używamy 2.5
-        double q10 = 2.5;
-        double referenceTemp = 20.0;
-        
         // Współczynnik dla temperatury pokojowej
-        double roomFactor = Math.pow(q10, (roomTemp - referenceTemp) / 10);
+        double roomFactor = q10Factor(roomTemp);
         
         // Współczynnik dla lodówki (4°C jest ~16°C poniżej referencji)
-        double fridgeFactor = Math.pow(q10, (fridgeTemp - referenceTemp) / 10);
+        double fridgeFactor = q10Factor(fridgeTemp);
         
         // Efektywne godziny = suma (rzeczywiste godziny × współczynnik)
         double effectiveHours = (roomHours * roomFactor) + (fridgeHours * fridgeFactor);
@@ -344,6 +398,33 @@ public class AdvancedDoughCalculationService {
         return Math.max(1, effectiveHours);
     }
     
+    /**
+     * Współczynnik czasowy ilości drożdży (model logarytmiczny, 8h w 20°C = 1).
+     */
+    private double timeFactor(double effectiveHours) {
+        double timeFactor = Math.log(8) / Math.log(effectiveHours);
+        if (effectiveHours < 4) timeFactor = Math.min(timeFactor, 2.0);
+        if (effectiveHours > 96) timeFactor = Math.max(timeFactor, 0.15);
+        return timeFactor;
+    }
+    
+    /**
+     * Temperatura o danym współczynniku aktywności - odwrotność modelu Q10.
+     */
+    private double temperatureForFactor(double factor) {
+        return Q10_REFERENCE_TEMP + 10 * Math.log(factor) / Math.log(YEAST_Q10);
+    }
+    
+    /**
+     * Współczynnik aktywności drożdży względem 20°C - z tablicy lub analitycznie.
+     */
+    private double q10Factor(double temp) {
+        if (q10Table != null) {
+            return q10Table.factor(temp);
+        }
+        return Math.pow(YEAST_Q10, (temp - Q10_REFERENCE_TEMP) / 10);
+    }
+    
     /**
      * Konwertuje ilość drożdży między typami.
      */
@@ -0,0 +1,235 @@
+package com.pizzamaestro.service;
+
+import com.pizzamaestro.dto.request.BatchCalculationRequest;
+import com.pizzamaestro.dto.request.CalculationRequest;
+import com.pizzamaestro.dto.response.BatchCalculationResult;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Kalkulacja wsadowa - wiele żądań kalkulacji w jednym wywołaniu API.
+ *
+ * Pozycje są liczone równolegle na wspólnej, ograniczonej puli wątków
+ * (przy pełnej kolejce liczy wątek wywołujący), a wyniki oddawane są
+ * strumieniowo w kolejności pozycji. W locie jest najwyżej
+ * {@code 2 × parallelism} pozycji na batch, więc pamięć nie rośnie z rozmiarem batcha.
+ *
+ * Każda pozycja przechodzi przez {@link CalculationResultCache}, a błąd
+ * jednej pozycji nie przerywa pozostałych.
+ */
+@Service
+@Slf4j
+public class BatchCalculationService {
+
+    private final CalculationResultCache calculationResultCache;
+    private final Validator validator;
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final int maxBatchSize;
+    private final int itemsPerRateLimitToken;
+
+    public BatchCalculationService(
+            CalculationResultCache calculationResultCache,
+            Validator validator,
+            @Value("${pizzamaestro.calculator.batch.parallelism:4}") int parallelism,
+            @Value("${pizzamaestro.calculator.batch.max-size:200}") int maxBatchSize,
+            @Value("${pizzamaestro.calculator.batch.items-per-rate-limit-token:10}") int itemsPerRateLimitToken) {
+        this.calculationResultCache = calculationResultCache;
+        this.validator = validator;
+        this.parallelism = parallelism;
+        this.maxBatchSize = maxBatchSize;
+        this.itemsPerRateLimitToken = itemsPerRateLimitToken;
+        this.executor = new ThreadPoolExecutor(
+                parallelism, parallelism,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(parallelism * 4),
+                Thread.ofPlatform().name("batch-calc-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        log.info("📦 Kalkulacja wsadowa: {} wątków, maks. {} pozycji, {} pozycji na żeton limitu",
+                parallelism, maxBatchSize, itemsPerRateLimitToken);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Rozwija żądanie wsadowe do listy pojedynczych żądań.
+     *
+     * @throws IllegalArgumentException gdy batch jest pusty, za duży lub ma błędny zakres
+     */
+    public List<CalculationRequest> expand(BatchCalculationRequest batch) {
+        if (batch == null) {
+            throw new IllegalArgumentException("Request nie może być null");
+        }
+        boolean hasList = batch.getRequests() != null && !batch.getRequests().isEmpty();
+        if (hasList == batch.isGrid()) {
+            throw new IllegalArgumentException("Podaj albo listę żądań (requests), albo żądanie bazowe (base) z zakresami");
+        }
+
+        if (hasList) {
+            checkSize(batch.getRequests().size());
+            return batch.getRequests();
+        }
+
+        CalculationRequest base = batch.getBase();
+        double[] hydrations = values(batch.getHydration(), base.getHydration(), "hydration");
+        double[] hours = values(batch.getFermentationHours(), base.getTotalFermentationHours(), "fermentationHours");
+        Double[] roomTemperatures = batch.getRoomTemperature() != null ?
+                boxed(values(batch.getRoomTemperature(), 0, "roomTemperature")) :
+                new Double[] { base.getRoomTemperature() };
+
+        checkSize((long) hydrations.length * hours.length * roomTemperatures.length);
+
+        List<CalculationRequest> requests = new ArrayList<>(hydrations.length * hours.length * roomTemperatures.length);
+        for (double hydration : hydrations) {
+            for (double hour : hours) {
+                for (Double roomTemperature : roomTemperatures) {
+                    requests.add(base.toBuilder()
+                            .hydration(hydration)
+                            .totalFermentationHours((int) Math.round(hour))
+                            .roomTemperature(roomTemperature)
+                            .build());
+                }
+            }
+        }
+        return requests;
+    }
+
+    /**
+     * Koszt batcha w żetonach limitu kalkulatora - jeden żeton na rozpoczęte
+     * {@code itemsPerRateLimitToken} pozycji. Duży batch kosztuje więcej niż
+     * pojedyncze żądanie, ale mniej niż N osobnych wywołań (jedno parsowanie,
+     * jeden przebieg filtrów, współdzielony cache).
+     */
+    public int rateLimitCost(int size) {
+        return Math.max(1, (size + itemsPerRateLimitToken - 1) / itemsPerRateLimitToken);
+    }
+
+    /**
+     * Liczy wszystkie pozycje i przekazuje wyniki do {@code sink} w kolejności pozycji.
+     *
+     * @param requests rozwinięte żądania
+     * @param sink     odbiorca wyników (np. zapis linii NDJSON); wyjątek z sinka przerywa batch
+     */
+    public void process(List<CalculationRequest> requests, Consumer<BatchCalculationResult> sink) {
+        int window = parallelism * 2;
+        Deque<Future<BatchCalculationResult>> inFlight = new ArrayDeque<>(window);
+        try {
+            for (int i = 0; i < requests.size(); i++) {
+                int index = i;
+                CalculationRequest request = requests.get(i);
+                inFlight.add(executor.submit(() -> calculateOne(index, request)));
+                if (inFlight.size() >= window) {
+                    sink.accept(await(inFlight.poll()));
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                sink.accept(await(inFlight.poll()));
+            }
+        } finally {
+            // Klient rozłączony lub przerwanie - nie licz niepotrzebnie reszty
+            inFlight.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private BatchCalculationResult calculateOne(int index, CalculationRequest request) {
+        BatchCalculationResult.BatchCalculationResultBuilder result = BatchCalculationResult.builder()
+                .index(index);
+        if (request == null) {
+            return result.error("Request nie może być null").build();
+        }
+        result.hydration(request.getHydration())
+                .totalFermentationHours(request.getTotalFermentationHours())
+                .roomTemperature(request.getRoomTemperature());
+
+        Set<ConstraintViolation<CalculationRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return result.error(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")))
+                    .build();
+        }
+
+        // Kalkulacje wsadowe nigdy nie zapisują receptur
+        request.setSaveRecipe(false);
+        try {
+            return result.result(calculationResultCache.calculate(request)).build();
+        } catch (IllegalArgumentException e) {
+            return result.error(e.getMessage()).build();
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Błąd pozycji {} kalkulacji wsadowej: {}", index, e.getMessage());
+            return result.error("Błąd kalkulacji").build();
+        }
+    }
+
+    private BatchCalculationResult await(Future<BatchCalculationResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Kalkulacja wsadowa została przerwana", e);
+        } catch (ExecutionException e) {
+            // calculateOne nie rzuca - tu trafiają tylko błędy typu OutOfMemoryError
+            throw new IllegalStateException("Błąd kalkulacji wsadowej", e.getCause());
+        }
+    }
+
+    private void checkSize(long size) {
+        if (size > maxBatchSize) {
+            throw new IllegalArgumentException(String.format(
+                    "Batch może zawierać maksymalnie %d kalkulacji (żądano %d)", maxBatchSize, size));
+        }
+    }
+
+    /**
+     * Wartości zakresu włącznie z końcem; brak zakresu oznacza pojedynczą wartość bazową.
+     */
+    private double[] values(BatchCalculationRequest.ParameterRange range, double baseValue, String name) {
+        if (range == null) {
+            return new double[] { baseValue };
+        }
+        if (range.getFrom() > range.getTo()) {
+            throw new IllegalArgumentException("Nieprawidłowy zakres " + name + ": początek większy od końca");
+        }
+
+        long count = (long) Math.floor((range.getTo() - range.getFrom()) / range.getStep() + 1e-9) + 1;
+        checkSize(count);
+
+        double[] values = new double[(int) count];
+        for (int i = 0; i < count; i++) {
+            // Zaokrąglenie do 0.01 - bez artefaktów typu 60.300000000000004
+            values[i] = Math.round((range.getFrom() + i * range.getStep()) * 100.0) / 100.0;
+        }
+        return values;
+    }
+
+    private Double[] boxed(double[] values) {
+        Double[] result = new Double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = values[i];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,215 @@
+package com.pizzamaestro.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pizzamaestro.constants.CalculatorConstants;
+import com.pizzamaestro.dto.request.CalculationRequest;
+import com.pizzamaestro.dto.response.CalculationResponse;
+import com.pizzamaestro.model.OvenType;
+import com.pizzamaestro.model.PizzaStyle;
+import com.pizzamaestro.model.Recipe;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cache wyników publicznych kalkulacji przed {@link DoughCalculatorService#calculate}.
+ *
+ * Kluczem jest znormalizowany zestaw pól żądania, które faktycznie wpływają
+ * na wynik (wartości domyślne są rozwinięte, pola nieużywane wyzerowane),
+ * więc np. brak temperatury i jawne 22°C trafiają w ten sam wpis.
+ *
+ * Eviction: Caffeine (W-TinyLFU) z limitem rozmiaru. Statystyki trafień,
+ * chybień i usunięć są publikowane w actuatorze jako metryki cache.*
+ * z tagiem cache=calculationResults.
+ *
+ * Jedyna część wyniku zależna od zegara - względne czasy kroków harmonogramu -
+ * jest przeliczana przy każdym trafieniu na głębokiej kopii odpowiedzi.
+ */
+@Service
+@Slf4j
+public class CalculationResultCache {
+
+    static final String CACHE_NAME = "calculationResults";
+
+    private final DoughCalculatorService calculatorService;
+    private final Cache<Key, CalculationResponse> cache;
+    private final boolean enabled;
+
+    public CalculationResultCache(
+            DoughCalculatorService calculatorService,
+            MeterRegistry meterRegistry,
+            @Value("${pizzamaestro.calculation-cache.enabled:true}") boolean enabled,
+            @Value("${pizzamaestro.calculation-cache.maximum-size:10000}") long maximumSize) {
+        this.calculatorService = calculatorService;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+
+        log.info("🗄️ Cache wyników kalkulacji: {}, maks. {} wpisów", enabled ? "włączony" : "wyłączony", maximumSize);
+    }
+
+    /**
+     * Zwraca wynik kalkulacji - z cache lub obliczony i zapamiętany.
+     *
+     * @param request parametry kalkulacji
+     * @return wynik kalkulacji (kopia przy trafieniu z harmonogramem)
+     * @throws IllegalArgumentException gdy request jest nieprawidłowy (nie jest cache'owany)
+     */
+    public CalculationResponse calculate(CalculationRequest request) {
+        if (!enabled || request == null || request.getPizzaStyle() == null) {
+            // Nieprawidłowe żądania idą prosto do serwisu, który rzuci odpowiedni wyjątek
+            return calculatorService.calculate(request);
+        }
+
+        Key key = Key.of(request);
+        CalculationResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return withFreshRelativeTimes(cached);
+        }
+
+        CalculationResponse response = calculatorService.calculate(request);
+        cache.put(key, response);
+        return withFreshRelativeTimes(response);
+    }
+
+    /**
+     * Czyści cache (np. po zmianie modelu obliczeń).
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Zwraca głęboką kopię odpowiedzi z przeliczonymi względnymi czasami kroków.
+     * Wpis w cache nigdy nie trafia do wywołującego - ani on, ani żaden jego zagnieżdżony obiekt.
+     */
+    private CalculationResponse withFreshRelativeTimes(CalculationResponse cached) {
+        List<CalculationResponse.ScheduleStep> schedule = copyEach(cached.getSchedule(), step -> step.toBuilder().build());
+        if (schedule != null) {
+            calculatorService.applyRelativeTimes(schedule, LocalDateTime.now());
+        }
+
+        return cached.toBuilder()
+                .ingredients(copy(cached.getIngredients(), CalculationResultCache::copyIngredients))
+                .bakerPercentages(copy(cached.getBakerPercentages(), p -> p.toBuilder().build()))
+                .preferment(copy(cached.getPreferment(), p -> p.toBuilder().build()))
+                .mainDough(copy(cached.getMainDough(), d -> d.toBuilder().build()))
+                .schedule(schedule)
+                .tips(copyEach(cached.getTips(), UnaryOperator.identity()))
+                .ovenInfo(copy(cached.getOvenInfo(), o -> o.toBuilder().build()))
+                .build();
+    }
+
+    private static CalculationResponse.IngredientsResult copyIngredients(CalculationResponse.IngredientsResult ingredients) {
+        return ingredients.toBuilder()
+                .additionalIngredients(copyEach(ingredients.getAdditionalIngredients(), a -> a.toBuilder().build()))
+                .flourPortions(copyEach(ingredients.getFlourPortions(), f -> f.toBuilder().build()))
+                .flourParameters(copy(ingredients.getFlourParameters(), f -> f.toBuilder().build()))
+                .build();
+    }
+
+    private static <T> T copy(T value, UnaryOperator<T> copier) {
+        return value != null ? copier.apply(value) : null;
+    }
+
+    /**
+     * Nowa, modyfikowalna lista z kopiami elementów - jak lista zbudowana przez serwis.
+     */
+    private static <T> List<T> copyEach(List<T> values, UnaryOperator<T> copier) {
+        if (values == null) {
+            return null;
+        }
+        List<T> copies = new ArrayList<>(values.size());
+        for (T value : values) {
+            copies.add(copy(value, copier));
+        }
+        return copies;
+    }
+
+    /**
+     * Kanoniczny klucz - tylko pola wpływające na wynik DoughCalculatorService.calculate,
+     * z rozwiniętymi wartościami domyślnymi.
+     */
+    record Key(
+            PizzaStyle pizzaStyle,
+            int numberOfPizzas,
+            int ballWeight,
+            double hydration,
+            double saltPercentage,
+            double oilPercentage,
+            double sugarPercentage,
+            Recipe.YeastType yeastType,
+            Double yeastPercentage,
+            Recipe.FermentationMethod fermentationMethod,
+            int totalFermentationHours,
+            double roomTemperature,
+            double fridgeTemperature,
+            OvenType ovenType,
+            int ovenTemperature,
+            Recipe.PrefermentType prefermentType,
+            double prefermentPercentage,
+            int prefermentFermentationHours,
+            List<Additional> additionalIngredients,
+            LocalDateTime plannedBakeTime) {
+
+        record Additional(String name, double percentage) {
+        }
+
+        static Key of(CalculationRequest request) {
+            PizzaStyle style = request.getPizzaStyle();
+
+            boolean preferment = request.isUsePreferment() && request.getPrefermentType() != null;
+            boolean schedule = request.isGenerateSchedule() && request.getPlannedBakeTime() != null;
+
+            List<Additional> additional = List.of();
+            if (request.getAdditionalIngredients() != null) {
+                additional = request.getAdditionalIngredients().stream()
+                        .map(a -> new Additional(a.getName(), a.getPercentage()))
+                        .toList();
+            }
+
+            return new Key(
+                    style,
+                    request.getNumberOfPizzas(),
+                    request.getBallWeight(),
+                    request.getHydration(),
+                    request.getSaltPercentage(),
+                    request.getOilPercentage(),
+                    request.getSugarPercentage(),
+                    request.getYeastType(),
+                    request.getYeastPercentage(),
+                    request.getFermentationMethod(),
+                    request.getTotalFermentationHours(),
+                    request.getRoomTemperature() != null ?
+                            request.getRoomTemperature() : CalculatorConstants.DEFAULT_ROOM_TEMPERATURE,
+                    request.getFridgeTemperature() != null ?
+                            request.getFridgeTemperature() : CalculatorConstants.DEFAULT_FRIDGE_TEMPERATURE,
+                    // Surowy typ pieca - wskazówki dla HOME_OVEN zależą od jawnego wyboru
+                    request.getOvenType(),
+                    request.getOvenTemperature() != null ? request.getOvenTemperature() : style.getOvenTemperature(),
+                    preferment ? request.getPrefermentType() : null,
+                    preferment && request.getPrefermentPercentage() != null ?
+                            request.getPrefermentPercentage() : CalculatorConstants.DEFAULT_PREFERMENT_PERCENTAGE,
+                    preferment && request.getPrefermentFermentationHours() != null ?
+                            request.getPrefermentFermentationHours() : CalculatorConstants.DEFAULT_PREFERMENT_HOURS,
+                    additional,
+                    schedule ? request.getPlannedBakeTime() : null);
+        }
+    }
+}
@@ -5,8 +5,14 @@ import com.pizzamaestro.model.ActivePizza.ScheduledStep;
 import com.pizzamaestro.model.Recipe;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
@@ -15,14 +21,17 @@ import java.util.UUID;
 /**
  * Serwis do eksportu harmonogramów do formatu iCalendar (ICS).
  * Pozwala na import harmonogramu pizzy do Google Calendar, Apple Calendar, Outlook itp.
+ * Leniwy - tworzony przy pierwszym eksporcie, nie przy starcie.
  */
 @Service
+@Lazy
 @RequiredArgsConstructor
 @Slf4j
 public class CalendarExportService {
 
     private static final DateTimeFormatter ICAL_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
     private static final String PRODID = "-//PizzaMaestro//Pizza Calendar//PL";
+    private static final int STREAM_CHUNK_CHARS = 8192;
 
     /**
      * Generuje plik iCalendar (.ics) dla aktywnej pizzy.
@@ -31,18 +40,7 @@ public class CalendarExportService {
         log.info("📅 Generowanie pliku iCal dla pizzy: {}", pizza.getName());
 
         StringBuilder ics = new StringBuilder();
-        
-        // Nagłówek kalendarza
-        ics.append("BEGIN:VCALENDAR\r\n");
-        ics.append("VERSION:2.0\r\n");
-        ics.append("PRODID:").append(PRODID).append("\r\n");
-        ics.append("CALSCALE:GREGORIAN\r\n");
-        ics.append("METHOD:PUBLISH\r\n");
-        ics.append("X-WR-CALNAME:PizzaMaestro - ").append(escapeIcalText(pizza.getName())).append("\r\n");
-        ics.append("X-WR-TIMEZONE:Europe/Warsaw\r\n");
-        
-        // Dodaj strefę czasową
-        appendTimezone(ics);
+        appendCalendarHeader(ics, pizza);
         
         // Dodaj wydarzenia dla każdego kroku
         for (ScheduledStep step : pizza.getSteps()) {
@@ -58,6 +56,54 @@ public class CalendarExportService {
         return ics.toString();
     }
 
+    /**
+     * Zapisuje plik iCalendar dla aktywnej pizzy wprost do strumienia (np. odpowiedzi HTTP).
+     * 
+     * Wydarzenia są budowane po jednym i wysyłane paczkami po ok. {@value #STREAM_CHUNK_CHARS}
+     * znaków - w pamięci nigdy nie ma całego pliku. Strumień nie jest zamykany.
+     */
+    public void writeICalForActivePizza(ActivePizza pizza, OutputStream out) throws IOException {
+        log.info("📅 Strumieniowanie pliku iCal dla pizzy: {}", pizza.getName());
+
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        StringBuilder chunk = new StringBuilder(STREAM_CHUNK_CHARS + 1024);
+        appendCalendarHeader(chunk, pizza);
+        
+        int events = 0;
+        for (ScheduledStep step : pizza.getSteps()) {
+            if (step.getScheduledTime() != null) {
+                appendEvent(chunk, pizza, step);
+                events++;
+                if (chunk.length() >= STREAM_CHUNK_CHARS) {
+                    writer.append(chunk);
+                    chunk.setLength(0);
+                }
+            }
+        }
+        
+        chunk.append("END:VCALENDAR\r\n");
+        writer.append(chunk);
+        writer.flush();
+        
+        log.info("✅ Plik iCal wysłany, {} wydarzeń", events);
+    }
+
+    /**
+     * Nagłówek kalendarza aktywnej pizzy ze strefą czasową.
+     */
+    private void appendCalendarHeader(StringBuilder ics, ActivePizza pizza) {
+        ics.append("BEGIN:VCALENDAR\r\n");
+        ics.append("VERSION:2.0\r\n");
+        ics.append("PRODID:").append(PRODID).append("\r\n");
+        ics.append("CALSCALE:GREGORIAN\r\n");
+        ics.append("METHOD:PUBLISH\r\n");
+        ics.append("X-WR-CALNAME:PizzaMaestro - ").append(escapeIcalText(pizza.getName())).append("\r\n");
+        ics.append("X-WR-TIMEZONE:Europe/Warsaw\r\n");
+        
+        // Dodaj strefę czasową
+        appendTimezone(ics);
+    }
+
     /**
      * Generuje plik iCalendar dla przepisu (harmonogram fermentacji).
      */
@@ -1,10 +1,12 @@
 package com.pizzamaestro.service;
 
+import com.pizzamaestro.constants.CalculatorConstants;
 import com.pizzamaestro.dto.request.CalculationRequest;
 import com.pizzamaestro.dto.response.CalculationResponse;
 import com.pizzamaestro.model.*;
-import com.pizzamaestro.service.strategy.FermentationStrategy;
-import com.pizzamaestro.service.strategy.FermentationStrategyFactory;
+import com.pizzamaestro.service.engine.DoughCalculationEngine;
+import com.pizzamaestro.service.engine.DoughCalculationInput;
+import com.pizzamaestro.service.engine.DoughCalculationOutput;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -23,6 +25,9 @@ import java.util.Map;
  * - Ilości drożdży na podstawie czasu i temperatury fermentacji
  * - Harmonogramu przygotowania ciasta
  * 
+ * Sama arytmetyka procentów piekarskich jest w {@link DoughCalculationEngine};
+ * ten serwis odpowiada za walidację i mapowanie wyniku na DTO.
+ * 
  * @author PizzaMaestro Team
  */
 @Service
@@ -30,7 +35,7 @@ import java.util.Map;
 @Slf4j
 public class DoughCalculatorService {
     
-    private final FermentationStrategyFactory fermentationStrategyFactory;
+    private final DoughCalculationEngine calculationEngine;
     private final IngredientService ingredientService;
     private final EnvironmentalCorrectionService environmentalCorrectionService;
     
@@ -56,27 +61,16 @@ public class DoughCalculatorService {
             throw new IllegalArgumentException("Liczba pizz musi być większa od 0");
         }
         
-        log.info("╔══════════════════════════════════════════════════════════╗");
-        log.info("║ 🍕 KALKULACJA CIASTA NA PIZZĘ                            ║");
-        log.info("╚══════════════════════════════════════════════════════════╝");
-        log.info("📊 Parametry: {} pizz × {}g, styl: {}, hydratacja: {}%", 
+        log.debug("🍕 Kalkulacja: {} pizz × {}g, styl: {}, hydratacja: {}%",
                 request.getNumberOfPizzas(), request.getBallWeight(),
                 request.getPizzaStyle(), request.getHydration());
         
-        // 1. Oblicz całkowitą wagę ciasta
-        double totalDoughWeight = request.getNumberOfPizzas() * request.getBallWeight();
-        
-        // 2. Oblicz ilość mąki (100% bazy)
-        double flourGrams = calculateFlourAmount(totalDoughWeight, request);
-        
-        // 3. Oblicz pozostałe składniki na podstawie procentów piekarskich
-        double waterGrams = flourGrams * (request.getHydration() / 100.0);
-        double saltGrams = flourGrams * (request.getSaltPercentage() / 100.0);
-        double oilGrams = flourGrams * (request.getOilPercentage() / 100.0);
-        double sugarGrams = flourGrams * (request.getSugarPercentage() / 100.0);
+        // 1-4. Rdzeń obliczeń na prymitywach (mąka, woda, sól, oliwa, cukier, drożdże, preferment)
+        DoughCalculationInput input = toEngineInput(request);
+        DoughCalculationOutput output = new DoughCalculationOutput();
+        calculationEngine.calculate(input, output);
         
-        // 4. Oblicz ilość drożdży
-        double yeastGrams = calculateYeastAmount(flourGrams, request);
+        double flourGrams = output.getFlourGrams();
         
         // 5. Buduj odpowiedź
         CalculationResponse.CalculationResponseBuilder responseBuilder = CalculationResponse.builder()
@@ -99,14 +93,14 @@ public class DoughCalculatorService {
         }
         
         responseBuilder.ingredients(CalculationResponse.IngredientsResult.builder()
-                .totalDoughWeight(round(totalDoughWeight))
+                .totalDoughWeight(round(output.getTotalDoughWeight()))
                 .flourGrams(round(flourGrams))
-                .waterGrams(round(waterGrams))
-                .saltGrams(round(saltGrams))
-                .yeastGrams(round(yeastGrams))
+                .waterGrams(round(output.getWaterGrams()))
+                .saltGrams(round(output.getSaltGrams()))
+                .yeastGrams(round(output.getYeastGrams()))
                 .yeastType(request.getYeastType().getDisplayName())
-                .oilGrams(round(oilGrams))
-                .sugarGrams(round(sugarGrams))
+                .oilGrams(round(output.getOilGrams()))
+                .sugarGrams(round(output.getSugarGrams()))
                 .additionalIngredients(additionalResults)
                 .build());
         
@@ -115,26 +109,25 @@ public class DoughCalculatorService {
                 .flour(100.0)
                 .water(request.getHydration())
                 .salt(request.getSaltPercentage())
-                .yeast(round((yeastGrams / flourGrams) * 100, 3))
+                .yeast(round(output.getYeastBakerPercentage(), 3))
                 .oil(request.getOilPercentage())
                 .sugar(request.getSugarPercentage())
                 .build());
         
         // 8. Preferment (jeśli używany)
-        if (request.isUsePreferment() && request.getPrefermentType() != null) {
-            CalculationResponse.PrefermentResult preferment = calculatePreferment(
-                    flourGrams, request.getPrefermentType(), 
-                    request.getPrefermentPercentage(), request.getPrefermentFermentationHours());
+        if (input.hasPreferment()) {
+            CalculationResponse.PrefermentResult preferment = toPrefermentResult(
+                    output, request.getPrefermentType(), request.getPrefermentFermentationHours());
             responseBuilder.preferment(preferment);
             
             // Ciasto główne po odjęciu prefermentu
             responseBuilder.mainDough(CalculationResponse.MainDoughResult.builder()
                     .flourGrams(round(flourGrams - preferment.getFlourGrams()))
-                    .waterGrams(round(waterGrams - preferment.getWaterGrams()))
-                    .saltGrams(round(saltGrams))
-                    .yeastGrams(round(yeastGrams - preferment.getYeastGrams()))
-                    .oilGrams(round(oilGrams))
-                    .sugarGrams(round(sugarGrams))
+                    .waterGrams(round(output.getWaterGrams() - preferment.getWaterGrams()))
+                    .saltGrams(round(output.getSaltGrams()))
+                    .yeastGrams(round(output.getYeastGrams() - preferment.getYeastGrams()))
+                    .oilGrams(round(output.getOilGrams()))
+                    .sugarGrams(round(output.getSugarGrams()))
                     .build());
         }
         
@@ -166,115 +159,68 @@ public class DoughCalculatorService {
     }
     
     /**
-     * Oblicza ilość mąki na podstawie całkowitej wagi ciasta.
-     * 
-     * Wzór: mąka = całkowita_waga / (1 + hydratacja + sól + oliwa + cukier + drożdże)
+     * Mapuje żądanie na płaskie wejście silnika obliczeń.
      */
-    private double calculateFlourAmount(double totalDoughWeight, CalculationRequest request) {
-        // Suma wszystkich procentów (mąka = 100%)
-        double totalPercentage = 100.0 
-                + request.getHydration() 
-                + request.getSaltPercentage() 
-                + request.getOilPercentage() 
-                + request.getSugarPercentage();
-        
-        // Szacunkowy procent drożdży (początkowo zakładamy ~0.5%)
-        totalPercentage += 0.5;
-        
-        // Dodatkowe składniki
+    private DoughCalculationInput toEngineInput(CalculationRequest request) {
+        DoughCalculationInput input = new DoughCalculationInput();
+        input.setNumberOfPizzas(request.getNumberOfPizzas());
+        input.setBallWeight(request.getBallWeight());
+        input.setHydration(request.getHydration());
+        input.setSaltPercentage(request.getSaltPercentage());
+        input.setOilPercentage(request.getOilPercentage());
+        input.setSugarPercentage(request.getSugarPercentage());
+        
+        double additionalPercentage = 0.0;
         if (request.getAdditionalIngredients() != null) {
             for (CalculationRequest.AdditionalIngredientRequest additional : request.getAdditionalIngredients()) {
-                totalPercentage += additional.getPercentage();
+                additionalPercentage += additional.getPercentage();
             }
         }
+        input.setAdditionalPercentage(additionalPercentage);
         
-        return (totalDoughWeight / totalPercentage) * 100.0;
-    }
-    
-    /**
-     * Oblicza ilość drożdży na podstawie:
-     * - Typu drożdży
-     * - Metody fermentacji
-     * - Czasu fermentacji
-     * - Temperatury
-     * 
-     * Wykorzystuje wzorzec Strategy do wyboru odpowiedniego algorytmu.
-     */
-    private double calculateYeastAmount(double flourGrams, CalculationRequest request) {
-        if (flourGrams <= 0) {
-            log.error("❌ calculateYeastAmount: nieprawidłowa ilość mąki: {}", flourGrams);
-            throw new IllegalArgumentException("Ilość mąki musi być większa od 0");
-        }
-        
-        log.debug("🍞 Obliczanie drożdży dla {}g mąki, fermentacja: {}h, metoda: {}", 
-                flourGrams, request.getTotalFermentationHours(), request.getFermentationMethod());
-        
-        // Jeśli użytkownik podał konkretny procent drożdży
+        // Jeśli użytkownik podał konkretny procent drożdży - pomijamy strategię fermentacji
         if (request.getYeastPercentage() != null) {
-            log.debug("   Użyto ręcznie podanego procentu drożdży: {}%", request.getYeastPercentage());
-            double baseYeast = flourGrams * (request.getYeastPercentage() / 100.0);
-            return convertYeastType(baseYeast, Recipe.YeastType.FRESH, request.getYeastType());
+            input.setManualYeast(true);
+            input.setYeastPercentage(request.getYeastPercentage());
         }
+        input.setYeastConversionFactor(request.getYeastType().getConversionFactor());
         
-        // Automatyczne obliczenie na podstawie czasu i temperatury
-        FermentationStrategy strategy = fermentationStrategyFactory.getStrategy(request.getFermentationMethod());
-        
-        if (strategy == null) {
-            log.error("❌ Nie znaleziono strategii fermentacji dla metody: {}", request.getFermentationMethod());
-            throw new IllegalStateException("Nie znaleziono strategii fermentacji");
+        input.setFermentationMethod(request.getFermentationMethod());
+        input.setTotalFermentationHours(request.getTotalFermentationHours());
+        if (request.getRoomTemperature() != null) {
+            input.setRoomTemperature(request.getRoomTemperature());
+        }
+        if (request.getFridgeTemperature() != null) {
+            input.setFridgeTemperature(request.getFridgeTemperature());
         }
         
-        double roomTemp = request.getRoomTemperature() != null ? request.getRoomTemperature() : 22.0;
-        double fridgeTemp = request.getFridgeTemperature() != null ? request.getFridgeTemperature() : 4.0;
-        
-        double yeastPercentage = strategy.calculateYeastPercentage(
-                request.getTotalFermentationHours(),
-                roomTemp,
-                fridgeTemp,
-                request.getFermentationMethod()
-        );
-        
-        double freshYeastGrams = flourGrams * (yeastPercentage / 100.0);
-        
-        // Konwersja na wybrany typ drożdży
-        return convertYeastType(freshYeastGrams, Recipe.YeastType.FRESH, request.getYeastType());
-    }
-    
-    /**
-     * Konwertuje ilość drożdży między typami.
-     * Przelicznik bazuje na drożdżach świeżych:
-     * - 1g suszonych instant = 3g świeżych
-     * - 1g suszonych aktywnych = 2.5g świeżych
-     */
-    private double convertYeastType(double grams, Recipe.YeastType fromType, Recipe.YeastType toType) {
-        if (fromType == toType) return grams;
-        
-        // Najpierw konwertuj na świeże
-        double freshGrams = grams / fromType.getConversionFactor();
+        if (request.isUsePreferment() && request.getPrefermentType() != null) {
+            Recipe.PrefermentType type = request.getPrefermentType();
+            input.setPrefermentPercentage(request.getPrefermentPercentage() != null ?
+                    request.getPrefermentPercentage() : CalculatorConstants.DEFAULT_PREFERMENT_PERCENTAGE);
+            input.setPrefermentHydration(type.getHydration());
+            // Drożdże w preferment - zazwyczaj bardzo mało
+            input.setPrefermentYeastRatio(switch (type) {
+                case POOLISH -> CalculatorConstants.POOLISH_YEAST_PERCENTAGE; // 0.1% świeżych
+                case BIGA -> CalculatorConstants.BIGA_YEAST_PERCENTAGE;       // 0.2% świeżych
+                case LIEVITO_MADRE -> 0; // zakwas nie potrzebuje drożdży
+            });
+        }
         
-        // Potem konwertuj na docelowy typ
-        return freshGrams * toType.getConversionFactor();
+        return input;
     }
     
     /**
-     * Oblicza recepturę prefermentu (poolish, biga, lievito madre).
+     * Buduje recepturę prefermentu (poolish, biga, lievito madre) z wyniku silnika.
      */
-    private CalculationResponse.PrefermentResult calculatePreferment(
-            double totalFlour, Recipe.PrefermentType type, 
-            Double percentage, Integer hours) {
-        
-        double prefermentPercentage = percentage != null ? percentage : 30.0;
-        int fermentationHours = hours != null ? hours : 12;
+    private CalculationResponse.PrefermentResult toPrefermentResult(
+            DoughCalculationOutput output, Recipe.PrefermentType type, Integer hours) {
         
-        double prefermentFlour = totalFlour * (prefermentPercentage / 100.0);
-        double prefermentWater = prefermentFlour * (type.getHydration() / 100.0);
+        int fermentationHours = hours != null ? hours : CalculatorConstants.DEFAULT_PREFERMENT_HOURS;
         
-        // Drożdże w preferment - zazwyczaj bardzo mało
-        double prefermentYeast = switch (type) {
-            case POOLISH -> prefermentFlour * 0.001; // 0.1% świeżych
-            case BIGA -> prefermentFlour * 0.002;    // 0.2% świeżych  
-            case LIEVITO_MADRE -> 0; // zakwas nie potrzebuje drożdży
-        };
+        double prefermentFlour = output.getPrefermentFlourGrams();
+        double prefermentWater = output.getPrefermentWaterGrams();
+        double prefermentYeast = output.getPrefermentYeastGrams();
         
         String instructions = switch (type) {
             case POOLISH -> String.format(
@@ -430,12 +376,19 @@ public class DoughCalculatorService {
         }
         
         // Dodaj względne czasy
-        LocalDateTime now = LocalDateTime.now();
+        applyRelativeTimes(steps, LocalDateTime.now());
+        
+        return steps;
+    }
+    
+    /**
+     * Ustawia względne czasy kroków ("Za 2h 30min") liczone od podanej chwili.
+     * Jedyna część harmonogramu zależna od zegara - tania do przeliczenia.
+     */
+    void applyRelativeTimes(List<CalculationResponse.ScheduleStep> steps, LocalDateTime now) {
         for (CalculationResponse.ScheduleStep step : steps) {
             step.setRelativeTime(formatRelativeTime(now, step.getScheduledTime()));
         }
-        
-        return steps;
     }
     
     private CalculationResponse.ScheduleStep createStep(
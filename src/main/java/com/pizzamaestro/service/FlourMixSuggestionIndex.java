@@ -0,0 +1,218 @@
+package com.pizzamaestro.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pizzamaestro.model.Ingredient;
+import com.pizzamaestro.model.PizzaStyle;
+import com.pizzamaestro.service.FlourMixSuggestionService.FlourMixSuggestion;
+import com.pizzamaestro.service.ingredient.IngredientCatalog;
+import com.pizzamaestro.service.ingredient.IngredientCatalogChangedEvent;
+import com.pizzamaestro.service.ingredient.IngredientCatalogSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Indeks sugestii miksów mąk przed {@link FlourMixSuggestionService#suggestForStyle}.
+ *
+ * Dla całego katalogu (brak listy mąk - większość anonimowych żądań) sugestie wszystkich
+ * stylów liczone są w tle po każdej zmianie katalogu ({@link IngredientCatalogChangedEvent})
+ * i serwowane z mapy. Dopóki przeliczenie trwa, żądanie liczy swój styl samodzielnie.
+ * Nieudane przeliczenie jest ponawiane najwcześniej po {@code retry-backoff-seconds}
+ * albo przy kolejnym zdarzeniu zmiany katalogu - do tego czasu żądania liczą styl same.
+ *
+ * Własne listy mąk trafiają do małego memo (Caffeine) z kluczem: wersja katalogu, styl
+ * i posortowane id - tylko aktywnych mąk z parametrami, więc kolejność, duplikaty i nieznane id
+ * nie rozbijają wpisów. Lista obejmująca cały katalog korzysta z indeksu stylów.
+ *
+ * Zwracane sugestie są współdzielone między żądaniami - tylko do odczytu.
+ */
+@Service
+@Slf4j
+public class FlourMixSuggestionIndex {
+
+    static final String CACHE_NAME = "flourMixSuggestions";
+
+    private final BiFunction<PizzaStyle, List<String>, FlourMixSuggestion> suggester;
+    private final Supplier<IngredientCatalogSnapshot> catalog;
+    private final Cache<Key, FlourMixSuggestion> userMemo;
+    private final long retryBackoffNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicReference<StyleIndex> styleIndex = new AtomicReference<>(new StyleIndex(-1, null, false, 0));
+
+    public FlourMixSuggestionIndex(
+            FlourMixSuggestionService flourMixSuggestionService,
+            IngredientCatalog ingredientCatalog,
+            MeterRegistry meterRegistry,
+            @Value("${pizzamaestro.flour-mix-index.user-memo-size:1000}") long userMemoSize,
+            @Value("${pizzamaestro.flour-mix-index.retry-backoff-seconds:30}") long retryBackoffSeconds) {
+        this(flourMixSuggestionService::suggestForStyle, ingredientCatalog::snapshot, userMemoSize,
+                retryBackoffSeconds, System::nanoTime);
+        CaffeineCacheMetrics.monitor(meterRegistry, userMemo, CACHE_NAME);
+    }
+
+    FlourMixSuggestionIndex(
+            BiFunction<PizzaStyle, List<String>, FlourMixSuggestion> suggester,
+            Supplier<IngredientCatalogSnapshot> catalog,
+            long userMemoSize,
+            long retryBackoffSeconds,
+            LongSupplier nanoClock) {
+        if (retryBackoffSeconds < 0) {
+            throw new IllegalArgumentException("retry-backoff-seconds nie może być ujemne");
+        }
+        this.suggester = suggester;
+        this.catalog = catalog;
+        this.retryBackoffNanos = TimeUnit.SECONDS.toNanos(retryBackoffSeconds);
+        this.nanoClock = nanoClock;
+        this.userMemo = Caffeine.newBuilder()
+                .maximumSize(userMemoSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Sugestia miksu dla stylu - z indeksu, memo albo policzona.
+     *
+     * @param availableFlourIds mąki użytkownika (null/pusta - cały katalog)
+     */
+    public FlourMixSuggestion suggestForStyle(PizzaStyle style, List<String> availableFlourIds) {
+        IngredientCatalogSnapshot snapshot = catalog.get();
+        List<String> flourIds = normalize(availableFlourIds, snapshot);
+        if (flourIds == null) {
+            return forWholeCatalog(style, snapshot.version());
+        }
+        // Serwis dostaje oryginalną listę - pusta po normalizacji to "brak mąk", nie "wszystkie"
+        return userMemo.get(new Key(snapshot.version(), style, flourIds),
+                key -> suggester.apply(style, availableFlourIds));
+    }
+
+    /**
+     * Po zmianie katalogu przelicza sugestie wszystkich stylów w tle; memo starej wersji wygasa samo.
+     */
+    @EventListener
+    public void onCatalogChanged(IngredientCatalogChangedEvent event) {
+        rebuild(event.snapshot().version(), true);
+    }
+
+    private FlourMixSuggestion forWholeCatalog(PizzaStyle style, long version) {
+        StyleIndex index = styleIndex.get();
+        if (index.version() != version || index.failed()) {
+            index = rebuild(version, false);
+        }
+        CompletableFuture<Map<PizzaStyle, FlourMixSuggestion>> suggestions = index.suggestions();
+        if (suggestions.isDone() && !suggestions.isCompletedExceptionally()) {
+            return suggestions.join().get(style);
+        }
+        return suggester.apply(style, null);
+    }
+
+    /**
+     * Zaczyna przeliczanie indeksu dla wersji (najwyżej jedno na wersję naraz).
+     * Nieudany indeks tej samej wersji jest przeliczany po backoffie albo od razu, gdy {@code retryNow}.
+     */
+    private StyleIndex rebuild(long version, boolean retryNow) {
+        while (true) {
+            StyleIndex current = styleIndex.get();
+            if (current.version() > version
+                    || current.version() == version && !current.retryDue(retryNow, nanoClock.getAsLong())) {
+                return current;
+            }
+            StyleIndex next = new StyleIndex(version, new CompletableFuture<>(), false, 0);
+            if (styleIndex.compareAndSet(current, next)) {
+                Thread.ofVirtual().name("flour-mix-index-" + version).start(() -> build(next));
+                return next;
+            }
+        }
+    }
+
+    private void build(StyleIndex index) {
+        long start = System.nanoTime();
+        try {
+            Map<PizzaStyle, FlourMixSuggestion> suggestions = new EnumMap<>(PizzaStyle.class);
+            for (PizzaStyle style : PizzaStyle.values()) {
+                if (catalog.get().version() != index.version()) {
+                    // Katalog zmienił się w trakcie - wynik i tak byłby nieaktualny
+                    index.suggestions().cancel(false);
+                    return;
+                }
+                suggestions.put(style, suggester.apply(style, null));
+            }
+            index.suggestions().complete(Collections.unmodifiableMap(suggestions));
+            log.info("🌾 Indeks miksów mąk v{}: {} stylów w {} ms", index.version(), suggestions.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Nie udało się przeliczyć indeksu miksów mąk v{}, ponowię za {} s: {}", index.version(),
+                    TimeUnit.NANOSECONDS.toSeconds(retryBackoffNanos), e.getMessage());
+            // Nieudany indeks zostaje (żądania liczą styl same), ponowienie dopiero po backoffie
+            styleIndex.compareAndSet(index, new StyleIndex(index.version(), index.suggestions(), true,
+                    nanoClock.getAsLong() + retryBackoffNanos));
+            index.suggestions().completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Posortowane id aktywnych mąk z parametrami; null gdy lista obejmuje cały katalog (lub jej brak).
+     */
+    static List<String> normalize(List<String> availableFlourIds, IngredientCatalogSnapshot snapshot) {
+        if (availableFlourIds == null || availableFlourIds.isEmpty()) {
+            return null;
+        }
+        TreeSet<String> ids = new TreeSet<>();
+        for (String id : availableFlourIds) {
+            Ingredient flour = snapshot.findById(id);
+            if (flour != null && flour.isActive() && flour.getType() == Ingredient.IngredientType.FLOUR
+                    && flour.getFlourParameters() != null) {
+                ids.add(id);
+            }
+        }
+        long allFlours = snapshot.active(Ingredient.IngredientType.FLOUR).stream()
+                .filter(flour -> flour.getFlourParameters() != null)
+                .count();
+        return !ids.isEmpty() && ids.size() == allFlours ? null : List.copyOf(ids);
+    }
+
+    CompletableFuture<Map<PizzaStyle, FlourMixSuggestion>> styleIndexReady() {
+        return styleIndex.get().suggestions();
+    }
+
+    long memoSize() {
+        userMemo.cleanUp();
+        return userMemo.estimatedSize();
+    }
+
+    /**
+     * @param failed       przeliczenie się nie udało
+     * @param retryAtNanos chwila, od której wolno je ponowić
+     */
+    private record StyleIndex(long version, CompletableFuture<Map<PizzaStyle, FlourMixSuggestion>> suggestions,
+                              boolean failed, long retryAtNanos) {
+
+        StyleIndex {
+            if (suggestions == null) {
+                suggestions = CompletableFuture.failedFuture(new IllegalStateException("Indeks nie zbudowany"));
+            }
+        }
+
+        boolean retryDue(boolean retryNow, long nowNanos) {
+            return failed && (retryNow || nowNanos - retryAtNanos >= 0);
+        }
+    }
+
+    record Key(long catalogVersion, PizzaStyle style, List<String> sortedFlourIds) {
+    }
+}
@@ -3,6 +3,7 @@ package com.pizzamaestro.service;
 import com.pizzamaestro.dto.request.CalculationRequest;
 import com.pizzamaestro.model.Ingredient;
 import com.pizzamaestro.model.PizzaStyle;
+import com.pizzamaestro.service.engine.FlourMixOptimizer;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -17,13 +18,22 @@ import java.util.stream.Collectors;
  * - Stylu pizzy (wymagana siła W, zawartość białka)
  * - Dostępnych mąk użytkownika
  * - Optymalizacji dla docelowych parametrów
+ * 
+ * Wybór mąk i proporcji: {@link FlourMixOptimizer} (miksy 1-4 mąk z całego katalogu).
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class FlourMixSuggestionService {
     
+    /** Liczba zwracanych wariantów (najlepszy + alternatywy) */
+    private static final int TOP_SUGGESTIONS = 5;
+    
+    /** Tolerancja środka zalecanej hydratacji mąki względem domyślnej hydratacji stylu (pp) */
+    private static final double HYDRATION_TOLERANCE = 5.0;
+    
     private final IngredientService ingredientService;
+    private final FlourMixOptimizer flourMixOptimizer;
     
     /**
      * Sugeruje miks mąk dla danego stylu pizzy.
@@ -112,7 +122,11 @@ public class FlourMixSuggestionService {
                         .strengthTolerance(30.0)
                         .build();
         
-        return optimizeProportions(flours, requirements, style);
+        // Do 4 mąk - optymalne proporcje wszystkich; więcej - najlepszy podzbiór
+        if (flours.size() <= FlourMixOptimizer.MAX_FLOURS) {
+            return toSuggestion(flourMixOptimizer.blend(flours, toTarget(requirements, style)), requirements, style);
+        }
+        return findOptimalMix(requirements, flours, style);
     }
     
     // ========================================
@@ -126,6 +140,8 @@ public class FlourMixSuggestionService {
                     .targetStrength(280.0)
                     .proteinTolerance(1.0)
                     .strengthTolerance(40.0)
+                    .targetExtensibility(0.55)
+                    .extensibilityTolerance(0.15)
                     .preferType00(true)
                     .description("Pizza neapolitańska wymaga mąki typu 00 o średniej sile W (260-300)")
                     .build();
@@ -203,33 +219,40 @@ public class FlourMixSuggestionService {
     private FlourMixSuggestion findOptimalMix(
             StyleRequirements requirements, List<Ingredient> availableFlours, PizzaStyle style) {
         
-        // 1. Sprawdź czy jest idealna pojedyncza mąka
-        Ingredient perfectSingle = findPerfectSingleFlour(requirements, availableFlours);
-        if (perfectSingle != null) {
-            return createSingleFlourSuggestion(perfectSingle, requirements, style);
-        }
+        List<FlourMixOptimizer.Blend> blends = flourMixOptimizer.optimize(
+                availableFlours, toTarget(requirements, style), FlourMixOptimizer.MAX_FLOURS, TOP_SUGGESTIONS);
         
-        // 2. Znajdź najlepszą kombinację 2-3 mąk
-        return findBestCombination(requirements, availableFlours, style);
+        FlourMixSuggestion best = toSuggestion(blends.get(0), requirements, style);
+        best.setAlternatives(blends.stream()
+                .skip(1)
+                .map(blend -> toSuggestion(blend, requirements, style))
+                .collect(Collectors.toList()));
+        return best;
     }
     
-    private Ingredient findPerfectSingleFlour(StyleRequirements req, List<Ingredient> flours) {
-        for (Ingredient flour : flours) {
-            Ingredient.FlourParameters params = flour.getFlourParameters();
-            
-            boolean proteinOk = Math.abs(params.getProteinContent() - req.targetProtein) <= req.proteinTolerance;
-            boolean strengthOk = params.getStrength() == null || 
-                    Math.abs(params.getStrength() - req.targetStrength) <= req.strengthTolerance;
-            
-            if (proteinOk && strengthOk) {
-                // Sprawdź dodatkowe preferencje
-                if (req.preferType00 && params.getFlourType() != Ingredient.FlourType.TYPE_00) continue;
-                if (req.preferHighGluten && params.getProteinContent() < 13.0) continue;
-                
-                return flour;
-            }
-        }
-        return null;
+    private FlourMixOptimizer.MixTarget toTarget(StyleRequirements req, PizzaStyle style) {
+        return FlourMixOptimizer.MixTarget.builder()
+                .protein(req.targetProtein)
+                .proteinTolerance(req.proteinTolerance)
+                .strength(req.targetStrength)
+                .strengthTolerance(req.strengthTolerance)
+                .extensibility(req.targetExtensibility)
+                .extensibilityTolerance(req.extensibilityTolerance)
+                .hydration(style != null ? style.getDefaultHydration() : null)
+                .hydrationTolerance(HYDRATION_TOLERANCE)
+                .preferType00(req.preferType00)
+                .preferHighGluten(req.preferHighGluten)
+                .build();
+    }
+    
+    private FlourMixSuggestion toSuggestion(
+            FlourMixOptimizer.Blend blend, StyleRequirements req, PizzaStyle style) {
+        
+        FlourMixSuggestion suggestion = blend.shares().size() == 1
+                ? createSingleFlourSuggestion(blend.shares().get(0).flour(), req, style)
+                : createMixSuggestion(blend.shares(), style);
+        suggestion.setScore(Math.round(blend.score() * 1000) / 1000.0);
+        return suggestion;
     }
     
     private FlourMixSuggestion createSingleFlourSuggestion(
@@ -272,100 +295,52 @@ public class FlourMixSuggestionService {
                 .build();
     }
     
-    private FlourMixSuggestion findBestCombination(
-            StyleRequirements req, List<Ingredient> flours, PizzaStyle style) {
+    private FlourMixSuggestion createMixSuggestion(List<FlourMixOptimizer.Share> shares, PizzaStyle style) {
         
-        // Sortuj mąki według odległości od celu
-        flours.sort((a, b) -> {
-            double distA = calculateDistance(a.getFlourParameters(), req);
-            double distB = calculateDistance(b.getFlourParameters(), req);
-            return Double.compare(distA, distB);
-        });
+        List<CalculationRequest.FlourMixEntry> mix = new ArrayList<>();
+        List<FlourMixSuggestion.FlourDetail> details = new ArrayList<>();
+        double resultProtein = 0;
+        double resultStrength = 0;
+        boolean strengthKnown = true;
         
-        // Próbuj kombinacje 2 mąk
-        if (flours.size() >= 2) {
-            for (int i = 0; i < Math.min(flours.size(), 5); i++) {
-                for (int j = i + 1; j < Math.min(flours.size(), 6); j++) {
-                    FlourMixSuggestion suggestion = tryTwoFlourMix(
-                            flours.get(i), flours.get(j), req, style);
-                    if (suggestion != null && suggestion.isSuccess()) {
-                        return suggestion;
-                    }
-                }
+        for (FlourMixOptimizer.Share share : shares) {
+            Ingredient flour = share.flour();
+            Ingredient.FlourParameters params = flour.getFlourParameters();
+            
+            mix.add(CalculationRequest.FlourMixEntry.builder()
+                    .flourId(flour.getId())
+                    .percentage(share.percentage())
+                    .build());
+            details.add(FlourMixSuggestion.FlourDetail.builder()
+                    .flourId(flour.getId())
+                    .flourName(flour.getName())
+                    .brand(flour.getBrand())
+                    .percentage(share.percentage())
+                    .proteinContent(params.getProteinContent())
+                    .strength(params.getStrength())
+                    .build());
+            
+            resultProtein += params.getProteinContent() * share.percentage() / 100;
+            if (params.getStrength() != null) {
+                resultStrength += params.getStrength() * share.percentage() / 100;
+            } else {
+                strengthKnown = false;
             }
         }
         
-        // Fallback - użyj najlepszej pojedynczej mąki
-        Ingredient best = flours.get(0);
-        return createSingleFlourSuggestion(best, req, style);
-    }
-    
-    private FlourMixSuggestion tryTwoFlourMix(
-            Ingredient flour1, Ingredient flour2, StyleRequirements req, PizzaStyle style) {
-        
-        Ingredient.FlourParameters p1 = flour1.getFlourParameters();
-        Ingredient.FlourParameters p2 = flour2.getFlourParameters();
-        
-        // Oblicz optymalną proporcję dla białka
-        double protein1 = p1.getProteinContent();
-        double protein2 = p2.getProteinContent();
-        
-        if (Math.abs(protein1 - protein2) < 0.5) {
-            // Zbyt podobne mąki - nie ma sensu miksować
-            return null;
-        }
-        
-        // Oblicz proporcję żeby osiągnąć docelowe białko
-        // targetProtein = protein1 * p + protein2 * (1-p)
-        // p = (targetProtein - protein2) / (protein1 - protein2)
-        double proportion = (req.targetProtein - protein2) / (protein1 - protein2);
-        
-        // Ogranicz do rozsądnych proporcji
-        if (proportion < 0.2 || proportion > 0.8) {
-            return null;
-        }
-        
-        double pct1 = Math.round(proportion * 100 / 5) * 5; // Zaokrąglij do 5%
-        double pct2 = 100 - pct1;
-        
-        // Oblicz wynikowe parametry
-        double resultProtein = protein1 * (pct1/100) + protein2 * (pct2/100);
-        Double resultStrength = null;
-        if (p1.getStrength() != null && p2.getStrength() != null) {
-            resultStrength = p1.getStrength() * (pct1/100) + p2.getStrength() * (pct2/100);
-        }
-        
-        List<CalculationRequest.FlourMixEntry> mix = List.of(
-                CalculationRequest.FlourMixEntry.builder()
-                        .flourId(flour1.getId())
-                        .percentage(pct1)
-                        .build(),
-                CalculationRequest.FlourMixEntry.builder()
-                        .flourId(flour2.getId())
-                        .percentage(pct2)
-                        .build()
-        );
-        
-        List<FlourMixSuggestion.FlourDetail> details = List.of(
-                FlourMixSuggestion.FlourDetail.builder()
-                        .flourId(flour1.getId())
-                        .flourName(flour1.getName())
-                        .brand(flour1.getBrand())
-                        .percentage(pct1)
-                        .proteinContent(p1.getProteinContent())
-                        .strength(p1.getStrength())
-                        .build(),
-                FlourMixSuggestion.FlourDetail.builder()
-                        .flourId(flour2.getId())
-                        .flourName(flour2.getName())
-                        .brand(flour2.getBrand())
-                        .percentage(pct2)
-                        .proteinContent(p2.getProteinContent())
-                        .strength(p2.getStrength())
-                        .build()
-        );
+        Ingredient strongest = shares.stream()
+                .map(FlourMixOptimizer.Share::flour)
+                .max(Comparator.comparingDouble(f -> f.getFlourParameters().getProteinContent()))
+                .orElseThrow();
+        Ingredient weakest = shares.stream()
+                .map(FlourMixOptimizer.Share::flour)
+                .min(Comparator.comparingDouble(f -> f.getFlourParameters().getProteinContent()))
+                .orElseThrow();
         
         String styleName = style != null ? style.getDisplayName() : "Twoich wymagań";
+        String composition = shares.stream()
+                .map(share -> String.format("%.0f%% %s", share.percentage(), share.flour().getName()))
+                .collect(Collectors.joining(" + "));
         
         return FlourMixSuggestion.builder()
                 .success(true)
@@ -373,39 +348,18 @@ public class FlourMixSuggestionService {
                 .flourMix(mix)
                 .flourDetails(details)
                 .resultProtein(Math.round(resultProtein * 10) / 10.0)
-                .resultStrength(resultStrength != null ? (double) Math.round(resultStrength) : null)
-                .message(String.format("🎯 Miks %.0f%% %s + %.0f%% %s dla %s",
-                        pct1, flour1.getName(), pct2, flour2.getName(), styleName))
+                .resultStrength(strengthKnown ? (double) Math.round(resultStrength) : null)
+                .message(String.format("🎯 Miks %s dla %s", composition, styleName))
                 .explanation(String.format(
                         "Ten miks da białko %.1f%% i siłę W ~%.0f. " +
                         "%s wzmocni strukturę, a %s zapewni elastyczność.",
                         resultProtein, 
-                        resultStrength != null ? resultStrength : 280,
-                        protein1 > protein2 ? flour1.getName() : flour2.getName(),
-                        protein1 > protein2 ? flour2.getName() : flour1.getName()))
+                        strengthKnown ? resultStrength : 280,
+                        strongest.getName(),
+                        weakest.getName()))
                 .build();
     }
     
-    private FlourMixSuggestion optimizeProportions(
-            List<Ingredient> flours, StyleRequirements req, PizzaStyle style) {
-        
-        // Dla 2 mąk - oblicz optymalną proporcję
-        if (flours.size() == 2) {
-            return tryTwoFlourMix(flours.get(0), flours.get(1), req, style);
-        }
-        
-        // Dla więcej mąk - użyj uproszczonego algorytmu z pierwszymi dwoma mąkami
-        // Pełna optymalizacja dla 3+ mąk wymaga algorytmu programowania liniowego
-        return tryTwoFlourMix(flours.get(0), flours.get(1), req, style);
-    }
-    
-    private double calculateDistance(Ingredient.FlourParameters params, StyleRequirements req) {
-        double proteinDiff = Math.abs(params.getProteinContent() - req.targetProtein);
-        double strengthDiff = params.getStrength() != null ? 
-                Math.abs(params.getStrength() - req.targetStrength) / 10.0 : 0;
-        return proteinDiff + strengthDiff;
-    }
-    
     // ========================================
     // DTO
     // ========================================
@@ -419,6 +373,8 @@ public class FlourMixSuggestionService {
         private double targetStrength;
         private double proteinTolerance;
         private double strengthTolerance;
+        private Double targetExtensibility;
+        private double extensibilityTolerance;
         private boolean preferType00;
         private boolean preferHighGluten;
         private String description;
@@ -437,6 +393,10 @@ public class FlourMixSuggestionService {
         private Double resultStrength;
         private String message;
         private String explanation;
+        /** Wynik optymalizatora - odchylenie od celu (mniej = lepiej) */
+        private Double score;
+        /** Kolejne najlepsze warianty (tylko w głównej sugestii) */
+        private List<FlourMixSuggestion> alternatives;
         
         @Data
         @Builder
@@ -4,12 +4,14 @@ import com.pizzamaestro.exception.ResourceNotFoundException;
 import com.pizzamaestro.model.Ingredient;
 import com.pizzamaestro.model.PizzaStyle;
 import com.pizzamaestro.repository.IngredientRepository;
+import com.pizzamaestro.service.ingredient.IngredientCatalog;
+import com.pizzamaestro.service.ingredient.IngredientCatalogSnapshot;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -17,6 +19,8 @@ import java.util.stream.Collectors;
 
 /**
  * Serwis zarządzania składnikami (mąki, wody, itp.).
+ * Odczyty idą z katalogu w pamięci ({@link IngredientCatalog}), zapisy - przez repozytorium
+ * z przeładowaniem katalogu.
  */
 @Service
 @RequiredArgsConstructor
@@ -25,67 +29,62 @@ import java.util.stream.Collectors;
 public class IngredientService {
     
     private final IngredientRepository ingredientRepository;
+    private final IngredientCatalog ingredientCatalog;
     
     /**
      * Pobiera wszystkie mąki.
      */
-    @Cacheable("flours")
     public List<Ingredient> getAllFlours() {
-        return ingredientRepository.findAllFlours();
+        return ingredientCatalog.snapshot().active(Ingredient.IngredientType.FLOUR);
     }
     
     /**
      * Pobiera mąki zweryfikowane.
      */
     public List<Ingredient> getVerifiedFlours() {
-        return ingredientRepository.findByTypeAndVerifiedTrueAndActiveTrue(Ingredient.IngredientType.FLOUR);
+        return ingredientCatalog.snapshot().verified(Ingredient.IngredientType.FLOUR);
     }
     
     /**
      * Pobiera mąki rekomendowane dla stylu.
      */
     public List<Ingredient> getFloursForStyle(PizzaStyle style) {
-        return ingredientRepository.findFloursRecommendedForStyle(style);
+        return ingredientCatalog.snapshot().floursForStyle(style);
     }
     
     /**
-     * Pobiera mąki po zawartości białka.
+     * Pobiera mąki po zawartości białka (rosnąco po białku).
      */
     public List<Ingredient> getFloursByProtein(double minProtein, double maxProtein) {
-        return ingredientRepository.findFloursByProteinRange(minProtein, maxProtein);
+        return ingredientCatalog.snapshot().floursByProtein(minProtein, maxProtein);
     }
     
     /**
      * Pobiera wszystkie wody.
      */
-    @Cacheable("waters")
     public List<Ingredient> getAllWaters() {
-        return ingredientRepository.findAllWaters();
+        return ingredientCatalog.snapshot().active(Ingredient.IngredientType.WATER);
     }
     
     /**
      * Pobiera wody po twardości.
      */
     public List<Ingredient> getWatersByHardness(Ingredient.HardnessLevel hardnessLevel) {
-        return ingredientRepository.findWatersByHardness(hardnessLevel);
+        return ingredientCatalog.snapshot().watersByHardness(hardnessLevel);
     }
     
     /**
      * Pobiera wszystkie drożdże.
      */
-    @Cacheable("yeasts")
     public List<Ingredient> getAllYeasts() {
-        log.info("📦 Pobieranie wszystkich drożdży z bazy");
-        return ingredientRepository.findByTypeAndActiveTrue(Ingredient.IngredientType.YEAST);
+        return ingredientCatalog.snapshot().active(Ingredient.IngredientType.YEAST);
     }
     
     /**
      * Pobiera wszystkie sole.
      */
-    @Cacheable("salts")
     public List<Ingredient> getAllSalts() {
-        log.info("📦 Pobieranie wszystkich soli z bazy");
-        return ingredientRepository.findByTypeAndActiveTrue(Ingredient.IngredientType.SALT);
+        return ingredientCatalog.snapshot().active(Ingredient.IngredientType.SALT);
     }
     
     /**
@@ -94,29 +93,33 @@ public class IngredientService {
      * Dla NY style - twarda woda (NYC style)
      */
     public List<Ingredient> getRecommendedWatersForStyle(PizzaStyle style) {
-        log.info("🔍 Szukam rekomendowanych wód dla stylu: {}", style);
+        log.debug("🔍 Szukam rekomendowanych wód dla stylu: {}", style);
+        IngredientCatalogSnapshot catalog = ingredientCatalog.snapshot();
         
         // NYC style pizza wymaga twardej wody
         if (style == PizzaStyle.NEW_YORK) {
-            return ingredientRepository.findWatersByHardness(Ingredient.HardnessLevel.HARD);
+            return catalog.watersByHardness(Ingredient.HardnessLevel.HARD);
         }
         
         // Dla większości stylów - miękka do średniej
-        List<Ingredient> softWaters = ingredientRepository.findWatersByHardness(Ingredient.HardnessLevel.SOFT);
-        List<Ingredient> mediumWaters = ingredientRepository.findWatersByHardness(Ingredient.HardnessLevel.MEDIUM);
+        List<Ingredient> softWaters = catalog.watersByHardness(Ingredient.HardnessLevel.SOFT);
+        List<Ingredient> mediumWaters = catalog.watersByHardness(Ingredient.HardnessLevel.MEDIUM);
         
-        java.util.ArrayList<Ingredient> result = new java.util.ArrayList<>();
+        List<Ingredient> result = new ArrayList<>(softWaters.size() + mediumWaters.size());
         result.addAll(softWaters);
         result.addAll(mediumWaters);
         return result;
     }
     
     /**
-     * Pobiera składnik po ID.
+     * Pobiera składnik po ID (z katalogu - obiekt współdzielony, tylko do odczytu).
      */
     public Ingredient findById(String id) {
-        return ingredientRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Składnik nie znaleziony"));
+        Ingredient ingredient = ingredientCatalog.snapshot().findById(id);
+        if (ingredient == null) {
+            throw new ResourceNotFoundException("Składnik nie znaleziony");
+        }
+        return ingredient;
     }
     
     /**
@@ -126,7 +129,7 @@ public class IngredientService {
         if (ids == null || ids.isEmpty()) {
             return List.of();
         }
-        return ingredientRepository.findAllById(ids);
+        return ingredientCatalog.snapshot().findAllByIds(ids);
     }
     
     /**
@@ -141,7 +144,7 @@ public class IngredientService {
      * Wyszukuje składniki po nazwie.
      */
     public List<Ingredient> searchByName(String name) {
-        return ingredientRepository.findByNameContainingIgnoreCaseAndActiveTrue(name);
+        return ingredientCatalog.snapshot().searchByName(name);
     }
     
     /**
@@ -151,7 +154,9 @@ public class IngredientService {
     public Ingredient addIngredient(Ingredient ingredient) {
         ingredient.setActive(true);
         ingredient.setVerified(false);
-        return ingredientRepository.save(ingredient);
+        Ingredient saved = ingredientRepository.save(ingredient);
+        ingredientCatalog.reload();
+        return saved;
     }
     
     /**
@@ -159,7 +164,7 @@ public class IngredientService {
      */
     @Transactional
     public Ingredient updateIngredient(String id, Ingredient updates) {
-        Ingredient ingredient = findById(id);
+        Ingredient ingredient = loadForUpdate(id);
         
         if (updates.getName() != null) ingredient.setName(updates.getName());
         if (updates.getBrand() != null) ingredient.setBrand(updates.getBrand());
@@ -167,7 +172,9 @@ public class IngredientService {
         if (updates.getFlourParameters() != null) ingredient.setFlourParameters(updates.getFlourParameters());
         if (updates.getWaterParameters() != null) ingredient.setWaterParameters(updates.getWaterParameters());
         
-        return ingredientRepository.save(ingredient);
+        Ingredient saved = ingredientRepository.save(ingredient);
+        ingredientCatalog.reload();
+        return saved;
     }
     
     /**
@@ -175,9 +182,10 @@ public class IngredientService {
      */
     @Transactional
     public void deleteIngredient(String id) {
-        Ingredient ingredient = findById(id);
+        Ingredient ingredient = loadForUpdate(id);
         ingredient.setActive(false);
         ingredientRepository.save(ingredient);
+        ingredientCatalog.reload();
     }
     
     /**
@@ -185,8 +193,18 @@ public class IngredientService {
      */
     @Transactional
     public Ingredient verifyIngredient(String id) {
-        Ingredient ingredient = findById(id);
+        Ingredient ingredient = loadForUpdate(id);
         ingredient.setVerified(true);
-        return ingredientRepository.save(ingredient);
+        Ingredient saved = ingredientRepository.save(ingredient);
+        ingredientCatalog.reload();
+        return saved;
+    }
+    
+    /**
+     * Świeża kopia z bazy do modyfikacji - obiektów z katalogu nie wolno zmieniać.
+     */
+    private Ingredient loadForUpdate(String id) {
+        return ingredientRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Składnik nie znaleziony"));
     }
 }
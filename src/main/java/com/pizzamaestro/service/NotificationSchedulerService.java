@@ -3,12 +3,19 @@ package com.pizzamaestro.service;
 import com.pizzamaestro.model.ActivePizza;
 import com.pizzamaestro.model.ActivePizza.*;
 import com.pizzamaestro.repository.ActivePizzaRepository;
-import lombok.RequiredArgsConstructor;
+import com.pizzamaestro.service.notification.NotificationTimeline;
+import com.pizzamaestro.service.notification.SmsDispatcher;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
@@ -16,15 +23,62 @@ import java.util.List;
 /**
  * Serwis harmonogramu powiadomień.
  * Sprawdza aktywne pizze i wysyła powiadomienia SMS o nadchodzących krokach.
+ * 
+ * Kroki są utrzymywane w {@link NotificationTimeline} (kubełki minutowe), więc tick
+ * dotyka tylko kroków, których czas powiadomienia nadszedł:
+ * - pełna przebudowa indeksu przy starcie i co {@code rebuild-interval} (siatka bezpieczeństwa)
+ * - w każdym ticku doczytywane są tylko pizze zmienione od poprzedniego ticku (lastUpdatedAt)
+ * - z Mongo pobierane są wyłącznie pola potrzebne do powiadomień (projekcja)
+ * 
+ * Wiadomości nie są wysyłane w ticku - trafiają do {@link SmsDispatcher}
+ * (asynchroniczna wysyłka, scalanie, ponowienia), więc wolne API Twilio nie blokuje schedulera.
+ * Krok jest oznaczany jako powiadomiony po przyjęciu wiadomości przez potok.
+ * 
+ * Sharding: instancja obsługuje pizze, dla których hash(id) mod shard-count == shard-index,
+ * więc kilka instancji może podzielić się pracą bez koordynacji.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class NotificationSchedulerService {
 
+    /** Zakładka okna zmian - tolerancja rozjazdu zegarów między instancjami */
+    private static final Duration CHANGE_WINDOW_OVERLAP = Duration.ofMinutes(2);
+
     private final ActivePizzaRepository activePizzaRepository;
+    private final MongoTemplate mongoTemplate;
     private final TwilioService twilioService;
+    private final SmsDispatcher smsDispatcher;
     private final ActivePizzaService activePizzaService;
+    private final int shardCount;
+    private final int shardIndex;
+    private final Duration rebuildInterval;
+
+    private final NotificationTimeline timeline = new NotificationTimeline();
+    private LocalDateTime lastRebuild;
+    private LocalDateTime lastSync;
+
+    public NotificationSchedulerService(
+            ActivePizzaRepository activePizzaRepository,
+            MongoTemplate mongoTemplate,
+            @Lazy TwilioService twilioService,
+            SmsDispatcher smsDispatcher,
+            ActivePizzaService activePizzaService,
+            @Value("${pizzamaestro.notifications.shard-count:1}") int shardCount,
+            @Value("${pizzamaestro.notifications.shard-index:0}") int shardIndex,
+            @Value("${pizzamaestro.notifications.rebuild-interval-minutes:30}") int rebuildIntervalMinutes) {
+        if (shardCount < 1 || shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException(String.format(
+                    "Nieprawidłowy shard powiadomień: %d/%d", shardIndex, shardCount));
+        }
+        this.activePizzaRepository = activePizzaRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.twilioService = twilioService;
+        this.smsDispatcher = smsDispatcher;
+        this.activePizzaService = activePizzaService;
+        this.shardCount = shardCount;
+        this.shardIndex = shardIndex;
+        this.rebuildInterval = Duration.ofMinutes(rebuildIntervalMinutes);
+    }
 
     /**
      * Sprawdza i wysyła powiadomienia co minutę.
@@ -37,121 +91,162 @@ public class NotificationSchedulerService {
             return;
         }
 
-        log.debug("🔔 Sprawdzanie powiadomień SMS...");
-        
-        // Pobierz wszystkie aktywne pizze z włączonymi powiadomieniami
-        List<ActivePizza> pizzasForNotifications = activePizzaRepository.findPizzasForNotifications();
-        
-        if (pizzasForNotifications.isEmpty()) {
-            log.trace("   Brak pizz do powiadomień");
+        LocalDateTime now = LocalDateTime.now();
+        syncTimeline(now);
+
+        List<NotificationTimeline.DueStep> dueSteps = timeline.pollDue(now);
+        if (dueSteps.isEmpty()) {
+            log.trace("   Brak kroków do powiadomień");
             return;
         }
 
-        log.debug("   Znaleziono {} pizz z włączonymi powiadomieniami", pizzasForNotifications.size());
-        
-        LocalDateTime now = LocalDateTime.now();
+        log.debug("🔔 {} kroków do sprawdzenia (pizz w indeksie: {})", dueSteps.size(), timeline.size());
         
-        for (ActivePizza pizza : pizzasForNotifications) {
-            processNotificationsForPizza(pizza, now);
+        for (NotificationTimeline.DueStep dueStep : dueSteps) {
+            if (!processDueStep(dueStep.pizza(), dueStep.step(), now)) {
+                timeline.reschedule(dueStep, now);
+            }
         }
     }
 
     /**
-     * Przetwarza powiadomienia dla pojedynczej pizzy.
+     * Doczytuje zmiany do indeksu: pełna przebudowa albo tylko pizze zmienione od ostatniego ticku.
      */
-    private void processNotificationsForPizza(ActivePizza pizza, LocalDateTime now) {
-        if (pizza.getNotificationPhone() == null || pizza.getNotificationPhone().isEmpty()) {
-            log.trace("   Pizza {} - brak numeru telefonu", pizza.getId());
+    private void syncTimeline(LocalDateTime now) {
+        if (lastRebuild == null || now.isAfter(lastRebuild.plus(rebuildInterval))) {
+            Query query = notificationProjection(new Query(Criteria.where("smsNotificationsEnabled").is(true)
+                    .and("status").in(ActivePizzaStatus.PLANNING, ActivePizzaStatus.IN_PROGRESS)));
+            List<ActivePizza> pizzas = mongoTemplate.find(query, ActivePizza.class);
+
+            timeline.clear();
+            pizzas.stream()
+                    .filter(pizza -> ownsPizza(pizza.getId()))
+                    .forEach(pizza -> timeline.index(pizza, now));
+
+            lastRebuild = now;
+            lastSync = now;
+            log.debug("🔔 Przebudowa indeksu powiadomień: {} pizz (shard {}/{}), {} zaplanowanych sprawdzeń",
+                    timeline.size(), shardIndex, shardCount, timeline.pendingChecks());
             return;
         }
 
-        int reminderMinutes = pizza.getReminderMinutesBefore() != null ? pizza.getReminderMinutesBefore() : 15;
-        
-        for (ScheduledStep step : pizza.getSteps()) {
-            // Pomiń już ukończone/pominięte kroki
-            if (step.getStatus() != StepStatus.PENDING && step.getStatus() != StepStatus.IN_PROGRESS) {
-                continue;
-            }
-            
-            // Pomiń kroki bez zaplanowanego czasu
-            if (step.getScheduledTime() == null) {
-                continue;
-            }
-            
-            // Pomiń już powiadomione kroki
-            if (step.isNotificationSent()) {
-                continue;
-            }
-            
-            long minutesToStep = ChronoUnit.MINUTES.between(now, step.getScheduledTime());
-            
-            // Sprawdź czy czas na wysłanie przypomnienia (X minut przed)
-            if (minutesToStep > 0 && minutesToStep <= reminderMinutes) {
-                sendReminderNotification(pizza, step, (int) minutesToStep);
-            }
-            // Sprawdź czy to czas na wykonanie (teraz!)
-            else if (minutesToStep <= 0 && minutesToStep >= -2) {
-                sendNowNotification(pizza, step);
-            }
-            // Sprawdź czy krok jest opóźniony (więcej niż 10 minut po)
-            else if (minutesToStep < -10 && minutesToStep >= -30) {
-                sendOverdueNotification(pizza, step, (int) Math.abs(minutesToStep));
+        // Wszystkie statusy - żeby zauważyć anulowanie, wyłączenie SMS itp.
+        Query query = notificationProjection(new Query(
+                Criteria.where("lastUpdatedAt").gte(lastSync.minus(CHANGE_WINDOW_OVERLAP))));
+        List<ActivePizza> changed = mongoTemplate.find(query, ActivePizza.class);
+        lastSync = now;
+
+        for (ActivePizza pizza : changed) {
+            if (ownsPizza(pizza.getId())) {
+                timeline.index(pizza, now);
             }
         }
+        if (!changed.isEmpty()) {
+            log.trace("   Zaktualizowano {} zmienionych pizz w indeksie powiadomień", changed.size());
+        }
+    }
+
+    /**
+     * Tylko pola potrzebne do powiadomień - bez opisów, notatek, ikon itd.
+     */
+    private static Query notificationProjection(Query query) {
+        query.fields()
+                .include("userId", "status", "smsNotificationsEnabled", "notificationPhone", "reminderMinutesBefore")
+                .include("steps.stepNumber", "steps.title", "steps.scheduledTime", "steps.status", "steps.notificationSent");
+        return query;
+    }
+
+    boolean ownsPizza(String pizzaId) {
+        return Math.floorMod(pizzaId.hashCode(), shardCount) == shardIndex;
+    }
+
+    /**
+     * Przetwarza krok, którego czas sprawdzenia nadszedł.
+     * 
+     * @return true gdy powiadomienie zostało przyjęte do wysyłki
+     */
+    private boolean processDueStep(ActivePizza pizza, ScheduledStep step, LocalDateTime now) {
+        int reminderMinutes = pizza.getReminderMinutesBefore() != null ? pizza.getReminderMinutesBefore() : 15;
+        long minutesToStep = ChronoUnit.MINUTES.between(now, step.getScheduledTime());
+
+        boolean sent = false;
+        // Sprawdź czy czas na wysłanie przypomnienia (X minut przed)
+        if (minutesToStep > 0 && minutesToStep <= reminderMinutes) {
+            sent = sendReminderNotification(pizza, step, (int) minutesToStep);
+        }
+        // Sprawdź czy to czas na wykonanie (teraz!)
+        else if (minutesToStep <= 0 && minutesToStep >= -2) {
+            sent = sendNowNotification(pizza, step);
+        }
+        // Sprawdź czy krok jest opóźniony (więcej niż 10 minut po)
+        else if (minutesToStep < -10 && minutesToStep >= -30) {
+            sent = sendOverdueNotification(pizza, step, (int) Math.abs(minutesToStep));
+        }
+
+        if (sent) {
+            // Lokalna migawka od razu - zmiana z Mongo dotrze w kolejnym ticku
+            step.setNotificationSent(true);
+            step.setNotificationSentAt(now);
+        }
+        return sent;
     }
 
     /**
      * Wysyła przypomnienie przed krokiem.
      */
-    private void sendReminderNotification(ActivePizza pizza, ScheduledStep step, int minutesBefore) {
-        log.info("📱 Wysyłanie przypomnienia dla pizzy {}, krok {}: {} (za {} min)",
+    private boolean sendReminderNotification(ActivePizza pizza, ScheduledStep step, int minutesBefore) {
+        log.info("📱 Kolejkowanie przypomnienia dla pizzy {}, krok {}: {} (za {} min)",
                 pizza.getId(), step.getStepNumber(), step.getTitle(), minutesBefore);
         
-        boolean sent = twilioService.sendStepReminder(
+        boolean sent = smsDispatcher.enqueue(
                 pizza.getNotificationPhone(),
-                step.getTitle(),
-                minutesBefore
+                TwilioService.stepReminderMessage(step.getTitle(), minutesBefore),
+                pizza.getUserId()
         );
         
         if (sent) {
             activePizzaService.markStepNotified(pizza.getId(), step.getStepNumber());
         }
+        return sent;
     }
 
     /**
      * Wysyła powiadomienie "teraz!".
      */
-    private void sendNowNotification(ActivePizza pizza, ScheduledStep step) {
-        log.info("📱 Wysyłanie powiadomienia TERAZ dla pizzy {}, krok {}: {}",
+    private boolean sendNowNotification(ActivePizza pizza, ScheduledStep step) {
+        log.info("📱 Kolejkowanie powiadomienia TERAZ dla pizzy {}, krok {}: {}",
                 pizza.getId(), step.getStepNumber(), step.getTitle());
         
-        boolean sent = twilioService.sendStepNow(
+        boolean sent = smsDispatcher.enqueue(
                 pizza.getNotificationPhone(),
-                step.getTitle()
+                TwilioService.stepNowMessage(step.getTitle()),
+                pizza.getUserId()
         );
         
         if (sent) {
             activePizzaService.markStepNotified(pizza.getId(), step.getStepNumber());
         }
+        return sent;
     }
 
     /**
      * Wysyła powiadomienie o opóźnieniu.
      */
-    private void sendOverdueNotification(ActivePizza pizza, ScheduledStep step, int minutesOverdue) {
-        log.info("📱 Wysyłanie powiadomienia o opóźnieniu dla pizzy {}, krok {}: {} ({} min temu)",
+    private boolean sendOverdueNotification(ActivePizza pizza, ScheduledStep step, int minutesOverdue) {
+        log.info("📱 Kolejkowanie powiadomienia o opóźnieniu dla pizzy {}, krok {}: {} ({} min temu)",
                 pizza.getId(), step.getStepNumber(), step.getTitle(), minutesOverdue);
         
-        boolean sent = twilioService.sendStepOverdue(
+        boolean sent = smsDispatcher.enqueue(
                 pizza.getNotificationPhone(),
-                step.getTitle(),
-                minutesOverdue
+                TwilioService.stepOverdueMessage(step.getTitle(), minutesOverdue),
+                pizza.getUserId()
         );
         
         if (sent) {
             // Oznacz jako powiadomione aby nie spamować
             activePizzaService.markStepNotified(pizza.getId(), step.getStepNumber());
         }
+        return sent;
     }
 
     /**
@@ -164,20 +259,39 @@ public class NotificationSchedulerService {
             return;
         }
 
-        // Znajdź pizze które właśnie zostały ukończone (ostatnia aktualizacja w ciągu 5 min)
+        // Pizze ukończone w ciągu ostatnich 5 min (ostatnia aktualizacja) - filtr po stronie Mongo
         LocalDateTime fiveMinutesAgo = LocalDateTime.now().minusMinutes(5);
-        List<ActivePizza> completedPizzas = activePizzaRepository.findByStatusIn(
-                List.of(ActivePizzaStatus.COMPLETED)
-        );
+        notifyCompleted(mongoTemplate.find(completedPizzasQuery(fiveMinutesAgo), ActivePizza.class));
+    }
 
+    /**
+     * Ukończone pizze z włączonymi SMS zaktualizowane od {@code since} - z projekcją jak w indeksie.
+     */
+    static Query completedPizzasQuery(LocalDateTime since) {
+        Query query = notificationProjection(new Query(Criteria.where("status").is(ActivePizzaStatus.COMPLETED)
+                .and("lastUpdatedAt").gte(since)
+                .and("smsNotificationsEnabled").is(true)));
+        query.fields().include("name");
+        return query;
+    }
+
+    /**
+     * Gratulacje dla ukończonych pizz z tego sharda - każda instancja wysyła tylko swoje.
+     *
+     * @return liczba wiadomości przyjętych do wysyłki
+     */
+    int notifyCompleted(List<ActivePizza> completedPizzas) {
+        int enqueued = 0;
         for (ActivePizza pizza : completedPizzas) {
-            if (pizza.getLastUpdatedAt() != null && pizza.getLastUpdatedAt().isAfter(fiveMinutesAgo)) {
-                if (pizza.isSmsNotificationsEnabled() && pizza.getNotificationPhone() != null) {
-                    log.info("🎉 Wysyłanie gratulacji dla ukończonej pizzy: {}", pizza.getName());
-                    twilioService.sendPizzaReady(pizza.getNotificationPhone(), pizza.getName());
+            if (ownsPizza(pizza.getId()) && pizza.getNotificationPhone() != null) {
+                log.info("🎉 Wysyłanie gratulacji dla ukończonej pizzy: {}", pizza.getName());
+                if (smsDispatcher.enqueue(pizza.getNotificationPhone(),
+                        TwilioService.pizzaReadyMessage(pizza.getName()), pizza.getUserId())) {
+                    enqueued++;
                 }
             }
         }
+        return enqueued;
     }
 
     /**
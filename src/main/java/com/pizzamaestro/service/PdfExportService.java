@@ -9,16 +9,21 @@ import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.format.DateTimeFormatter;
 
 /**
  * Serwis do generowania PDF z przepisami na pizzę.
+ * Leniwy - PDFBox ładowany dopiero przy pierwszym eksporcie, nie przy starcie.
  */
 @Service
+@Lazy
 @RequiredArgsConstructor
 @Slf4j
 public class PdfExportService {
@@ -28,11 +33,23 @@ public class PdfExportService {
     private static final float FONT_SIZE_HEADER = 14;
     private static final float FONT_SIZE_NORMAL = 11;
     private static final float LINE_HEIGHT = 16;
+    private static final int STREAM_CHUNK_BYTES = 8192;
 
     /**
      * Generuje PDF z przepisem na pizzę.
      */
     public byte[] generateRecipePdf(Recipe recipe) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeRecipePdf(recipe, baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Zapisuje PDF z przepisem wprost do strumienia (np. odpowiedzi HTTP), paczkami
+     * po {@value #STREAM_CHUNK_BYTES} bajtów - bez kopii całego pliku w pamięci.
+     * Strumień nie jest zamykany.
+     */
+    public void writeRecipePdf(Recipe recipe, OutputStream out) throws IOException {
         log.info("📄 Generowanie PDF dla przepisu: {}", recipe.getName());
 
         try (PDDocument document = new PDDocument()) {
@@ -140,11 +157,11 @@ public class PdfExportService {
                 drawSmallText(content, "Wygenerowano przez PizzaMaestro | pizzamaestro.pl", yPosition);
             }
 
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            document.save(baos);
+            BufferedOutputStream buffered = new BufferedOutputStream(out, STREAM_CHUNK_BYTES);
+            document.save(buffered);
+            buffered.flush();
             
-            log.info("✅ PDF wygenerowany pomyślnie ({} bajtów)", baos.size());
-            return baos.toByteArray();
+            log.info("✅ PDF wygenerowany pomyślnie");
         }
     }
 
@@ -0,0 +1,102 @@
+package com.pizzamaestro.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pizzamaestro.service.TipEngineService.CalculationContext;
+import com.pizzamaestro.service.TipEngineService.TipCollection;
+import com.pizzamaestro.service.tips.TipPlan;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+
+/**
+ * Cache wyników {@link TipEngineService#generateAllTips} dla suwaków w kreatorze receptury.
+ *
+ * Kluczem jest skwantowany kontekst: numer przedziału w każdym wymiarze indeksu reguł
+ * (hydratacja, fermentacja, temperatura, siła mąki, styl, metoda, ...). Progi są zbierane
+ * automatycznie z warunków reguł, więc sąsiednie pozycje suwaka w tym samym przedziale
+ * dzielą wpis, a nowa reguła z nowym progiem po prostu dokłada przedział - klucz nie może
+ * pominąć warunku, od którego zależy wybór wskazówek.
+ *
+ * W cache jest plan (wybrane reguły i wyrenderowane stałe wskazówki); teksty z wartościami
+ * kontekstu (np. "Hydratacja 63%") i podsumowanie są wypełniane przy każdym trafieniu.
+ *
+ * Eviction: Caffeine (W-TinyLFU) z limitem rozmiaru, metryki cache.* z tagiem cache=tipResults.
+ */
+@Service
+@Slf4j
+public class TipResultCache {
+
+    static final String CACHE_NAME = "tipResults";
+
+    private final TipEngineService tipEngineService;
+    private final Cache<Key, TipPlan> cache;
+    private final boolean enabled;
+
+    public TipResultCache(
+            TipEngineService tipEngineService,
+            MeterRegistry meterRegistry,
+            @Value("${pizzamaestro.tip-cache.enabled:true}") boolean enabled,
+            @Value("${pizzamaestro.tip-cache.maximum-size:5000}") long maximumSize) {
+        this.tipEngineService = tipEngineService;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+
+        log.info("🗄️ Cache tipów: {}, maks. {} wpisów", enabled ? "włączony" : "wyłączony", maximumSize);
+    }
+
+    /**
+     * Wszystkie tipy dla konfiguracji - plan z cache, teksty dla tego kontekstu.
+     *
+     * @throws IllegalArgumentException gdy kontekst jest null
+     */
+    public TipCollection generateAllTips(CalculationContext context) {
+        if (!enabled || context == null) {
+            return tipEngineService.generateAllTips(context);
+        }
+        int[] bands = tipEngineService.bands(context);
+        TipPlan plan = cache.get(new Key(bands), key -> tipEngineService.plan(bands));
+        return tipEngineService.generate(context, plan);
+    }
+
+    /**
+     * Czyści cache.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Numery przedziałów kontekstu w kolejności wymiarów indeksu reguł.
+     */
+    record Key(int[] bands) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && Arrays.equals(bands, key.bands);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(bands);
+        }
+
+        @Override
+        public String toString() {
+            return "Key" + Arrays.toString(bands);
+        }
+    }
+}
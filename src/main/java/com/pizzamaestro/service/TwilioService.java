@@ -1,5 +1,7 @@
 package com.pizzamaestro.service;
 
+import com.pizzamaestro.service.notification.SmsSendException;
+import com.pizzamaestro.service.notification.SmsSender;
 import com.twilio.Twilio;
 import com.twilio.exception.ApiException;
 import com.twilio.rest.api.v2010.account.Message;
@@ -9,16 +11,24 @@ import com.twilio.type.PhoneNumber;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 /**
  * Serwis do wysyłania SMS przez Twilio.
  * Obsługuje wysyłanie powiadomień i weryfikację numerów telefonów.
+ * 
+ * Powiadomienia z harmonogramu idą asynchronicznie przez
+ * {@link com.pizzamaestro.service.notification.SmsDispatcher}, który korzysta
+ * z {@link #send(String, String)}; {@link #sendSms} zostaje dla wysyłek synchronicznych.
+ * 
+ * Leniwy - klient Twilio inicjalizowany przy pierwszym użyciu (pierwszy cykl harmonogramu),
+ * poza ścieżką startu aplikacji.
  */
 @Service
+@Lazy
 @Slf4j
-public class TwilioService {
+public class TwilioService implements SmsSender {
 
     @Value("${twilio.account-sid:}")
     private String accountSid;
@@ -82,6 +92,27 @@ public class TwilioService {
             return false;
         }
 
+        try {
+            send(toPhoneNumber, messageBody);
+            return true;
+        } catch (SmsSendException e) {
+            log.error("❌ {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Wysyła SMS i zgłasza błąd wyjątkiem - z informacją, czy warto ponowić.
+     * Błędy 429 i 5xx Twilio (oraz błędy sieci) są przejściowe, pozostałe 4xx - trwałe.
+     *
+     * @throws SmsSendException gdy wysyłka się nie powiodła
+     */
+    @Override
+    public void send(String toPhoneNumber, String messageBody) {
+        if (!isAvailable()) {
+            throw new SmsSendException("SMS nie wysłany - Twilio nie jest skonfigurowane", false);
+        }
+
         try {
             log.info("📱 Wysyłanie SMS na {}: {}", maskPhoneNumber(toPhoneNumber), truncateMessage(messageBody));
             
@@ -92,69 +123,62 @@ public class TwilioService {
             ).create();
 
             log.info("✅ SMS wysłany pomyślnie, SID: {}", message.getSid());
-            return true;
 
         } catch (ApiException e) {
-            log.error("❌ Błąd Twilio API podczas wysyłania SMS: {} - {}", e.getCode(), e.getMessage());
-            return false;
+            Integer status = e.getStatusCode();
+            boolean retryable = status == null || status == 429 || status >= 500;
+            throw new SmsSendException(
+                    "Błąd Twilio API podczas wysyłania SMS: " + e.getCode() + " - " + e.getMessage(), retryable, e);
         } catch (Exception e) {
-            log.error("❌ Nieoczekiwany błąd podczas wysyłania SMS: {}", e.getMessage(), e);
-            return false;
+            throw new SmsSendException("Nieoczekiwany błąd podczas wysyłania SMS: " + e.getMessage(), true, e);
         }
     }
 
-    /**
-     * Wysyła SMS asynchronicznie (nie blokuje wątku).
-     */
-    @Async
-    public void sendSmsAsync(String toPhoneNumber, String messageBody) {
-        sendSms(toPhoneNumber, messageBody);
-    }
-
     /**
      * Wysyła powiadomienie o nadchodzącym kroku w pizzy.
      */
     public boolean sendStepReminder(String toPhoneNumber, String stepTitle, int minutesBefore) {
-        String message = String.format(
-                "🍕 PizzaMaestro: Za %d min - %s. Przygotuj się!",
-                minutesBefore,
-                stepTitle
-        );
-        return sendSms(toPhoneNumber, message);
+        return sendSms(toPhoneNumber, stepReminderMessage(stepTitle, minutesBefore));
     }
 
     /**
      * Wysyła powiadomienie o czasie wykonania kroku (teraz!).
      */
     public boolean sendStepNow(String toPhoneNumber, String stepTitle) {
-        String message = String.format(
-                "🍕 PizzaMaestro: TERAZ - %s! Czas działać!",
-                stepTitle
-        );
-        return sendSms(toPhoneNumber, message);
+        return sendSms(toPhoneNumber, stepNowMessage(stepTitle));
     }
 
     /**
      * Wysyła powiadomienie o opóźnieniu w kroku.
      */
     public boolean sendStepOverdue(String toPhoneNumber, String stepTitle, int minutesOverdue) {
-        String message = String.format(
-                "⚠️ PizzaMaestro: Krok '%s' jest już %d min opóźniony. Czy wykonałeś go?",
-                stepTitle,
-                minutesOverdue
-        );
-        return sendSms(toPhoneNumber, message);
+        return sendSms(toPhoneNumber, stepOverdueMessage(stepTitle, minutesOverdue));
     }
 
     /**
      * Wysyła powiadomienie o gotowości pizzy.
      */
     public boolean sendPizzaReady(String toPhoneNumber, String pizzaName) {
-        String message = String.format(
-                "🎉 PizzaMaestro: Pizza '%s' gotowa do pieczenia! Buon appetito!",
-                pizzaName
-        );
-        return sendSms(toPhoneNumber, message);
+        return sendSms(toPhoneNumber, pizzaReadyMessage(pizzaName));
+    }
+
+    // ==================== Treści wiadomości ====================
+
+    public static String stepReminderMessage(String stepTitle, int minutesBefore) {
+        return String.format("🍕 PizzaMaestro: Za %d min - %s. Przygotuj się!", minutesBefore, stepTitle);
+    }
+
+    public static String stepNowMessage(String stepTitle) {
+        return String.format("🍕 PizzaMaestro: TERAZ - %s! Czas działać!", stepTitle);
+    }
+
+    public static String stepOverdueMessage(String stepTitle, int minutesOverdue) {
+        return String.format("⚠️ PizzaMaestro: Krok '%s' jest już %d min opóźniony. Czy wykonałeś go?",
+                stepTitle, minutesOverdue);
+    }
+
+    public static String pizzaReadyMessage(String pizzaName) {
+        return String.format("🎉 PizzaMaestro: Pizza '%s' gotowa do pieczenia! Buon appetito!", pizzaName);
     }
 
     // ==================== Weryfikacja numeru telefonu ====================
@@ -7,6 +7,9 @@ import com.pizzamaestro.exception.ResourceNotFoundException;
 import com.pizzamaestro.exception.UserAlreadyExistsException;
 import com.pizzamaestro.model.User;
 import com.pizzamaestro.repository.UserRepository;
+import com.pizzamaestro.security.VerifiedTokenCache;
+import com.pizzamaestro.service.usage.CalculationQuotaService;
+import com.pizzamaestro.service.usage.UserActivityService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -27,6 +30,9 @@ public class UserService {
     
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final VerifiedTokenCache tokenCache;
+    private final CalculationQuotaService calculationQuotaService;
+    private final UserActivityService userActivityService;
     
     /**
      * Rejestruje nowego użytkownika.
@@ -120,13 +126,10 @@ public class UserService {
     }
     
     /**
-     * Aktualizuje datę ostatniego logowania.
+     * Aktualizuje datę ostatniego logowania (zapis odroczony - {@link UserActivityService}).
      */
-    @Transactional
     public void updateLastLogin(String userId) {
-        User user = findById(userId);
-        user.setLastLoginAt(LocalDateTime.now());
-        userRepository.save(user);
+        userActivityService.recordLogin(userId);
     }
     
     /**
@@ -141,25 +144,13 @@ public class UserService {
     
     /**
      * Zwiększa licznik kalkulacji użytkownika.
+     * 
+     * Jedna atomowa aktualizacja {@code usageStats} (z resetem miesięcznym) - bez wczytywania
+     * i zapisu całego dokumentu, więc równoległe kalkulacje nie gubią zliczeń.
+     * Sprawdzenie limitu razem z inkrementacją - {@link CalculationQuotaService#tryConsume}.
      */
-    @Transactional
     public void incrementCalculationCount(String userId) {
-        User user = findById(userId);
-        User.UsageStats stats = user.getUsageStats();
-        
-        // Reset miesięcznego licznika jeśli potrzeba
-        if (stats.getMonthResetAt() == null || 
-            stats.getMonthResetAt().isBefore(LocalDateTime.now().withDayOfMonth(1).withHour(0))) {
-            stats.setCalculationsThisMonth(0);
-            stats.setSmsUsedThisMonth(0);
-            stats.setMonthResetAt(LocalDateTime.now());
-        }
-        
-        stats.setTotalCalculations(stats.getTotalCalculations() + 1);
-        stats.setCalculationsThisMonth(stats.getCalculationsThisMonth() + 1);
-        stats.setLastCalculationAt(LocalDateTime.now());
-        
-        userRepository.save(user);
+        calculationQuotaService.record(userId);
     }
     
     /**
@@ -196,6 +187,7 @@ public class UserService {
         
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        tokenCache.invalidateUser(user.getEmail());
     }
     
     /**
@@ -229,6 +221,7 @@ public class UserService {
         user.setResetPasswordToken(null);
         user.setResetPasswordExpires(null);
         userRepository.save(user);
+        tokenCache.invalidateUser(user.getEmail());
     }
     
     /**
@@ -5,9 +5,10 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import com.pizzamaestro.service.weather.OpenMeteoClient;
+import com.pizzamaestro.service.weather.WeatherCache;
+import com.pizzamaestro.service.weather.WeatherUnavailableException;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -22,71 +23,71 @@ import java.util.List;
  * - Wysoka temperatura = szybsza fermentacja = mniej drożdży
  * - Wysoka wilgotność = wolniejsze schnięcie ciasta
  * - Niskie ciśnienie = szybsza fermentacja (mniej tlenu)
+ * 
+ * Wywołania HTTP (pula połączeń, limity czasu, bezpiecznik, scalanie żądań)
+ * obsługuje {@link OpenMeteoClient}, cache w komórkach geohash i geokodowanie
+ * miast - {@link WeatherCache}.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class WeatherService {
     
-    private final RestTemplate restTemplate = new RestTemplate();
-    
-    // Open-Meteo API - darmowe, bez klucza
-    private static final String OPEN_METEO_URL = 
-            "https://api.open-meteo.com/v1/forecast?latitude={lat}&longitude={lon}" +
-            "&current=temperature_2m,relative_humidity_2m,surface_pressure,weather_code" +
-            "&hourly=temperature_2m,relative_humidity_2m" +
-            "&forecast_days=2&timezone=auto";
-    
-    // Geocoding API - do konwersji nazwy miasta na współrzędne
-    private static final String GEOCODING_URL = 
-            "https://geocoding-api.open-meteo.com/v1/search?name={city}&count=1&language=pl&format=json";
+    private final OpenMeteoClient openMeteoClient;
+    private final WeatherCache weatherCache;
     
     /**
      * Pobiera aktualną pogodę dla podanych współrzędnych.
      * 
+     * Wynik pochodzi z cache komórki geohash ({@link WeatherCache}) - świeży do pełnej
+     * godziny, potem odświeżany w tle.
+     * 
      * @param latitude szerokość geograficzna (-90 do 90)
      * @param longitude długość geograficzna (-180 do 180)
      * @return dane pogodowe
      * @throws IllegalArgumentException gdy współrzędne są poza zakresem
      */
-    @Cacheable(value = "weather", key = "#latitude + '_' + #longitude")
     public WeatherData getWeatherByCoordinates(double latitude, double longitude) {
         // Walidacja współrzędnych
         validateCoordinates(latitude, longitude);
         
+        try {
+            return weatherCache.get(latitude, longitude, this::fetchWeather);
+        } catch (Exception e) {
+            log.error("❌ Błąd pobierania pogody: {}", e.getMessage());
+            return getDefaultWeather();
+        }
+    }
+    
+    /**
+     * Pobiera pogodę z Open-Meteo (wywoływane przez cache przy braku lub odświeżeniu wpisu).
+     * 
+     * @throws WeatherUnavailableException gdy odpowiedź nie zawiera danych
+     */
+    private WeatherData fetchWeather(double latitude, double longitude) {
         log.info("╔══════════════════════════════════════════════════════════╗");
         log.info("║ 🌤️  POBIERANIE DANYCH POGODOWYCH                         ║");
         log.info("╚══════════════════════════════════════════════════════════╝");
         log.info("📍 Współrzędne: lat={}, lon={}", latitude, longitude);
         
-        try {
-            String url = OPEN_METEO_URL
-                    .replace("{lat}", String.valueOf(latitude))
-                    .replace("{lon}", String.valueOf(longitude));
-            
-            OpenMeteoResponse response = restTemplate.getForObject(url, OpenMeteoResponse.class);
-            
-            if (response != null && response.getCurrent() != null) {
-                WeatherData weather = mapToWeatherData(response, latitude, longitude);
-                
-                log.info("✅ Pogoda pobrana pomyślnie:");
-                log.info("   🌡️  Temperatura: {}°C", weather.getTemperature());
-                log.info("   💧 Wilgotność: {}%", weather.getHumidity());
-                log.info("   📊 Ciśnienie: {} hPa", weather.getPressure());
-                log.info("   ☁️  Opis: {}", weather.getDescription());
-                log.info("   📈 Wpływ na fermentację: {}%", 
-                        String.format("%.1f", (weather.getFermentationFactor() - 1) * 100));
-                
-                return weather;
-            }
-            
+        OpenMeteoResponse response = openMeteoClient.forecast(latitude, longitude);
+        
+        if (response == null || response.getCurrent() == null) {
             log.warn("⚠️ Brak danych pogodowych w odpowiedzi");
-            return getDefaultWeather();
-            
-        } catch (Exception e) {
-            log.error("❌ Błąd pobierania pogody: {}", e.getMessage());
-            return getDefaultWeather();
+            throw new WeatherUnavailableException("Brak danych pogodowych w odpowiedzi");
         }
+        
+        WeatherData weather = mapToWeatherData(response, latitude, longitude);
+        
+        log.info("✅ Pogoda pobrana pomyślnie:");
+        log.info("   🌡️  Temperatura: {}°C", weather.getTemperature());
+        log.info("   💧 Wilgotność: {}%", weather.getHumidity());
+        log.info("   📊 Ciśnienie: {} hPa", weather.getPressure());
+        log.info("   ☁️  Opis: {}", weather.getDescription());
+        log.info("   📈 Wpływ na fermentację: {}%", 
+                String.format("%.1f", (weather.getFermentationFactor() - 1) * 100));
+        
+        return weather;
     }
     
     /**
@@ -117,11 +118,9 @@ public class WeatherService {
         log.info("🔍 Szukam współrzędnych dla miasta: '{}'", trimmedCity);
         
         try {
-            String url = GEOCODING_URL.replace("{city}", cityName);
-            GeocodingResponse response = restTemplate.getForObject(url, GeocodingResponse.class);
+            GeocodingResult city = weatherCache.geocode(trimmedCity, this::findCity);
             
-            if (response != null && response.getResults() != null && !response.getResults().isEmpty()) {
-                GeocodingResult city = response.getResults().get(0);
+            if (city != null) {
                 log.info("✅ Znaleziono: {} ({}, {})", 
                         city.getName(), city.getLatitude(), city.getLongitude());
                 
@@ -140,6 +139,17 @@ public class WeatherService {
         }
     }
     
+    /**
+     * Geokodowanie w Open-Meteo - pierwszy wynik albo null.
+     */
+    private GeocodingResult findCity(String cityName) {
+        GeocodingResponse response = openMeteoClient.geocode(cityName);
+        if (response != null && response.getResults() != null && !response.getResults().isEmpty()) {
+            return response.getResults().get(0);
+        }
+        return null;
+    }
+    
     /**
      * Oblicza wpływ pogody na fermentację.
      * 
@@ -313,9 +323,40 @@ public class WeatherService {
                 // Współczynnik fermentacji liczymy dla TEMPERATURY WEWNĘTRZNEJ!
                 .fermentationFactor(calculateTemperatureFactor(indoorTemp))
                 .fetchedAt(LocalDateTime.now())
+                .utcOffsetSeconds(response.getUtcOffsetSeconds())
+                .hourlyStart(hourlyStart(response.getHourly()))
+                .hourlyIndoorTemperatures(hourlyIndoorTemperatures(response.getHourly(), outdoorTemp))
                 .build();
     }
     
+    private LocalDateTime hourlyStart(OpenMeteoResponse.HourlyForecast hourly) {
+        if (hourly == null || hourly.getTime() == null || hourly.getTime().isEmpty()) {
+            return null;
+        }
+        return LocalDateTime.parse(hourly.getTime().get(0));
+    }
+    
+    /**
+     * Prognoza godzinowa przeliczona na temperaturę wewnętrzną.
+     * Brakujące godziny przyjmują poprzednią wartość (na początku - bieżącą temperaturę).
+     */
+    private double[] hourlyIndoorTemperatures(OpenMeteoResponse.HourlyForecast hourly, double currentOutdoorTemp) {
+        if (hourly == null || hourly.getTemperature() == null || hourlyStart(hourly) == null) {
+            return null;
+        }
+        List<Double> outdoor = hourly.getTemperature();
+        double[] indoor = new double[outdoor.size()];
+        double last = currentOutdoorTemp;
+        for (int i = 0; i < indoor.length; i++) {
+            Double value = outdoor.get(i);
+            if (value != null) {
+                last = value;
+            }
+            indoor[i] = calculateIndoorTemperature(last);
+        }
+        return indoor;
+    }
+    
     /**
      * Oblicza szacowaną temperaturę wewnętrzną na podstawie temperatury zewnętrznej.
      * 
@@ -433,7 +474,7 @@ public class WeatherService {
     // ==================== DTOs ====================
     
     @Data
-    @lombok.Builder
+    @lombok.Builder(toBuilder = true)
     @lombok.NoArgsConstructor
     @lombok.AllArgsConstructor
     public static class WeatherData {
@@ -451,6 +492,20 @@ public class WeatherService {
         private double fermentationFactor;
         private LocalDateTime fetchedAt;
         private boolean isDefault;
+        private int utcOffsetSeconds;                // Przesunięcie czasu lokalnego lokalizacji
+        private LocalDateTime hourlyStart;           // Pierwsza godzina prognozy (czas lokalny)
+        private double[] hourlyIndoorTemperatures;   // Prognoza temp. wewnętrznej godzina po godzinie
+        
+        /**
+         * Kopia prognozy - tablica jest współdzielona przez kopie toBuilder() z cache pogody.
+         */
+        public double[] getHourlyIndoorTemperatures() {
+            return hourlyIndoorTemperatures != null ? hourlyIndoorTemperatures.clone() : null;
+        }
+        
+        public void setHourlyIndoorTemperatures(double[] hourlyIndoorTemperatures) {
+            this.hourlyIndoorTemperatures = hourlyIndoorTemperatures != null ? hourlyIndoorTemperatures.clone() : null;
+        }
     }
     
     @Data
@@ -478,9 +533,15 @@ public class WeatherService {
         private double longitude;
         private String timezone;
         
+        @JsonProperty("utc_offset_seconds")
+        private int utcOffsetSeconds;
+        
         @JsonProperty("current")
         private CurrentWeather current;
         
+        @JsonProperty("hourly")
+        private HourlyForecast hourly;
+        
         @Data
         @JsonIgnoreProperties(ignoreUnknown = true)
         public static class CurrentWeather {
@@ -496,6 +557,22 @@ public class WeatherService {
             @JsonProperty("weather_code")
             private int weatherCode;
         }
+        
+        /**
+         * Prognoza godzinowa - kolejne pełne godziny w czasie lokalnym lokalizacji.
+         * Listy z obiektami, bo Open-Meteo zwraca null dla brakujących godzin.
+         */
+        @Data
+        @JsonIgnoreProperties(ignoreUnknown = true)
+        public static class HourlyForecast {
+            private List<String> time;
+            
+            @JsonProperty("temperature_2m")
+            private List<Double> temperature;
+            
+            @JsonProperty("relative_humidity_2m")
+            private List<Double> humidity;
+        }
     }
     
     @Data
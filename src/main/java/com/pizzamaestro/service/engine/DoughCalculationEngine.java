@@ -0,0 +1,102 @@
+package com.pizzamaestro.service.engine;
+
+import com.pizzamaestro.constants.CalculatorConstants;
+import com.pizzamaestro.service.strategy.FermentationStrategy;
+import com.pizzamaestro.service.strategy.FermentationStrategyFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rdzeń obliczeń procentów piekarskich operujący wyłącznie na prymitywach.
+ *
+ * Nie tworzy obiektów, nie formatuje napisów i nie loguje - czyta
+ * {@link DoughCalculationInput} i zapisuje wynik do {@link DoughCalculationOutput}.
+ * Mapowanie na DTO (CalculationResponse) odbywa się wyłącznie na brzegu,
+ * w {@link com.pizzamaestro.service.DoughCalculatorService}.
+ *
+ * Wzory:
+ * - mąka = całkowita_waga / (100 + hydratacja + sól + oliwa + cukier + ~drożdże + dodatki) × 100
+ * - składnik = mąka × procent / 100
+ * - drożdże = mąka × procent_ze_strategii / 100 × przelicznik_typu
+ */
+@Component
+@RequiredArgsConstructor
+public class DoughCalculationEngine {
+
+    private final FermentationStrategyFactory fermentationStrategyFactory;
+
+    /**
+     * Wykonuje kalkulację i zapisuje wynik do {@code out}.
+     *
+     * @param in  parametry kalkulacji
+     * @param out struktura wyniku (nadpisywana w całości)
+     * @throws IllegalArgumentException gdy ilość mąki wychodzi niedodatnia
+     */
+    public void calculate(DoughCalculationInput in, DoughCalculationOutput out) {
+        double totalDoughWeight = (double) in.getNumberOfPizzas() * in.getBallWeight();
+
+        // Suma wszystkich procentów (mąka = 100%) + szacunkowe ~0.5% drożdży
+        double totalPercentage = CalculatorConstants.PERCENTAGE_BASE
+                + in.getHydration()
+                + in.getSaltPercentage()
+                + in.getOilPercentage()
+                + in.getSugarPercentage()
+                + CalculatorConstants.ESTIMATED_YEAST_PERCENTAGE
+                + in.getAdditionalPercentage();
+
+        double flourGrams = (totalDoughWeight / totalPercentage) * CalculatorConstants.PERCENTAGE_BASE;
+        if (flourGrams <= 0) {
+            throw new IllegalArgumentException("Ilość mąki musi być większa od 0");
+        }
+
+        double waterGrams = flourGrams * (in.getHydration() / CalculatorConstants.PERCENTAGE_BASE);
+        double yeastGrams = flourGrams * (freshYeastPercentage(in) / CalculatorConstants.PERCENTAGE_BASE)
+                * in.getYeastConversionFactor();
+
+        out.setTotalDoughWeight(totalDoughWeight);
+        out.setFlourGrams(flourGrams);
+        out.setWaterGrams(waterGrams);
+        out.setSaltGrams(flourGrams * (in.getSaltPercentage() / CalculatorConstants.PERCENTAGE_BASE));
+        out.setOilGrams(flourGrams * (in.getOilPercentage() / CalculatorConstants.PERCENTAGE_BASE));
+        out.setSugarGrams(flourGrams * (in.getSugarPercentage() / CalculatorConstants.PERCENTAGE_BASE));
+        out.setAdditionalGrams(flourGrams * (in.getAdditionalPercentage() / CalculatorConstants.PERCENTAGE_BASE));
+        out.setYeastGrams(yeastGrams);
+        out.setYeastBakerPercentage((yeastGrams / flourGrams) * CalculatorConstants.PERCENTAGE_BASE);
+
+        if (in.hasPreferment()) {
+            double prefermentFlour = flourGrams * (in.getPrefermentPercentage() / CalculatorConstants.PERCENTAGE_BASE);
+            double prefermentWater = prefermentFlour * (in.getPrefermentHydration() / CalculatorConstants.PERCENTAGE_BASE);
+            double prefermentYeast = prefermentFlour * in.getPrefermentYeastRatio();
+
+            out.setPrefermentFlourGrams(prefermentFlour);
+            out.setPrefermentWaterGrams(prefermentWater);
+            out.setPrefermentYeastGrams(prefermentYeast);
+            out.setMainFlourGrams(flourGrams - prefermentFlour);
+            out.setMainWaterGrams(waterGrams - prefermentWater);
+            out.setMainYeastGrams(yeastGrams - prefermentYeast);
+        } else {
+            out.setPrefermentFlourGrams(0);
+            out.setPrefermentWaterGrams(0);
+            out.setPrefermentYeastGrams(0);
+            out.setMainFlourGrams(flourGrams);
+            out.setMainWaterGrams(waterGrams);
+            out.setMainYeastGrams(yeastGrams);
+        }
+    }
+
+    /**
+     * Procent drożdży świeżych - ręczny lub ze strategii fermentacji.
+     */
+    private double freshYeastPercentage(DoughCalculationInput in) {
+        if (in.isManualYeast()) {
+            return in.getYeastPercentage();
+        }
+
+        FermentationStrategy strategy = fermentationStrategyFactory.getStrategy(in.getFermentationMethod());
+        return strategy.calculateYeastPercentage(
+                in.getTotalFermentationHours(),
+                in.getRoomTemperature(),
+                in.getFridgeTemperature(),
+                in.getFermentationMethod());
+    }
+}
@@ -0,0 +1,78 @@
+package com.pizzamaestro.service.engine;
+
+import com.pizzamaestro.constants.CalculatorConstants;
+import com.pizzamaestro.model.Recipe;
+import lombok.Data;
+
+/**
+ * Płaskie, wielokrotnego użytku wejście silnika {@link DoughCalculationEngine}.
+ *
+ * Zawiera wyłącznie prymitywy (i enum metody fermentacji), dzięki czemu
+ * jedna instancja może obsłużyć dowolną liczbę kalkulacji - wystarczy
+ * {@link #reset()} i ponowne ustawienie pól.
+ */
+@Data
+public class DoughCalculationInput {
+
+    private int numberOfPizzas;
+    private int ballWeight;
+
+    /** Procenty piekarskie (mąka = 100%) */
+    private double hydration;
+    private double saltPercentage;
+    private double oilPercentage;
+    private double sugarPercentage;
+
+    /** Suma procentów dodatkowych składników */
+    private double additionalPercentage;
+
+    /** Ręcznie podany procent drożdży świeżych - używany gdy manualYeast = true */
+    private boolean manualYeast;
+    private double yeastPercentage;
+
+    /** Przelicznik drożdży względem świeżych ({@link Recipe.YeastType#getConversionFactor()}) */
+    private double yeastConversionFactor;
+
+    private Recipe.FermentationMethod fermentationMethod;
+    private int totalFermentationHours;
+    private double roomTemperature;
+    private double fridgeTemperature;
+
+    /** Preferment - procent mąki w prefermencie (0 = brak prefermentu) */
+    private double prefermentPercentage;
+    private double prefermentHydration;
+
+    /** Udział drożdży świeżych względem mąki prefermentu (np. 0.001 dla poolish) */
+    private double prefermentYeastRatio;
+
+    public DoughCalculationInput() {
+        reset();
+    }
+
+    /**
+     * Przywraca wartości domyślne - do ponownego użycia instancji.
+     */
+    public void reset() {
+        numberOfPizzas = 0;
+        ballWeight = 0;
+        hydration = 0;
+        saltPercentage = 0;
+        oilPercentage = 0;
+        sugarPercentage = 0;
+        additionalPercentage = 0;
+        manualYeast = false;
+        yeastPercentage = 0;
+        yeastConversionFactor = Recipe.YeastType.FRESH.getConversionFactor();
+        fermentationMethod = null;
+        totalFermentationHours = 0;
+        roomTemperature = CalculatorConstants.DEFAULT_ROOM_TEMPERATURE;
+        fridgeTemperature = CalculatorConstants.DEFAULT_FRIDGE_TEMPERATURE;
+        prefermentPercentage = 0;
+        prefermentHydration = 0;
+        prefermentYeastRatio = 0;
+    }
+
+    public boolean hasPreferment() {
+        return prefermentPercentage > 0;
+    }
+}
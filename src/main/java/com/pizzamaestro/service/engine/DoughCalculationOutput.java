@@ -0,0 +1,34 @@
+package com.pizzamaestro.service.engine;
+
+import lombok.Data;
+
+/**
+ * Płaskie, wielokrotnego użytku wyjście silnika {@link DoughCalculationEngine}.
+ *
+ * Wartości są nie zaokrąglone - zaokrąglanie należy do warstwy mapowania DTO.
+ */
+@Data
+public class DoughCalculationOutput {
+
+    private double totalDoughWeight;
+    private double flourGrams;
+    private double waterGrams;
+    private double saltGrams;
+    private double oilGrams;
+    private double sugarGrams;
+    private double yeastGrams;
+    private double additionalGrams;
+
+    /** Procent drożdży (wybranego typu) względem mąki */
+    private double yeastBakerPercentage;
+
+    /** Preferment - wypełniane tylko gdy wejście ma preferment */
+    private double prefermentFlourGrams;
+    private double prefermentWaterGrams;
+    private double prefermentYeastGrams;
+
+    /** Ciasto główne po odjęciu prefermentu */
+    private double mainFlourGrams;
+    private double mainWaterGrams;
+    private double mainYeastGrams;
+}
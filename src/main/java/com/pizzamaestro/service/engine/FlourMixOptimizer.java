@@ -0,0 +1,596 @@
+package com.pizzamaestro.service.engine;
+
+import com.pizzamaestro.model.Ingredient;
+import lombok.Builder;
+import lombok.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+
+/**
+ * Optymalizator miksów 1-4 mąk przeszukujący cały katalog.
+ *
+ * Każda mąka to wektor odchyleń od celu w jednostkach tolerancji (białko, siła W, P/L,
+ * środek zalecanej hydratacji, preferencje typu 00 / mocnej mąki); brak danych = wartość docelowa.
+ * Parametry miksu są liniowe w udziałach, więc błąd miksu to {@code ||Σ w·z||²}, a dla danego
+ * zbioru mąk optymalne udziały (każdy ≥ {@link #MIN_SHARE}) to najbliższy zera punkt otoczki
+ * wypukłej - liczony dokładnie przez przegląd ścian sympleksu (≤ 15 układów do 3×3).
+ *
+ * Wynik = błąd + {@link #EXTRA_FLOUR_PENALTY} za każdą mąkę ponad jedną. Przegląd podzbiorów
+ * to branch-and-bound z ograniczeniami dolnymi: kara za liczbę mąk, przedziały [min, max] cech
+ * członków (parametr miksu leży w tym przedziale) i płaszczyzna podpierająca otoczkę całego
+ * katalogu ({@link #support}) - po niej sortowane są mąki, więc odcina całe gałęzie.
+ * Rozmiary idą po kolei (najlepsze mniejsze miksy to próg dla większych): singletony i pary
+ * sekwencyjnie, trójki i czwórki równolegle (fork-join) po pierwszej mące podzbioru.
+ */
+@Component
+public class FlourMixOptimizer {
+
+    /** Minimalny udział mąki w miksie */
+    public static final double MIN_SHARE = 0.10;
+
+    /** Krok procentowy udziałów w wyniku */
+    public static final double PERCENT_STEP = 5.0;
+
+    /** Kara za każdą mąkę ponad jedną - prostszy miks wygrywa przy podobnym błędzie */
+    public static final double EXTRA_FLOUR_PENALTY = 0.1;
+
+    public static final int MAX_FLOURS = 4;
+
+    private static final int FEATURES = 6;
+    private static final double HIGH_GLUTEN_PROTEIN = 13.0;
+    private static final double EPSILON = 1e-9;
+
+    /**
+     * Cel optymalizacji. Opcjonalne cele (null) nie wpływają na wynik.
+     */
+    @Value
+    @Builder(toBuilder = true)
+    public static class MixTarget {
+        double protein;
+        double proteinTolerance;
+        Double strength;
+        double strengthTolerance;
+        Double extensibility;
+        double extensibilityTolerance;
+        Double hydration;
+        double hydrationTolerance;
+        boolean preferType00;
+        boolean preferHighGluten;
+    }
+
+    public record Share(Ingredient flour, double percentage) {
+    }
+
+    /**
+     * Miks z udziałami w krokach {@link #PERCENT_STEP} i wynikiem (mniej = lepiej).
+     */
+    public record Blend(List<Share> shares, double score) {
+    }
+
+    /**
+     * Najlepsze miksy 1..maxFlours mąk z podanej listy.
+     *
+     * @return do {@code topK} miksów, od najlepszego; pusta lista, gdy brak mąk z parametrami
+     * @throws IllegalArgumentException gdy maxFlours spoza 1..{@value #MAX_FLOURS} lub topK < 1
+     */
+    public List<Blend> optimize(List<Ingredient> flours, MixTarget target, int maxFlours, int topK) {
+        if (maxFlours < 1 || maxFlours > MAX_FLOURS) {
+            throw new IllegalArgumentException("Liczba mąk w miksie musi być z zakresu 1-" + MAX_FLOURS);
+        }
+        if (topK < 1) {
+            throw new IllegalArgumentException("topK musi być dodatnie");
+        }
+        List<Ingredient> withParameters = flours.stream()
+                .filter(flour -> flour.getFlourParameters() != null)
+                .toList();
+        if (withParameters.isEmpty()) {
+            return List.of();
+        }
+        List<Ingredient> sorted = sortBySupport(withParameters, features(withParameters, target));
+        double[] z = features(sorted, target);
+        double[] support = support(z);
+        int n = sorted.size();
+        // Zapas na przetasowanie po zaokrągleniu udziałów
+        int pool = topK * 2;
+
+        // Rozmiarami po kolei - najlepsze mniejsze miksy dają próg odcięcia dla większych
+        List<Candidate> candidates = new ArrayList<>();
+        double threshold = Double.POSITIVE_INFINITY;
+        for (int size = 1; size <= Math.min(maxFlours, n); size++) {
+            if (EXTRA_FLOUR_PENALTY * (size - 1) >= threshold) {
+                break;
+            }
+            int subsetSize = size;
+            double seedThreshold = threshold;
+            if (size <= 2) {
+                Search search = new Search(z, support, n, pool, seedThreshold);
+                for (int first = 0; first < n; first++) {
+                    search.scan(first, subsetSize);
+                }
+                candidates.addAll(search.results());
+            } else {
+                candidates.addAll(IntStream.range(0, n - size + 1).parallel()
+                        .mapToObj(first -> {
+                            Search search = new Search(z, support, n, pool, seedThreshold);
+                            search.scan(first, subsetSize);
+                            return search.results();
+                        })
+                        .flatMap(List::stream)
+                        .toList());
+            }
+            if (candidates.size() >= pool) {
+                threshold = candidates.stream()
+                        .mapToDouble(Candidate::score)
+                        .sorted()
+                        .skip(pool - 1)
+                        .findFirst()
+                        .orElseThrow();
+            }
+        }
+
+        return candidates.stream()
+                .map(candidate -> toBlend(candidate, sorted, z))
+                .sorted(Comparator.comparingDouble(Blend::score))
+                .limit(topK)
+                .toList();
+    }
+
+    /**
+     * Optymalne udziały dla dokładnie podanych mąk (każda co najmniej {@link #MIN_SHARE}).
+     *
+     * @throws IllegalArgumentException gdy mąk jest 0 lub więcej niż {@value #MAX_FLOURS}
+     *                                  albo któraś nie ma parametrów
+     */
+    public Blend blend(List<Ingredient> flours, MixTarget target) {
+        if (flours.isEmpty() || flours.size() > MAX_FLOURS) {
+            throw new IllegalArgumentException("Miks musi mieć od 1 do " + MAX_FLOURS + " mąk");
+        }
+        if (flours.stream().anyMatch(flour -> flour.getFlourParameters() == null)) {
+            throw new IllegalArgumentException("Każda mąka w miksie musi mieć parametry");
+        }
+        double[] z = features(flours, target);
+        Search search = new Search(z, new double[flours.size()], flours.size(), 1, Double.POSITIVE_INFINITY);
+        int[] members = IntStream.range(0, flours.size()).toArray();
+        search.evaluate(members, members.length);
+        return toBlend(search.results().get(0), flours, z);
+    }
+
+    // ========================================
+    // CECHY
+    // ========================================
+
+    /**
+     * Cechy mąk jako odchylenia od celu w jednostkach tolerancji, płasko: [mąka × FEATURES].
+     */
+    static double[] features(List<Ingredient> flours, MixTarget target) {
+        double[] z = new double[flours.size() * FEATURES];
+        for (int i = 0; i < flours.size(); i++) {
+            Ingredient.FlourParameters params = flours.get(i).getFlourParameters();
+            int offset = i * FEATURES;
+            z[offset] = (params.getProteinContent() - target.getProtein()) / target.getProteinTolerance();
+            z[offset + 1] = deviation(params.getStrength(), target.getStrength(), target.getStrengthTolerance());
+            z[offset + 2] = deviation(params.getExtensibility(), target.getExtensibility(),
+                    target.getExtensibilityTolerance());
+            boolean hasHydration = params.getRecommendedHydrationMax() > 0;
+            z[offset + 3] = deviation(
+                    hasHydration ? (params.getRecommendedHydrationMin() + params.getRecommendedHydrationMax()) / 2 : null,
+                    target.getHydration(), target.getHydrationTolerance());
+            z[offset + 4] = target.isPreferType00() && params.getFlourType() != Ingredient.FlourType.TYPE_00 ? -1 : 0;
+            z[offset + 5] = target.isPreferHighGluten() && params.getProteinContent() < HIGH_GLUTEN_PROTEIN ? -1 : 0;
+        }
+        return z;
+    }
+
+    private static double deviation(Double value, Double target, double tolerance) {
+        return value == null || target == null ? 0 : (value - target) / tolerance;
+    }
+
+    // ========================================
+    // OGRANICZENIE Z PŁASZCZYZNY PODPIERAJĄCEJ
+    // ========================================
+
+    /**
+     * Rzut cech każdej mąki na kierunek d = p/|p|, gdzie p to (przybliżony) punkt otoczki wszystkich
+     * mąk najbliższy zera. Dla dowolnego miksu |Σ w·z| ≥ d·Σ w·z ≥ min(d·z_i), więc błąd miksu
+     * to co najmniej (min rzutu członków)², gdy ten jest dodatni. Gdy cel leży w otoczce, p ≈ 0
+     * i rzuty są zerowe (brak ograniczenia).
+     */
+    static double[] support(double[] z) {
+        int n = z.length / FEATURES;
+        double[] point = Arrays.copyOf(z, FEATURES);
+        // Algorytm Gilberta: krok w stronę wierzchołka o najmniejszym rzucie na bieżący punkt
+        for (int iteration = 0; iteration < 200; iteration++) {
+            int vertex = 0;
+            double minDot = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                double dot = dot(point, z, i);
+                if (dot < minDot) {
+                    minDot = dot;
+                    vertex = i;
+                }
+            }
+            double norm = dot(point, point, 0);
+            if (norm - minDot <= 1e-9 * Math.max(norm, 1e-12)) {
+                break;
+            }
+            double along = 0;
+            double length = 0;
+            for (int f = 0; f < FEATURES; f++) {
+                double diff = z[vertex * FEATURES + f] - point[f];
+                along -= point[f] * diff;
+                length += diff * diff;
+            }
+            double step = Math.min(1, Math.max(0, along / length));
+            for (int f = 0; f < FEATURES; f++) {
+                point[f] += step * (z[vertex * FEATURES + f] - point[f]);
+            }
+        }
+
+        double[] support = new double[n];
+        double norm = Math.sqrt(dot(point, point, 0));
+        if (norm < 1e-6) {
+            return support;
+        }
+        for (int i = 0; i < n; i++) {
+            support[i] = dot(point, z, i) / norm;
+        }
+        return support;
+    }
+
+    private static double dot(double[] point, double[] z, int flour) {
+        double sum = 0;
+        for (int f = 0; f < FEATURES; f++) {
+            sum += point[f] * z[flour * FEATURES + f];
+        }
+        return sum;
+    }
+
+    /**
+     * Rosnąco po rzucie na kierunek podpierający (potem po białku): pierwsza mąka podzbioru
+     * wyznacza jego ograniczenie dolne, a każda kolejna pierwsza - nie mniejsze.
+     */
+    private static List<Ingredient> sortBySupport(List<Ingredient> flours, double[] z) {
+        double[] support = support(z);
+        Integer[] order = new Integer[flours.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingDouble(i -> support[i])
+                .thenComparingDouble(i -> flours.get(i).getFlourParameters().getProteinContent()));
+        List<Ingredient> sorted = new ArrayList<>(flours.size());
+        for (Integer i : order) {
+            sorted.add(flours.get(i));
+        }
+        return sorted;
+    }
+
+    // ========================================
+    // WYNIK
+    // ========================================
+
+    /**
+     * Zaokrągla udziały do {@link #PERCENT_STEP} (metoda największych reszt) i liczy wynik ponownie.
+     */
+    private static Blend toBlend(Candidate candidate, List<Ingredient> flours, double[] z) {
+        int count = candidate.members().length;
+        double[] percentages = new double[count];
+        double[] remainders = new double[count];
+        double total = 0;
+        for (int i = 0; i < count; i++) {
+            double steps = candidate.weights()[i] * 100 / PERCENT_STEP;
+            percentages[i] = Math.floor(steps + EPSILON) * PERCENT_STEP;
+            remainders[i] = steps - Math.floor(steps + EPSILON);
+            total += percentages[i];
+        }
+        while (total < 100 - EPSILON) {
+            int largest = 0;
+            for (int i = 1; i < count; i++) {
+                if (remainders[i] > remainders[largest]) {
+                    largest = i;
+                }
+            }
+            percentages[largest] += PERCENT_STEP;
+            remainders[largest] = -1;
+            total += PERCENT_STEP;
+        }
+
+        List<Share> shares = new ArrayList<>(count);
+        double[] mix = new double[FEATURES];
+        for (int i = 0; i < count; i++) {
+            int member = candidate.members()[i];
+            shares.add(new Share(flours.get(member), percentages[i]));
+            for (int f = 0; f < FEATURES; f++) {
+                mix[f] += percentages[i] / 100 * z[member * FEATURES + f];
+            }
+        }
+        shares.sort(Comparator.comparingDouble(Share::percentage).reversed());
+        return new Blend(List.copyOf(shares), squaredNorm(mix) + EXTRA_FLOUR_PENALTY * (count - 1));
+    }
+
+    private static double squaredNorm(double[] vector) {
+        double sum = 0;
+        for (double value : vector) {
+            sum += value * value;
+        }
+        return sum;
+    }
+
+    private record Candidate(int[] members, double[] weights, double score) {
+    }
+
+    // ========================================
+    // PRZESZUKIWANIE
+    // ========================================
+
+    /**
+     * Przeszukiwanie z własnym top-k i buforami - jedna instancja na wątek.
+     */
+    private static final class Search {
+
+        private final double[] z;
+        private final double[] support;
+        private final int n;
+        private final int capacity;
+        private final double seedThreshold;
+        private final PriorityQueue<Candidate> best =
+                new PriorityQueue<>(Comparator.comparingDouble(Candidate::score).reversed());
+        private double threshold;
+
+        private final int[] members = new int[MAX_FLOURS];
+        private final int[] face = new int[MAX_FLOURS];
+        /** Przedziały cech dla kolejnych poziomów podzbioru: [poziom][min..., max...] */
+        private final double[] ranges = new double[MAX_FLOURS * 2 * FEATURES];
+        private final double[] points = new double[MAX_FLOURS * FEATURES];
+        private final double[] u = new double[MAX_FLOURS];
+        private final double[] bestU = new double[MAX_FLOURS];
+        private final double[] faceU = new double[MAX_FLOURS];
+        private final double[] gram = new double[(MAX_FLOURS - 1) * MAX_FLOURS];
+
+        Search(double[] z, double[] support, int n, int capacity, double seedThreshold) {
+            this.z = z;
+            this.support = support;
+            this.n = n;
+            this.capacity = capacity;
+            this.seedThreshold = seedThreshold;
+            this.threshold = seedThreshold;
+        }
+
+        List<Candidate> results() {
+            return new ArrayList<>(best);
+        }
+
+        /**
+         * Wszystkie podzbiory o rozmiarze {@code size}, w których {@code first} jest pierwszą mąką.
+         */
+        void scan(int first, int size) {
+            double penalty = EXTRA_FLOUR_PENALTY * (size - 1);
+            double supportBound = support[first] > 0 ? support[first] * support[first] : 0;
+            if (penalty + supportBound >= threshold) {
+                return;
+            }
+            members[0] = first;
+            double bound = extend(0, first);
+            if (size == 1) {
+                evaluateIfPromising(1, penalty + Math.max(bound, supportBound));
+                return;
+            }
+            for (int j = first + 1; j <= n - size + 1; j++) {
+                members[1] = j;
+                bound = extend(1, j);
+                if (size == 2) {
+                    evaluateIfPromising(2, penalty + Math.max(bound, supportBound));
+                    continue;
+                }
+                for (int k = j + 1; k <= n - size + 2; k++) {
+                    members[2] = k;
+                    bound = extend(2, k);
+                    if (size == 3) {
+                        evaluateIfPromising(3, penalty + Math.max(bound, supportBound));
+                        continue;
+                    }
+                    for (int l = k + 1; l < n; l++) {
+                        members[3] = l;
+                        bound = extend(3, l);
+                        evaluateIfPromising(4, penalty + Math.max(bound, supportBound));
+                    }
+                }
+            }
+        }
+
+        /**
+         * Dopisuje mąkę na poziomie {@code level} i zwraca dolne ograniczenie błędu z przedziałów:
+         * każda cecha miksu leży w [min, max] cech członków.
+         */
+        private double extend(int level, int flour) {
+            int offset = level * 2 * FEATURES;
+            int previous = offset - 2 * FEATURES;
+            double bound = 0;
+            for (int f = 0; f < FEATURES; f++) {
+                double value = z[flour * FEATURES + f];
+                double min = level == 0 ? value : Math.min(ranges[previous + f], value);
+                double max = level == 0 ? value : Math.max(ranges[previous + FEATURES + f], value);
+                ranges[offset + f] = min;
+                ranges[offset + FEATURES + f] = max;
+                if (min > 0) {
+                    bound += min * min;
+                } else if (max < 0) {
+                    bound += max * max;
+                }
+            }
+            return bound;
+        }
+
+        private void evaluateIfPromising(int count, double lowerBound) {
+            if (lowerBound < threshold) {
+                evaluate(members, count);
+            }
+        }
+
+        void evaluate(int[] subset, int count) {
+            double score = solve(subset, count) + EXTRA_FLOUR_PENALTY * (count - 1);
+            if (score >= threshold) {
+                return;
+            }
+            double[] weights = new double[count];
+            double free = 1 - count * MIN_SHARE;
+            for (int i = 0; i < count; i++) {
+                weights[i] = count == 1 ? 1 : MIN_SHARE + free * bestU[i];
+            }
+            best.add(new Candidate(Arrays.copyOf(subset, count), weights, score));
+            if (best.size() > capacity) {
+                best.poll();
+            }
+            if (best.size() == capacity) {
+                threshold = Math.min(seedThreshold, best.peek().score());
+            }
+        }
+
+        /**
+         * Minimalny błąd dla zbioru mąk. Udziały w = MIN_SHARE + (1 - count·MIN_SHARE)·u, u w sympleksie,
+         * więc błąd to ||Σ u·q||² dla q_i = MIN_SHARE·Σz + (1 - count·MIN_SHARE)·z_i - szukamy punktu
+         * otoczki {q_i} najbliższego zera, przeglądając wszystkie ściany sympleksu.
+         * Optymalne u zostaje w {@code bestU}.
+         */
+        private double solve(int[] subset, int count) {
+            if (count == 1) {
+                bestU[0] = 1;
+                return squaredNorm(subset[0]);
+            }
+            double free = 1 - count * MIN_SHARE;
+            for (int f = 0; f < FEATURES; f++) {
+                double sum = 0;
+                for (int i = 0; i < count; i++) {
+                    sum += z[subset[i] * FEATURES + f];
+                }
+                for (int i = 0; i < count; i++) {
+                    points[i * FEATURES + f] = MIN_SHARE * sum + free * z[subset[i] * FEATURES + f];
+                }
+            }
+
+            double bestError = Double.POSITIVE_INFINITY;
+            for (int mask = 1; mask < (1 << count); mask++) {
+                double error = solveFace(mask, count);
+                if (error < bestError) {
+                    bestError = error;
+                    System.arraycopy(faceU, 0, bestU, 0, count);
+                }
+            }
+            return bestError;
+        }
+
+        private double squaredNorm(int flour) {
+            double sum = 0;
+            for (int f = 0; f < FEATURES; f++) {
+                double value = z[flour * FEATURES + f];
+                sum += value * value;
+            }
+            return sum;
+        }
+
+        /**
+         * Najbliższy zera punkt afinicznej powłoki ściany; +∞ gdy leży poza ścianą lub układ osobliwy.
+         */
+        private double solveFace(int mask, int count) {
+            int size = 0;
+            for (int i = 0; i < count; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    face[size++] = i;
+                }
+            }
+            int origin = face[0];
+            int dims = size - 1;
+            // G·a = -b, G_jl = d_j·d_l, b_j = d_j·q_origin, d_j = q_j - q_origin
+            for (int j = 0; j < dims; j++) {
+                int pj = face[j + 1];
+                for (int l = j; l < dims; l++) {
+                    int pl = face[l + 1];
+                    double dot = 0;
+                    for (int f = 0; f < FEATURES; f++) {
+                        dot += (points[pj * FEATURES + f] - points[origin * FEATURES + f])
+                                * (points[pl * FEATURES + f] - points[origin * FEATURES + f]);
+                    }
+                    gram[j * MAX_FLOURS + l] = dot;
+                    gram[l * MAX_FLOURS + j] = dot;
+                }
+                double dot = 0;
+                for (int f = 0; f < FEATURES; f++) {
+                    dot += (points[pj * FEATURES + f] - points[origin * FEATURES + f]) * points[origin * FEATURES + f];
+                }
+                gram[j * MAX_FLOURS + dims] = -dot;
+            }
+            if (!eliminate(dims)) {
+                return Double.POSITIVE_INFINITY;
+            }
+
+            Arrays.fill(faceU, 0, count, 0);
+            double originShare = 1;
+            for (int j = 0; j < dims; j++) {
+                double a = u[j];
+                if (a < -EPSILON) {
+                    return Double.POSITIVE_INFINITY;
+                }
+                faceU[face[j + 1]] = Math.max(a, 0);
+                originShare -= a;
+            }
+            if (originShare < -EPSILON) {
+                return Double.POSITIVE_INFINITY;
+            }
+            faceU[origin] = Math.max(originShare, 0);
+
+            double error = 0;
+            for (int f = 0; f < FEATURES; f++) {
+                double value = 0;
+                for (int i = 0; i < count; i++) {
+                    value += faceU[i] * points[i * FEATURES + f];
+                }
+                error += value * value;
+            }
+            return error;
+        }
+
+        /**
+         * Eliminacja Gaussa z wyborem elementu głównego na macierzy rozszerzonej w {@code gram};
+         * rozwiązanie trafia do {@code u}. False dla układu osobliwego.
+         */
+        private boolean eliminate(int dims) {
+            for (int col = 0; col < dims; col++) {
+                int pivot = col;
+                for (int row = col + 1; row < dims; row++) {
+                    if (Math.abs(gram[row * MAX_FLOURS + col]) > Math.abs(gram[pivot * MAX_FLOURS + col])) {
+                        pivot = row;
+                    }
+                }
+                if (Math.abs(gram[pivot * MAX_FLOURS + col]) < 1e-12) {
+                    return false;
+                }
+                if (pivot != col) {
+                    for (int c = 0; c <= dims; c++) {
+                        double tmp = gram[col * MAX_FLOURS + c];
+                        gram[col * MAX_FLOURS + c] = gram[pivot * MAX_FLOURS + c];
+                        gram[pivot * MAX_FLOURS + c] = tmp;
+                    }
+                }
+                for (int row = col + 1; row < dims; row++) {
+                    double factor = gram[row * MAX_FLOURS + col] / gram[col * MAX_FLOURS + col];
+                    for (int c = col; c <= dims; c++) {
+                        gram[row * MAX_FLOURS + c] -= factor * gram[col * MAX_FLOURS + c];
+                    }
+                }
+            }
+            for (int row = dims - 1; row >= 0; row--) {
+                double value = gram[row * MAX_FLOURS + dims];
+                for (int c = row + 1; c < dims; c++) {
+                    value -= gram[row * MAX_FLOURS + c] * u[c];
+                }
+                u[row] = value / gram[row * MAX_FLOURS + row];
+            }
+            return true;
+        }
+    }
+}
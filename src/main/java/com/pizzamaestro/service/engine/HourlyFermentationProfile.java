@@ -0,0 +1,114 @@
+package com.pizzamaestro.service.engine;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Godzinowy profil aktywności drożdży z prognozy temperatury wewnętrznej.
+ *
+ * Współczynniki Q10 są liczone raz dla całej tablicy godzinowej (jedna pętla po
+ * prymitywach), a następnie sumowane narastająco - efektywny czas dowolnego okna
+ * to różnica dwóch sum, czyli O(1) na zapytanie, a czas potrzebny do osiągnięcia
+ * zadanej liczby godzin efektywnych - wyszukiwanie binarne, O(log n).
+ *
+ * Temperatura godziny {@code i} obowiązuje w przedziale [start + i h, start + i + 1 h).
+ * Przed początkiem i po końcu prognozy przyjmowana jest odpowiednio pierwsza
+ * i ostatnia wartość.
+ */
+public final class HourlyFermentationProfile {
+
+    private static final double SECONDS_PER_HOUR = 3600.0;
+
+    private final LocalDateTime start;
+    private final double[] factors;
+    /** cumulative[i] = suma współczynników godzin 0..i-1 */
+    private final double[] cumulative;
+
+    /**
+     * @param start      początek pierwszej godziny prognozy
+     * @param indoorTemps temperatury wewnętrzne godzina po godzinie
+     * @param q10Factor   model aktywności drożdży względem temperatury referencyjnej
+     */
+    public HourlyFermentationProfile(LocalDateTime start, double[] indoorTemps, DoubleUnaryOperator q10Factor) {
+        if (start == null || indoorTemps == null || indoorTemps.length == 0) {
+            throw new IllegalArgumentException("Profil godzinowy wymaga początku i co najmniej jednej temperatury");
+        }
+        this.start = start;
+        this.factors = new double[indoorTemps.length];
+        this.cumulative = new double[indoorTemps.length + 1];
+        for (int i = 0; i < indoorTemps.length; i++) {
+            factors[i] = q10Factor.applyAsDouble(indoorTemps[i]);
+            cumulative[i + 1] = cumulative[i] + factors[i];
+        }
+    }
+
+    /**
+     * Efektywny czas fermentacji ("godziny równoważne w temperaturze referencyjnej")
+     * okna o długości {@code hours} zaczynającego się o {@code from}.
+     */
+    public double effectiveHours(LocalDateTime from, double hours) {
+        double position = hoursFromStart(from);
+        return cumulativeAt(position + hours) - cumulativeAt(position);
+    }
+
+    /**
+     * Ile rzeczywistych godzin od {@code from} potrzeba do zebrania {@code effectiveHours}.
+     */
+    public double hoursToReach(LocalDateTime from, double effectiveHours) {
+        double position = hoursFromStart(from);
+        return positionOf(cumulativeAt(position) + effectiveHours) - position;
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public int getHours() {
+        return factors.length;
+    }
+
+    private double hoursFromStart(LocalDateTime time) {
+        return ChronoUnit.SECONDS.between(start, time) / SECONDS_PER_HOUR;
+    }
+
+    /**
+     * Całka współczynnika od początku prognozy do pozycji {@code x} (w godzinach).
+     */
+    private double cumulativeAt(double x) {
+        int n = factors.length;
+        if (x <= 0) {
+            return x * factors[0];
+        }
+        if (x >= n) {
+            return cumulative[n] + (x - n) * factors[n - 1];
+        }
+        int i = (int) x;
+        return cumulative[i] + (x - i) * factors[i];
+    }
+
+    /**
+     * Odwrotność {@link #cumulativeAt} - współczynniki są dodatnie, więc funkcja jest rosnąca.
+     */
+    private double positionOf(double value) {
+        int n = factors.length;
+        if (value <= 0) {
+            return value / factors[0];
+        }
+        if (value >= cumulative[n]) {
+            return n + (value - cumulative[n]) / factors[n - 1];
+        }
+        // Największe i, dla którego cumulative[i] <= value
+        int low = 0;
+        int high = n;
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] <= value) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return low + (value - cumulative[low]) / factors[low];
+    }
+}
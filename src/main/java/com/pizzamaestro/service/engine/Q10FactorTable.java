@@ -0,0 +1,59 @@
+package com.pizzamaestro.service.engine;
+
+/**
+ * Tablica współczynnika aktywności drożdży Q10: {@code q10^((T - T_ref) / 10)}.
+ *
+ * Wartości są wyliczone raz dla temperatur {@value #MIN_TEMP}..{@value #MAX_TEMP}°C
+ * co {@value #STEP}°C i odpowiadane interpolacją liniową; poza zakresem liczone
+ * wprost przez {@link Math#pow}. Maksymalny błąd względny jest mierzony przy budowie
+ * w środkach komórek.
+ */
+public final class Q10FactorTable {
+
+    static final double MIN_TEMP = -10.0;
+    static final double MAX_TEMP = 50.0;
+    static final double STEP = 0.1;
+
+    private final double q10;
+    private final double referenceTemp;
+    private final double[] table;
+    private final double maxRelativeError;
+
+    public Q10FactorTable(double q10, double referenceTemp) {
+        this.q10 = q10;
+        this.referenceTemp = referenceTemp;
+        this.table = new double[(int) Math.round((MAX_TEMP - MIN_TEMP) / STEP) + 1];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = exact(MIN_TEMP + i * STEP);
+        }
+
+        double maxError = 0;
+        for (int i = 0; i < table.length - 1; i++) {
+            double temp = MIN_TEMP + (i + 0.5) * STEP;
+            double exact = exact(temp);
+            maxError = Math.max(maxError, Math.abs(factor(temp) - exact) / exact);
+        }
+        this.maxRelativeError = maxError;
+    }
+
+    /**
+     * Współczynnik aktywności w danej temperaturze względem temperatury referencyjnej.
+     */
+    public double factor(double temp) {
+        if (!(temp >= MIN_TEMP && temp <= MAX_TEMP)) {
+            return exact(temp);
+        }
+        double pos = (temp - MIN_TEMP) / STEP;
+        int i = Math.min((int) pos, table.length - 2);
+        double t = pos - i;
+        return table[i] + (table[i + 1] - table[i]) * t;
+    }
+
+    public double getMaxRelativeError() {
+        return maxRelativeError;
+    }
+
+    private double exact(double temp) {
+        return Math.pow(q10, (temp - referenceTemp) / 10);
+    }
+}
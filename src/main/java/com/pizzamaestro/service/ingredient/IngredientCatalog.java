@@ -0,0 +1,103 @@
+package com.pizzamaestro.service.ingredient;
+
+import com.pizzamaestro.model.Ingredient;
+import com.pizzamaestro.repository.IngredientRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Katalog składników w pamięci - odczyty bez zapytań do MongoDB.
+ *
+ * Trzyma jedną {@link IngredientCatalogSnapshot}, podmienianą atomowo po zapisie składnika
+ * na tej instancji ({@link #reload()}). Zmiany z innych instancji wykrywa odpytywanie co
+ * {@code poll-interval-ms} o odcisk kolekcji (liczba dokumentów + suma {@code version} - każdy
+ * zapis encji podbija wersję); change stream wymagałby replica setu, którego nie ma w dev.
+ */
+@Component
+@Slf4j
+public class IngredientCatalog {
+
+    private final Supplier<List<Ingredient>> loader;
+    private final Supplier<String> fingerprint;
+    private final Consumer<IngredientCatalogSnapshot> onReload;
+    private final AtomicReference<IngredientCatalogSnapshot> current = new AtomicReference<>();
+
+    @Autowired
+    public IngredientCatalog(IngredientRepository ingredientRepository, MongoTemplate mongoTemplate,
+                             ApplicationEventPublisher eventPublisher) {
+        this(ingredientRepository::findAll, () -> fingerprint(mongoTemplate),
+                snapshot -> eventPublisher.publishEvent(new IngredientCatalogChangedEvent(snapshot)));
+    }
+
+    IngredientCatalog(Supplier<List<Ingredient>> loader, Supplier<String> fingerprint) {
+        this(loader, fingerprint, snapshot -> { });
+    }
+
+    IngredientCatalog(Supplier<List<Ingredient>> loader, Supplier<String> fingerprint,
+                      Consumer<IngredientCatalogSnapshot> onReload) {
+        this.loader = loader;
+        this.fingerprint = fingerprint;
+        this.onReload = onReload;
+    }
+
+    /**
+     * Aktualna migawka (wczytywana przy pierwszym użyciu).
+     */
+    public IngredientCatalogSnapshot snapshot() {
+        IngredientCatalogSnapshot snapshot = current.get();
+        return snapshot != null ? snapshot : reload();
+    }
+
+    /**
+     * Wczytuje katalog od nowa, podmienia migawkę i ogłasza {@link IngredientCatalogChangedEvent}.
+     * Odcisk brany przed odczytem - zapis w trakcie wczytywania wywoła kolejne przeładowanie.
+     */
+    public synchronized IngredientCatalogSnapshot reload() {
+        String state = fingerprint.get();
+        IngredientCatalogSnapshot previous = current.get();
+        long version = previous == null ? 1 : previous.version() + 1;
+        IngredientCatalogSnapshot snapshot = new IngredientCatalogSnapshot(version, state, loader.get());
+        current.set(snapshot);
+        log.debug("📦 Katalog składników v{}: {} składników", version, snapshot.size());
+        onReload.accept(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Przeładowuje katalog, jeśli kolekcja zmieniła się od ostatniej migawki (np. zapis na innej instancji).
+     */
+    @Scheduled(fixedDelayString = "${pizzamaestro.ingredients.catalog.poll-interval-ms:30000}")
+    public void refreshIfChanged() {
+        IngredientCatalogSnapshot snapshot = current.get();
+        if (snapshot == null) {
+            return;
+        }
+        try {
+            if (!Objects.equals(snapshot.fingerprint(), fingerprint.get())) {
+                log.info("🔄 Składniki zmienione poza tą instancją - przeładowuję katalog");
+                reload();
+            }
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Nie udało się sprawdzić zmian katalogu składników: {}", e.getMessage());
+        }
+    }
+
+    private static String fingerprint(MongoTemplate mongoTemplate) {
+        Document state = mongoTemplate.aggregate(Aggregation.newAggregation(
+                        Aggregation.group().count().as("count").sum("version").as("versionSum")),
+                Ingredient.class, Document.class).getUniqueMappedResult();
+        return state == null ? "0:0" : state.get("count") + ":" + state.get("versionSum");
+    }
+}
@@ -0,0 +1,8 @@
+package com.pizzamaestro.service.ingredient;
+
+/**
+ * Ogłaszane po każdej podmianie migawki katalogu składników (także pierwszym wczytaniu).
+ * Słuchacze działają synchronicznie w wątku przeładowania - cięższą pracę przenoszą w tło.
+ */
+public record IngredientCatalogChangedEvent(IngredientCatalogSnapshot snapshot) {
+}
@@ -0,0 +1,212 @@
+package com.pizzamaestro.service.ingredient;
+
+import com.pizzamaestro.model.Ingredient;
+import com.pizzamaestro.model.Ingredient.HardnessLevel;
+import com.pizzamaestro.model.Ingredient.IngredientType;
+import com.pizzamaestro.model.PizzaStyle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Niezmienna migawka katalogu składników z indeksami budowanymi raz, przy wczytaniu.
+ *
+ * Indeksy po typie, stylu i twardości wody to tablice list indeksowane {@code ordinal()} enuma,
+ * zakres białka - posortowana tablica {@code double[]} z wyszukiwaniem binarnym.
+ * Listy są niemodyfikowalne; obiekty {@link Ingredient} są współdzielone między żądaniami,
+ * więc nie wolno ich zmieniać (zapis idzie przez repozytorium i nową migawkę).
+ */
+public final class IngredientCatalogSnapshot {
+
+    private final long version;
+    private final String fingerprint;
+    private final Map<String, Ingredient> byId;
+    private final List<Ingredient>[] activeByType;
+    private final List<Ingredient>[] verifiedByType;
+    private final List<Ingredient>[] floursByStyle;
+    private final List<Ingredient>[] watersByHardness;
+    private final double[] flourProteins;
+    private final Ingredient[] floursByProtein;
+    private final Ingredient[] active;
+    private final String[] activeLowerNames;
+
+    /**
+     * @param version     numer migawki (rośnie z każdą podmianą)
+     * @param fingerprint stan kolekcji, z którego migawka powstała (do wykrywania zmian z innych instancji)
+     * @param ingredients wszystkie składniki, także nieaktywne (dostępne po id)
+     */
+    public IngredientCatalogSnapshot(long version, String fingerprint, List<Ingredient> ingredients) {
+        this.version = version;
+        this.fingerprint = fingerprint;
+
+        Map<String, Ingredient> ids = new HashMap<>();
+        List<List<Ingredient>> types = lists(IngredientType.values().length);
+        List<List<Ingredient>> verified = lists(IngredientType.values().length);
+        List<List<Ingredient>> styles = lists(PizzaStyle.values().length);
+        List<List<Ingredient>> hardness = lists(HardnessLevel.values().length);
+        List<Ingredient> flours = new ArrayList<>();
+        List<Ingredient> activeList = new ArrayList<>();
+
+        for (Ingredient ingredient : ingredients) {
+            if (ingredient.getId() != null) {
+                ids.put(ingredient.getId(), ingredient);
+            }
+            if (!ingredient.isActive() || ingredient.getType() == null) {
+                continue;
+            }
+            activeList.add(ingredient);
+            types.get(ingredient.getType().ordinal()).add(ingredient);
+            if (ingredient.isVerified()) {
+                verified.get(ingredient.getType().ordinal()).add(ingredient);
+            }
+            if (ingredient.getType() == IngredientType.FLOUR && ingredient.getFlourParameters() != null) {
+                flours.add(ingredient);
+                List<PizzaStyle> recommended = ingredient.getFlourParameters().getRecommendedStyles();
+                if (recommended != null) {
+                    new LinkedHashSet<>(recommended).forEach(style -> styles.get(style.ordinal()).add(ingredient));
+                }
+            }
+            if (ingredient.getType() == IngredientType.WATER && ingredient.getWaterParameters() != null
+                    && ingredient.getWaterParameters().getHardnessLevel() != null) {
+                hardness.get(ingredient.getWaterParameters().getHardnessLevel().ordinal()).add(ingredient);
+            }
+        }
+
+        flours.sort(Comparator.comparingDouble(flour -> flour.getFlourParameters().getProteinContent()));
+        this.byId = Map.copyOf(ids);
+        this.activeByType = frozen(types);
+        this.verifiedByType = frozen(verified);
+        this.floursByStyle = frozen(styles);
+        this.watersByHardness = frozen(hardness);
+        this.floursByProtein = flours.toArray(Ingredient[]::new);
+        this.flourProteins = flours.stream().mapToDouble(flour -> flour.getFlourParameters().getProteinContent()).toArray();
+        this.active = activeList.toArray(Ingredient[]::new);
+        this.activeLowerNames = activeList.stream()
+                .map(ingredient -> ingredient.getName() == null ? "" : ingredient.getName().toLowerCase(Locale.ROOT))
+                .toArray(String[]::new);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    String fingerprint() {
+        return fingerprint;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * Składnik po id (także nieaktywny), null gdy nie istnieje.
+     */
+    public Ingredient findById(String id) {
+        return id == null ? null : byId.get(id);
+    }
+
+    /**
+     * Składniki w kolejności podanych id, bez powtórzeń i bez nieistniejących.
+     */
+    public List<Ingredient> findAllByIds(List<String> ids) {
+        List<Ingredient> result = new ArrayList<>(ids.size());
+        for (String id : new LinkedHashSet<>(ids)) {
+            Ingredient ingredient = findById(id);
+            if (ingredient != null) {
+                result.add(ingredient);
+            }
+        }
+        return result;
+    }
+
+    public List<Ingredient> active(IngredientType type) {
+        return activeByType[type.ordinal()];
+    }
+
+    public List<Ingredient> verified(IngredientType type) {
+        return verifiedByType[type.ordinal()];
+    }
+
+    public List<Ingredient> floursForStyle(PizzaStyle style) {
+        return floursByStyle[style.ordinal()];
+    }
+
+    public List<Ingredient> watersByHardness(HardnessLevel hardnessLevel) {
+        return watersByHardness[hardnessLevel.ordinal()];
+    }
+
+    /**
+     * Mąki z białkiem w przedziale domkniętym, rosnąco po białku.
+     */
+    public List<Ingredient> floursByProtein(double minProtein, double maxProtein) {
+        if (minProtein > maxProtein) {
+            return List.of();
+        }
+        int from = lowerBound(flourProteins, minProtein);
+        int to = upperBound(flourProteins, maxProtein);
+        return from >= to ? List.of() : List.of(Arrays.copyOfRange(floursByProtein, from, to));
+    }
+
+    /**
+     * Aktywne składniki, których nazwa zawiera frazę (bez rozróżniania wielkości liter).
+     */
+    public List<Ingredient> searchByName(String phrase) {
+        String needle = phrase.toLowerCase(Locale.ROOT);
+        List<Ingredient> result = new ArrayList<>();
+        for (int i = 0; i < active.length; i++) {
+            if (activeLowerNames[i].contains(needle)) {
+                result.add(active[i]);
+            }
+        }
+        return result;
+    }
+
+    /** Pierwszy indeks z wartością >= key. */
+    private static int lowerBound(double[] values, double key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** Pierwszy indeks z wartością > key. */
+    private static int upperBound(double[] values, double key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static List<List<Ingredient>> lists(int size) {
+        List<List<Ingredient>> lists = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            lists.add(new ArrayList<>());
+        }
+        return lists;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Ingredient>[] frozen(List<List<Ingredient>> lists) {
+        return lists.stream().map(List::copyOf).toArray(List[]::new);
+    }
+}
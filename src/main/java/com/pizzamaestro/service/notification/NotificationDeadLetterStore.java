@@ -0,0 +1,39 @@
+package com.pizzamaestro.service.notification;
+
+import com.pizzamaestro.model.Notification;
+import com.pizzamaestro.repository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Dead-letter SMS-ów w kolekcji powiadomień - jako {@link Notification} typu SMS
+ * ze statusem FAILED, treścią, liczbą prób i ostatnim błędem.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationDeadLetterStore implements SmsDeadLetterStore {
+
+    private final NotificationRepository notificationRepository;
+
+    @Override
+    public void store(String toPhoneNumber, String messageBody, String userId, int attempts, String error) {
+        try {
+            notificationRepository.save(Notification.builder()
+                    .userId(userId)
+                    .type(Notification.NotificationType.SMS)
+                    .status(Notification.NotificationStatus.FAILED)
+                    .title("SMS niedostarczony")
+                    .message(messageBody)
+                    .scheduledTime(LocalDateTime.now())
+                    .errorMessage(error)
+                    .retryCount(attempts)
+                    .build());
+        } catch (Exception e) {
+            log.error("❌ Nie udało się zapisać niedostarczonego SMS: {}", e.getMessage());
+        }
+    }
+}
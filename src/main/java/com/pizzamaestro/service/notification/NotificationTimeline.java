@@ -0,0 +1,216 @@
+package com.pizzamaestro.service.notification;
+
+import com.pizzamaestro.model.ActivePizza;
+import com.pizzamaestro.model.ActivePizza.ActivePizzaStatus;
+import com.pizzamaestro.model.ActivePizza.ScheduledStep;
+import com.pizzamaestro.model.ActivePizza.StepStatus;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Indeks czasowy powiadomień o krokach aktywnych pizz.
+ *
+ * Każdy krok wymagający powiadomienia trafia do kubełka minutowego odpowiadającego
+ * najbliższej chwili, w której może być potrzebne powiadomienie:
+ * - przypomnienie: od {@code reminderMinutesBefore} przed krokiem
+ * - "teraz": do 2 min po czasie kroku
+ * - opóźnienie: od 11 do 30 min po czasie kroku
+ *
+ * Tick zdejmuje wyłącznie kubełki, których czas minął - koszt zależy od liczby
+ * kroków do obsłużenia, a nie od liczby aktywnych pizz.
+ *
+ * Ponowne zindeksowanie pizzy podnosi jej generację; wpisy ze starszą generacją
+ * są pomijane przy zdejmowaniu (bez kosztownego usuwania z kubełków).
+ *
+ * Klasa nie jest thread-safe - używana z jednego wątku schedulera.
+ */
+public class NotificationTimeline {
+
+    static final int NOW_WINDOW_MINUTES = 2;
+    static final int OVERDUE_START_MINUTES = 11;
+    static final int OVERDUE_END_MINUTES = 30;
+    static final int DEFAULT_REMINDER_MINUTES = 15;
+
+    /** Minuta (epoch) → kroki do sprawdzenia w tej minucie */
+    private final NavigableMap<Long, List<StepRef>> buckets = new TreeMap<>();
+
+    /** Migawka pizzy (tylko pola potrzebne do powiadomień) z generacją */
+    private final Map<String, Entry> pizzas = new HashMap<>();
+
+    private long generationCounter;
+
+    /**
+     * Krok do sprawdzenia - wynik {@link #pollDue(LocalDateTime)}.
+     */
+    public record DueStep(ActivePizza pizza, ScheduledStep step) {
+    }
+
+    private record StepRef(String pizzaId, int stepNumber, long generation) {
+    }
+
+    private record Entry(ActivePizza pizza, long generation) {
+    }
+
+    /**
+     * Indeksuje (lub re-indeksuje) pizzę. Pizze nieaktywne, bez SMS lub bez numeru
+     * są usuwane z indeksu.
+     */
+    public void index(ActivePizza pizza, LocalDateTime now) {
+        if (!requiresNotifications(pizza)) {
+            pizzas.remove(pizza.getId());
+            return;
+        }
+
+        long generation = ++generationCounter;
+        pizzas.put(pizza.getId(), new Entry(pizza, generation));
+
+        long nowMinute = epochMinute(now);
+        int reminderMinutes = reminderMinutes(pizza);
+        for (ScheduledStep step : pizza.getSteps()) {
+            long checkMinute = nextCheckMinute(step, reminderMinutes, nowMinute);
+            if (checkMinute >= 0) {
+                buckets.computeIfAbsent(checkMinute, k -> new ArrayList<>())
+                        .add(new StepRef(pizza.getId(), step.getStepNumber(), generation));
+            }
+        }
+    }
+
+    /**
+     * Usuwa pizzę z indeksu.
+     */
+    public void remove(String pizzaId) {
+        pizzas.remove(pizzaId);
+    }
+
+    /**
+     * Czyści cały indeks (przed pełną przebudową).
+     */
+    public void clear() {
+        buckets.clear();
+        pizzas.clear();
+    }
+
+    /**
+     * Zdejmuje kroki, których minuta sprawdzenia nadeszła.
+     * Nieaktualne wpisy (stara generacja, krok już powiadomiony) są pomijane.
+     */
+    public List<DueStep> pollDue(LocalDateTime now) {
+        long nowMinute = epochMinute(now);
+        List<DueStep> due = new ArrayList<>();
+        Set<StepRef> seen = new HashSet<>();
+
+        Iterator<Map.Entry<Long, List<StepRef>>> it = buckets.headMap(nowMinute, true).entrySet().iterator();
+        while (it.hasNext()) {
+            for (StepRef ref : it.next().getValue()) {
+                Entry entry = pizzas.get(ref.pizzaId());
+                if (entry == null || entry.generation() != ref.generation() || !seen.add(ref)) {
+                    continue;
+                }
+                ScheduledStep step = findStep(entry.pizza(), ref.stepNumber());
+                if (step != null && requiresNotification(step)) {
+                    due.add(new DueStep(entry.pizza(), step));
+                }
+            }
+            it.remove();
+        }
+        return due;
+    }
+
+    /**
+     * Planuje ponowne sprawdzenie kroku (np. po nieudanej wysyłce lub gdy
+     * w tej minucie nie wypadło żadne okno powiadomienia).
+     */
+    public void reschedule(DueStep dueStep, LocalDateTime now) {
+        Entry entry = pizzas.get(dueStep.pizza().getId());
+        if (entry == null || entry.pizza() != dueStep.pizza()) {
+            return;
+        }
+        long nowMinute = epochMinute(now);
+        long checkMinute = nextCheckMinute(dueStep.step(), reminderMinutes(entry.pizza()), nowMinute + 1);
+        if (checkMinute >= 0) {
+            buckets.computeIfAbsent(checkMinute, k -> new ArrayList<>())
+                    .add(new StepRef(entry.pizza().getId(), dueStep.step().getStepNumber(), entry.generation()));
+        }
+    }
+
+    /**
+     * Liczba pizz w indeksie.
+     */
+    public int size() {
+        return pizzas.size();
+    }
+
+    /**
+     * Liczba wpisów w kubełkach (łącznie z nieaktualnymi).
+     */
+    public int pendingChecks() {
+        return buckets.values().stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * Najbliższa minuta (≥ fromMinute), w której krok może wymagać powiadomienia;
+     * -1 gdy nie wymaga już żadnego.
+     */
+    static long nextCheckMinute(ScheduledStep step, int reminderMinutes, long fromMinute) {
+        if (!requiresNotification(step)) {
+            return -1;
+        }
+        long stepMinute = epochMinute(step.getScheduledTime());
+
+        long reminderStart = stepMinute - reminderMinutes;
+        if (fromMinute < reminderStart) {
+            return reminderStart;
+        }
+        if (fromMinute <= stepMinute + NOW_WINDOW_MINUTES) {
+            return fromMinute;
+        }
+        if (fromMinute < stepMinute + OVERDUE_START_MINUTES) {
+            return stepMinute + OVERDUE_START_MINUTES;
+        }
+        if (fromMinute <= stepMinute + OVERDUE_END_MINUTES) {
+            return fromMinute;
+        }
+        return -1;
+    }
+
+    static int reminderMinutes(ActivePizza pizza) {
+        return pizza.getReminderMinutesBefore() != null ?
+                pizza.getReminderMinutesBefore() : DEFAULT_REMINDER_MINUTES;
+    }
+
+    static long epochMinute(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static boolean requiresNotifications(ActivePizza pizza) {
+        return pizza.isSmsNotificationsEnabled()
+                && (pizza.getStatus() == ActivePizzaStatus.PLANNING || pizza.getStatus() == ActivePizzaStatus.IN_PROGRESS)
+                && pizza.getNotificationPhone() != null && !pizza.getNotificationPhone().isEmpty()
+                && pizza.getSteps() != null;
+    }
+
+    private static boolean requiresNotification(ScheduledStep step) {
+        return (step.getStatus() == StepStatus.PENDING || step.getStatus() == StepStatus.IN_PROGRESS)
+                && step.getScheduledTime() != null
+                && !step.isNotificationSent();
+    }
+
+    private static ScheduledStep findStep(ActivePizza pizza, int stepNumber) {
+        for (ScheduledStep step : pizza.getSteps()) {
+            if (step.getStepNumber() == stepNumber) {
+                return step;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.pizzamaestro.service.notification;
+
+/**
+ * Miejsce na SMS-y, których nie udało się wysłać mimo ponowień.
+ */
+public interface SmsDeadLetterStore {
+
+    /**
+     * Zapisuje niedostarczoną wiadomość.
+     *
+     * @param toPhoneNumber numer odbiorcy
+     * @param messageBody treść (po scaleniu)
+     * @param userId właściciel wiadomości (może być null)
+     * @param attempts liczba wykonanych prób
+     * @param error opis ostatniego błędu
+     */
+    void store(String toPhoneNumber, String messageBody, String userId, int attempts, String error);
+}
@@ -0,0 +1,268 @@
+package com.pizzamaestro.service.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchroniczny potok wysyłki SMS.
+ *
+ * - {@link #enqueue} nie blokuje: wiadomość trafia do otwartej paczki dla numeru odbiorcy
+ * - paczka jest wysyłana po {@code coalesce-window-ms}, więc kilka przypomnień na ten sam
+ *   numer w krótkim czasie staje się jednym SMS-em (identyczne treści są deduplikowane)
+ * - wysyłka na {@code workers} wątkach (wirtualnych) - wolne API dostawcy nie blokuje schedulera
+ * - błędy przejściowe są ponawiane z wykładniczym backoffem, po {@code max-attempts}
+ *   (lub przy błędzie trwałym) wiadomość trafia do {@link SmsDeadLetterStore}
+ * - liczba wiadomości w potoku jest ograniczona przez {@code queue-capacity};
+ *   przy przepełnieniu {@link #enqueue} zwraca false (backpressure)
+ */
+@Service
+@Slf4j
+public class SmsDispatcher {
+
+    private final SmsSender sender;
+    private final SmsDeadLetterStore deadLetterStore;
+    private final int queueCapacity;
+    private final long coalesceWindowMs;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+
+    private final ScheduledExecutorService timer;
+    private final ExecutorService workers;
+
+    /** Otwarte paczki - jeszcze przyjmują wiadomości */
+    private final ConcurrentHashMap<String, Batch> openBatches = new ConcurrentHashMap<>();
+
+    /** Paczki czekające na ponowienie (na wypadek zamknięcia aplikacji) */
+    private final Set<Batch> awaitingRetry = ConcurrentHashMap.newKeySet();
+
+    /** Wiadomości w potoku (otwarte paczki + wysyłane + czekające na ponowienie) */
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final Counter sentCounter;
+    private final Counter retryCounter;
+    private final Counter deadLetterCounter;
+    private final Counter rejectedCounter;
+
+    private volatile boolean shuttingDown;
+
+    public SmsDispatcher(
+            @Lazy SmsSender sender,
+            SmsDeadLetterStore deadLetterStore,
+            MeterRegistry meterRegistry,
+            @Value("${pizzamaestro.notifications.sms.queue-capacity:1000}") int queueCapacity,
+            @Value("${pizzamaestro.notifications.sms.workers:4}") int workers,
+            @Value("${pizzamaestro.notifications.sms.coalesce-window-ms:3000}") long coalesceWindowMs,
+            @Value("${pizzamaestro.notifications.sms.max-attempts:4}") int maxAttempts,
+            @Value("${pizzamaestro.notifications.sms.initial-backoff-ms:2000}") long initialBackoffMs) {
+        if (queueCapacity < 1 || workers < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("queue-capacity, workers i max-attempts muszą być dodatnie");
+        }
+        this.sender = sender;
+        this.deadLetterStore = deadLetterStore;
+        this.queueCapacity = queueCapacity;
+        this.coalesceWindowMs = coalesceWindowMs;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+
+        this.timer = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("sms-timer").daemon(true).factory());
+        this.workers = Executors.newFixedThreadPool(workers,
+                Thread.ofVirtual().name("sms-sender-", 0).factory());
+
+        this.sentCounter = meterRegistry.counter("sms.sent");
+        this.retryCounter = meterRegistry.counter("sms.retried");
+        this.deadLetterCounter = meterRegistry.counter("sms.dead_letter");
+        this.rejectedCounter = meterRegistry.counter("sms.rejected");
+        meterRegistry.gauge("sms.in_flight", inFlight);
+
+        log.info("📨 Potok SMS: {} wątków, pojemność {}, okno scalania {} ms, {} prób",
+                workers, queueCapacity, coalesceWindowMs, maxAttempts);
+    }
+
+    /**
+     * Przyjmuje wiadomość do wysłania.
+     *
+     * @param toPhoneNumber numer odbiorcy (E.164)
+     * @param messageBody treść
+     * @param userId właściciel (do dead-letter), może być null
+     * @return true gdy wiadomość przyjęto; false przy pustych danych, pełnym potoku lub zamykaniu
+     */
+    public boolean enqueue(String toPhoneNumber, String messageBody, String userId) {
+        if (toPhoneNumber == null || toPhoneNumber.isEmpty() || messageBody == null || messageBody.isEmpty()) {
+            log.warn("⚠️ SMS odrzucony - brak numeru lub treści");
+            return false;
+        }
+        if (shuttingDown) {
+            return false;
+        }
+        if (inFlight.incrementAndGet() > queueCapacity) {
+            inFlight.decrementAndGet();
+            rejectedCounter.increment();
+            log.warn("⚠️ Potok SMS pełny ({} wiadomości) - odrzucono wiadomość", queueCapacity);
+            return false;
+        }
+
+        try {
+            openBatches.compute(toPhoneNumber, (phone, batch) -> {
+                if (batch == null) {
+                    Batch opened = new Batch(phone, userId);
+                    timer.schedule(() -> dispatch(opened), coalesceWindowMs, TimeUnit.MILLISECONDS);
+                    batch = opened;
+                }
+                batch.add(messageBody);
+                return batch;
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            // Zamykanie w trakcie - timer już nie przyjmuje zadań
+            inFlight.decrementAndGet();
+            return false;
+        }
+    }
+
+    /**
+     * Liczba wiadomości w potoku.
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Zamyka potok: otwarte paczki są wysyłane od razu, paczki czekające
+     * na ponowienie trafiają do dead-letter.
+     */
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+        timer.shutdownNow();
+        for (Batch batch : List.copyOf(openBatches.values())) {
+            dispatch(batch);
+        }
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        for (Batch batch : List.copyOf(awaitingRetry)) {
+            if (awaitingRetry.remove(batch)) {
+                deadLetter(batch, "Zamknięcie aplikacji przed ponowieniem");
+            }
+        }
+    }
+
+    private void dispatch(Batch batch) {
+        if (!openBatches.remove(batch.phone, batch)) {
+            return;
+        }
+        submit(batch);
+    }
+
+    private void submit(Batch batch) {
+        try {
+            workers.execute(() -> send(batch));
+        } catch (RejectedExecutionException e) {
+            deadLetter(batch, "Potok SMS zamknięty");
+        }
+    }
+
+    private void send(Batch batch) {
+        batch.attempts++;
+        try {
+            sender.send(batch.phone, batch.body());
+            sentCounter.increment();
+            inFlight.addAndGet(-batch.messageCount);
+            if (batch.messageCount > 1) {
+                log.debug("📨 Scalono {} wiadomości w jeden SMS", batch.messageCount);
+            }
+        } catch (RuntimeException e) {
+            boolean retryable = !(e instanceof SmsSendException sendException) || sendException.isRetryable();
+            if (retryable && batch.attempts < maxAttempts && !shuttingDown) {
+                scheduleRetry(batch, e);
+            } else {
+                deadLetter(batch, e.getMessage());
+            }
+        }
+    }
+
+    private void scheduleRetry(Batch batch, RuntimeException cause) {
+        long delay = backoffMs(batch.attempts);
+        log.warn("🔁 SMS nie wysłany (próba {}/{}): {} - ponowienie za {} ms",
+                batch.attempts, maxAttempts, cause.getMessage(), delay);
+        retryCounter.increment();
+        awaitingRetry.add(batch);
+        try {
+            timer.schedule(() -> {
+                if (awaitingRetry.remove(batch)) {
+                    submit(batch);
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            if (awaitingRetry.remove(batch)) {
+                deadLetter(batch, cause.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Backoff wykładniczy z losowym rozrzutem ±20%, żeby ponowienia się nie zbiegały.
+     */
+    long backoffMs(int attempt) {
+        long base = initialBackoffMs << Math.min(attempt - 1, 16);
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return Math.round(base * jitter);
+    }
+
+    private void deadLetter(Batch batch, String error) {
+        deadLetterCounter.increment();
+        log.error("❌ SMS niedostarczony po {} próbach: {}", batch.attempts, error);
+        deadLetterStore.store(batch.phone, batch.body(), batch.userId, batch.attempts, error);
+        inFlight.addAndGet(-batch.messageCount);
+    }
+
+    /**
+     * Paczka wiadomości dla jednego numeru. Modyfikowana tylko w
+     * {@code openBatches.compute} (dodawanie) i potem wyłącznie przez jeden wątek naraz.
+     */
+    private static final class Batch {
+        private final String phone;
+        private final String userId;
+        private final Set<String> bodies = new LinkedHashSet<>();
+        private int messageCount;
+        private int attempts;
+
+        private Batch(String phone, String userId) {
+            this.phone = phone;
+            this.userId = userId;
+        }
+
+        private void add(String body) {
+            bodies.add(body);
+            messageCount++;
+        }
+
+        private String body() {
+            return String.join("\n", bodies);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.pizzamaestro.service.notification;
+
+/**
+ * Błąd wysyłki SMS. Flaga {@code retryable} mówi, czy ponowienie ma sens
+ * (np. limit/błąd serwera u dostawcy), czy nie (np. błędny numer).
+ */
+public class SmsSendException extends RuntimeException {
+
+    private final boolean retryable;
+
+    public SmsSendException(String message, boolean retryable) {
+        super(message);
+        this.retryable = retryable;
+    }
+
+    public SmsSendException(String message, boolean retryable, Throwable cause) {
+        super(message, cause);
+        this.retryable = retryable;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
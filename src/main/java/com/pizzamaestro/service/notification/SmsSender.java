@@ -0,0 +1,17 @@
+package com.pizzamaestro.service.notification;
+
+/**
+ * Wysyłka pojedynczego SMS - implementowana przez {@link com.pizzamaestro.service.TwilioService},
+ * w testach zastępowana atrapą.
+ */
+public interface SmsSender {
+
+    /**
+     * Wysyła SMS synchronicznie.
+     *
+     * @param toPhoneNumber numer odbiorcy (E.164)
+     * @param messageBody treść wiadomości
+     * @throws SmsSendException gdy wysyłka się nie powiodła
+     */
+    void send(String toPhoneNumber, String messageBody);
+}
@@ -31,4 +31,13 @@ public interface FermentationStrategy {
      * Zwraca typ metody fermentacji obsługiwanej przez tę strategię.
      */
     Recipe.FermentationMethod getSupportedMethod();
+    
+    /**
+     * Czy wynik zależy od temperatury lodówki.
+     * Strategie bez fazy chłodniczej mogą zwrócić false - tablice
+     * ({@link TabulatedFermentationStrategy}) pomijają wtedy ten wymiar.
+     */
+    default boolean dependsOnFridgeTemperature() {
+        return true;
+    }
 }
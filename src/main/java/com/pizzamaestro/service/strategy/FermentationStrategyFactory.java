@@ -2,34 +2,61 @@ package com.pizzamaestro.service.strategy;
 
 import com.pizzamaestro.model.Recipe;
 import jakarta.annotation.PostConstruct;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Fabryka strategii fermentacji.
  * Automatycznie rejestruje wszystkie strategie i udostępnia je na żądanie.
+ *
+ * Metody wymienione w {@code pizzamaestro.fermentation.lookup-tables.methods}
+ * są obsługiwane przez {@link TabulatedFermentationStrategy}, o ile zmierzony
+ * błąd tablicy nie przekracza {@code max-relative-error} - w przeciwnym razie
+ * zostaje model analityczny.
  */
 @Component
-@RequiredArgsConstructor
+@Slf4j
 public class FermentationStrategyFactory {
-    
+
+    static final double DEFAULT_MAX_RELATIVE_ERROR = 0.01;
+
     private final List<FermentationStrategy> strategies;
+    private final Set<Recipe.FermentationMethod> tabulatedMethods;
+    private final double maxRelativeError;
     private final Map<Recipe.FermentationMethod, FermentationStrategy> strategyMap = new EnumMap<>(Recipe.FermentationMethod.class);
-    
+
+    public FermentationStrategyFactory(List<FermentationStrategy> strategies) {
+        this(strategies, "", DEFAULT_MAX_RELATIVE_ERROR);
+    }
+
+    @Autowired
+    public FermentationStrategyFactory(
+            List<FermentationStrategy> strategies,
+            @Value("${pizzamaestro.fermentation.lookup-tables.methods:}") String tabulatedMethods,
+            @Value("${pizzamaestro.fermentation.lookup-tables.max-relative-error:0.01}") double maxRelativeError) {
+        this.strategies = strategies;
+        this.tabulatedMethods = parseMethods(tabulatedMethods);
+        this.maxRelativeError = maxRelativeError;
+    }
+
     @PostConstruct
     public void init() {
         for (FermentationStrategy strategy : strategies) {
-            strategyMap.put(strategy.getSupportedMethod(), strategy);
+            strategyMap.put(strategy.getSupportedMethod(), tabulate(strategy));
         }
     }
-    
+
     /**
      * Zwraca strategię dla danej metody fermentacji.
-     * 
+     *
      * @param method metoda fermentacji
      * @return odpowiednia strategia
      * @throws IllegalArgumentException jeśli metoda nie jest obsługiwana
@@ -41,4 +68,42 @@ public class FermentationStrategyFactory {
         }
         return strategy;
     }
+
+    private FermentationStrategy tabulate(FermentationStrategy strategy) {
+        Recipe.FermentationMethod method = strategy.getSupportedMethod();
+        if (!tabulatedMethods.contains(method)) {
+            return strategy;
+        }
+
+        long start = System.nanoTime();
+        TabulatedFermentationStrategy tabulated = new TabulatedFermentationStrategy(strategy);
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+
+        if (tabulated.getMaxRelativeError() > maxRelativeError) {
+            log.warn("⚠️ Tablica drożdży {} odrzucona: błąd {} > dopuszczalny {}, zostaje model analityczny",
+                    method, String.format("%.4f", tabulated.getMaxRelativeError()), maxRelativeError);
+            return strategy;
+        }
+
+        log.info("📋 Tablica drożdży {}: {} wartości, maks. błąd względny {}, zbudowana w {} ms",
+                method, tabulated.getTableSize(), String.format("%.4f", tabulated.getMaxRelativeError()), durationMs);
+        return tabulated;
+    }
+
+    private static Set<Recipe.FermentationMethod> parseMethods(String methods) {
+        Set<Recipe.FermentationMethod> result = EnumSet.noneOf(Recipe.FermentationMethod.class);
+        if (methods == null || methods.isBlank()) {
+            return result;
+        }
+        for (String name : methods.split(",")) {
+            if (!name.isBlank()) {
+                try {
+                    result.add(Recipe.FermentationMethod.valueOf(name.trim()));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Nieznana metoda fermentacji w lookup-tables.methods: " + name.trim());
+                }
+            }
+        }
+        return result;
+    }
 }
@@ -40,6 +40,11 @@ public class RoomTemperatureStrategy implements FermentationStrategy {
         return Math.max(0.05, Math.min(3.0, yeastPercentage));
     }
     
+    @Override
+    public boolean dependsOnFridgeTemperature() {
+        return false;
+    }
+    
     @Override
     public Recipe.FermentationMethod getSupportedMethod() {
         return Recipe.FermentationMethod.ROOM_TEMPERATURE;
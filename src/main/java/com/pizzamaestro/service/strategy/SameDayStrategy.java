@@ -39,6 +39,11 @@ public class SameDayStrategy implements FermentationStrategy {
         return Math.max(0.5, Math.min(3.0, yeastPercentage));
     }
     
+    @Override
+    public boolean dependsOnFridgeTemperature() {
+        return false;
+    }
+    
     @Override
     public Recipe.FermentationMethod getSupportedMethod() {
         return Recipe.FermentationMethod.SAME_DAY;
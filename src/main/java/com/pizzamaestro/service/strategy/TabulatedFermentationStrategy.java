@@ -0,0 +1,139 @@
+package com.pizzamaestro.service.strategy;
+
+import com.pizzamaestro.model.Recipe;
+
+/**
+ * Tablicowa wersja strategii fermentacji - dekorator strategii analitycznej.
+ *
+ * Przy tworzeniu wylicza gęstą siatkę procentów drożdży:
+ * - godziny: każda pełna godzina 1-168 (wejście jest całkowite, więc bez interpolacji)
+ * - temperatura pokojowa: 10-40°C co {@value #ROOM_STEP}°C
+ * - temperatura lodówki: 0-10°C co {@value #FRIDGE_STEP}°C (tylko gdy strategia od niej zależy)
+ *
+ * Zapytania w obrębie siatki są odpowiadane interpolacją dwuliniową po temperaturach,
+ * poza siatką - przez strategię analityczną. Maksymalny błąd względny jest mierzony
+ * przy budowie w środkach wszystkich komórek (tam interpolacja jest najgorsza).
+ */
+public class TabulatedFermentationStrategy implements FermentationStrategy {
+
+    static final int MIN_HOURS = 1;
+    static final int MAX_HOURS = 168;
+    static final double ROOM_MIN = 10.0;
+    static final double ROOM_MAX = 40.0;
+    static final double ROOM_STEP = 0.25;
+    static final double FRIDGE_MIN = 0.0;
+    static final double FRIDGE_MAX = 10.0;
+    static final double FRIDGE_STEP = 0.25;
+
+    private final FermentationStrategy delegate;
+    private final Recipe.FermentationMethod method;
+    private final int roomCount;
+    private final int fridgeCount;
+
+    /** Siatka [godzina][temp. pokojowa][temp. lodówki] spłaszczona do jednej tablicy (float - połowa pamięci, błąd ~1e-7) */
+    private final float[] table;
+
+    private final double maxRelativeError;
+
+    public TabulatedFermentationStrategy(FermentationStrategy delegate) {
+        this.delegate = delegate;
+        this.method = delegate.getSupportedMethod();
+        this.roomCount = (int) Math.round((ROOM_MAX - ROOM_MIN) / ROOM_STEP) + 1;
+        this.fridgeCount = delegate.dependsOnFridgeTemperature() ?
+                (int) Math.round((FRIDGE_MAX - FRIDGE_MIN) / FRIDGE_STEP) + 1 : 1;
+        this.table = new float[(MAX_HOURS - MIN_HOURS + 1) * roomCount * fridgeCount];
+
+        int i = 0;
+        for (int hours = MIN_HOURS; hours <= MAX_HOURS; hours++) {
+            for (int r = 0; r < roomCount; r++) {
+                for (int f = 0; f < fridgeCount; f++) {
+                    table[i++] = (float) delegate.calculateYeastPercentage(
+                            hours, ROOM_MIN + r * ROOM_STEP, FRIDGE_MIN + f * FRIDGE_STEP, method);
+                }
+            }
+        }
+
+        this.maxRelativeError = measureMaxRelativeError();
+    }
+
+    @Override
+    public double calculateYeastPercentage(
+            int totalFermentationHours,
+            double roomTemperature,
+            double fridgeTemperature,
+            Recipe.FermentationMethod method) {
+
+        if (totalFermentationHours < MIN_HOURS || totalFermentationHours > MAX_HOURS
+                || !(roomTemperature >= ROOM_MIN && roomTemperature <= ROOM_MAX)
+                || (fridgeCount > 1 && !(fridgeTemperature >= FRIDGE_MIN && fridgeTemperature <= FRIDGE_MAX))) {
+            return delegate.calculateYeastPercentage(
+                    totalFermentationHours, roomTemperature, fridgeTemperature, method);
+        }
+
+        int hourOffset = (totalFermentationHours - MIN_HOURS) * roomCount * fridgeCount;
+
+        double roomPos = (roomTemperature - ROOM_MIN) / ROOM_STEP;
+        int r0 = Math.min((int) roomPos, roomCount - 2);
+        double tr = roomPos - r0;
+
+        if (fridgeCount == 1) {
+            double v0 = table[hourOffset + r0];
+            double v1 = table[hourOffset + r0 + 1];
+            return v0 + (v1 - v0) * tr;
+        }
+
+        double fridgePos = (fridgeTemperature - FRIDGE_MIN) / FRIDGE_STEP;
+        int f0 = Math.min((int) fridgePos, fridgeCount - 2);
+        double tf = fridgePos - f0;
+
+        int i00 = hourOffset + r0 * fridgeCount + f0;
+        int i10 = i00 + fridgeCount;
+        double low = table[i00] + (table[i00 + 1] - table[i00]) * tf;
+        double high = table[i10] + (table[i10 + 1] - table[i10]) * tf;
+        return low + (high - low) * tr;
+    }
+
+    @Override
+    public Recipe.FermentationMethod getSupportedMethod() {
+        return method;
+    }
+
+    @Override
+    public boolean dependsOnFridgeTemperature() {
+        return delegate.dependsOnFridgeTemperature();
+    }
+
+    /**
+     * Maksymalny błąd względny tablicy względem modelu analitycznego.
+     */
+    public double getMaxRelativeError() {
+        return maxRelativeError;
+    }
+
+    /**
+     * Rozmiar siatki (liczba przechowywanych wartości).
+     */
+    public int getTableSize() {
+        return table.length;
+    }
+
+    /**
+     * Porównuje interpolację z modelem analitycznym w środku każdej komórki siatki.
+     */
+    private double measureMaxRelativeError() {
+        double maxError = 0;
+        int fridgeCells = Math.max(1, fridgeCount - 1);
+        for (int hours = MIN_HOURS; hours <= MAX_HOURS; hours++) {
+            for (int r = 0; r < roomCount - 1; r++) {
+                double room = ROOM_MIN + (r + 0.5) * ROOM_STEP;
+                for (int f = 0; f < fridgeCells; f++) {
+                    double fridge = fridgeCount > 1 ? FRIDGE_MIN + (f + 0.5) * FRIDGE_STEP : FRIDGE_MIN;
+                    double exact = delegate.calculateYeastPercentage(hours, room, fridge, method);
+                    double interpolated = calculateYeastPercentage(hours, room, fridge, method);
+                    maxError = Math.max(maxError, Math.abs(interpolated - exact) / exact);
+                }
+            }
+        }
+        return maxError;
+    }
+}
@@ -7,95 +7,107 @@ import com.pizzamaestro.service.TipEngineService.TipCategory;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Bazowa klasa dla generatorów wskazówek.
  * Dostarcza wspólne metody pomocnicze.
+ *
+ * Podklasy rejestrują reguły w konstruktorze ({@link #add}); generowanie tipów,
+ * ostrzeżeń i rekomendacji to wybór stosowalnych reguł z danej sekcji.
  */
 @Slf4j
 public abstract class BaseTipGenerator implements TipGenerator {
-    
+
+    private final TipCategory category;
+    private final List<TipRule> rules = new ArrayList<>();
+
+    protected BaseTipGenerator(TipCategory category) {
+        this.category = category;
+    }
+
     /**
-     * Tworzy wskazówkę informacyjną.
+     * Rejestruje regułę generatora.
      */
-    protected Tip createInfoTip(TipCategory category, String title, String content, String icon, int priority) {
-        return Tip.builder()
-                .type(TipType.INFO)
-                .category(category)
-                .title(title)
-                .content(content)
-                .icon(icon)
-                .priority(priority)
-                .build();
+    protected void add(TipRule.TipRuleBuilder rule) {
+        rules.add(rule.build());
     }
-    
+
     /**
-     * Tworzy wskazówkę informacyjną ze szczegółami.
+     * Reguła wskazówki informacyjnej.
      */
-    protected Tip createInfoTip(TipCategory category, String title, String content, String details, String icon, int priority) {
-        return Tip.builder()
-                .type(TipType.INFO)
-                .category(category)
-                .title(title)
-                .content(content)
-                .details(details)
-                .icon(icon)
-                .priority(priority)
-                .build();
+    protected TipRule.TipRuleBuilder info(String id) {
+        return rule(id, TipRule.Section.TIP, TipType.INFO);
     }
-    
+
     /**
-     * Tworzy ostrzeżenie.
+     * Reguła wskazówki naukowej.
      */
-    protected Tip createWarningTip(TipCategory category, String title, String content, String suggestion, int priority) {
-        return Tip.builder()
-                .type(TipType.WARNING)
-                .category(category)
-                .title(title)
-                .content(content)
-                .suggestion(suggestion)
-                .icon("⚠️")
-                .priority(priority)
-                .build();
+    protected TipRule.TipRuleBuilder science(String id) {
+        return rule(id, TipRule.Section.TIP, TipType.SCIENCE).icon("🔬");
     }
-    
+
     /**
-     * Tworzy rekomendację.
+     * Reguła ostrzeżenia.
      */
-    protected Tip createRecommendation(TipCategory category, String title, String content, String suggestion, int priority) {
-        return Tip.builder()
-                .type(TipType.RECOMMENDATION)
-                .category(category)
-                .title(title)
-                .content(content)
-                .suggestion(suggestion)
-                .icon("💡")
-                .priority(priority)
-                .build();
+    protected TipRule.TipRuleBuilder warning(String id) {
+        return rule(id, TipRule.Section.WARNING, TipType.WARNING).icon("⚠️");
     }
-    
+
     /**
-     * Tworzy wskazówkę naukową.
+     * Reguła rekomendacji.
      */
-    protected Tip createScienceTip(TipCategory category, String title, String content, int priority) {
-        return Tip.builder()
-                .type(TipType.SCIENCE)
-                .category(category)
-                .title(title)
-                .content(content)
-                .icon("🔬")
-                .priority(priority)
-                .build();
+    protected TipRule.TipRuleBuilder recommendation(String id) {
+        return rule(id, TipRule.Section.RECOMMENDATION, TipType.RECOMMENDATION).icon("💡");
+    }
+
+    private TipRule.TipRuleBuilder rule(String id, TipRule.Section section, TipType type) {
+        return TipRule.builder()
+                .id(category.name().toLowerCase(Locale.ROOT) + "." + id)
+                .section(section)
+                .type(type)
+                .category(category);
+    }
+
+    @Override
+    public List<Tip> generateTips(CalculationContext context) {
+        return generate(TipRule.Section.TIP, context);
     }
-    
+
     @Override
     public List<Tip> generateWarnings(CalculationContext context) {
-        return new ArrayList<>();
+        return generate(TipRule.Section.WARNING, context);
+    }
+
+    @Override
+    public List<Tip> generateRecommendations(CalculationContext context) {
+        return generate(TipRule.Section.RECOMMENDATION, context);
     }
-    
+
+    private List<Tip> generate(TipRule.Section section, CalculationContext context) {
+        List<Tip> tips = new ArrayList<>();
+        for (TipRule rule : rules) {
+            if (rule.getSection() == section && rule.isApplicable(context)) {
+                tips.add(rule.render(context));
+            }
+        }
+        return tips;
+    }
+
     @Override
     public boolean isApplicable(CalculationContext context) {
-        return true;
+        return rules.stream().anyMatch(rule -> rule.isApplicable(context));
+    }
+
+    @Override
+    public String getCategory() {
+        return category.name();
+    }
+
+    @Override
+    public List<TipRule> getRules() {
+        return Collections.unmodifiableList(rules);
     }
 }
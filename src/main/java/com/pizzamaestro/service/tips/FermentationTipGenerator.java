@@ -0,0 +1,116 @@
+package com.pizzamaestro.service.tips;
+
+import com.pizzamaestro.model.Recipe;
+import com.pizzamaestro.service.TipEngineService.TipCategory;
+
+import static com.pizzamaestro.service.tips.TipCondition.*;
+import static com.pizzamaestro.service.tips.TipMeasure.FERMENTATION_HOURS;
+import static com.pizzamaestro.service.tips.TipMeasure.ROOM_TEMPERATURE;
+
+/**
+ * Wskazówki dla fermentacji: długość, metoda, nauka o fermentacji i ryzyka.
+ */
+public class FermentationTipGenerator extends BaseTipGenerator {
+
+    public FermentationTipGenerator() {
+        super(TipCategory.FERMENTATION);
+
+        length("very-short", atMost(FERMENTATION_HOURS, 6), "Bardzo krótka fermentacja - same-day pizza",
+                "Minimalne rozwinięcie smaku, ciasto głównie o smaku mąki",
+                "Wymaga większej ilości drożdży (2-3% świeżych)");
+        length("short", over(FERMENTATION_HOURS, 6, 12), "Krótka fermentacja - pizza tego samego dnia",
+                "Lekko rozwinięty smak, dobra dla prostych receptur",
+                "Standardowa ilość drożdży (1-2% świeżych)");
+        length("standard", over(FERMENTATION_HOURS, 12, 24), "Standardowa fermentacja - dobra równowaga",
+                "Dobrze rozwinięty smak, lekkość ciasta",
+                "Mniejsza ilość drożdży (0.5-1% świeżych)");
+        length("long", over(FERMENTATION_HOURS, 24, 48), "Długa fermentacja - rozwinięty smak",
+                "Bogaty, złożony smak, lepsze trawienie",
+                "Minimalna ilość drożdży (0.1-0.5% świeżych)");
+        length("very-long", over(FERMENTATION_HOURS, 48, 72), "Bardzo długa fermentacja - pełen rozwój smaku",
+                "Kompleksowy smak, doskonała strawność, nuty kwasowe",
+                "Bardzo mało drożdży (0.05-0.2% świeżych)");
+        length("extreme", above(FERMENTATION_HOURS, 72), "Ekstremalna fermentacja - dla koneserów",
+                "Intensywne aromaty, wyraźna kwasowość",
+                "Minimalne drożdże (0.02-0.1%) lub zakwas");
+
+        method(Recipe.FermentationMethod.ROOM_TEMPERATURE, """
+                Fermentacja w temperaturze pokojowej (20-24°C):
+                • Szybsza aktywność drożdży
+                • Czas: {0}h
+                • Idealne dla krótszych fermentacji
+                • Monitoruj ciasto - może przefermentować
+                """);
+        method(Recipe.FermentationMethod.COLD_FERMENTATION, """
+                Fermentacja w lodówce (4-6°C):
+                • Wolna, kontrolowana fermentacja
+                • Czas: {0}h
+                • Głębszy rozwój smaku
+                • Wyjmij ciasto 2h przed formowaniem
+                """);
+        method(Recipe.FermentationMethod.MIXED, """
+                Fermentacja mieszana:
+                • Start w temp. pokojowej (2-4h)
+                • Następnie lodówka ({0}h - 4h)
+                • Najlepsze z obu światów
+                • Wyjmij 2h przed pieczeniem
+                """);
+        method(Recipe.FermentationMethod.SAME_DAY, """
+                Pizza tego samego dnia:
+                • Tylko temp. pokojowa
+                • Czas: {0}h
+                • Więcej drożdży potrzebne
+                • Szybki wynik, mniej smaku
+                """);
+
+        add(science("science")
+                .title("Co dzieje się podczas fermentacji?")
+                .content("""
+                        🦠 Drożdże rozkładają cukry na CO₂ i alkohol (etanol)
+                        🔬 Enzymy rozkładają białka i skrobię na prostsze związki
+                        🍞 Kwasy organiczne tworzą charakterystyczny smak
+                        💪 Sieć glutenowa staje się silniejsza i bardziej elastyczna
+                        """)
+                .priority(4));
+
+        add(warning("over-fermentation")
+                .condition(above(FERMENTATION_HOURS, 12))
+                .condition(oneOf(TipAttribute.FERMENTATION_METHOD, Recipe.FermentationMethod.ROOM_TEMPERATURE))
+                .condition(above(ROOM_TEMPERATURE, 24))
+                .title("Ryzyko przefermentowania")
+                .content("Fermentacja {0}h w temperaturze {1}°C może prowadzić do przefermentowania. Ciasto może stać się zbyt kwaśne i stracić strukturę.")
+                .suggestion("Użyj fermentacji mieszanej lub zimnej dla dłuższych czasów.")
+                .priority(1)
+                .arguments(context -> new Object[]{
+                        context.getFermentationHours(), TipTemplate.decimal(context.getRoomTemperature(), 0)}));
+
+        add(warning("cold-too-short")
+                .condition(below(FERMENTATION_HOURS, 12))
+                .condition(oneOf(TipAttribute.FERMENTATION_METHOD, Recipe.FermentationMethod.COLD_FERMENTATION))
+                .title("Za krótka zimna fermentacja")
+                .content("{0}h w lodówce to za mało - drożdże nie zdążą się aktywować w niskiej temperaturze.")
+                .suggestion("Zimna fermentacja wymaga minimum 24h lub użyj metody pokojowej.")
+                .priority(1)
+                .arguments(context -> new Object[]{context.getFermentationHours()}));
+    }
+
+    private void length(String id, TipCondition band, String description, String flavorImpact, String yeastImpact) {
+        add(info(id)
+                .condition(band)
+                .title("Fermentacja {0}h - " + description)
+                .content("Smak: " + flavorImpact + "\n\nDrożdże: " + yeastImpact)
+                .icon("⏰")
+                .priority(1)
+                .arguments(context -> new Object[]{context.getFermentationHours()}));
+    }
+
+    private void method(Recipe.FermentationMethod method, String description) {
+        add(info("method-" + method.name().toLowerCase())
+                .condition(oneOf(TipAttribute.FERMENTATION_METHOD, method))
+                .title("Metoda: " + method.getDisplayName())
+                .content(description)
+                .icon("🌡️")
+                .priority(2)
+                .arguments(context -> new Object[]{context.getFermentationHours()}));
+    }
+}
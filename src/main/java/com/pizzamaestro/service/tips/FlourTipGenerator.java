@@ -0,0 +1,124 @@
+package com.pizzamaestro.service.tips;
+
+import com.pizzamaestro.service.TipEngineService.TipCategory;
+
+import static com.pizzamaestro.service.tips.TipCondition.*;
+import static com.pizzamaestro.service.tips.TipMeasure.*;
+
+/**
+ * Wskazówki dla mąki: siła W, zawartość białka i granice hydratacji/fermentacji.
+ *
+ * Wszystkie reguły wymagają podanej siły mąki.
+ */
+public class FlourTipGenerator extends BaseTipGenerator {
+
+    public FlourTipGenerator() {
+        super(TipCategory.FLOUR);
+
+        strength("weak", below(FLOUR_STRENGTH, 200), "Słaba mąka",
+                "Idealna dla ciast, ciasteczek. NIE dla pizzy.");
+        strength("medium", between(FLOUR_STRENGTH, 200, 260), "Średnia mąka",
+                "Dobra dla pizzy same-day, krótka fermentacja (do 12h).");
+        strength("strong", between(FLOUR_STRENGTH, 260, 300), "Mocna mąka",
+                "Idealna dla pizzy neapolitańskiej, 12-48h fermentacji.");
+        strength("very-strong", between(FLOUR_STRENGTH, 300, 350), "Bardzo mocna mąka",
+                "Doskonała dla długich fermentacji (48-72h), wysokich hydratacji.");
+        strength("manitoba", atLeast(FLOUR_STRENGTH, 350), "Manitoba / Super mocna",
+                "Dla ekstremalnych fermentacji, bardzo wysokich hydratacji (80%+).");
+
+        protein("protein-low", below(FLOUR_PROTEIN, 10),
+                "Niska zawartość białka - mąka do ciast, nie nadaje się do pizzy.");
+        protein("protein-medium", between(FLOUR_PROTEIN, 10, 12),
+                "Średnia zawartość białka - dobra dla pizzy neapolitańskiej, delikatne ciasto.");
+        protein("protein-high", between(FLOUR_PROTEIN, 12, 14),
+                "Wysoka zawartość białka - idealna dla NY style, mocna sieć glutenowa.");
+        protein("protein-very-high", atLeast(FLOUR_PROTEIN, 14),
+                "Bardzo wysoka zawartość białka (high-gluten) - wymaga dłuższej fermentacji, bardzo silne ciasto.");
+
+        add(science("science")
+                .condition(present(FLOUR_STRENGTH))
+                .title("Co oznacza parametr W?")
+                .content("""
+                        W (siła mąki) mierzy zdolność glutenu do:
+                        • Wchłaniania wody
+                        • Zatrzymywania gazów fermentacji
+                        • Tworzenia elastycznej sieci
+
+                        Wyższa W = więcej wody, dłuższa fermentacja, większa puszystość
+                        """)
+                .priority(4));
+
+        add(warning("hydration-over-limit")
+                .condition(above(HYDRATION_OVER_FLOUR_LIMIT, 0))
+                .title("Hydratacja przekracza możliwości mąki")
+                .content("Mąka W{0} może nie utrzymać hydratacji {1}% (max ~{2}%).")
+                .suggestion("Zmniejsz hydratację do {2}% lub użyj silniejszej mąki.")
+                .priority(1)
+                .arguments(context -> new Object[]{
+                        context.getFlourStrength(), (int) context.getHydration(), maxHydration(context.getFlourStrength())}));
+
+        add(warning("fermentation-over-limit")
+                .condition(above(FERMENTATION_OVER_FLOUR_LIMIT, 0))
+                .title("Fermentacja może być za długa")
+                .content("Mąka W{0} może nie wytrzymać {1}h fermentacji (zalecane max ~{2}h).")
+                .suggestion("Skróć fermentację lub użyj silniejszej mąki.")
+                .priority(1)
+                .arguments(context -> new Object[]{
+                        context.getFlourStrength(), context.getFermentationHours(), maxFermentation(context.getFlourStrength())}));
+    }
+
+    private void strength(String id, TipCondition band, String category, String bestFor) {
+        add(info(id)
+                .condition(band)
+                .title("Siła mąki W{0} - " + category)
+                .content(bestFor)
+                .details("""
+                        Zalecane parametry dla W{0}:
+                        • Max hydratacja: ~{1}%
+                        • Max fermentacja: ~{2}h
+                        • Optymalna temp. wody: {3}°C
+                        """)
+                .icon("🌾")
+                .priority(1)
+                .arguments(context -> {
+                    int strength = context.getFlourStrength();
+                    return new Object[]{strength, maxHydration(strength), maxFermentation(strength), optimalWaterTemperature(strength)};
+                }));
+    }
+
+    private void protein(String id, TipCondition band, String explanation) {
+        add(info(id)
+                .condition(present(FLOUR_STRENGTH))
+                .condition(band)
+                .title("Białko {0}%")
+                .content(explanation)
+                .icon("💪")
+                .priority(2)
+                .arguments(context -> new Object[]{TipTemplate.decimal(context.getFlourProtein(), 1)}));
+    }
+
+    /**
+     * Przybliżona maksymalna hydratacja: W200 = 60%, W300 = 75%, W400 = 90%.
+     */
+    public static int maxHydration(int strength) {
+        return Math.min(90, 50 + strength / 5);
+    }
+
+    /**
+     * Przybliżony maksymalny czas fermentacji: W200 = 12h, W300 = 72h, W350+ = 96h+.
+     */
+    public static int maxFermentation(int strength) {
+        if (strength < 220) return 12;
+        if (strength < 260) return 24;
+        if (strength < 300) return 48;
+        if (strength < 350) return 72;
+        return 96;
+    }
+
+    /**
+     * Silniejsza mąka = cieplejsza woda (dłużej się hydratuje).
+     */
+    public static int optimalWaterTemperature(int strength) {
+        return Math.min(30, 20 + (strength - 200) / 20);
+    }
+}
@@ -0,0 +1,89 @@
+package com.pizzamaestro.service.tips;
+
+import com.pizzamaestro.model.PizzaStyle;
+import com.pizzamaestro.service.TipEngineService.TipCategory;
+
+import static com.pizzamaestro.service.tips.TipCondition.*;
+import static com.pizzamaestro.service.tips.TipMeasure.FLOUR_STRENGTH;
+import static com.pizzamaestro.service.tips.TipMeasure.HYDRATION;
+
+/**
+ * Wskazówki dla hydratacji: poziom, wpływ na gluten i zgodność ze stylem oraz mąką.
+ */
+public class HydrationTipGenerator extends BaseTipGenerator {
+
+    public HydrationTipGenerator() {
+        super(TipCategory.HYDRATION);
+
+        level("very-low", below(HYDRATION, 55), "Bardzo niska",
+                "Ciasto będzie sztywne i trudne do rozciągnięcia. Nadaje się do crackerów lub bardzo cienkiej pizzy.",
+                "Łatwe w obsłudze, nie przykleja się do rąk.");
+        level("low", between(HYDRATION, 55, 60), "Niska",
+                "Ciasto sztywne, idealne dla początkujących. Łatwe w formowaniu, mniej puszystości.",
+                "Bardzo łatwe w obsłudze. Idealne na start.");
+        level("standard", between(HYDRATION, 60, 65), "Standardowa",
+                "Klasyczna hydratacja dla większości stylów. Dobry balans między obsługą a puszystością.",
+                "Wymaga podstawowej wprawy. Może lekko kleić.");
+        level("medium-high", between(HYDRATION, 65, 70), "Średnio-wysoka",
+                "Ciasto bardziej puszyste i elastyczne. Większe bąble, lżejsza tekstura.",
+                "Wymaga doświadczenia. Ciasto klei się - używaj mąki lub oliwy.");
+        level("high", between(HYDRATION, 70, 80), "Wysoka",
+                "Ciasto bardzo puszyste, duże bąble, lekka struktura. Typowe dla rzymskiej al taglio.",
+                "Trudne w obsłudze - wymaga techniki wet hands lub dużo mąki.");
+        level("very-high", atLeast(HYDRATION, 80), "Bardzo wysoka",
+                "Ciasto niemal płynne. Ekstremalna puszystość, wymaga pieczenia w blaszce.",
+                "Bardzo trudne - tylko dla ekspertów. Użyj techniki coil fold.");
+
+        gluten("gluten-low", below(HYDRATION, 60),
+                "Niska hydratacja = gęsta sieć glutenowa, ciasto sztywne ale mocne. Gluten szybko się rozwija podczas wyrabiania.");
+        gluten("gluten-balanced", between(HYDRATION, 60, 70),
+                "Umiarkowana hydratacja = zbalansowana sieć glutenowa. Ciasto elastyczne i wytrzymałe. Optymalny rozwój glutenu.");
+        gluten("gluten-loose", atLeast(HYDRATION, 70),
+                "Wysoka hydratacja = luźna sieć glutenowa, więcej miejsca na gaz. Gluten rozwija się wolniej, wymaga techniki składania (fold) zamiast intensywnego wyrabiania.");
+
+        add(warning("neapolitan-too-high")
+                .condition(oneOf(TipAttribute.PIZZA_STYLE, PizzaStyle.NEAPOLITAN))
+                .condition(above(HYDRATION, 70))
+                .title("Wysoka hydratacja dla neapolitańskiej")
+                .content("Hydratacja {0}% jest wysoka dla pizzy neapolitańskiej (zalecane 58-65%). Ciasto może być trudne do rozciągnięcia i formowania klasycznego cornicione.")
+                .suggestion("Rozważ zmniejszenie hydratacji do 60-65% lub zmień styl na rzymską.")
+                .priority(1)
+                .arguments(context -> new Object[]{(int) context.getHydration()}));
+
+        add(warning("new-york-too-high")
+                .condition(oneOf(TipAttribute.PIZZA_STYLE, PizzaStyle.NEW_YORK))
+                .condition(above(HYDRATION, 68))
+                .title("Wysoka hydratacja dla NY style")
+                .content("NY style tradycyjnie ma niższą hydratację (60-65%) dla uzyskania chrupiącego, składanego plastra.")
+                .suggestion("Zmniejsz hydratację lub przygotuj się na miększe ciasto.")
+                .priority(2));
+
+        add(warning("weak-flour")
+                .condition(above(HYDRATION, 75))
+                .condition(below(FLOUR_STRENGTH, 280))
+                .title("Mąka może nie utrzymać tej hydratacji")
+                .content("Hydratacja {0}% wymaga silnej mąki (W280+). Twoja mąka (W{1}) może nie wchłonąć tyle wody.")
+                .suggestion("Zmniejsz hydratację do 65-70% lub użyj silniejszej mąki.")
+                .priority(1)
+                .arguments(context -> new Object[]{(int) context.getHydration(), context.getFlourStrength()}));
+    }
+
+    private void level(String id, TipCondition band, String level, String explanation, String handling) {
+        add(info(id)
+                .condition(band)
+                .title("Hydratacja {0}% - " + level)
+                .content(explanation)
+                .details(handling)
+                .icon("💧")
+                .priority(1)
+                .arguments(context -> new Object[]{(int) context.getHydration()}));
+    }
+
+    private void gluten(String id, TipCondition band, String explanation) {
+        add(science(id)
+                .condition(band)
+                .title("Wpływ na gluten")
+                .content(explanation)
+                .priority(3));
+    }
+}
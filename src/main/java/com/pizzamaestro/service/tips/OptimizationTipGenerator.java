@@ -0,0 +1,33 @@
+package com.pizzamaestro.service.tips;
+
+import com.pizzamaestro.model.Recipe;
+import com.pizzamaestro.service.TipEngineService.TipCategory;
+
+import static com.pizzamaestro.service.tips.TipCondition.*;
+import static com.pizzamaestro.service.tips.TipMeasure.FERMENTATION_HOURS;
+import static com.pizzamaestro.service.tips.TipMeasure.HYDRATION;
+
+/**
+ * Rekomendacje optymalizacyjne dla niespójnych kombinacji parametrów.
+ */
+public class OptimizationTipGenerator extends BaseTipGenerator {
+
+    public OptimizationTipGenerator() {
+        super(TipCategory.OPTIMIZATION);
+
+        add(recommendation("high-hydration-short-fermentation")
+                .condition(above(HYDRATION, 70))
+                .condition(below(FERMENTATION_HOURS, 24))
+                .title("Sugestia dla lepszego wyniku")
+                .content("Przy wysokiej hydratacji (>70%) zalecana jest dłuższa fermentacja (24h+) dla pełnego rozwinięcia glutenu.")
+                .priority(2));
+
+        add(recommendation("long-room-fermentation")
+                .condition(above(FERMENTATION_HOURS, 24))
+                .condition(oneOf(TipAttribute.FERMENTATION_METHOD, Recipe.FermentationMethod.ROOM_TEMPERATURE))
+                .title("Rozważ fermentację zimną")
+                .content("Dla fermentacji >24h zalecana jest metoda zimna lub mieszana dla lepszej kontroli i głębszego smaku.")
+                .icon("❄️")
+                .priority(1));
+    }
+}
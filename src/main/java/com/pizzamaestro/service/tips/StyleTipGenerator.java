@@ -0,0 +1,97 @@
+package com.pizzamaestro.service.tips;
+
+import com.pizzamaestro.model.PizzaStyle;
+import com.pizzamaestro.service.TipEngineService.TipCategory;
+import com.pizzamaestro.service.TipEngineService.TipType;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static com.pizzamaestro.service.tips.TipCondition.present;
+
+/**
+ * Wskazówki dla wybranego stylu pizzy: opis, parametry pieczenia i zalecane wartości.
+ */
+public class StyleTipGenerator extends BaseTipGenerator {
+
+    private static final Map<PizzaStyle, String> DESCRIPTIONS = new EnumMap<>(PizzaStyle.class);
+    private static final Map<PizzaStyle, String> DETAILS = new EnumMap<>(PizzaStyle.class);
+    private static final Map<PizzaStyle, String> RECOMMENDED_PARAMS = new EnumMap<>(PizzaStyle.class);
+
+    static {
+        for (PizzaStyle style : PizzaStyle.values()) {
+            DESCRIPTIONS.put(style, style.getDescription());
+            DETAILS.put(style, "");
+            RECOMMENDED_PARAMS.put(style, style.getDescription());
+        }
+        DESCRIPTIONS.put(PizzaStyle.NEAPOLITAN, "Tradycyjna neapolitańska wymaga mąki W280-320, krótkiego pieczenia w wysokiej temperaturze (450-500°C) i miękkich, elastycznych brzegów (cornicione).");
+        DESCRIPTIONS.put(PizzaStyle.NEW_YORK, "NY style to cienka, chrupiąca pizza z możliwością złożenia. Wymaga mąki wysokobłkowej (13-14%), twardej wody i dłuższej fermentacji.");
+        DESCRIPTIONS.put(PizzaStyle.ROMAN, "Rzymska al taglio - wysoka hydratacja (75-85%), długa fermentacja, lekkie i puszyste ciasto pieczone w blaszce.");
+        DESCRIPTIONS.put(PizzaStyle.DETROIT, "Detroit style - grube ciasto w prostokątnej blaszce, ser do samych brzegów, chrupiące krawędzie. Wymaga długiej fermentacji.");
+        DESCRIPTIONS.put(PizzaStyle.SICILIAN, "Sycylijska - grube, puszyste ciasto w blaszce, przypominające focaccię. Duża ilość oliwy dla chrupkości.");
+        DESCRIPTIONS.put(PizzaStyle.FOCACCIA, "Focaccia - włoski chlebek z oliwą, ziołami i dodatkami. Wysoka hydratacja, dużo oliwy.");
+        DESCRIPTIONS.put(PizzaStyle.PAN, "Pan pizza - głęboka patelnia, miękkie puszyste ciasto, gruby spód.");
+
+        DETAILS.put(PizzaStyle.NEAPOLITAN, """
+                🌡️ Temperatura pieca: 450-500°C
+                ⏱️ Czas pieczenia: 60-90 sekund
+                💧 Hydratacja: 58-65%
+                🌾 Mąka: Typu 00, W260-320
+                ⏰ Fermentacja: 8-24h
+                """);
+        DETAILS.put(PizzaStyle.NEW_YORK, """
+                🌡️ Temperatura pieca: 290-320°C
+                ⏱️ Czas pieczenia: 6-8 minut
+                💧 Hydratacja: 60-65%
+                🌾 Mąka: High-gluten, 13-14% białka
+                ⏰ Fermentacja: 24-72h (zimna)
+                🫒 Oliwa: 2-3%
+                🍬 Cukier: 1-2%
+                """);
+        DETAILS.put(PizzaStyle.ROMAN, """
+                🌡️ Temperatura pieca: 280-300°C
+                ⏱️ Czas pieczenia: 8-12 minut
+                💧 Hydratacja: 75-85%
+                🌾 Mąka: W300-350
+                ⏰ Fermentacja: 48-96h (zimna)
+                🫒 Oliwa: 3-5%
+                """);
+
+        RECOMMENDED_PARAMS.put(PizzaStyle.NEAPOLITAN, "Hydratacja 60-65%, fermentacja 8-24h, temperatura pokojowa 18-24°C, mąka W280-320");
+        RECOMMENDED_PARAMS.put(PizzaStyle.NEW_YORK, "Hydratacja 60-65%, fermentacja 24-72h w lodówce, mąka 13%+ białka, 2% oliwy, 1% cukru");
+        RECOMMENDED_PARAMS.put(PizzaStyle.ROMAN, "Hydratacja 75-85%, fermentacja 48-96h w lodówce, mąka W300-350, 3-5% oliwy");
+        RECOMMENDED_PARAMS.put(PizzaStyle.DETROIT, "Hydratacja 70-75%, fermentacja 24-48h, ser do brzegów, pieczenie w blaszce z oliwą");
+    }
+
+    public StyleTipGenerator() {
+        super(TipCategory.STYLE);
+
+        add(info("description")
+                .condition(present(TipAttribute.PIZZA_STYLE))
+                .title("Styl: {0}")
+                .content("{1}")
+                .details("{2}")
+                .icon("🍕")
+                .priority(1)
+                .arguments(context -> {
+                    PizzaStyle style = context.getPizzaStyle();
+                    return new Object[]{style.getDisplayName(), DESCRIPTIONS.get(style), DETAILS.get(style)};
+                }));
+
+        add(info("recommended-params")
+                .type(TipType.RECOMMENDATION)
+                .condition(present(TipAttribute.PIZZA_STYLE))
+                .title("Zalecane parametry")
+                .content("{0}")
+                .icon("📊")
+                .priority(2)
+                .arguments(context -> new Object[]{RECOMMENDED_PARAMS.get(context.getPizzaStyle())}));
+    }
+
+    /**
+     * Krótki opis stylu (także dla wyjaśnienia zmiany stylu).
+     */
+    public static String description(PizzaStyle style) {
+        return DESCRIPTIONS.get(style);
+    }
+}
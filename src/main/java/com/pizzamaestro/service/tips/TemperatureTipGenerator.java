@@ -0,0 +1,52 @@
+package com.pizzamaestro.service.tips;
+
+import com.pizzamaestro.service.TipEngineService.TipCategory;
+
+import static com.pizzamaestro.service.tips.TipCondition.*;
+import static com.pizzamaestro.service.tips.TipMeasure.FERMENTATION_HOURS;
+import static com.pizzamaestro.service.tips.TipMeasure.ROOM_TEMPERATURE;
+
+/**
+ * Wskazówki dla temperatury pokojowej i jej wpływu na tempo fermentacji.
+ */
+public class TemperatureTipGenerator extends BaseTipGenerator {
+
+    public TemperatureTipGenerator() {
+        super(TipCategory.TEMPERATURE);
+
+        range("cold", below(ROOM_TEMPERATURE, 18), "Niska temperatura",
+                "Fermentacja znacznie zwolniona. Może wymagać więcej drożdży lub dłuższego czasu.");
+        range("cool", between(ROOM_TEMPERATURE, 18, 22), "Chłodno",
+                "Fermentacja nieco wolniejsza. Dobre warunki dla kontrolowanego wzrostu.");
+        range("optimal", between(ROOM_TEMPERATURE, 22, 26), "Optymalna temperatura",
+                "Idealne warunki dla aktywności drożdży. Standardowe parametry.");
+        range("warm", between(ROOM_TEMPERATURE, 26, 30), "Ciepło",
+                "Szybsza fermentacja. Monitoruj ciasto, może wymagać mniej drożdży.");
+        range("hot", atLeast(ROOM_TEMPERATURE, 30), "Gorąco",
+                "Bardzo szybka fermentacja. Ryzyko przefermentowania. Rozważ lodówkę.");
+
+        add(warning("hot-long-fermentation")
+                .condition(above(ROOM_TEMPERATURE, 28))
+                .condition(above(FERMENTATION_HOURS, 6))
+                .title("Wysoka temperatura + długa fermentacja")
+                .content("Przy {0}°C i {1}h fermentacji ciasto może przefermentować.")
+                .suggestion("Użyj lodówki dla części fermentacji lub skróć czas.")
+                .priority(1)
+                .arguments(context -> new Object[]{
+                        TipTemplate.decimal(context.getRoomTemperature(), 0), context.getFermentationHours()}));
+    }
+
+    private void range(String id, TipCondition band, String description, String impact) {
+        add(info(id)
+                .condition(band)
+                .title("{0}°C - " + description)
+                .content(impact)
+                .details("Każde 5°C zmienia szybkość fermentacji o ~50%.\nPrzy {0}°C fermentacja jest {1} niż przy 22°C.")
+                .icon("🌡️")
+                .priority(2)
+                .arguments(context -> {
+                    double roomTemperature = context.getRoomTemperature();
+                    return new Object[]{TipTemplate.decimal(roomTemperature, 0), roomTemperature > 22 ? "szybsza" : "wolniejsza"};
+                }));
+    }
+}
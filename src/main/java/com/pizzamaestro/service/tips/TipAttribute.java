@@ -0,0 +1,41 @@
+package com.pizzamaestro.service.tips;
+
+import com.pizzamaestro.model.PizzaStyle;
+import com.pizzamaestro.model.Recipe;
+import com.pizzamaestro.service.TipEngineService.CalculationContext;
+
+import java.util.function.Function;
+
+/**
+ * Pole wyliczeniowe kontekstu, po którym reguły wybierają warianty (styl, metoda fermentacji).
+ *
+ * @param name nazwa do logów
+ * @param field pole kontekstu
+ * @param type typ wyliczenia
+ * @param extractor wartość dla kontekstu (null - brak)
+ */
+public record TipAttribute<E extends Enum<E>>(
+        String name, TipField field, Class<E> type, Function<CalculationContext, E> extractor) {
+
+    public static final TipAttribute<PizzaStyle> PIZZA_STYLE = new TipAttribute<>("pizzaStyle",
+            TipField.PIZZA_STYLE, PizzaStyle.class, CalculationContext::getPizzaStyle);
+
+    public static final TipAttribute<Recipe.FermentationMethod> FERMENTATION_METHOD = new TipAttribute<>("fermentationMethod",
+            TipField.FERMENTATION_METHOD, Recipe.FermentationMethod.class, CalculationContext::getFermentationMethod);
+
+    public E valueOf(CalculationContext context) {
+        return extractor.apply(context);
+    }
+
+    /**
+     * Liczba możliwych wartości (bez braku wartości).
+     */
+    public int cardinality() {
+        return type.getEnumConstants().length;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,234 @@
+package com.pizzamaestro.service.tips;
+
+import com.pizzamaestro.model.PizzaStyle;
+import com.pizzamaestro.service.TipEngineService.Tip;
+import com.pizzamaestro.service.TipEngineService.TipCategory;
+import com.pizzamaestro.service.TipEngineService.TipType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wyjaśnienia zmiany pojedynczego parametru (stara → nowa wartość).
+ *
+ * Uzupełnia reguły: te opisują stan konfiguracji, wyjaśnienie - skutek samej zmiany.
+ */
+@Slf4j
+public class TipChangeExplainer {
+
+    private static final TipTemplate HYDRATION_TITLE = TipTemplate.compile("{0} hydratacji o {1}%");
+    private static final TipTemplate HYDRATION_CONTENT = TipTemplate.compile(
+            "To {0} która wpłynie na:\n• Puszystość ciasta: {1}\n• Łatwość obsługi: {2}\n• Czas wyrabiania: {3}");
+
+    private static final TipTemplate FERMENTATION_LONGER_TITLE = TipTemplate.compile("Wydłużenie fermentacji: {0}h → {1}h");
+    private static final TipTemplate FERMENTATION_LONGER_CONTENT = TipTemplate.compile("""
+            ✅ Więcej smaku i aromatu
+            ✅ Lepsza strawność (więcej rozłożonego glutenu)
+            ✅ Lżejsze ciasto
+            ⚠️ Algorytm zmniejszy ilość drożdży o ~{0}%
+            """);
+    private static final TipTemplate FERMENTATION_SHORTER_TITLE = TipTemplate.compile("Skrócenie fermentacji: {0}h → {1}h");
+    private static final TipTemplate FERMENTATION_SHORTER_CONTENT = TipTemplate.compile("""
+            ⚡ Szybszy wynik
+            ⚠️ Mniej rozwinięty smak
+            ⚠️ Algorytm zwiększy ilość drożdży o ~{0}%
+            💡 Rozważ użycie prefermentu dla lepszego smaku
+            """);
+
+    private static final TipTemplate FLOUR_TITLE = TipTemplate.compile("Zmiana mąki: W{0} → W{1}");
+    private static final TipTemplate FLOUR_CONTENT = TipTemplate.compile("""
+            {0} mąka pozwala na:
+            • Max hydratacja: {1}% → {2}%
+            • Max fermentacja: {3}h → {4}h
+            • {5}
+            """);
+
+    private static final TipTemplate TEMPERATURE_TITLE = TipTemplate.compile("Zmiana temperatury: {0}°C → {1}°C");
+    private static final TipTemplate TEMPERATURE_CONTENT = TipTemplate.compile("""
+            {0} temperatury o {1}°C oznacza:
+            • Fermentacja {2} o ~{3}%
+            • {4}
+            • Algorytm automatycznie dostosuje ilość drożdży
+            """);
+
+    private static final TipTemplate STYLE_TITLE = TipTemplate.compile("Zmiana stylu: {0} → {1}");
+    private static final TipTemplate STYLE_CONTENT = TipTemplate.compile("""
+            Nowy styl wymaga innych parametrów:
+            • {0}
+
+            Algorytm automatycznie dostosuje zalecane wartości.
+            """);
+
+    private static final TipTemplate YEAST_TITLE = TipTemplate.compile("Zmiana drożdży: {0} → {1}");
+    private static final String YEAST_CONVERSION = """
+            Przelicznik drożdży:
+            • 10g świeżych = 4g suchych instant = 5g suchych aktywnych
+            • Suche instant - bez aktywacji, bezpośrednio do mąki
+            • Suche aktywne - wymagają aktywacji w ciepłej wodzie (5-10 min)
+            • Świeże - najlepsza aktywność, krótszy czas przechowywania
+            """;
+
+    private static final String PREFERMENT_ENABLED = """
+            Preferment (poolish/biga) doda:
+            ✅ Głębszy, bardziej złożony smak
+            ✅ Lepszą strukturę miękiszu
+            ✅ Dłuższy czas świeżości
+            ✅ Lepszą strawność
+
+            ⚠️ Wymaga wcześniejszego przygotowania (8-18h przed)
+            """;
+    private static final String PREFERMENT_DISABLED = """
+            Bez prefermentu:
+            ⚡ Prostszy proces
+            ⚡ Krótszy czas przygotowania
+            ⚠️ Mniej złożony smak
+
+            💡 Dla lepszego smaku wydłuż fermentację główną
+            """;
+
+    private static final String TECHNIQUE_HIGH_HYDRATION = "Przy hydratacji >70% używaj techniki stretch & fold lub coil fold zamiast tradycyjnego wyrabiania. Wykonuj 3-4 serie składań co 30 minut.";
+
+    /**
+     * Wyjaśnienie zmiany pola; pusta lista gdy dla pola nie ma wyjaśnienia.
+     */
+    public List<Tip> explain(TipField field, Object oldValue, Object newValue) {
+        return switch (field) {
+            case HYDRATION -> explainHydrationChange((Number) oldValue, (Number) newValue);
+            case FERMENTATION_HOURS -> explainFermentationChange((Number) oldValue, (Number) newValue);
+            case PIZZA_STYLE -> explainStyleChange((String) oldValue, (String) newValue);
+            case FLOUR_STRENGTH -> explainFlourStrengthChange((Number) oldValue, (Number) newValue);
+            case YEAST_TYPE -> explainYeastTypeChange((String) oldValue, (String) newValue);
+            case ROOM_TEMPERATURE -> explainTemperatureChange((Number) oldValue, (Number) newValue);
+            case PREFERMENT -> explainPrefermentChange((Boolean) oldValue, (Boolean) newValue);
+            default -> List.of();
+        };
+    }
+
+    private List<Tip> explainHydrationChange(Number oldValue, Number newValue) {
+        List<Tip> tips = new ArrayList<>();
+        double newH = newValue.doubleValue();
+        double diff = newH - oldValue.doubleValue();
+        boolean up = diff > 0;
+
+        String impact;
+        if (Math.abs(diff) >= 10) {
+            impact = "znacząca zmiana";
+        } else if (Math.abs(diff) >= 5) {
+            impact = "zauważalna zmiana";
+        } else {
+            impact = "niewielka zmiana";
+        }
+
+        tips.add(change(TipCategory.HYDRATION, "🔄",
+                HYDRATION_TITLE.render(new Object[]{up ? "Zwiększenie" : "Zmniejszenie", (int) Math.abs(diff)}),
+                HYDRATION_CONTENT.render(new Object[]{impact,
+                        up ? "większa" : "mniejsza",
+                        up ? "trudniejsza" : "łatwiejsza",
+                        up ? "dłuższy (więcej składania)" : "krótszy"})));
+
+        // Tip o dostosowaniu techniki
+        if (newH > 70) {
+            tips.add(Tip.builder()
+                    .type(TipType.RECOMMENDATION)
+                    .category(TipCategory.HYDRATION)
+                    .title("Zalecana technika")
+                    .content(TECHNIQUE_HIGH_HYDRATION)
+                    .icon("👐")
+                    .priority(2)
+                    .build());
+        }
+
+        return tips;
+    }
+
+    private List<Tip> explainFermentationChange(Number oldValue, Number newValue) {
+        int oldH = oldValue.intValue();
+        int newH = newValue.intValue();
+
+        if (newH > oldH) {
+            // Przybliżenie - podwojenie czasu = ~50% mniej drożdży
+            double reduction = (1 - (double) oldH / newH) * 100;
+            return List.of(change(TipCategory.FERMENTATION, "⏰",
+                    FERMENTATION_LONGER_TITLE.render(new Object[]{oldH, newH}),
+                    FERMENTATION_LONGER_CONTENT.render(new Object[]{TipTemplate.decimal(reduction, 0)})));
+        }
+        double increase = ((double) oldH / newH - 1) * 100;
+        return List.of(change(TipCategory.FERMENTATION, "⏰",
+                FERMENTATION_SHORTER_TITLE.render(new Object[]{oldH, newH}),
+                FERMENTATION_SHORTER_CONTENT.render(new Object[]{TipTemplate.decimal(increase, 0)})));
+    }
+
+    private List<Tip> explainFlourStrengthChange(Number oldValue, Number newValue) {
+        int oldW = oldValue.intValue();
+        int newW = newValue.intValue();
+        boolean stronger = newW > oldW;
+
+        return List.of(change(TipCategory.FLOUR, "🌾",
+                FLOUR_TITLE.render(new Object[]{oldW, newW}),
+                FLOUR_CONTENT.render(new Object[]{
+                        stronger ? "Silniejsza" : "Słabsza",
+                        FlourTipGenerator.maxHydration(oldW), FlourTipGenerator.maxHydration(newW),
+                        FlourTipGenerator.maxFermentation(oldW), FlourTipGenerator.maxFermentation(newW),
+                        stronger ? "Możesz zwiększyć hydratację i/lub fermentację" : "Rozważ zmniejszenie hydratacji i/lub fermentacji"})));
+    }
+
+    private List<Tip> explainTemperatureChange(Number oldValue, Number newValue) {
+        double oldT = oldValue.doubleValue();
+        double newT = newValue.doubleValue();
+        double diff = newT - oldT;
+        boolean warmer = diff > 0;
+
+        // Wpływ na czas fermentacji (Q10 ≈ 2)
+        double fermentationFactor = Math.pow(2, diff / 10);
+
+        return List.of(change(TipCategory.TEMPERATURE, "🌡️",
+                TEMPERATURE_TITLE.render(new Object[]{TipTemplate.decimal(oldT, 0), TipTemplate.decimal(newT, 0)}),
+                TEMPERATURE_CONTENT.render(new Object[]{
+                        warmer ? "Podwyższenie" : "Obniżenie",
+                        TipTemplate.decimal(Math.abs(diff), 0),
+                        warmer ? "przyspieszona" : "spowolniona",
+                        TipTemplate.decimal(Math.abs(fermentationFactor - 1) * 100, 0),
+                        warmer ? "Monitoruj ciasto częściej" : "Ciasto będzie rosło wolniej"})));
+    }
+
+    private List<Tip> explainPrefermentChange(Boolean oldValue, Boolean newValue) {
+        if (Boolean.TRUE.equals(newValue)) {
+            return List.of(change(TipCategory.PREFERMENT, "🥖", "Włączono preferment", PREFERMENT_ENABLED));
+        }
+        if (Boolean.TRUE.equals(oldValue)) {
+            return List.of(change(TipCategory.PREFERMENT, "🥖", "Wyłączono preferment", PREFERMENT_DISABLED));
+        }
+        return List.of();
+    }
+
+    private List<Tip> explainStyleChange(String oldValue, String newValue) {
+        try {
+            PizzaStyle oldStyle = PizzaStyle.valueOf(oldValue);
+            PizzaStyle newStyle = PizzaStyle.valueOf(newValue);
+
+            return List.of(change(TipCategory.STYLE, "🍕",
+                    STYLE_TITLE.render(new Object[]{oldStyle.getDisplayName(), newStyle.getDisplayName()}),
+                    STYLE_CONTENT.render(new Object[]{StyleTipGenerator.description(newStyle)})));
+        } catch (Exception e) {
+            log.warn("Nie można sparsować stylu pizzy: {} -> {}", oldValue, newValue);
+            return List.of();
+        }
+    }
+
+    private List<Tip> explainYeastTypeChange(String oldValue, String newValue) {
+        return List.of(change(TipCategory.FERMENTATION, "🍞",
+                YEAST_TITLE.render(new Object[]{oldValue, newValue}), YEAST_CONVERSION));
+    }
+
+    private Tip change(TipCategory category, String icon, String title, String content) {
+        return Tip.builder()
+                .type(TipType.CHANGE_EXPLANATION)
+                .category(category)
+                .title(title)
+                .content(content)
+                .icon(icon)
+                .priority(1)
+                .build();
+    }
+}
@@ -0,0 +1,115 @@
+package com.pizzamaestro.service.tips;
+
+import com.pizzamaestro.service.TipEngineService.CalculationContext;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Warunek stosowalności reguły - zawsze na jednej wielkości lub jednym polu wyliczeniowym.
+ *
+ * Tylko takie warunki są dozwolone: dzięki temu {@link TipRuleIndex} zna wszystkie progi
+ * i wybiera reguły po przedziałach, bez sprawdzania każdej reguły osobno.
+ */
+public sealed interface TipCondition permits TipCondition.Range, TipCondition.OneOf {
+
+    boolean test(CalculationContext context);
+
+    /**
+     * Pola kontekstu, od których zależy warunek.
+     */
+    Set<TipField> inputs();
+
+    /**
+     * Wartość w przedziale [from, to); brak wartości nie spełnia warunku.
+     */
+    record Range(TipMeasure measure, double from, double to) implements TipCondition {
+
+        public Range {
+            if (!(from < to)) {
+                throw new IllegalArgumentException("Pusty przedział dla " + measure + ": [" + from + ", " + to + ")");
+            }
+        }
+
+        @Override
+        public boolean test(CalculationContext context) {
+            return contains(measure.valueOf(context));
+        }
+
+        public boolean contains(Double value) {
+            return value != null && value >= from && value < to;
+        }
+
+        @Override
+        public Set<TipField> inputs() {
+            return measure.inputs();
+        }
+    }
+
+    /**
+     * Wartość pola wyliczeniowego należy do zbioru; brak wartości nie spełnia warunku.
+     */
+    record OneOf<E extends Enum<E>>(TipAttribute<E> attribute, Set<E> values) implements TipCondition {
+
+        public OneOf {
+            values = Set.copyOf(values);
+        }
+
+        @Override
+        public boolean test(CalculationContext context) {
+            return contains(attribute.valueOf(context));
+        }
+
+        public boolean contains(Object value) {
+            return value != null && values.contains(value);
+        }
+
+        @Override
+        public Set<TipField> inputs() {
+            return Set.of(attribute.field());
+        }
+    }
+
+    static TipCondition below(TipMeasure measure, double value) {
+        return new Range(measure, Double.NEGATIVE_INFINITY, value);
+    }
+
+    static TipCondition atMost(TipMeasure measure, double value) {
+        return new Range(measure, Double.NEGATIVE_INFINITY, Math.nextUp(value));
+    }
+
+    static TipCondition atLeast(TipMeasure measure, double value) {
+        return new Range(measure, value, Double.POSITIVE_INFINITY);
+    }
+
+    static TipCondition above(TipMeasure measure, double value) {
+        return new Range(measure, Math.nextUp(value), Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Wartość w [from, to).
+     */
+    static TipCondition between(TipMeasure measure, double from, double to) {
+        return new Range(measure, from, to);
+    }
+
+    /**
+     * Wartość w (from, to].
+     */
+    static TipCondition over(TipMeasure measure, double from, double to) {
+        return new Range(measure, Math.nextUp(from), Math.nextUp(to));
+    }
+
+    static TipCondition present(TipMeasure measure) {
+        return new Range(measure, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+    }
+
+    @SafeVarargs
+    static <E extends Enum<E>> TipCondition oneOf(TipAttribute<E> attribute, E first, E... rest) {
+        return new OneOf<>(attribute, EnumSet.of(first, rest));
+    }
+
+    static <E extends Enum<E>> TipCondition present(TipAttribute<E> attribute) {
+        return new OneOf<>(attribute, EnumSet.allOf(attribute.type()));
+    }
+}
@@ -0,0 +1,48 @@
+package com.pizzamaestro.service.tips;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Pola kontekstu kalkulacji, od których zależą reguły wskazówek.
+ *
+ * Nazwa parametru odpowiada nazwie pola w żądaniu zmiany (bez rozróżniania wielkości liter).
+ */
+public enum TipField {
+    PIZZA_STYLE("pizzaStyle"),
+    HYDRATION("hydration"),
+    FERMENTATION_HOURS("fermentationHours"),
+    FERMENTATION_METHOD("fermentationMethod"),
+    ROOM_TEMPERATURE("roomTemperature"),
+    FRIDGE_TEMPERATURE("fridgeTemperature"),
+    FLOUR_STRENGTH("flourStrength"),
+    FLOUR_PROTEIN("flourProtein"),
+    YEAST_TYPE("yeastType"),
+    PREFERMENT("usePreferment"),
+    WEATHER_TEMPERATURE("weatherTemperature"),
+    WEATHER_HUMIDITY("weatherHumidity");
+
+    private static final Map<String, TipField> BY_PARAMETER = Stream.of(values())
+            .collect(Collectors.toUnmodifiableMap(field -> field.parameterName.toLowerCase(Locale.ROOT), Function.identity()));
+
+    private final String parameterName;
+
+    TipField(String parameterName) {
+        this.parameterName = parameterName;
+    }
+
+    public String getParameterName() {
+        return parameterName;
+    }
+
+    /**
+     * Pole dla nazwy parametru z żądania zmiany (np. "fermentationhours").
+     */
+    public static Optional<TipField> fromParameter(String parameterName) {
+        return Optional.ofNullable(BY_PARAMETER.get(parameterName.toLowerCase(Locale.ROOT)));
+    }
+}
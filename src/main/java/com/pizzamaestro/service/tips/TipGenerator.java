@@ -9,33 +9,51 @@ import java.util.List;
  * Interfejs dla generatorów wskazówek.
  * Pozwala na wydzielenie logiki generowania tipów do osobnych klas
  * zgodnie z Single Responsibility Principle.
+ *
+ * Generator opisuje swoje wskazówki jako reguły ({@link TipRule}) - silnik indeksuje
+ * reguły wszystkich generatorów i ocenia tylko te, których warunki mogą być spełnione.
  */
 public interface TipGenerator {
-    
+
     /**
      * Generuje listę wskazówek na podstawie kontekstu kalkulacji.
      * @param context kontekst zawierający parametry kalkulacji
      * @return lista wygenerowanych wskazówek
      */
     List<Tip> generateTips(CalculationContext context);
-    
+
     /**
      * Generuje listę ostrzeżeń na podstawie kontekstu kalkulacji.
      * @param context kontekst zawierający parametry kalkulacji
      * @return lista wygenerowanych ostrzeżeń
      */
     List<Tip> generateWarnings(CalculationContext context);
-    
+
+    /**
+     * Generuje listę rekomendacji na podstawie kontekstu kalkulacji.
+     * @param context kontekst zawierający parametry kalkulacji
+     * @return lista wygenerowanych rekomendacji
+     */
+    default List<Tip> generateRecommendations(CalculationContext context) {
+        return List.of();
+    }
+
     /**
      * Sprawdza czy generator jest odpowiedni dla danego kontekstu.
      * @param context kontekst zawierający parametry kalkulacji
      * @return true jeśli generator powinien być użyty
      */
     boolean isApplicable(CalculationContext context);
-    
+
     /**
      * Zwraca kategorię wskazówek obsługiwanych przez ten generator.
      * @return kategoria wskazówek
      */
     String getCategory();
+
+    /**
+     * Zwraca reguły generatora w kolejności wyświetlania.
+     * @return niemodyfikowalna lista reguł
+     */
+    List<TipRule> getRules();
 }
@@ -0,0 +1,62 @@
+package com.pizzamaestro.service.tips;
+
+import com.pizzamaestro.service.TipEngineService.CalculationContext;
+
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Wielkość liczbowa wyliczana z kontekstu, na której reguły opierają progi.
+ *
+ * Wartość null oznacza brak danych - żaden przedział jej nie obejmuje.
+ * Wielkości pochodne (np. zapas hydratacji względem mąki) łączą kilka pól,
+ * dzięki czemu warunki między polami też są zwykłymi progami.
+ *
+ * @param name nazwa do logów
+ * @param inputs pola kontekstu, z których liczona jest wartość
+ * @param extractor wartość dla kontekstu (null - brak)
+ */
+public record TipMeasure(String name, Set<TipField> inputs, Function<CalculationContext, Double> extractor) {
+
+    public static final TipMeasure HYDRATION = new TipMeasure("hydration",
+            Set.of(TipField.HYDRATION), CalculationContext::getHydration);
+
+    public static final TipMeasure FERMENTATION_HOURS = new TipMeasure("fermentationHours",
+            Set.of(TipField.FERMENTATION_HOURS), context -> (double) context.getFermentationHours());
+
+    public static final TipMeasure ROOM_TEMPERATURE = new TipMeasure("roomTemperature",
+            Set.of(TipField.ROOM_TEMPERATURE), CalculationContext::getRoomTemperature);
+
+    public static final TipMeasure FLOUR_STRENGTH = new TipMeasure("flourStrength",
+            Set.of(TipField.FLOUR_STRENGTH),
+            context -> context.getFlourStrength() != null ? context.getFlourStrength().doubleValue() : null);
+
+    public static final TipMeasure FLOUR_PROTEIN = new TipMeasure("flourProtein",
+            Set.of(TipField.FLOUR_PROTEIN), CalculationContext::getFlourProtein);
+
+    public static final TipMeasure WEATHER_TEMPERATURE = new TipMeasure("weatherTemperature",
+            Set.of(TipField.WEATHER_TEMPERATURE), CalculationContext::getWeatherTemperature);
+
+    /** Hydratacja ponad maksimum, które utrzyma mąka o danej sile W. */
+    public static final TipMeasure HYDRATION_OVER_FLOUR_LIMIT = new TipMeasure("hydrationOverFlourLimit",
+            Set.of(TipField.HYDRATION, TipField.FLOUR_STRENGTH),
+            context -> context.getFlourStrength() != null
+                    ? context.getHydration() - FlourTipGenerator.maxHydration(context.getFlourStrength())
+                    : null);
+
+    /** Czas fermentacji ponad maksimum, które wytrzyma mąka o danej sile W. */
+    public static final TipMeasure FERMENTATION_OVER_FLOUR_LIMIT = new TipMeasure("fermentationOverFlourLimit",
+            Set.of(TipField.FERMENTATION_HOURS, TipField.FLOUR_STRENGTH),
+            context -> context.getFlourStrength() != null
+                    ? (double) (context.getFermentationHours() - FlourTipGenerator.maxFermentation(context.getFlourStrength()))
+                    : null);
+
+    public Double valueOf(CalculationContext context) {
+        return extractor.apply(context);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,70 @@
+package com.pizzamaestro.service.tips;
+
+import com.pizzamaestro.service.TipEngineService.CalculationContext;
+import com.pizzamaestro.service.TipEngineService.Tip;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Wybrane reguły dla jednego zestawu przedziałów kontekstu, pogrupowane w sekcje.
+ *
+ * Wskazówki o stałym tekście są renderowane raz, przy budowie planu, i współdzielone
+ * między odpowiedziami - tylko do odczytu. Reguły z argumentami (np. dokładna hydratacja
+ * w tytule) są wypełniane dla każdego kontekstu, więc jeden plan obsługuje wszystkie
+ * konteksty z tych samych przedziałów.
+ */
+public final class TipPlan {
+
+    private final Entry[][] sections = new Entry[TipRule.Section.values().length][];
+
+    private TipPlan(List<List<Entry>> entries) {
+        for (int i = 0; i < sections.length; i++) {
+            sections[i] = entries.get(i).toArray(Entry[]::new);
+        }
+    }
+
+    /**
+     * Plan dla reguł dopasowanych przez {@link TipRuleIndex#match}.
+     */
+    public static TipPlan of(TipRuleIndex index, BitSet matched) {
+        List<List<Entry>> entries = new ArrayList<>();
+        for (int i = 0; i < TipRule.Section.values().length; i++) {
+            entries.add(new ArrayList<>());
+        }
+        for (int i = matched.nextSetBit(0); i >= 0; i = matched.nextSetBit(i + 1)) {
+            TipRule rule = index.rule(i);
+            // Stały tekst nie potrzebuje kontekstu
+            Tip prerendered = rule.isConstant() ? rule.render(null) : null;
+            entries.get(rule.getSection().ordinal()).add(new Entry(rule, prerendered));
+        }
+        return new TipPlan(entries);
+    }
+
+    /**
+     * Wskazówki sekcji dla kontekstu (nowa lista przy każdym wywołaniu).
+     */
+    public List<Tip> render(TipRule.Section section, CalculationContext context) {
+        Entry[] entries = sections[section.ordinal()];
+        List<Tip> tips = new ArrayList<>(entries.length);
+        for (Entry entry : entries) {
+            tips.add(entry.prerendered() != null ? entry.prerendered() : entry.rule().render(context));
+        }
+        return tips;
+    }
+
+    /**
+     * Liczba reguł w planie.
+     */
+    public int size() {
+        int size = 0;
+        for (Entry[] entries : sections) {
+            size += entries.length;
+        }
+        return size;
+    }
+
+    private record Entry(TipRule rule, Tip prerendered) {
+    }
+}
@@ -0,0 +1,119 @@
+package com.pizzamaestro.service.tips;
+
+import com.pizzamaestro.service.TipEngineService.CalculationContext;
+import com.pizzamaestro.service.TipEngineService.Tip;
+import com.pizzamaestro.service.TipEngineService.TipCategory;
+import com.pizzamaestro.service.TipEngineService.TipType;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Pojedyncza reguła wskazówki: warunki stosowalności i prekompilowane szablony tekstu.
+ *
+ * Warunki decydują, czy wskazówka się pojawi; argumenty szablonów (np. dokładna hydratacja
+ * w tytule) wpływają tylko na tekst. Pola użyte wyłącznie w tekście deklaruje się przez
+ * {@code uses}, żeby zmiana parametru odświeżała też takie reguły.
+ */
+@Getter
+public final class TipRule {
+
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+
+    /**
+     * Lista {@link com.pizzamaestro.service.TipEngineService.TipCollection}, do której trafia wskazówka.
+     */
+    public enum Section {
+        TIP,
+        WARNING,
+        RECOMMENDATION
+    }
+
+    private final String id;
+    private final Section section;
+    private final List<TipCondition> conditions;
+    private final Set<TipField> dependsOn;
+    private final TipType type;
+    private final TipCategory category;
+    private final String icon;
+    private final int priority;
+    private final TipTemplate title;
+    private final TipTemplate content;
+    private final TipTemplate details;
+    private final TipTemplate suggestion;
+    private final Function<CalculationContext, Object[]> arguments;
+    /** Tekst nie zależy od wartości kontekstu - wskazówkę można wyrenderować raz. */
+    private final boolean constant;
+
+    @Builder
+    private TipRule(String id, Section section, @Singular List<TipCondition> conditions, @Singular("uses") Set<TipField> uses,
+                    TipType type, TipCategory category, String icon, int priority,
+                    String title, String content, String details, String suggestion,
+                    Function<CalculationContext, Object[]> arguments) {
+        if (id == null || section == null || type == null || category == null || title == null) {
+            throw new IllegalArgumentException("Reguła wymaga id, sekcji, typu, kategorii i tytułu: " + id);
+        }
+        this.id = id;
+        this.section = section;
+        this.conditions = List.copyOf(conditions);
+        EnumSet<TipField> fields = EnumSet.noneOf(TipField.class);
+        fields.addAll(uses);
+        conditions.forEach(condition -> fields.addAll(condition.inputs()));
+        this.dependsOn = Set.copyOf(fields);
+        this.type = type;
+        this.category = category;
+        this.icon = icon;
+        this.priority = priority;
+        this.title = TipTemplate.compile(title);
+        this.content = TipTemplate.compile(content);
+        this.details = TipTemplate.compile(details);
+        this.suggestion = TipTemplate.compile(suggestion);
+        this.arguments = arguments;
+        boolean templated = Stream.of(this.title, this.content, this.details, this.suggestion)
+                .anyMatch(template -> template != null && template.maxArgument() >= 0);
+        if (templated && arguments == null) {
+            throw new IllegalArgumentException("Reguła " + id + " ma argumenty w szablonie, ale nie podaje ich wartości");
+        }
+        this.constant = !templated;
+    }
+
+    /**
+     * Sprawdza wszystkie warunki - ścieżka bez indeksu (pojedynczy generator, testy).
+     */
+    public boolean isApplicable(CalculationContext context) {
+        for (TipCondition condition : conditions) {
+            if (!condition.test(context)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Wypełnia szablony wartościami z kontekstu (dla reguły stałej kontekst może być null).
+     */
+    public Tip render(CalculationContext context) {
+        Object[] args = constant ? NO_ARGUMENTS : arguments.apply(context);
+        return Tip.builder()
+                .type(type)
+                .category(category)
+                .title(title.render(args))
+                .content(content != null ? content.render(args) : null)
+                .details(details != null ? details.render(args) : null)
+                .suggestion(suggestion != null ? suggestion.render(args) : null)
+                .icon(icon)
+                .priority(priority)
+                .build();
+    }
+
+    @Override
+    public String toString() {
+        return id;
+    }
+}
@@ -0,0 +1,256 @@
+package com.pizzamaestro.service.tips;
+
+import com.pizzamaestro.service.TipEngineService.CalculationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Indeks reguł wskazówek po przedziałach wartości kontekstu.
+ *
+ * Dla każdej wielkości użytej w warunkach ({@link TipMeasure}) zbierane są wszystkie progi
+ * z reguł; dzielą one oś na przedziały, w których każdy warunek ma stałą wartość. Dla pól
+ * wyliczeniowych ({@link TipAttribute}) przedziałem jest po prostu wartość. Każdy przedział
+ * ma zbiór (BitSet) reguł, które w nim mogą zachodzić - dopasowanie kontekstu to wyszukanie
+ * przedziału w każdym wymiarze i iloczyn zbiorów, bez oceniania reguł po kolei.
+ *
+ * Numer przedziału 0 oznacza brak wartości. Kolejność reguł w wyniku = kolejność rejestracji.
+ */
+public final class TipRuleIndex {
+
+    private final List<TipRule> rules;
+    private final BitSet all;
+    private final List<Dimension> dimensions = new ArrayList<>();
+    private final Map<TipField, BitSet> rulesByField = new EnumMap<>(TipField.class);
+
+    public TipRuleIndex(List<TipRule> rules) {
+        this.rules = List.copyOf(rules);
+        this.all = new BitSet(rules.size());
+        all.set(0, rules.size());
+
+        Map<TipMeasure, TreeSet<Double>> thresholds = new LinkedHashMap<>();
+        Map<TipAttribute<?>, Boolean> attributes = new LinkedHashMap<>();
+        for (int i = 0; i < this.rules.size(); i++) {
+            TipRule rule = this.rules.get(i);
+            for (TipCondition condition : rule.getConditions()) {
+                switch (condition) {
+                    case TipCondition.Range range -> {
+                        TreeSet<Double> points = thresholds.computeIfAbsent(range.measure(), measure -> new TreeSet<>());
+                        if (Double.isFinite(range.from())) {
+                            points.add(range.from());
+                        }
+                        if (Double.isFinite(range.to())) {
+                            points.add(range.to());
+                        }
+                    }
+                    case TipCondition.OneOf<?> oneOf -> attributes.put(oneOf.attribute(), Boolean.TRUE);
+                }
+            }
+            for (TipField field : rule.getDependsOn()) {
+                rulesByField.computeIfAbsent(field, key -> new BitSet(this.rules.size())).set(i);
+            }
+        }
+        thresholds.forEach((measure, points) ->
+                dimensions.add(new MeasureDimension(measure, points.stream().mapToDouble(Double::doubleValue).toArray())));
+        attributes.keySet().forEach(attribute -> dimensions.add(new AttributeDimension(attribute)));
+        dimensions.forEach(dimension -> dimension.index(this.rules));
+    }
+
+    /**
+     * Reguły stosowalne dla kontekstu.
+     */
+    public BitSet match(CalculationContext context) {
+        return narrow((BitSet) all.clone(), context);
+    }
+
+    /**
+     * Numery przedziałów kontekstu we wszystkich wymiarach indeksu.
+     *
+     * Wymiary i progi pochodzą wyłącznie z warunków reguł, więc konteksty o tych samych
+     * przedziałach mają ten sam zbiór stosowalnych reguł ({@link #match(int[])}) -
+     * także po dodaniu nowych reguł. Nadaje się na klucz cache.
+     */
+    public int[] bands(CalculationContext context) {
+        int[] bands = new int[dimensions.size()];
+        for (int i = 0; i < bands.length; i++) {
+            bands[i] = dimensions.get(i).band(context);
+        }
+        return bands;
+    }
+
+    /**
+     * Reguły stosowalne dla przedziałów z {@link #bands}.
+     */
+    public BitSet match(int[] bands) {
+        if (bands.length != dimensions.size()) {
+            throw new IllegalArgumentException("Oczekiwano " + dimensions.size() + " przedziałów, otrzymano " + bands.length);
+        }
+        BitSet candidates = (BitSet) all.clone();
+        for (int i = 0; i < bands.length && !candidates.isEmpty(); i++) {
+            candidates.and(dimensions.get(i).rulesInBand(bands[i]));
+        }
+        return candidates;
+    }
+
+    /**
+     * Reguły stosowalne dla kontekstu, które zależą od zmienionego pola.
+     */
+    public BitSet match(CalculationContext context, TipField changed) {
+        BitSet dependent = rulesByField.get(changed);
+        return dependent != null ? narrow((BitSet) dependent.clone(), context) : new BitSet();
+    }
+
+    private BitSet narrow(BitSet candidates, CalculationContext context) {
+        for (Dimension dimension : dimensions) {
+            if (candidates.isEmpty()) {
+                break;
+            }
+            candidates.and(dimension.rulesInBand(dimension.band(context)));
+        }
+        return candidates;
+    }
+
+    public TipRule rule(int index) {
+        return rules.get(index);
+    }
+
+    public List<TipRule> rules() {
+        return rules;
+    }
+
+    /**
+     * Liczba wymiarów indeksu (wielkości z progami + pola wyliczeniowe).
+     */
+    public int dimensionCount() {
+        return dimensions.size();
+    }
+
+    private abstract static class Dimension {
+
+        private BitSet[] rulesByBand;
+
+        abstract int band(CalculationContext context);
+
+        abstract int bandCount();
+
+        /**
+         * Wartość leżąca w przedziale (null dla przedziału 0).
+         */
+        abstract Object representative(int band);
+
+        abstract boolean constrains(TipCondition condition);
+
+        abstract boolean accepts(TipCondition condition, Object value);
+
+        void index(List<TipRule> rules) {
+            rulesByBand = new BitSet[bandCount()];
+            for (int band = 0; band < rulesByBand.length; band++) {
+                Object value = representative(band);
+                BitSet allowed = new BitSet(rules.size());
+                for (int i = 0; i < rules.size(); i++) {
+                    boolean accepted = true;
+                    for (TipCondition condition : rules.get(i).getConditions()) {
+                        if (constrains(condition) && !accepts(condition, value)) {
+                            accepted = false;
+                            break;
+                        }
+                    }
+                    allowed.set(i, accepted);
+                }
+                rulesByBand[band] = allowed;
+            }
+        }
+
+        BitSet rulesInBand(int band) {
+            return rulesByBand[band];
+        }
+    }
+
+    private static final class MeasureDimension extends Dimension {
+
+        private final TipMeasure measure;
+        private final double[] thresholds;
+
+        MeasureDimension(TipMeasure measure, double[] thresholds) {
+            this.measure = measure;
+            this.thresholds = thresholds;
+        }
+
+        @Override
+        int band(CalculationContext context) {
+            Double value = measure.valueOf(context);
+            if (value == null || value.isNaN()) {
+                return 0;
+            }
+            // Liczba progów <= wartość; przedział 1 to (-inf, pierwszy próg)
+            int position = Arrays.binarySearch(thresholds, value);
+            return 1 + (position >= 0 ? position + 1 : -position - 1);
+        }
+
+        @Override
+        int bandCount() {
+            return thresholds.length + 2;
+        }
+
+        @Override
+        Object representative(int band) {
+            if (band == 0) {
+                return null;
+            }
+            return band == 1 ? Double.NEGATIVE_INFINITY : thresholds[band - 2];
+        }
+
+        @Override
+        boolean constrains(TipCondition condition) {
+            return condition instanceof TipCondition.Range range && range.measure().equals(measure);
+        }
+
+        @Override
+        boolean accepts(TipCondition condition, Object value) {
+            return ((TipCondition.Range) condition).contains((Double) value);
+        }
+    }
+
+    private static final class AttributeDimension extends Dimension {
+
+        private final TipAttribute<?> attribute;
+        private final Object[] values;
+
+        AttributeDimension(TipAttribute<?> attribute) {
+            this.attribute = attribute;
+            this.values = attribute.type().getEnumConstants();
+        }
+
+        @Override
+        int band(CalculationContext context) {
+            Enum<?> value = attribute.valueOf(context);
+            return value == null ? 0 : value.ordinal() + 1;
+        }
+
+        @Override
+        int bandCount() {
+            return values.length + 1;
+        }
+
+        @Override
+        Object representative(int band) {
+            return band == 0 ? null : values[band - 1];
+        }
+
+        @Override
+        boolean constrains(TipCondition condition) {
+            return condition instanceof TipCondition.OneOf<?> oneOf && oneOf.attribute().equals(attribute);
+        }
+
+        @Override
+        boolean accepts(TipCondition condition, Object value) {
+            return ((TipCondition.OneOf<?>) condition).contains(value);
+        }
+    }
+}
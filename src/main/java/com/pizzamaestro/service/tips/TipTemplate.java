@@ -0,0 +1,95 @@
+package com.pizzamaestro.service.tips;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prekompilowany szablon tekstu wskazówki.
+ *
+ * Wzorzec jest dzielony raz, przy tworzeniu reguły, na stałe fragmenty i miejsca na argumenty
+ * ({0}, {1}, ...). Renderowanie to tylko sklejenie fragmentów - bez parsowania formatu
+ * przy każdym żądaniu jak w String.format. Znak % nie ma specjalnego znaczenia.
+ */
+public final class TipTemplate {
+
+    private final String[] literals;
+    private final int[] arguments;
+    private final String constant;
+
+    private TipTemplate(String[] literals, int[] arguments) {
+        this.literals = literals;
+        this.arguments = arguments;
+        this.constant = arguments.length == 0 ? literals[0] : null;
+    }
+
+    /**
+     * Kompiluje wzorzec; null daje null (pole wskazówki pozostaje puste).
+     */
+    public static TipTemplate compile(String pattern) {
+        if (pattern == null) {
+            return null;
+        }
+        List<String> literals = new ArrayList<>();
+        List<Integer> arguments = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            int end = c == '{' ? pattern.indexOf('}', i) : -1;
+            if (end > i + 1 && isIndex(pattern, i + 1, end)) {
+                literals.add(literal.toString());
+                literal.setLength(0);
+                arguments.add(Integer.parseInt(pattern, i + 1, end, 10));
+                i = end + 1;
+            } else {
+                literal.append(c);
+                i++;
+            }
+        }
+        literals.add(literal.toString());
+        return new TipTemplate(literals.toArray(String[]::new), arguments.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private static boolean isIndex(String pattern, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!Character.isDigit(pattern.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String render(Object[] args) {
+        if (constant != null) {
+            return constant;
+        }
+        StringBuilder text = new StringBuilder(literals[0]);
+        for (int i = 0; i < arguments.length; i++) {
+            text.append(args[arguments[i]]).append(literals[i + 1]);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Najwyższy indeks argumentu użyty we wzorcu (-1 gdy brak argumentów).
+     */
+    public int maxArgument() {
+        int max = -1;
+        for (int argument : arguments) {
+            max = Math.max(max, argument);
+        }
+        return max;
+    }
+
+    /**
+     * Liczba zaokrąglona jak w String.format("%.Nf") (HALF_UP po dziesiętnym zapisie).
+     */
+    public static String decimal(double value, int scale) {
+        if (!Double.isFinite(value)) {
+            return String.valueOf(value);
+        }
+        return BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP).toPlainString();
+    }
+}
@@ -0,0 +1,34 @@
+package com.pizzamaestro.service.tips;
+
+import com.pizzamaestro.service.TipEngineService.TipCategory;
+
+import static com.pizzamaestro.service.tips.TipCondition.present;
+import static com.pizzamaestro.service.tips.TipMeasure.WEATHER_TEMPERATURE;
+
+/**
+ * Wskazówki pogodowe - tylko gdy znana jest aktualna pogoda.
+ */
+public class WeatherTipGenerator extends BaseTipGenerator {
+
+    private static final double DEFAULT_HUMIDITY = 60;
+
+    public WeatherTipGenerator() {
+        super(TipCategory.WEATHER);
+
+        add(info("current")
+                .condition(present(WEATHER_TEMPERATURE))
+                .uses(TipField.WEATHER_HUMIDITY)
+                .title("Pogoda: {0}°C")
+                .content("""
+                        Aktualna pogoda wpływa na ciasto:
+                        • Temperatura otoczenia: {0}°C
+                        • Wilgotność: {1}%
+                        • Algorytm automatycznie dostosował parametry
+                        """)
+                .icon("🌤️")
+                .priority(3)
+                .arguments(context -> new Object[]{
+                        TipTemplate.decimal(context.getWeatherTemperature(), 0),
+                        TipTemplate.decimal(context.getWeatherHumidity() != null ? context.getWeatherHumidity() : DEFAULT_HUMIDITY, 0)}));
+    }
+}
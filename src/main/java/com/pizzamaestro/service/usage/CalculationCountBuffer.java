@@ -0,0 +1,201 @@
+package com.pizzamaestro.service.usage;
+
+import com.pizzamaestro.model.User;
+import com.pizzamaestro.repository.UserUsageUpdates;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Licznik kalkulacji w pamięci z zapisem odroczonym (write-behind).
+ *
+ * Stan użytkownika (premium, zużycie w miesiącu) jest czytany z bazy raz, limit sprawdzany
+ * lokalnie, a przyrosty zapisywane paczkami jednym bulkWrite przez {@link #flush()}.
+ *
+ * Ograniczenia (dlatego tryb jest opcjonalny):
+ * - limit jest egzekwowany per instancja - przy kilku instancjach konto może go
+ *   przekroczyć o kalkulacje wykonane na innych węzłach od ostatniego odczytu
+ * - przyrosty niezapisane przed awarią procesu przepadają (zamknięcie aplikacji robi flush)
+ */
+@Slf4j
+class CalculationCountBuffer {
+
+    /**
+     * Stan konta w buforze - pola chronione monitorem obiektu.
+     */
+    private static final class Account {
+        private final boolean premium;
+        private YearMonth month;
+        private int persistedThisMonth;
+        private int pending;
+        private long lastUsedNanos;
+        private boolean evicted;
+
+        Account(boolean premium, YearMonth month, int persistedThisMonth) {
+            this.premium = premium;
+            this.month = month;
+            this.persistedThisMonth = persistedThisMonth;
+        }
+    }
+
+    private final Function<String, User> loader;
+    private final ToIntFunction<Map<String, Integer>> writer;
+    private final Supplier<LocalDateTime> clock;
+    private final long idleNanos;
+    private final int maxPending;
+    private final ConcurrentHashMap<String, Account> accounts = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingTotal = new AtomicInteger();
+
+    /**
+     * @param loader     odczyt użytkownika (null - nie istnieje)
+     * @param writer     zapis paczki przyrostów, zwraca liczbę zaktualizowanych użytkowników
+     * @param idleMillis po jakim czasie bez kalkulacji konto jest usuwane z bufora (i czytane od nowa)
+     * @param maxPending liczba niezapisanych kalkulacji, po której flush następuje od razu
+     */
+    CalculationCountBuffer(Function<String, User> loader, ToIntFunction<Map<String, Integer>> writer,
+                           Supplier<LocalDateTime> clock, long idleMillis, int maxPending) {
+        this.loader = loader;
+        this.writer = writer;
+        this.clock = clock;
+        this.idleNanos = idleMillis * 1_000_000;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * @return null gdy użytkownik nie istnieje, w przeciwnym razie czy kalkulacja została zaliczona
+     */
+    Boolean tryConsume(String userId, int monthlyLimit) {
+        YearMonth month = YearMonth.from(clock.get());
+        while (true) {
+            Account account = accounts.get(userId);
+            if (account == null) {
+                Account loaded = load(userId);
+                if (loaded == null) {
+                    return null;
+                }
+                account = accounts.computeIfAbsent(userId, id -> loaded);
+            }
+            synchronized (account) {
+                if (account.evicted) {
+                    // flush usunął konto między get a blokadą - wczytaj od nowa
+                    continue;
+                }
+                if (!month.equals(account.month)) {
+                    account.month = month;
+                    account.persistedThisMonth = 0;
+                }
+                if (!account.premium && account.persistedThisMonth + account.pending >= monthlyLimit) {
+                    return false;
+                }
+                account.pending++;
+                account.lastUsedNanos = System.nanoTime();
+            }
+            if (pendingTotal.incrementAndGet() >= maxPending) {
+                flush();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Zwrot kalkulacji, która się nie udała.
+     *
+     * @return false gdy konta nie ma w buforze albo przyrost był już zapisany (zwrot idzie wtedy do bazy)
+     */
+    boolean release(String userId) {
+        Account account = accounts.get(userId);
+        if (account == null) {
+            return false;
+        }
+        YearMonth month = YearMonth.from(clock.get());
+        synchronized (account) {
+            if (account.pending == 0) {
+                // zapisany przyrost - baza zmniejszy licznik, tu tylko zużycie bieżącego miesiąca
+                if (month.equals(account.month) && account.persistedThisMonth > 0) {
+                    account.persistedThisMonth--;
+                }
+                return false;
+            }
+            account.pending--;
+        }
+        pendingTotal.decrementAndGet();
+        return true;
+    }
+
+    /**
+     * Zapisuje przyrosty jednym bulkWrite i usuwa z bufora konta bezczynne.
+     * Przy błędzie zapisu przyrosty wracają do bufora.
+     */
+    synchronized void flush() {
+        Map<String, Integer> batch = new HashMap<>();
+        long now = System.nanoTime();
+        accounts.forEach((userId, account) -> {
+            synchronized (account) {
+                if (account.pending > 0) {
+                    batch.put(userId, account.pending);
+                    account.persistedThisMonth += account.pending;
+                    account.pending = 0;
+                } else if (now - account.lastUsedNanos >= idleNanos) {
+                    account.evicted = true;
+                    accounts.remove(userId, account);
+                }
+            }
+        });
+        if (batch.isEmpty()) {
+            return;
+        }
+        int count = batch.values().stream().mapToInt(Integer::intValue).sum();
+        pendingTotal.addAndGet(-count);
+        try {
+            int updated = writer.applyAsInt(batch);
+            log.debug("💾 Zapisano {} kalkulacji dla {} użytkowników", count, updated);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Zapis liczników kalkulacji nieudany, ponowię przy następnym flush: {}", e.getMessage());
+            batch.forEach(this::restore);
+        }
+    }
+
+    int pendingCount() {
+        return pendingTotal.get();
+    }
+
+    int size() {
+        return accounts.size();
+    }
+
+    /**
+     * Konto z niezapisanymi przyrostami nie jest usuwane z bufora, więc wciąż tam jest.
+     */
+    private void restore(String userId, int count) {
+        Account account = accounts.get(userId);
+        if (account == null) {
+            return;
+        }
+        synchronized (account) {
+            account.persistedThisMonth -= Math.min(count, account.persistedThisMonth);
+            account.pending += count;
+        }
+        pendingTotal.addAndGet(count);
+    }
+
+    private Account load(String userId) {
+        User user = loader.apply(userId);
+        if (user == null) {
+            return null;
+        }
+        LocalDateTime now = clock.get();
+        User.UsageStats stats = user.getUsageStats();
+        boolean currentMonth = stats != null && stats.getMonthResetAt() != null
+                && !stats.getMonthResetAt().isBefore(UserUsageUpdates.monthStart(now));
+        return new Account(user.isPremium(), YearMonth.from(now),
+                currentMonth ? stats.getCalculationsThisMonth() : 0);
+    }
+}
@@ -0,0 +1,104 @@
+package com.pizzamaestro.service.usage;
+
+import com.pizzamaestro.exception.ResourceNotFoundException;
+import com.pizzamaestro.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Miesięczny limit kalkulacji dla darmowych kont.
+ *
+ * Domyślnie każda kalkulacja to jeden warunkowy findAndModify na {@code usageStats}
+ * (sprawdzenie limitu + reset miesięczny + inkrementacja, bez wczytywania użytkownika).
+ *
+ * Opcjonalnie ({@code pizzamaestro.quota.write-behind.enabled}) liczniki są trzymane
+ * w pamięci ({@link CalculationCountBuffer}) i zapisywane paczkami co
+ * {@code flush-interval-ms} - kosztem dokładności limitu przy kilku instancjach.
+ */
+@Service
+@Slf4j
+public class CalculationQuotaService {
+
+    private final UserRepository userRepository;
+    private final CalculationCountBuffer buffer;
+
+    public CalculationQuotaService(
+            UserRepository userRepository,
+            @Value("${pizzamaestro.quota.write-behind.enabled:false}") boolean writeBehind,
+            @Value("${pizzamaestro.quota.write-behind.flush-interval-ms:5000}") long flushIntervalMs,
+            @Value("${pizzamaestro.quota.write-behind.max-pending:1000}") int maxPending) {
+        this.userRepository = userRepository;
+        this.buffer = writeBehind
+                ? new CalculationCountBuffer(
+                        id -> userRepository.findById(id).orElse(null),
+                        userRepository::addCalculations,
+                        LocalDateTime::now,
+                        flushIntervalMs * 2,
+                        maxPending)
+                : null;
+        log.info("🧮 Limit kalkulacji: {}", writeBehind
+                ? "liczniki w pamięci, zapis co " + flushIntervalMs + " ms" : "atomowy findAndModify");
+    }
+
+    /**
+     * Zalicza kalkulację, jeśli konto ma jeszcze limit (premium - zawsze).
+     *
+     * @return false gdy miesięczny limit jest wyczerpany
+     * @throws ResourceNotFoundException gdy użytkownik nie istnieje
+     */
+    public boolean tryConsume(String userId, int monthlyLimit) {
+        if (buffer != null) {
+            Boolean consumed = buffer.tryConsume(userId, monthlyLimit);
+            if (consumed == null) {
+                throw new ResourceNotFoundException("Użytkownik nie znaleziony");
+            }
+            return consumed;
+        }
+        if (userRepository.consumeCalculation(userId, monthlyLimit) != null) {
+            return true;
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("Użytkownik nie znaleziony");
+        }
+        return false;
+    }
+
+    /**
+     * Zwraca kalkulację zaliczoną przez {@link #tryConsume}, która ostatecznie się nie udała.
+     */
+    public void release(String userId) {
+        if (buffer != null && buffer.release(userId)) {
+            return;
+        }
+        userRepository.releaseCalculation(userId);
+    }
+
+    /**
+     * Dolicza kalkulację bez sprawdzania limitu.
+     */
+    public void record(String userId) {
+        if (!userRepository.addCalculations(userId, 1)) {
+            throw new ResourceNotFoundException("Użytkownik nie znaleziony");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${pizzamaestro.quota.write-behind.flush-interval-ms:5000}")
+    public void flush() {
+        if (buffer != null) {
+            buffer.flush();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (buffer != null && buffer.pendingCount() > 0) {
+            log.info("💾 Zapisuję {} niezapisanych kalkulacji przed zamknięciem", buffer.pendingCount());
+            buffer.flush();
+        }
+    }
+}
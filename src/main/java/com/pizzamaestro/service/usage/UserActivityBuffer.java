@@ -0,0 +1,107 @@
+package com.pizzamaestro.service.usage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Bufor dat logowania z zapisem odroczonym.
+ *
+ * Dla każdego użytkownika zostaje tylko najpóźniejsze logowanie, a {@link #flush()}
+ * zapisuje wszystkich jednym bulkWrite. Okno niezapisanych danych jest ograniczone:
+ * po {@code maxPending} zdarzeniach albo gdy najstarsze czeka dłużej niż {@code maxAgeMillis},
+ * flush robi wątek, który dodał zdarzenie (pozostałe nie czekają - {@code tryLock}).
+ */
+@Slf4j
+class UserActivityBuffer {
+
+    private final ToIntFunction<Map<String, LocalDateTime>> writer;
+    private final LongSupplier nanoClock;
+    private final long maxAgeNanos;
+    private final int maxPending;
+    private final ConcurrentHashMap<String, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingEvents = new AtomicInteger();
+    /** Czas dodania najstarszego niezapisanego zdarzenia, 0 - bufor pusty. */
+    private final AtomicLong oldestNanos = new AtomicLong();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /**
+     * @param writer       zapis paczki, zwraca liczbę zaktualizowanych użytkowników
+     * @param maxAgeMillis najdłuższy czas oczekiwania zdarzenia na zapis
+     * @param maxPending   liczba zdarzeń, po której flush następuje od razu
+     */
+    UserActivityBuffer(ToIntFunction<Map<String, LocalDateTime>> writer, LongSupplier nanoClock,
+                       long maxAgeMillis, int maxPending) {
+        this.writer = writer;
+        this.nanoClock = nanoClock;
+        this.maxAgeNanos = maxAgeMillis * 1_000_000;
+        this.maxPending = maxPending;
+    }
+
+    void add(String userId, LocalDateTime lastLoginAt) {
+        pending.merge(userId, lastLoginAt, UserActivityBuffer::later);
+        long now = nanoClock.getAsLong();
+        oldestNanos.compareAndSet(0, now);
+        int events = pendingEvents.incrementAndGet();
+        if ((events >= maxPending || now - oldestNanos.get() >= maxAgeNanos) && flushLock.tryLock()) {
+            try {
+                drainAndWrite();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Zapisuje wszystkie zebrane zdarzenia. Przy błędzie zapisu wracają do bufora.
+     */
+    void flush() {
+        flushLock.lock();
+        try {
+            drainAndWrite();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    int pendingCount() {
+        return pendingEvents.get();
+    }
+
+    private void drainAndWrite() {
+        // Zerowane przed zebraniem: zdarzenie dodane w trakcie najwyżej przyspieszy kolejny flush
+        oldestNanos.set(0);
+        pendingEvents.set(0);
+        Map<String, LocalDateTime> batch = new HashMap<>();
+        for (String userId : pending.keySet()) {
+            LocalDateTime lastLoginAt = pending.remove(userId);
+            if (lastLoginAt != null) {
+                batch.put(userId, lastLoginAt);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            int updated = writer.applyAsInt(batch);
+            log.debug("💾 Zapisano logowania {} użytkowników ({} w bazie)", batch.size(), updated);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Zapis logowań użytkowników nieudany, ponowię przy następnym flush: {}", e.getMessage());
+            batch.forEach((userId, lastLoginAt) -> pending.merge(userId, lastLoginAt, UserActivityBuffer::later));
+            pendingEvents.addAndGet(batch.size());
+            oldestNanos.compareAndSet(0, nanoClock.getAsLong());
+        }
+    }
+
+    private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+        return b.isAfter(a) ? b : a;
+    }
+}
@@ -0,0 +1,69 @@
+package com.pizzamaestro.service.usage;
+
+import com.pizzamaestro.exception.ResourceNotFoundException;
+import com.pizzamaestro.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Zapis daty ostatniego logowania użytkownika.
+ *
+ * Kalkulacje liczy wyłącznie {@link CalculationQuotaService} (razem z limitem).
+ *
+ * Domyślnie ({@code pizzamaestro.user-activity.write-behind.enabled}) logowania trafiają
+ * do {@link UserActivityBuffer} i są zapisywane paczkami co {@code flush-interval-ms}
+ * (najpóźniej po tym czasie albo po {@code max-pending} logowaniach), więc fala logowań
+ * nie oznacza zapisu do bazy na każde żądanie. Przy zamknięciu aplikacji bufor jest opróżniany.
+ */
+@Service
+@Slf4j
+public class UserActivityService {
+
+    private final UserRepository userRepository;
+    private final UserActivityBuffer buffer;
+
+    public UserActivityService(
+            UserRepository userRepository,
+            @Value("${pizzamaestro.user-activity.write-behind.enabled:true}") boolean writeBehind,
+            @Value("${pizzamaestro.user-activity.write-behind.flush-interval-ms:5000}") long flushIntervalMs,
+            @Value("${pizzamaestro.user-activity.write-behind.max-pending:1000}") int maxPending) {
+        this.userRepository = userRepository;
+        this.buffer = writeBehind
+                ? new UserActivityBuffer(userRepository::recordLogins, System::nanoTime, flushIntervalMs, maxPending)
+                : null;
+        log.info("👣 Ostatnie logowanie: {}", writeBehind
+                ? "zapis paczkami co " + flushIntervalMs + " ms" : "zapis przy każdym logowaniu");
+    }
+
+    public void recordLogin(String userId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (buffer != null) {
+            buffer.add(userId, now);
+            return;
+        }
+        if (userRepository.recordLogins(Map.of(userId, now)) == 0) {
+            throw new ResourceNotFoundException("Użytkownik nie znaleziony");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${pizzamaestro.user-activity.write-behind.flush-interval-ms:5000}")
+    public void flush() {
+        if (buffer != null) {
+            buffer.flush();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (buffer != null && buffer.pendingCount() > 0) {
+            log.info("💾 Zapisuję {} niezapisanych logowań przed zamknięciem", buffer.pendingCount());
+            buffer.flush();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.pizzamaestro.service.weather;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Prosty bezpiecznik dla wywołań zewnętrznych.
+ *
+ * - CLOSED: wywołania przechodzą; po {@code failureThreshold} kolejnych błędach → OPEN
+ * - OPEN: wywołania odrzucane od razu przez {@code openNanos}
+ * - HALF_OPEN: przechodzi jedno wywołanie próbne; sukces zamyka, błąd otwiera ponownie
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final long CLOSED = -1;
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier clock;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    /** Moment otwarcia (nanoTime) albo {@link #CLOSED} */
+    private final AtomicLong openedAt = new AtomicLong(CLOSED);
+    private final AtomicInteger probes = new AtomicInteger();
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this(failureThreshold, openMillis, System::nanoTime);
+    }
+
+    CircuitBreaker(int failureThreshold, long openMillis, LongSupplier clock) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("Próg błędów musi być dodatni");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.clock = clock;
+    }
+
+    /**
+     * Czy wywołanie może przejść. W stanie HALF_OPEN przepuszcza tylko jedną próbę.
+     */
+    public boolean tryAcquire() {
+        long opened = openedAt.get();
+        if (opened == CLOSED) {
+            return true;
+        }
+        if (clock.getAsLong() - opened < openNanos) {
+            return false;
+        }
+        return probes.compareAndSet(0, 1);
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        if (openedAt.getAndSet(CLOSED) != CLOSED) {
+            probes.set(0);
+        }
+    }
+
+    public void onFailure() {
+        long opened = openedAt.get();
+        if (opened != CLOSED) {
+            // Nieudana próba w HALF_OPEN - otwórz na kolejny okres
+            openedAt.set(clock.getAsLong());
+            probes.set(0);
+            return;
+        }
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt.compareAndSet(CLOSED, clock.getAsLong());
+        }
+    }
+
+    public State getState() {
+        long opened = openedAt.get();
+        if (opened == CLOSED) {
+            return State.CLOSED;
+        }
+        return clock.getAsLong() - opened < openNanos ? State.OPEN : State.HALF_OPEN;
+    }
+}
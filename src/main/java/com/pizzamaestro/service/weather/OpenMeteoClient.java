@@ -0,0 +1,192 @@
+package com.pizzamaestro.service.weather;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizzamaestro.service.WeatherService.GeocodingResponse;
+import com.pizzamaestro.service.WeatherService.OpenMeteoResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Klient HTTP Open-Meteo (prognoza i geokodowanie).
+ *
+ * - jeden współdzielony {@link HttpClient} - pula połączeń keep-alive, wątki wirtualne
+ * - twarde limity czasu: nawiązanie połączenia i całe żądanie
+ * - bezpiecznik ({@link CircuitBreaker}): po serii błędów żądania są odrzucane od razu,
+ *   zamiast blokować wątki Tomcata na martwym serwerze
+ * - scalanie żądań: równoległe zapytania o ten sam URL czekają na jedno wywołanie
+ *
+ * Metryki: weather.upstream.calls, weather.upstream.coalesced, weather.upstream.rejected
+ */
+@Component
+@Slf4j
+public class OpenMeteoClient {
+
+    private final String forecastUrl;
+    private final String geocodingUrl;
+    private final Duration requestTimeout;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+    private final HttpClient httpClient;
+    private final CircuitBreaker circuitBreaker;
+    private final ConcurrentHashMap<URI, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter callCounter;
+    private final Counter coalescedCounter;
+    private final Counter rejectedCounter;
+
+    public OpenMeteoClient(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${pizzamaestro.weather.forecast-url:https://api.open-meteo.com/v1/forecast}") String forecastUrl,
+            @Value("${pizzamaestro.weather.geocoding-url:https://geocoding-api.open-meteo.com/v1/search}") String geocodingUrl,
+            @Value("${pizzamaestro.weather.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${pizzamaestro.weather.request-timeout-ms:4000}") long requestTimeoutMs,
+            @Value("${pizzamaestro.weather.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${pizzamaestro.weather.circuit-breaker.open-seconds:30}") long openSeconds) {
+        this.objectMapper = objectMapper;
+        this.forecastUrl = forecastUrl;
+        this.geocodingUrl = geocodingUrl;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, TimeUnit.SECONDS.toMillis(openSeconds));
+        this.callCounter = meterRegistry.counter("weather.upstream.calls");
+        this.coalescedCounter = meterRegistry.counter("weather.upstream.coalesced");
+        this.rejectedCounter = meterRegistry.counter("weather.upstream.rejected");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Bieżąca pogoda i prognoza godzinowa (2 dni) dla współrzędnych.
+     */
+    public OpenMeteoResponse forecast(double latitude, double longitude) {
+        URI uri = URI.create(forecastUrl
+                + "?latitude=" + latitude + "&longitude=" + longitude
+                + "&current=temperature_2m,relative_humidity_2m,surface_pressure,weather_code"
+                + "&hourly=temperature_2m,relative_humidity_2m"
+                + "&forecast_days=2&timezone=auto");
+        return fetch(uri, OpenMeteoResponse.class);
+    }
+
+    /**
+     * Pierwszy wynik geokodowania nazwy miasta.
+     */
+    public GeocodingResponse geocode(String city) {
+        URI uri = URI.create(geocodingUrl
+                + "?name=" + URLEncoder.encode(city, StandardCharsets.UTF_8)
+                + "&count=1&language=pl&format=json");
+        return fetch(uri, GeocodingResponse.class);
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    /**
+     * Pierwszy wątek dla danego URL wykonuje wywołanie, pozostałe czekają na jego wynik.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T fetch(URI uri, Class<T> type) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(uri, mine);
+        if (existing != null) {
+            coalescedCounter.increment();
+            return (T) await(existing);
+        }
+        try {
+            T result = call(uri, type);
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(uri, mine);
+        }
+    }
+
+    private <T> T call(URI uri, Class<T> type) {
+        if (!circuitBreaker.tryAcquire()) {
+            rejectedCounter.increment();
+            throw new WeatherUnavailableException("Bezpiecznik otwarty - pomijam wywołanie Open-Meteo");
+        }
+        callCounter.increment();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            circuitBreaker.onFailure();
+            throw new WeatherUnavailableException("Błąd połączenia z Open-Meteo: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            circuitBreaker.onFailure();
+            throw new WeatherUnavailableException("Przerwano wywołanie Open-Meteo", e);
+        }
+
+        int status = response.statusCode();
+        if (status >= 500 || status == 429) {
+            circuitBreaker.onFailure();
+            throw new WeatherUnavailableException("Open-Meteo odpowiedziało statusem " + status);
+        }
+        // Serwer odpowiada - 4xx to błąd żądania, nie awaria usługi
+        circuitBreaker.onSuccess();
+        if (status >= 400) {
+            throw new IllegalArgumentException("Open-Meteo odrzuciło żądanie, status " + status);
+        }
+        try {
+            return objectMapper.readValue(response.body(), type);
+        } catch (IOException e) {
+            throw new WeatherUnavailableException("Nieprawidłowa odpowiedź Open-Meteo", e);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> future) {
+        try {
+            // Lider sam ma limit czasu - tu tylko zapas na wypadek zawieszenia
+            return future.get(requestTimeout.toMillis() * 2, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new WeatherUnavailableException("Błąd wywołania Open-Meteo", e.getCause());
+        } catch (TimeoutException e) {
+            throw new WeatherUnavailableException("Przekroczono czas oczekiwania na Open-Meteo", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WeatherUnavailableException("Przerwano oczekiwanie na Open-Meteo", e);
+        }
+    }
+}
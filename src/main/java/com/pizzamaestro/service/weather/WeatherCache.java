@@ -0,0 +1,190 @@
+package com.pizzamaestro.service.weather;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pizzamaestro.service.WeatherService.GeocodingResult;
+import com.pizzamaestro.service.WeatherService.WeatherData;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache pogody w komórkach geohash i cache geokodowania miast.
+ *
+ * Pogoda:
+ * - kluczem jest komórka geohash (domyślnie 5 znaków, ~5 km) - użytkownicy w pobliżu
+ *   dzielą jeden wpis, a pogoda jest pobierana dla środka komórki
+ * - wpis jest świeży do najbliższej pełnej godziny czasu lokalnego lokalizacji
+ *   (wtedy zmienia się godzina prognozy; strefy z przesunięciem o 30/45 min też)
+ * - po tym czasie jeszcze przez {@code stale-seconds} zwracany jest stary wpis, a odświeżenie
+ *   idzie w tle (stale-while-revalidate); błąd odświeżenia zostawia stary wpis
+ * - domyślne wartości (API niedostępne) nie są cache'owane
+ *
+ * Geokodowanie: nazwa miasta (bez wielkości liter) → współrzędne, z długim TTL.
+ *
+ * Metryki: cache.* z tagami cache=weather i cache=geocoding, weather.cache.stale_served.
+ */
+@Component
+@Slf4j
+public class WeatherCache {
+
+    private static final long HOUR_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    /**
+     * Pobiera pogodę dla współrzędnych; rzuca wyjątek, gdy danych brak.
+     */
+    @FunctionalInterface
+    public interface WeatherLoader {
+        WeatherData load(double latitude, double longitude);
+    }
+
+    private record Entry(WeatherData weather, long freshUntil, long staleUntil) {
+    }
+
+    private final int precision;
+    private final long staleMillis;
+    private final LongSupplier clock;
+    private final Cache<String, Entry> weather;
+    private final Cache<String, GeocodingResult> geocoding;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final ExecutorService refresher = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter staleCounter;
+
+    public WeatherCache(
+            MeterRegistry meterRegistry,
+            @Value("${pizzamaestro.weather.cache.geohash-precision:5}") int precision,
+            @Value("${pizzamaestro.weather.cache.stale-seconds:3600}") long staleSeconds,
+            @Value("${pizzamaestro.weather.cache.maximum-size:10000}") long maximumSize,
+            @Value("${pizzamaestro.weather.cache.geocoding-ttl-hours:168}") long geocodingTtlHours,
+            @Value("${pizzamaestro.weather.cache.geocoding-maximum-size:10000}") long geocodingMaximumSize) {
+        this(meterRegistry, precision, staleSeconds, maximumSize, geocodingTtlHours, geocodingMaximumSize,
+                System::currentTimeMillis);
+    }
+
+    WeatherCache(MeterRegistry meterRegistry, int precision, long staleSeconds, long maximumSize,
+                 long geocodingTtlHours, long geocodingMaximumSize, LongSupplier clock) {
+        // Walidacja precyzji przy starcie, a nie przy pierwszym żądaniu
+        Geohash.encode(0, 0, precision);
+        this.precision = precision;
+        this.staleMillis = TimeUnit.SECONDS.toMillis(staleSeconds);
+        this.clock = clock;
+        // Twardy TTL to górna granica (godzina świeżości + okres stale), resztę sprawdza get()
+        this.weather = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(HOUR_MILLIS + staleMillis))
+                .recordStats()
+                .build();
+        this.geocoding = Caffeine.newBuilder()
+                .maximumSize(geocodingMaximumSize)
+                .expireAfterWrite(Duration.ofHours(geocodingTtlHours))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, weather, "weather");
+        CaffeineCacheMetrics.monitor(meterRegistry, geocoding, "geocoding");
+        this.staleCounter = meterRegistry.counter("weather.cache.stale_served");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Pogoda dla współrzędnych - z cache komórki albo pobrana przez {@code loader}.
+     *
+     * @return kopia wpisu ze współrzędnymi z żądania
+     */
+    public WeatherData get(double latitude, double longitude, WeatherLoader loader) {
+        String cell = Geohash.encode(latitude, longitude, precision);
+        long now = clock.getAsLong();
+        Entry entry = weather.getIfPresent(cell);
+
+        if (entry == null || now >= entry.staleUntil()) {
+            entry = load(cell, loader);
+        } else if (now >= entry.freshUntil()) {
+            staleCounter.increment();
+            refreshInBackground(cell, loader);
+        }
+        return copyFor(entry.weather(), latitude, longitude);
+    }
+
+    /**
+     * Wynik geokodowania miasta - z cache albo z {@code lookup} (null = nie znaleziono, nie cache'owane).
+     */
+    public GeocodingResult geocode(String city, Function<String, GeocodingResult> lookup) {
+        String key = city.trim().toLowerCase(Locale.ROOT);
+        GeocodingResult cached = geocoding.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        GeocodingResult result = lookup.apply(city.trim());
+        if (result != null) {
+            geocoding.put(key, result);
+        }
+        return result;
+    }
+
+    public void invalidateAll() {
+        weather.invalidateAll();
+        geocoding.invalidateAll();
+    }
+
+    private Entry load(String cell, WeatherLoader loader) {
+        double[] center = Geohash.center(cell);
+        WeatherData loaded = loader.load(center[0], center[1]);
+        long now = clock.getAsLong();
+        long offsetMillis = TimeUnit.SECONDS.toMillis(loaded.getUtcOffsetSeconds());
+        long freshUntil = (Math.floorDiv(now + offsetMillis, HOUR_MILLIS) + 1) * HOUR_MILLIS - offsetMillis;
+        Entry entry = new Entry(loaded, freshUntil, freshUntil + staleMillis);
+        if (!loaded.isDefault()) {
+            weather.put(cell, entry);
+        }
+        return entry;
+    }
+
+    private void refreshInBackground(String cell, WeatherLoader loader) {
+        if (!refreshing.add(cell)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    load(cell, loader);
+                    log.debug("🔄 Odświeżono pogodę dla komórki {}", cell);
+                } catch (Exception e) {
+                    log.warn("⚠️ Odświeżenie pogody dla komórki {} nieudane, zostaje poprzedni wpis: {}",
+                            cell, e.getMessage());
+                } finally {
+                    refreshing.remove(cell);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Executor zamknięty przy wyłączaniu aplikacji
+            refreshing.remove(cell);
+        }
+    }
+
+    /**
+     * Wpis w cache jest współdzielony - wywołujący (np. getWeatherByCity) dostaje kopię.
+     */
+    private static WeatherData copyFor(WeatherData cached, double latitude, double longitude) {
+        return cached.toBuilder()
+                .latitude(latitude)
+                .longitude(longitude)
+                .build();
+    }
+}
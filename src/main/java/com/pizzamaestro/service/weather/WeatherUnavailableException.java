@@ -0,0 +1,16 @@
+package com.pizzamaestro.service.weather;
+
+/**
+ * Usługa pogodowa niedostępna: timeout, błąd połączenia, błąd serwera
+ * albo otwarty bezpiecznik ({@link CircuitBreaker}).
+ */
+public class WeatherUnavailableException extends RuntimeException {
+
+    public WeatherUnavailableException(String message) {
+        super(message);
+    }
+
+    public WeatherUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,135 @@
+package com.pizzamaestro.config;
+
+import com.pizzamaestro.security.JwtAuthenticationFilter;
+import com.pizzamaestro.security.JwtTokenProvider;
+import com.pizzamaestro.security.UserPrincipal;
+import com.pizzamaestro.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.webAppContextSetup;
+
+/**
+ * Eksport strumieniowy za autentykacją JWT - odpowiedź kończy się w dispatchu ASYNC,
+ * którego filtr JWT (OncePerRequestFilter) nie obsługuje.
+ *
+ * Mały kontekst: SecurityConfig, filtr JWT i kontroler eksportu - bez bazy danych.
+ */
+@SpringJUnitWebConfig(SecurityConfigAsyncDispatchTest.TestConfig.class)
+@DisplayName("SecurityConfig - eksport strumieniowy")
+class SecurityConfigAsyncDispatchTest {
+
+    private static final String SECRET = "testSecretKeyMustBeAtLeast32CharsLongForHS256Algorithm";
+    private static final String EMAIL = "jan@example.com";
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = webAppContextSetup(context).apply(springSecurity()).build();
+    }
+
+    @Test
+    @DisplayName("Zalogowany użytkownik dostaje cały plik po dispatchu ASYNC")
+    void shouldCompleteAuthenticatedExport() throws Exception {
+        // given
+        String token = tokenProvider.generateAccessToken(EMAIL);
+
+        // when
+        MvcResult started = mockMvc.perform(get("/api/recipes/r1/export/pdf")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+                .andExpect(content().string("PDF r1 dla " + EMAIL));
+    }
+
+    @Test
+    @DisplayName("Bez tokenu eksport jest odrzucany przed rozpoczęciem strumienia")
+    void shouldRejectAnonymousExport() throws Exception {
+        mockMvc.perform(get("/api/recipes/r1/export/pdf"))
+                .andExpect(status().isForbidden())
+                .andExpect(request().asyncNotStarted());
+    }
+
+    @Configuration
+    @EnableWebMvc
+    @Import(SecurityConfig.class)
+    static class TestConfig {
+
+        @Bean
+        JwtTokenProvider jwtTokenProvider() {
+            return new JwtTokenProvider(SECRET, TimeUnit.HOURS.toMillis(1), TimeUnit.DAYS.toMillis(7));
+        }
+
+        @Bean
+        UserDetailsService userDetailsService() {
+            return email -> new UserPrincipal("u1", email, "hash", true, true, true, true,
+                    List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        }
+
+        @Bean
+        JwtAuthenticationFilter jwtAuthenticationFilter(JwtTokenProvider tokenProvider, UserDetailsService userDetailsService) {
+            return new JwtAuthenticationFilter(tokenProvider, userDetailsService,
+                    new VerifiedTokenCache(new SimpleMeterRegistry(), 100, 300));
+        }
+
+        @Bean
+        ExportController exportController() {
+            return new ExportController();
+        }
+    }
+
+    /**
+     * Eksport jak w RecipeController#exportToPdf.
+     */
+    @RestController
+    static class ExportController {
+
+        @GetMapping("/api/recipes/{id}/export/pdf")
+        ResponseEntity<StreamingResponseBody> export(@PathVariable String id,
+                                                     @AuthenticationPrincipal UserPrincipal principal) {
+            String text = "PDF " + id + " dla " + principal.getUsername();
+            StreamingResponseBody body = out -> out.write(text.getBytes(StandardCharsets.UTF_8));
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_PDF).body(body);
+        }
+    }
+}
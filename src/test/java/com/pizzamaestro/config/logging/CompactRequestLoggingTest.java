@@ -0,0 +1,183 @@
+package com.pizzamaestro.config.logging;
+
+import com.pizzamaestro.config.RequestLoggingConfig.DetailedLoggingFilter;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testy trybu compact logowania requestów - próbkowanie i przechwytywanie body.
+ */
+@DisplayName("Compact request logging Tests")
+class CompactRequestLoggingTest {
+
+    @Nested
+    @DisplayName("Próbkowanie")
+    class SamplerTests {
+
+        @Test
+        @DisplayName("Pierwsza pasująca reguła wygrywa, reszta - stawka domyślna")
+        void shouldResolveRatePerPath() {
+            RequestLogSampler sampler = new RequestLogSampler(0.01, "/api/auth/**=0, /api/calculator/**=0.5,/api/**=1");
+
+            assertThat(sampler.rateFor("/api/auth/login")).isZero();
+            assertThat(sampler.rateFor("/api/calculator/public/calculate")).isEqualTo(0.5);
+            assertThat(sampler.rateFor("/api/recipes")).isEqualTo(1.0);
+            assertThat(sampler.rateFor("/actuator/health")).isEqualTo(0.01);
+        }
+
+        @Test
+        @DisplayName("Stawki 0 i 1 są deterministyczne")
+        void shouldSampleDeterministicallyAtBounds() {
+            RequestLogSampler sampler = new RequestLogSampler(0, "/api/debug/**=1");
+
+            for (int i = 0; i < 100; i++) {
+                assertThat(sampler.shouldSample("/api/recipes")).isFalse();
+                assertThat(sampler.shouldSample("/api/debug/x")).isTrue();
+            }
+        }
+
+        @Test
+        @DisplayName("Nieprawidłowe reguły są odrzucane")
+        void shouldRejectInvalidRules() {
+            assertThatThrownBy(() -> new RequestLogSampler(0.1, "/api/**"))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> new RequestLogSampler(0.1, "/api/**=abc"))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> new RequestLogSampler(1.5, ""))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Odpowiedź")
+    class ResponseWrapperTests {
+
+        @Test
+        @DisplayName("Sukces bez próbkowania - body idzie do klienta, nic nie jest przechwytywane")
+        void shouldPassThroughWithoutCapture() throws IOException {
+            // given
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            CapturingResponseWrapper wrapper = new CapturingResponseWrapper(response, false, 16);
+
+            // when
+            wrapper.getOutputStream().write("{\"ok\":true}".getBytes(StandardCharsets.UTF_8));
+
+            // then
+            assertThat(response.getContentAsString()).isEqualTo("{\"ok\":true}");
+            assertThat(wrapper.getBytesWritten()).isEqualTo(11);
+            assertThat(wrapper.getCapturedBody()).isNull();
+        }
+
+        @Test
+        @DisplayName("Błąd - początek body przechwycony do limitu")
+        void shouldCaptureErrorBodyUpToLimit() throws IOException {
+            // given
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            CapturingResponseWrapper wrapper = new CapturingResponseWrapper(response, false, 8);
+            wrapper.setStatus(400);
+            wrapper.setCharacterEncoding("UTF-8");
+
+            // when
+            wrapper.getWriter().write("Nieprawidłowe dane");
+            wrapper.flushWriter();
+
+            // then
+            assertThat(response.getContentAsString(StandardCharsets.UTF_8)).isEqualTo("Nieprawidłowe dane");
+            assertThat(wrapper.getCapturedBody()).isEqualTo("Nieprawi");
+            assertThat(wrapper.isTruncated()).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("Filtr")
+    class FilterTests {
+
+        @Test
+        @DisplayName("Tryb compact nie buforuje requestu ani odpowiedzi")
+        void shouldNotBufferInCompactMode() throws ServletException, IOException {
+            // given
+            DetailedLoggingFilter filter = new DetailedLoggingFilter("compact", 0, "", 2048);
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/recipes");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            AtomicReference<Object> seenRequest = new AtomicReference<>();
+            AtomicReference<Object> seenResponse = new AtomicReference<>();
+
+            // when
+            filter.doFilter(request, response, (req, res) -> {
+                seenRequest.set(req);
+                seenResponse.set(res);
+                res.getWriter().write("ok");
+            });
+
+            // then
+            assertThat(seenRequest.get()).isSameAs(request);
+            assertThat(seenResponse.get()).isInstanceOf(CapturingResponseWrapper.class)
+                    .isNotInstanceOf(ContentCachingResponseWrapper.class);
+            assertThat(response.getContentAsString()).isEqualTo("ok");
+        }
+
+        @Test
+        @DisplayName("Próbkowany request - body requestu buforowane z limitem")
+        void shouldCacheRequestBodyWhenSampled() throws ServletException, IOException {
+            // given
+            DetailedLoggingFilter filter = new DetailedLoggingFilter("compact", 1, "", 2048);
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/recipes");
+            request.setContent("{\"name\":\"Margherita\"}".getBytes(StandardCharsets.UTF_8));
+            MockFilterChain chain = new MockFilterChain();
+
+            // when
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+            // then
+            assertThat(chain.getRequest()).isInstanceOf(ContentCachingRequestWrapper.class);
+        }
+
+        @Test
+        @DisplayName("Eksport PDF i iCal omija buforowanie, liczone są tylko bajty")
+        void shouldStreamExportsWithoutBuffering() throws ServletException, IOException {
+            // given
+            DetailedLoggingFilter filter = new DetailedLoggingFilter("detailed", 1, "", 2048);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            AtomicReference<Object> seenResponse = new AtomicReference<>();
+
+            // when
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/recipes/abc123/pdf"), response, (req, res) -> {
+                seenResponse.set(res);
+                res.getOutputStream().write(new byte[20_000]);
+            });
+
+            // then
+            assertThat(seenResponse.get()).isInstanceOf(CapturingResponseWrapper.class);
+            assertThat(((CapturingResponseWrapper) seenResponse.get()).getBytesWritten()).isEqualTo(20_000);
+            assertThat(((CapturingResponseWrapper) seenResponse.get()).getCapturedBody()).isNull();
+            assertThat(response.getContentAsByteArray()).hasSize(20_000);
+        }
+
+        @Test
+        @DisplayName("Tryb detailed zachowuje dotychczasowe buforowanie")
+        void shouldKeepBufferingInDetailedMode() throws ServletException, IOException {
+            // given
+            DetailedLoggingFilter filter = new DetailedLoggingFilter("detailed", 0, "", 2048);
+            MockFilterChain chain = new MockFilterChain();
+
+            // when
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/recipes"), new MockHttpServletResponse(), chain);
+
+            // then
+            assertThat(chain.getResponse()).isInstanceOf(ContentCachingResponseWrapper.class);
+        }
+    }
+}
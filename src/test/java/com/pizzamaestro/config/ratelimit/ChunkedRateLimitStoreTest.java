@@ -0,0 +1,202 @@
+package com.pizzamaestro.config.ratelimit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testy limitów wspólnych dla replik - licznik okien w pamięci zamiast MongoDB.
+ */
+@DisplayName("ChunkedRateLimitStore Tests")
+class ChunkedRateLimitStoreTest {
+
+    private static final String IP = "203.0.113.7";
+
+    private final Map<String, AtomicLong> windows = new ConcurrentHashMap<>();
+    private final AtomicInteger increments = new AtomicInteger();
+    private final AtomicLong now = new AtomicLong(TimeUnit.MINUTES.toMillis(1_000));
+    private volatile boolean counterDown;
+
+    private final WindowCounter counter = (windowId, amount, expireAt) -> {
+        if (counterDown) {
+            throw new DataAccessResourceFailureException("Mongo niedostępne");
+        }
+        increments.incrementAndGet();
+        return windows.computeIfAbsent(windowId, id -> new AtomicLong()).addAndGet(amount);
+    };
+
+    private ChunkedRateLimitStore first;
+    private ChunkedRateLimitStore second;
+
+    @BeforeEach
+    void setUp() {
+        first = store();
+        second = store();
+    }
+
+    @AfterEach
+    void tearDown() {
+        first.shutdown();
+        second.shutdown();
+    }
+
+    private ChunkedRateLimitStore store() {
+        return new ChunkedRateLimitStore(counter, new TokenBucketRateLimiter(60, 0), 60, 0.1, 0, now::get);
+    }
+
+    @Nested
+    @DisplayName("Paczki żetonów")
+    class ChunkTests {
+
+        @Test
+        @DisplayName("Jedno zapytanie na paczkę, nie na żądanie")
+        void shouldReserveTokensInChunks() {
+            // given
+            RateLimitClient client = first.client(IP);
+
+            // when
+            for (int i = 0; i < 25; i++) {
+                assertThat(client.tryConsume(BucketType.GENERAL, 1)).isTrue();
+            }
+
+            // then - paczki po 10% limitu (10 żetonów)
+            assertThat(increments.get()).isEqualTo(3);
+            assertThat(client.getRemaining(BucketType.GENERAL)).isEqualTo(75);
+        }
+
+        @Test
+        @DisplayName("Dwie repliki razem nie przekraczają limitu")
+        void shouldNotOverAdmitAcrossInstances() {
+            // given
+            RateLimitClient a = first.client(IP);
+            RateLimitClient b = second.client(IP);
+
+            // when - repliki obsługują żądania na przemian
+            int allowed = 0;
+            for (int i = 0; i < 150; i++) {
+                if ((i % 2 == 0 ? a : b).tryConsume(BucketType.GENERAL, 1)) {
+                    allowed++;
+                }
+            }
+
+            // then
+            assertThat(allowed).isEqualTo(BucketType.GENERAL.getLimit());
+            assertThat(a.tryConsume(BucketType.GENERAL, 1)).isFalse();
+            assertThat(b.nanosUntilAvailable(BucketType.GENERAL)).isPositive();
+        }
+
+        @Test
+        @DisplayName("Ostatnia paczka przycięta do reszty limitu")
+        void shouldTrimLastChunk() {
+            // given - inna replika zużyła 97 z 100
+            RateLimitClient a = first.client(IP);
+            RateLimitClient b = second.client(IP);
+            assertThat(b.tryConsume(BucketType.GENERAL, 97)).isTrue();
+
+            // when
+            int allowed = 0;
+            for (int i = 0; i < 10; i++) {
+                if (a.tryConsume(BucketType.GENERAL, 1)) {
+                    allowed++;
+                }
+            }
+
+            // then
+            assertThat(allowed).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("Nowe okno - nowy limit")
+        void shouldResetInNextWindow() {
+            // given
+            RateLimitClient client = first.client(IP);
+            assertThat(client.tryConsume(BucketType.LOGIN, 5)).isTrue();
+            assertThat(client.tryConsume(BucketType.LOGIN, 1)).isFalse();
+
+            // when
+            now.addAndGet(TimeUnit.SECONDS.toMillis(60));
+
+            // then
+            assertThat(client.tryConsume(BucketType.LOGIN, 1)).isTrue();
+            assertThat(windows).hasSize(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("Awarie i sprzątanie")
+    class FailureTests {
+
+        @Test
+        @DisplayName("Awaria licznika - limit liczony lokalnie")
+        void shouldFallBackToLocalLimiter() {
+            // given
+            counterDown = true;
+            RateLimitClient client = first.client(IP);
+
+            // when
+            int allowed = 0;
+            for (int i = 0; i < 10; i++) {
+                if (client.tryConsume(BucketType.LOGIN, 1)) {
+                    allowed++;
+                }
+            }
+
+            // then
+            assertThat(allowed).isEqualTo(BucketType.LOGIN.getLimit());
+        }
+
+        @Test
+        @DisplayName("Klienci bez paczek w bieżącym oknie są usuwani")
+        void shouldExpireClientsFromPastWindows() {
+            // given
+            first.client("10.0.0.1").tryConsume(BucketType.GENERAL, 1);
+            now.addAndGet(TimeUnit.SECONDS.toMillis(60));
+            first.client("10.0.0.2").tryConsume(BucketType.GENERAL, 1);
+
+            // when
+            int removed = first.expireIdle();
+
+            // then
+            assertThat(removed).isEqualTo(1);
+            assertThat(first.size()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Nieprawidłowa część limitu w paczce")
+        void shouldRejectInvalidChunkFraction() {
+            assertThatThrownBy(() -> new ChunkedRateLimitStore(counter, first, 60, 1.5, 0))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("Okno wygasa jedno okno po swoim końcu")
+    void shouldSetExpiryAfterWindowEnd() {
+        // given
+        AtomicLong expireAt = new AtomicLong();
+        ChunkedRateLimitStore store = new ChunkedRateLimitStore((id, amount, at) -> {
+            expireAt.set(at.toEpochMilli());
+            return amount;
+        }, new TokenBucketRateLimiter(60, 0), 60, 0.1, 0, now::get);
+
+        // when
+        store.client(IP).tryConsume(BucketType.GENERAL, 1);
+
+        // then
+        assertThat(Instant.ofEpochMilli(expireAt.get()))
+                .isEqualTo(Instant.ofEpochMilli(now.get()).plusSeconds(120));
+        store.shutdown();
+    }
+}
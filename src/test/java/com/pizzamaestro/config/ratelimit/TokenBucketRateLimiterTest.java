@@ -0,0 +1,184 @@
+package com.pizzamaestro.config.ratelimit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testy bezblokadowego limitu żądań.
+ */
+@DisplayName("TokenBucketRateLimiter Tests")
+class TokenBucketRateLimiterTest {
+
+    private static final long WINDOW = TimeUnit.SECONDS.toNanos(60);
+
+    private TokenBucketRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new TokenBucketRateLimiter(60, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        limiter.shutdown();
+    }
+
+    @Nested
+    @DisplayName("Kubełek")
+    class BucketTests {
+
+        @Test
+        @DisplayName("Pojemność równa limitowi, potem odmowa")
+        void shouldAllowBurstUpToLimit() {
+            // given
+            ClientBuckets buckets = limiter.create(0);
+
+            // when
+            int allowed = 0;
+            for (int i = 0; i < 10; i++) {
+                if (buckets.tryConsume(BucketType.LOGIN, 1, 0)) {
+                    allowed++;
+                }
+            }
+
+            // then
+            assertThat(allowed).isEqualTo(BucketType.LOGIN.getLimit());
+            assertThat(buckets.getRemaining(BucketType.LOGIN, 0)).isZero();
+            assertThat(buckets.nanosUntilAvailable(BucketType.LOGIN, 0)).isEqualTo(WINDOW / 5);
+        }
+
+        @Test
+        @DisplayName("Żetony wracają płynnie w tempie limit/okno")
+        void shouldRefillGradually() {
+            // given - wyczerpany kubełek logowania (5/min → żeton co 12 s)
+            ClientBuckets buckets = limiter.create(0);
+            assertThat(buckets.tryConsume(BucketType.LOGIN, 5, 0)).isTrue();
+
+            // when / then
+            long twelveSeconds = TimeUnit.SECONDS.toNanos(12);
+            assertThat(buckets.tryConsume(BucketType.LOGIN, 1, twelveSeconds - 1)).isFalse();
+            assertThat(buckets.tryConsume(BucketType.LOGIN, 1, twelveSeconds)).isTrue();
+            assertThat(buckets.getRemaining(BucketType.LOGIN, WINDOW * 2)).isEqualTo(5);
+        }
+
+        @Test
+        @DisplayName("Wiele żetonów naraz - wszystkie albo żaden")
+        void shouldConsumeAllOrNothing() {
+            ClientBuckets buckets = limiter.create(0);
+
+            assertThat(buckets.tryConsume(BucketType.CALCULATOR, 25, 0)).isTrue();
+            assertThat(buckets.tryConsume(BucketType.CALCULATOR, 10, 0)).isFalse();
+            assertThat(buckets.getRemaining(BucketType.CALCULATOR, 0)).isEqualTo(5);
+        }
+
+        @Test
+        @DisplayName("Typy kubełków są niezależne")
+        void shouldKeepTypesIndependent() {
+            ClientBuckets buckets = limiter.create(0);
+            buckets.tryConsume(BucketType.REGISTER, 3, 0);
+
+            assertThat(buckets.tryConsume(BucketType.REGISTER, 1, 0)).isFalse();
+            assertThat(buckets.tryConsume(BucketType.GENERAL, 1, 0)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Równoległe pobrania nie przekraczają limitu")
+        void shouldNotOverAdmitUnderContention() throws InterruptedException {
+            // given
+            ClientBuckets buckets = limiter.client("10.0.0.1");
+            AtomicInteger allowed = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService pool = Executors.newFixedThreadPool(16);
+
+            // when
+            for (int t = 0; t < 16; t++) {
+                pool.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    for (int i = 0; i < 100; i++) {
+                        if (buckets.tryConsume(BucketType.GENERAL, 1)) {
+                            allowed.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            start.countDown();
+            pool.shutdown();
+            assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+            // then - najwyżej limit + żetony odzyskane w czasie testu
+            assertThat(allowed.get()).isBetween(100, 105);
+        }
+    }
+
+    @Nested
+    @DisplayName("Klienci")
+    class ClientTests {
+
+        @Test
+        @DisplayName("Adres IPv4 parsowany do liczby")
+        void shouldParseIpv4() {
+            assertThat(Ipv4Addresses.parse("192.168.1.10", 0, 12)).isEqualTo(0xC0A8010AL);
+            assertThat(Ipv4Addresses.parse(" 8.8.8.8 , 10.0.0.1", 0, 9)).isEqualTo(0x08080808L);
+            assertThat(Ipv4Addresses.parse("0.0.0.0", 0, 7)).isZero();
+            assertThat(Ipv4Addresses.parse("256.1.1.1", 0, 9)).isEqualTo(Ipv4Addresses.NOT_IPV4);
+            assertThat(Ipv4Addresses.parse("1.2.3", 0, 5)).isEqualTo(Ipv4Addresses.NOT_IPV4);
+            assertThat(Ipv4Addresses.parse("1.2.3.4.5", 0, 9)).isEqualTo(Ipv4Addresses.NOT_IPV4);
+            assertThat(Ipv4Addresses.parse("::1", 0, 3)).isEqualTo(Ipv4Addresses.NOT_IPV4);
+        }
+
+        @Test
+        @DisplayName("Ten sam adres - te same kubełki, także z nagłówka X-Forwarded-For")
+        void shouldReuseBucketsForSameAddress() {
+            ClientBuckets direct = limiter.client("203.0.113.7");
+            String header = "203.0.113.7, 10.0.0.1";
+
+            assertThat(limiter.client(header, 0, header.indexOf(','))).isSameAs(direct);
+            assertThat(limiter.client("203.0.113.8")).isNotSameAs(direct);
+            assertThat(limiter.client("2001:db8::1")).isSameAs(limiter.client("2001:db8::1"));
+        }
+
+        @Test
+        @DisplayName("Tysiące adresów - tablica rośnie bez utraty wpisów")
+        void shouldGrowTable() {
+            for (int i = 0; i < 5000; i++) {
+                limiter.client("10.1." + (i >> 8) + "." + (i & 0xFF)).tryConsume(BucketType.GENERAL, 1);
+            }
+
+            assertThat(limiter.size()).isEqualTo(5000);
+            assertThat(limiter.client("10.1.0.0").getRemaining(BucketType.GENERAL))
+                    .isLessThan(BucketType.GENERAL.getLimit());
+        }
+
+        @Test
+        @DisplayName("Wygasanie usuwa tylko klientów z pełnymi kubełkami")
+        void shouldExpireOnlyIdleClients() {
+            // given
+            limiter.client("10.0.0.1");
+            limiter.client("10.0.0.2").tryConsume(BucketType.LOGIN, 1);
+            limiter.client("::1");
+
+            // when
+            int removed = limiter.expireIdle();
+
+            // then
+            assertThat(removed).isEqualTo(2);
+            assertThat(limiter.size()).isEqualTo(1);
+            assertThat(limiter.client("10.0.0.2").getRemaining(BucketType.LOGIN)).isEqualTo(4);
+        }
+    }
+}
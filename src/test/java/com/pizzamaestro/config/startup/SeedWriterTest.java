@@ -0,0 +1,80 @@
+package com.pizzamaestro.config.startup;
+
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testy skrótu danych początkowych (pomijanie niezmienionych seedów) i aktualizacji seeda.
+ */
+@DisplayName("SeedWriter Tests")
+class SeedWriterTest {
+
+    private static final Document CAPUTO = new Document("type", "FLOUR").append("name", "Caputo Pizzeria");
+    private static final Document POOLISH = new Document("slug", "poolish");
+
+    @Test
+    @DisplayName("Te same dane dają ten sam skrót")
+    void shouldBeDeterministic() {
+        assertThat(SeedWriter.contentHash(List.of(CAPUTO, POOLISH)))
+                .isEqualTo(SeedWriter.contentHash(List.of(
+                        new Document("type", "FLOUR").append("name", "Caputo Pizzeria"),
+                        new Document("slug", "poolish"))))
+                .hasSize(64);
+    }
+
+    @Test
+    @DisplayName("Zmiana wartości lub kolejności zmienia skrót")
+    void shouldChangeWithContentAndOrder() {
+        String hash = SeedWriter.contentHash(List.of(CAPUTO, POOLISH));
+
+        assertThat(SeedWriter.contentHash(List.of(POOLISH, CAPUTO))).isNotEqualTo(hash);
+        assertThat(SeedWriter.contentHash(List.of(
+                new Document("type", "FLOUR").append("name", "Caputo Nuvola"), POOLISH))).isNotEqualTo(hash);
+        assertThat(SeedWriter.contentHash(List.of(CAPUTO))).isNotEqualTo(hash);
+    }
+
+    @Test
+    @DisplayName("Upsert nie cofa edycji ani dezaktywacji składnika przez admina")
+    void shouldKeepAdminOwnedFieldsOfExistingDocument() {
+        // given - składnik z seeda, potem dezaktywowany i opisany przez admina
+        Document seed = new Document("type", "FLOUR").append("name", "Caputo Pizzeria")
+                .append("country", "Włochy").append("description", "Mąka z seeda")
+                .append("active", true).append("verified", true);
+        Document existing = new Document("type", "FLOUR").append("name", "Caputo Pizzeria")
+                .append("country", "Italia").append("description", "Opis admina")
+                .append("active", false).append("verified", false).append("version", 3L);
+
+        // when
+        Update update = SeedWriter.seedUpdate(seed, Set.of("active", "verified", "description"));
+        Document updated = applyToExisting(existing, update.getUpdateObject());
+
+        // then
+        assertThat(updated.getBoolean("active")).isFalse();
+        assertThat(updated.getBoolean("verified")).isFalse();
+        assertThat(updated.getString("description")).isEqualTo("Opis admina");
+        assertThat(updated.getString("country")).isEqualTo("Włochy");
+        assertThat(updated.getLong("version")).isEqualTo(4L);
+        assertThat(update.getUpdateObject().get("$setOnInsert", Document.class))
+                .containsEntry("active", true)
+                .containsEntry("verified", true)
+                .containsEntry("description", "Mąka z seeda");
+    }
+
+    /**
+     * Semantyka upsertu dla dopasowanego dokumentu: $set i $inc, bez $setOnInsert.
+     */
+    private static Document applyToExisting(Document existing, Document update) {
+        Document result = new Document(existing);
+        update.get("$set", Document.class).forEach(result::put);
+        update.get("$inc", Document.class).forEach((field, delta) ->
+                result.put(field, result.getLong(field) + ((Number) delta).longValue()));
+        return result;
+    }
+}
@@ -0,0 +1,160 @@
+package com.pizzamaestro.config.startup;
+
+import com.pizzamaestro.config.startup.StartupOrchestrator.StageResult;
+import com.pizzamaestro.config.startup.StartupOrchestrator.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testy równoległego uruchamiania etapów startu.
+ */
+@DisplayName("StartupOrchestrator Tests")
+class StartupOrchestratorTest {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<String> executed = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private Runnable record(String name) {
+        return () -> executed.add(name);
+    }
+
+    @Nested
+    @DisplayName("Kolejność i równoległość")
+    class OrderingTests {
+
+        @Test
+        @DisplayName("Niezależne etapy działają jednocześnie")
+        void shouldRunIndependentStagesConcurrently() {
+            // given - każdy etap czeka, aż wystartują oba
+            CountDownLatch bothStarted = new CountDownLatch(2);
+            Runnable awaitOther = () -> {
+                bothStarted.countDown();
+                try {
+                    if (!bothStarted.await(5, TimeUnit.SECONDS)) {
+                        throw new IllegalStateException("Etapy nie działały równolegle");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            };
+
+            // when
+            List<StageResult> results = StartupOrchestrator.runStages(List.of(
+                    StartupStage.required("seed-users", awaitOther),
+                    StartupStage.required("seed-ingredients", awaitOther)), executor);
+
+            // then
+            assertThat(results).extracting(StageResult::status).containsOnly(Status.OK);
+        }
+
+        @Test
+        @DisplayName("Etap rusza po swoich zależnościach, wyniki w kolejności deklaracji")
+        void shouldRunDependenciesFirst() {
+            // when
+            List<StageResult> results = StartupOrchestrator.runStages(List.of(
+                    StartupStage.required("seed-recipes", record("seed-recipes"), "seed-users"),
+                    StartupStage.required("seed-users", record("seed-users"))), executor);
+
+            // then
+            assertThat(executed).containsExactly("seed-users", "seed-recipes");
+            assertThat(results).extracting(result -> result.stage().name())
+                    .containsExactly("seed-recipes", "seed-users");
+        }
+    }
+
+    @Nested
+    @DisplayName("Błędy")
+    class FailureTests {
+
+        @Test
+        @DisplayName("Etapy zależne od nieudanego są pomijane, pozostałe działają")
+        void shouldSkipDependentsOfFailedStage() {
+            // when
+            List<StageResult> results = StartupOrchestrator.runStages(List.of(
+                    StartupStage.required("seed-users", () -> {
+                        throw new IllegalStateException("Mongo niedostępne");
+                    }),
+                    StartupStage.required("seed-recipes", record("seed-recipes"), "seed-users"),
+                    StartupStage.optional("indexes-users", record("indexes-users"))), executor);
+
+            // then
+            assertThat(results).extracting(StageResult::status)
+                    .containsExactly(Status.FAILED, Status.SKIPPED, Status.OK);
+            assertThat(results.get(0).error()).hasMessage("Mongo niedostępne");
+            assertThat(executed).containsExactly("indexes-users");
+        }
+
+        @Test
+        @DisplayName("Nieznana zależność, powtórzona nazwa i cykl to błąd konfiguracji")
+        void shouldRejectInvalidStageGraph() {
+            assertThatThrownBy(() -> StartupOrchestrator.runStages(List.of(
+                    StartupStage.required("seed-recipes", record("a"), "seed-users")), executor))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("seed-users");
+
+            assertThatThrownBy(() -> StartupOrchestrator.runStages(List.of(
+                    StartupStage.required("seed-users", record("a")),
+                    StartupStage.required("seed-users", record("b"))), executor))
+                    .isInstanceOf(IllegalArgumentException.class);
+
+            assertThatThrownBy(() -> StartupOrchestrator.runStages(List.of(
+                    StartupStage.required("a", record("a"), "b"),
+                    StartupStage.required("b", record("b"), "a")), executor))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Cykl");
+            assertThat(executed).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Etapy odroczone")
+    class DeferredTests {
+
+        @Test
+        @DisplayName("Wzorce: pełna nazwa albo prefiks z gwiazdką")
+        void shouldMatchDeferredPatterns() {
+            List<String> patterns = List.of("seed-technique-guides", "indexes-*");
+
+            assertThat(StartupOrchestrator.isDeferred("indexes-users", patterns)).isTrue();
+            assertThat(StartupOrchestrator.isDeferred("seed-technique-guides", patterns)).isTrue();
+            assertThat(StartupOrchestrator.isDeferred("seed-users", patterns)).isFalse();
+            assertThat(StartupOrchestrator.isDeferred("seed-users", List.of())).isFalse();
+        }
+
+        @Test
+        @DisplayName("Zależności od etapów startu są usuwane, etap startu nie czeka na odroczony")
+        void shouldDropEagerDependencies() {
+            // given
+            StartupStage users = StartupStage.required("seed-users", record("seed-users"));
+            StartupStage indexes = StartupStage.optional("indexes-users", record("indexes-users"), "seed-users");
+
+            // when
+            List<StartupStage> deferred = StartupOrchestrator.withoutEagerDependencies(
+                    List.of(indexes), List.of(users));
+
+            // then
+            assertThat(deferred).singleElement()
+                    .satisfies(stage -> assertThat(stage.dependsOn()).isEmpty());
+            assertThatThrownBy(() -> StartupOrchestrator.withoutEagerDependencies(
+                    List.of(users), List.of(indexes)))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("odroczonego");
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.pizzamaestro.repository;
+
+import com.pizzamaestro.model.ActivePizza.ActivePizzaStatus;
+import com.pizzamaestro.model.ActivePizza.StepStatus;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testy budowania aktualizacji punktowych aktywnych pizz.
+ */
+@DisplayName("ActivePizzaUpdates Tests")
+class ActivePizzaUpdatesTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+    @Nested
+    @DisplayName("Aktualizacje kroków")
+    class StepUpdateTests {
+
+        @Test
+        @DisplayName("Status kroku ustawiany przez arrayFilters, bez zapisu całej tablicy")
+        void shouldSetOnlyFilteredStepFields() {
+            // when
+            Update update = ActivePizzaUpdates.stepStatus(3, StepStatus.COMPLETED, NOW, null, NOW);
+
+            // then
+            Document set = (Document) update.getUpdateObject().get("$set");
+            assertThat(set).containsEntry("steps.$[s].status", StepStatus.COMPLETED)
+                    .containsEntry("steps.$[s].actualTime", NOW)
+                    .containsEntry("lastUpdatedAt", NOW)
+                    .doesNotContainKey("steps");
+            assertThat(update.getArrayFilters()).hasSize(1);
+            assertThat(update.getArrayFilters().get(0).asDocument()).containsEntry("s.stepNumber", 3);
+        }
+
+        @Test
+        @DisplayName("Następny krok przechodzi w IN_PROGRESS tylko gdy nadal czeka")
+        void shouldAdvanceNextStepOnlyWhenPending() {
+            // when
+            Update update = ActivePizzaUpdates.stepStatus(3, StepStatus.COMPLETED, NOW, 4, NOW);
+
+            // then
+            Document set = (Document) update.getUpdateObject().get("$set");
+            assertThat(set).containsEntry("steps.$[next].status", StepStatus.IN_PROGRESS);
+            assertThat(update.getArrayFilters()).hasSize(2);
+            assertThat(update.getArrayFilters().get(1).asDocument())
+                    .containsEntry("next.stepNumber", 4)
+                    .containsEntry("next.status", StepStatus.PENDING);
+        }
+
+        @Test
+        @DisplayName("Każda aktualizacja podbija wersję")
+        void shouldIncrementVersion() {
+            assertThat(ActivePizzaUpdates.stepNotified(1, NOW).getUpdateObject().get("$inc", Document.class))
+                    .containsEntry("version", 1);
+            assertThat(ActivePizzaUpdates.status(ActivePizzaStatus.PAUSED, NOW).getUpdateObject().get("$inc", Document.class))
+                    .containsEntry("version", 1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Warunki")
+    class QueryTests {
+
+        @Test
+        @DisplayName("Warunek kroku uwzględnia właściciela i oczekiwany status")
+        void shouldGuardOnOwnerAndExpectedStatus() {
+            // when
+            Document query = ActivePizzaUpdates.stepQuery("p1", "u1", 2, StepStatus.IN_PROGRESS).getQueryObject();
+
+            // then
+            assertThat(query).containsEntry("id", "p1").containsEntry("userId", "u1");
+            Document elemMatch = query.get("steps", Document.class).get("$elemMatch", Document.class);
+            assertThat(elemMatch).containsEntry("stepNumber", 2).containsEntry("status", StepStatus.IN_PROGRESS);
+        }
+
+        @Test
+        @DisplayName("Zakończenie pizzy tylko gdy żaden krok nie czeka")
+        void shouldCompleteOnlyWhenNoPendingSteps() {
+            Document query = ActivePizzaUpdates.allStepsDoneQuery("p1").getQueryObject();
+
+            assertThat(query.get("steps.status", Document.class).get("$nin", Collection.class))
+                    .containsExactlyInAnyOrder(StepStatus.PENDING, StepStatus.IN_PROGRESS);
+            assertThat(query.get("status", Document.class)).containsEntry("$ne", ActivePizzaStatus.COMPLETED);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.pizzamaestro.repository;
+
+import com.pizzamaestro.model.User.AccountType;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testy budowania atomowych aktualizacji liczników użycia.
+ */
+@DisplayName("UserUsageUpdates Tests")
+class UserUsageUpdatesTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 14, 12, 30);
+
+    @Test
+    @DisplayName("Początek miesiąca to pierwszy dzień o północy")
+    void shouldComputeMonthStart() {
+        assertThat(UserUsageUpdates.monthStart(NOW)).isEqualTo(LocalDateTime.of(2025, 3, 1, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Warunek limitu: premium, nowy miesiąc albo licznik poniżej limitu")
+    @SuppressWarnings("unchecked")
+    void shouldAllowPremiumNewMonthOrBelowLimit() {
+        // when
+        Query query = UserUsageUpdates.calculationAllowedQuery("u1", 10, NOW);
+
+        // then
+        Document criteria = query.getQueryObject();
+        assertThat(criteria).containsEntry("id", "u1");
+        List<Document> or = (List<Document>) criteria.get("$or");
+        assertThat(or).hasSize(5);
+        assertThat(or.get(0).get("accountType", Document.class).get("$in", List.class))
+                .containsExactly(AccountType.PREMIUM, AccountType.PRO);
+        assertThat(or.get(2)).containsEntry(UserUsageUpdates.MONTH_RESET_AT, null);
+        assertThat(or.get(3).get(UserUsageUpdates.MONTH_RESET_AT, Document.class))
+                .containsEntry("$lt", LocalDateTime.of(2025, 3, 1, 0, 0));
+        assertThat(or.get(4).get(UserUsageUpdates.CALCULATIONS_THIS_MONTH, Document.class))
+                .containsEntry("$lt", 10);
+        assertThat(query.getFieldsObject()).containsEntry("usageStats", 1);
+    }
+
+    @Test
+    @DisplayName("Jeden etap $set: reset miesięczny warunkowo, inkrementacja, wersja")
+    void shouldBuildSingleConditionalSetStage() {
+        // when
+        AggregationUpdate update = UserUsageUpdates.addCalculations(1, NOW);
+
+        // then
+        List<Document> pipeline = update.toPipeline(Aggregation.DEFAULT_CONTEXT);
+        assertThat(pipeline).hasSize(1);
+        Document set = pipeline.get(0).get("$set", Document.class);
+        assertThat(set).containsKeys(
+                UserUsageUpdates.CALCULATIONS_THIS_MONTH,
+                UserUsageUpdates.TOTAL_CALCULATIONS,
+                UserUsageUpdates.SMS_USED_THIS_MONTH,
+                UserUsageUpdates.MONTH_RESET_AT,
+                UserUsageUpdates.LAST_CALCULATION_AT,
+                "version",
+                "updatedAt");
+        List<?> thisMonth = set.get(UserUsageUpdates.CALCULATIONS_THIS_MONTH, Document.class).get("$cond", List.class);
+        assertThat(thisMonth.get(1)).isEqualTo(1);
+        assertThat(set.get("version", Document.class).get("$add", List.class)).endsWith(1);
+    }
+
+    @Test
+    @DisplayName("Zwrot na granicy miesiąca: tylko licznik bieżącego miesiąca większy od zera")
+    void shouldReleaseOnlyWithinCurrentMonth() {
+        // given
+        LocalDateTime firstOfApril = LocalDateTime.of(2025, 4, 1, 0, 0, 5);
+
+        // when
+        Query query = UserUsageUpdates.calculationReleasableQuery("u1", firstOfApril);
+        Update update = UserUsageUpdates.releaseCalculation(firstOfApril);
+
+        // then - licznik z marca (monthResetAt < 1 kwietnia) nie pasuje, więc nie spadnie do -1
+        Document criteria = query.getQueryObject();
+        assertThat(criteria).containsEntry("id", "u1");
+        assertThat(criteria.get(UserUsageUpdates.MONTH_RESET_AT, Document.class))
+                .containsEntry("$gte", LocalDateTime.of(2025, 4, 1, 0, 0));
+        assertThat(criteria.get(UserUsageUpdates.CALCULATIONS_THIS_MONTH, Document.class))
+                .containsEntry("$gt", 0);
+        Document updateObject = update.getUpdateObject();
+        assertThat(updateObject.get("$inc", Document.class))
+                .containsEntry(UserUsageUpdates.CALCULATIONS_THIS_MONTH, -1)
+                .containsEntry("version", 1)
+                .doesNotContainKey(UserUsageUpdates.TOTAL_CALCULATIONS);
+        assertThat(updateObject.get("$set", Document.class))
+                .containsOnlyKeys("updatedAt");
+    }
+
+    @Test
+    @DisplayName("Logowanie: $max na lastLoginAt, bez liczników i wersji")
+    void shouldRecordLoginWithoutVersionBump() {
+        // when
+        Update update = UserUsageUpdates.recordLogin(NOW);
+
+        // then
+        assertThat(update.getUpdateObject().keySet()).containsExactly("$max");
+        assertThat(update.getUpdateObject().get("$max", Document.class))
+                .containsOnlyKeys(UserUsageUpdates.LAST_LOGIN_AT)
+                .containsEntry(UserUsageUpdates.LAST_LOGIN_AT, NOW);
+    }
+}
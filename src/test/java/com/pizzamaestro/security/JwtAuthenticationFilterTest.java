@@ -0,0 +1,155 @@
+package com.pizzamaestro.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testy filtra JWT z cache zweryfikowanych tokenów - bez kontekstu Springa.
+ */
+@DisplayName("JwtAuthenticationFilter Tests")
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "testSecretKeyMustBeAtLeast32CharsLongForHS256Algorithm";
+    private static final String EMAIL = "jan@example.com";
+
+    private final AtomicInteger parses = new AtomicInteger();
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+
+    private final JwtTokenProvider tokenProvider =
+            new JwtTokenProvider(SECRET, TimeUnit.HOURS.toMillis(1), TimeUnit.DAYS.toMillis(7)) {
+                @Override
+                public VerifiedToken parseToken(String token) {
+                    parses.incrementAndGet();
+                    return super.parseToken(token);
+                }
+            };
+    private final UserDetailsService userDetailsService = email -> {
+        lookups.incrementAndGet();
+        return new UserPrincipal("u1", email, "hash", true, true, true, true,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    };
+    private final VerifiedTokenCache tokenCache = new VerifiedTokenCache(new SimpleMeterRegistry(), 100, 300, now::get);
+    private final JwtAuthenticationFilter filter =
+            new JwtAuthenticationFilter(tokenProvider, userDetailsService, tokenCache);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/recipes");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Nested
+    @DisplayName("Weryfikacja")
+    class VerificationTests {
+
+        @Test
+        @DisplayName("Kolejne żądania z tym samym tokenem nie parsują go i nie czytają użytkownika")
+        void shouldVerifyTokenOnce() throws Exception {
+            // given
+            String token = tokenProvider.generateAccessToken(EMAIL);
+
+            // when
+            Authentication first = authenticate(token);
+            Authentication second = authenticate(token);
+            Authentication third = authenticate(token);
+
+            // then
+            assertThat(first.getName()).isEqualTo(EMAIL);
+            assertThat(second.getName()).isEqualTo(EMAIL);
+            assertThat(third.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+            assertThat(parses.get()).isEqualTo(1);
+            assertThat(lookups.get()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Token z obcym podpisem nie uwierzytelnia i nie trafia do cache")
+        void shouldRejectForeignSignature() throws Exception {
+            // given
+            JwtTokenProvider other = new JwtTokenProvider(
+                    "anotherSecretKeyMustBeAtLeast32CharsLongForHS256Algo", 60_000, 60_000);
+            String forged = other.generateAccessToken(EMAIL);
+
+            // when / then
+            assertThat(authenticate(forged)).isNull();
+            assertThat(authenticate("not.a.jwt")).isNull();
+            assertThat(lookups.get()).isZero();
+            assertThat(tokenCache.size()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Unieważnianie")
+    class InvalidationTests {
+
+        @Test
+        @DisplayName("Wpis wygasa razem z tokenem")
+        void shouldExpireWithToken() {
+            // given
+            UserPrincipal user = new UserPrincipal("u1", EMAIL, "hash", true, true, true, true, List.of());
+            tokenCache.put("t", new JwtTokenProvider.VerifiedToken(EMAIL, now.get() + 1_000), user);
+
+            // when / then
+            assertThat(tokenCache.get("t")).isSameAs(user);
+            now.addAndGet(1_000);
+            assertThat(tokenCache.get("t")).isNull();
+        }
+
+        @Test
+        @DisplayName("Wpis żyje najwyżej max-ttl, nawet gdy token jest ważny dłużej")
+        void shouldCapTtl() {
+            // given
+            UserPrincipal user = new UserPrincipal("u1", EMAIL, "hash", true, true, true, true, List.of());
+            tokenCache.put("t", new JwtTokenProvider.VerifiedToken(EMAIL, now.get() + TimeUnit.HOURS.toMillis(1)), user);
+
+            // when
+            now.addAndGet(TimeUnit.SECONDS.toMillis(301));
+
+            // then
+            assertThat(tokenCache.get("t")).isNull();
+        }
+
+        @Test
+        @DisplayName("Zmiana hasła lub ról - wszystkie tokeny użytkownika są ładowane od nowa")
+        void shouldReloadUserAfterInvalidation() throws Exception {
+            // given
+            String token = tokenProvider.generateAccessToken(EMAIL);
+            String otherToken = tokenProvider.generateAccessToken("anna@example.com");
+            authenticate(token);
+            authenticate(otherToken);
+
+            // when
+            tokenCache.invalidateUser("JAN@example.com");
+            authenticate(token);
+            authenticate(otherToken);
+
+            // then
+            assertThat(lookups.get()).isEqualTo(3);
+            assertThat(parses.get()).isEqualTo(3);
+        }
+    }
+}
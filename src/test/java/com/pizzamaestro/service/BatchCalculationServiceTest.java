@@ -0,0 +1,181 @@
+package com.pizzamaestro.service;
+
+import com.pizzamaestro.dto.request.BatchCalculationRequest;
+import com.pizzamaestro.dto.request.CalculationRequest;
+import com.pizzamaestro.dto.response.BatchCalculationResult;
+import com.pizzamaestro.model.PizzaStyle;
+import com.pizzamaestro.model.Recipe;
+import com.pizzamaestro.service.engine.DoughCalculationEngine;
+import com.pizzamaestro.service.strategy.ColdFermentationStrategy;
+import com.pizzamaestro.service.strategy.FermentationStrategyFactory;
+import com.pizzamaestro.service.strategy.MixedFermentationStrategy;
+import com.pizzamaestro.service.strategy.RoomTemperatureStrategy;
+import com.pizzamaestro.service.strategy.SameDayStrategy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testy kalkulacji wsadowej - bez kontekstu Springa.
+ */
+@DisplayName("BatchCalculationService Tests")
+class BatchCalculationServiceTest {
+
+    private ValidatorFactory validatorFactory;
+    private BatchCalculationService batchService;
+
+    private CalculationRequest base;
+
+    @BeforeEach
+    void setUp() {
+        FermentationStrategyFactory factory = new FermentationStrategyFactory(List.of(
+                new RoomTemperatureStrategy(), new ColdFermentationStrategy(),
+                new MixedFermentationStrategy(), new SameDayStrategy()));
+        factory.init();
+        DoughCalculatorService calculatorService = new DoughCalculatorService(
+                new DoughCalculationEngine(factory), null, new EnvironmentalCorrectionService());
+        CalculationResultCache cache = new CalculationResultCache(
+                calculatorService, new SimpleMeterRegistry(), true, 100);
+
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        batchService = new BatchCalculationService(cache, validatorFactory.getValidator(), 2, 50, 10);
+
+        base = CalculationRequest.builder()
+                .pizzaStyle(PizzaStyle.NEAPOLITAN)
+                .numberOfPizzas(4)
+                .ballWeight(250)
+                .hydration(65.0)
+                .saltPercentage(2.5)
+                .yeastType(Recipe.YeastType.FRESH)
+                .fermentationMethod(Recipe.FermentationMethod.ROOM_TEMPERATURE)
+                .totalFermentationHours(8)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchService.shutdown();
+        validatorFactory.close();
+    }
+
+    private BatchCalculationRequest.ParameterRange range(double from, double to, double step) {
+        return BatchCalculationRequest.ParameterRange.builder().from(from).to(to).step(step).build();
+    }
+
+    @Nested
+    @DisplayName("Rozwijanie batcha")
+    class ExpandTests {
+
+        @Test
+        @DisplayName("Siatka jest iloczynem kartezjańskim zakresów")
+        void shouldExpandGrid() {
+            // given - hydratacja 60-75 co 5 × fermentacja 8-24 co 8
+            BatchCalculationRequest batch = BatchCalculationRequest.builder()
+                    .base(base)
+                    .hydration(range(60, 75, 5))
+                    .fermentationHours(range(8, 24, 8))
+                    .build();
+
+            // when
+            List<CalculationRequest> requests = batchService.expand(batch);
+
+            // then
+            assertThat(requests).hasSize(12);
+            assertThat(requests).extracting(CalculationRequest::getHydration)
+                    .containsOnly(60.0, 65.0, 70.0, 75.0);
+            assertThat(requests).extracting(CalculationRequest::getTotalFermentationHours)
+                    .containsOnly(8, 16, 24);
+            assertThat(base.getHydration()).isEqualTo(65.0);
+        }
+
+        @Test
+        @DisplayName("Powinien odrzucić zbyt duży batch")
+        void shouldRejectTooLargeBatch() {
+            BatchCalculationRequest batch = BatchCalculationRequest.builder()
+                    .base(base)
+                    .hydration(range(50, 90, 1))
+                    .fermentationHours(range(8, 72, 8))
+                    .build();
+
+            assertThatThrownBy(() -> batchService.expand(batch))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("maksymalnie");
+        }
+
+        @Test
+        @DisplayName("Powinien odrzucić jednoczesną listę i siatkę")
+        void shouldRejectListAndGridTogether() {
+            BatchCalculationRequest batch = BatchCalculationRequest.builder()
+                    .requests(List.of(base))
+                    .base(base)
+                    .build();
+
+            assertThatThrownBy(() -> batchService.expand(batch))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("Koszt limitu to jeden żeton na rozpoczęte 10 pozycji")
+        void shouldComputeRateLimitCost() {
+            assertThat(batchService.rateLimitCost(1)).isEqualTo(1);
+            assertThat(batchService.rateLimitCost(10)).isEqualTo(1);
+            assertThat(batchService.rateLimitCost(11)).isEqualTo(2);
+            assertThat(batchService.rateLimitCost(50)).isEqualTo(5);
+        }
+    }
+
+    @Nested
+    @DisplayName("Przetwarzanie")
+    class ProcessTests {
+
+        @Test
+        @DisplayName("Wyniki przychodzą w kolejności pozycji")
+        void shouldEmitResultsInOrder() {
+            // given
+            List<CalculationRequest> requests = batchService.expand(BatchCalculationRequest.builder()
+                    .base(base)
+                    .hydration(range(55, 80, 1))
+                    .build());
+            List<BatchCalculationResult> results = new ArrayList<>();
+
+            // when
+            batchService.process(requests, results::add);
+
+            // then
+            assertThat(results).hasSize(26);
+            for (int i = 0; i < results.size(); i++) {
+                assertThat(results.get(i).getIndex()).isEqualTo(i);
+                assertThat(results.get(i).getHydration()).isEqualTo(55.0 + i);
+                assertThat(results.get(i).getResult().getBakerPercentages().getWater()).isEqualTo(55.0 + i);
+            }
+        }
+
+        @Test
+        @DisplayName("Błędna pozycja nie przerywa batcha")
+        void shouldReportInvalidItemWithoutFailingBatch() {
+            // given
+            CalculationRequest invalid = base.toBuilder().numberOfPizzas(0).build();
+            List<BatchCalculationResult> results = new ArrayList<>();
+
+            // when
+            batchService.process(List.of(base, invalid, base), results::add);
+
+            // then
+            assertThat(results).hasSize(3);
+            assertThat(results.get(0).getResult()).isNotNull();
+            assertThat(results.get(1).getResult()).isNull();
+            assertThat(results.get(1).getError()).contains("Liczba pizz");
+            assertThat(results.get(2).getResult()).isNotNull();
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.pizzamaestro.service;
+
+import com.pizzamaestro.dto.request.CalculationRequest;
+import com.pizzamaestro.dto.response.CalculationResponse;
+import com.pizzamaestro.model.OvenType;
+import com.pizzamaestro.model.PizzaStyle;
+import com.pizzamaestro.model.Recipe;
+import com.pizzamaestro.service.engine.DoughCalculationEngine;
+import com.pizzamaestro.service.strategy.ColdFermentationStrategy;
+import com.pizzamaestro.service.strategy.FermentationStrategyFactory;
+import com.pizzamaestro.service.strategy.MixedFermentationStrategy;
+import com.pizzamaestro.service.strategy.RoomTemperatureStrategy;
+import com.pizzamaestro.service.strategy.SameDayStrategy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testy cache wyników kalkulacji - bez kontekstu Springa.
+ */
+@DisplayName("CalculationResultCache Tests")
+class CalculationResultCacheTest {
+
+    private DoughCalculatorService calculatorService;
+    private SimpleMeterRegistry meterRegistry;
+    private CalculationResultCache cache;
+
+    private CalculationRequest.CalculationRequestBuilder defaultRequestBuilder;
+
+    @BeforeEach
+    void setUp() {
+        FermentationStrategyFactory factory = new FermentationStrategyFactory(List.of(
+                new RoomTemperatureStrategy(), new ColdFermentationStrategy(),
+                new MixedFermentationStrategy(), new SameDayStrategy()));
+        factory.init();
+        calculatorService = new DoughCalculatorService(
+                new DoughCalculationEngine(factory), null, new EnvironmentalCorrectionService());
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new CalculationResultCache(calculatorService, meterRegistry, true, 100);
+
+        defaultRequestBuilder = CalculationRequest.builder()
+                .pizzaStyle(PizzaStyle.NEAPOLITAN)
+                .numberOfPizzas(4)
+                .ballWeight(250)
+                .hydration(65.0)
+                .saltPercentage(2.5)
+                .yeastType(Recipe.YeastType.FRESH)
+                .fermentationMethod(Recipe.FermentationMethod.COLD_FERMENTATION)
+                .totalFermentationHours(24);
+    }
+
+    @Nested
+    @DisplayName("Klucz cache")
+    class KeyTests {
+
+        @Test
+        @DisplayName("Brak temperatur i jawne wartości domyślne trafiają w ten sam wpis")
+        void shouldNormalizeDefaultTemperatures() {
+            // given
+            CalculationRequest implicit = defaultRequestBuilder.build();
+            CalculationRequest explicit = defaultRequestBuilder
+                    .roomTemperature(22.0)
+                    .fridgeTemperature(4.0)
+                    .build();
+
+            // when
+            cache.calculate(implicit);
+            cache.calculate(explicit);
+
+            // then
+            assertThat(cache.size()).isEqualTo(1);
+            assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count())
+                    .isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Pola nie wpływające na wynik nie rozdzielają wpisów")
+        void shouldIgnoreFieldsWithoutEffect() {
+            // given - preferment bez typu i zapis receptury nie zmieniają wyniku
+            CalculationRequest plain = defaultRequestBuilder.build();
+            CalculationRequest noise = defaultRequestBuilder
+                    .usePreferment(true)
+                    .prefermentPercentage(40.0)
+                    .recipeName("Moja pizza")
+                    .saveRecipe(true)
+                    .build();
+
+            // when
+            CalculationResponse first = cache.calculate(plain);
+            CalculationResponse second = cache.calculate(noise);
+
+            // then
+            assertThat(cache.size()).isEqualTo(1);
+            assertThat(second).usingRecursiveComparison().isEqualTo(first);
+        }
+
+        @Test
+        @DisplayName("Jawny piec domowy nie jest mylony z domyślnym piecem stylu")
+        void shouldDistinguishExplicitOvenType() {
+            // given
+            CalculationRequest implicit = defaultRequestBuilder.pizzaStyle(PizzaStyle.NEW_YORK).build();
+            CalculationRequest explicit = defaultRequestBuilder
+                    .pizzaStyle(PizzaStyle.NEW_YORK)
+                    .ovenType(OvenType.HOME_OVEN)
+                    .build();
+
+            // when
+            CalculationResponse fromImplicit = cache.calculate(implicit);
+            CalculationResponse fromExplicit = cache.calculate(explicit);
+
+            // then
+            assertThat(fromImplicit).usingRecursiveComparison().isEqualTo(calculatorService.calculate(implicit));
+            assertThat(fromExplicit).usingRecursiveComparison().isEqualTo(calculatorService.calculate(explicit));
+        }
+    }
+
+    @Nested
+    @DisplayName("Trafienia")
+    class HitTests {
+
+        @Test
+        @DisplayName("Trafienie zwraca wynik identyczny z bezpośrednią kalkulacją")
+        void shouldReturnSameResultAsService() {
+            // given
+            CalculationRequest request = defaultRequestBuilder
+                    .usePreferment(true)
+                    .prefermentType(Recipe.PrefermentType.POOLISH)
+                    .build();
+            cache.calculate(request);
+
+            // when
+            CalculationResponse cached = cache.calculate(request);
+
+            // then
+            assertThat(cached).usingRecursiveComparison().isEqualTo(calculatorService.calculate(request));
+        }
+
+        @Test
+        @DisplayName("Względne czasy harmonogramu są liczone na nowo przy każdym trafieniu")
+        void shouldRecomputeRelativeTimesOnHit() {
+            // given
+            CalculationRequest request = defaultRequestBuilder
+                    .generateSchedule(true)
+                    .plannedBakeTime(LocalDateTime.now().plusDays(2))
+                    .build();
+            CalculationResponse first = cache.calculate(request);
+            first.getSchedule().forEach(step -> step.setRelativeTime("zmienione"));
+
+            // when
+            CalculationResponse second = cache.calculate(request);
+
+            // then - modyfikacja zwróconej kopii nie psuje wpisu w cache
+            assertThat(second.getSchedule()).isNotEmpty();
+            assertThat(second.getSchedule())
+                    .allSatisfy(step -> assertThat(step.getRelativeTime()).isNotEqualTo("zmienione"));
+        }
+
+        @Test
+        @DisplayName("Modyfikacja zwróconej odpowiedzi nie zmienia kolejnego trafienia")
+        void shouldNotShareNestedResultsBetweenHits() {
+            // given
+            CalculationRequest request = defaultRequestBuilder
+                    .usePreferment(true)
+                    .prefermentType(Recipe.PrefermentType.POOLISH)
+                    .additionalIngredients(List.of(CalculationRequest.AdditionalIngredientRequest.builder()
+                            .name("Miód")
+                            .percentage(1.0)
+                            .build()))
+                    .build();
+            CalculationResponse first = cache.calculate(request);
+
+            // when
+            first.getIngredients().setFlourGrams(-1);
+            first.getIngredients().getAdditionalIngredients().get(0).setGrams(-1);
+            first.getIngredients().getAdditionalIngredients().clear();
+            first.getBakerPercentages().setWater(-1);
+            first.getPreferment().setFlourGrams(-1);
+            first.getMainDough().setWaterGrams(-1);
+            first.getTips().clear();
+            first.getOvenInfo().setTemperature(-1);
+            CalculationResponse second = cache.calculate(request);
+
+            // then
+            assertThat(second).usingRecursiveComparison().isEqualTo(calculatorService.calculate(request));
+            assertThat(second.getIngredients().getAdditionalIngredients()).hasSize(1);
+            assertThat(second.getTips()).isNotEmpty();
+        }
+
+        @Test
+        @DisplayName("Błędne żądania nie są cache'owane")
+        void shouldNotCacheFailures() {
+            // given
+            CalculationRequest invalid = defaultRequestBuilder.numberOfPizzas(0).build();
+
+            // when / then
+            assertThatThrownBy(() -> cache.calculate(invalid))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> cache.calculate(null))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThat(cache.size()).isZero();
+        }
+    }
+}
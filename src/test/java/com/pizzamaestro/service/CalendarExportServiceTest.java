@@ -0,0 +1,94 @@
+package com.pizzamaestro.service;
+
+import com.pizzamaestro.model.ActivePizza;
+import com.pizzamaestro.model.ActivePizza.ScheduledStep;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testy eksportu iCalendar - wersja strumieniowa ma dawać ten sam plik co tekstowa.
+ */
+@DisplayName("CalendarExportService Tests")
+class CalendarExportServiceTest {
+
+    private final CalendarExportService service = new CalendarExportService();
+
+    private static ActivePizza pizza(int steps) {
+        LocalDateTime start = LocalDateTime.of(2025, 3, 1, 10, 0);
+        List<ScheduledStep> stepList = new ArrayList<>();
+        for (int i = 1; i <= steps; i++) {
+            stepList.add(ScheduledStep.builder()
+                    .stepNumber(i)
+                    .title("Krok " + i + ", składanie; ciasto")
+                    .description("Opis kroku " + i)
+                    .scheduledTime(start.plusMinutes(30L * i))
+                    .durationMinutes(20)
+                    .temperature(21.5)
+                    .build());
+        }
+        return ActivePizza.builder()
+                .id("p1")
+                .name("Neapolitańska")
+                .steps(stepList)
+                .build();
+    }
+
+    /**
+     * UID i DTSTAMP są generowane przy każdym eksporcie.
+     */
+    private static String withoutVolatileLines(String ics) {
+        return ics.replaceAll("(?m)^(UID|DTSTAMP):.*\r\n", "");
+    }
+
+    @Test
+    @DisplayName("Strumień zawiera ten sam kalendarz co wersja tekstowa")
+    void shouldStreamSameCalendarAsString() throws IOException {
+        // given
+        ActivePizza pizza = pizza(60);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        service.writeICalForActivePizza(pizza, out);
+
+        // then
+        String streamed = out.toString(StandardCharsets.UTF_8);
+        assertThat(withoutVolatileLines(streamed))
+                .isEqualTo(withoutVolatileLines(service.generateICalForActivePizza(pizza)));
+        assertThat(streamed).startsWith("BEGIN:VCALENDAR\r\n").endsWith("END:VCALENDAR\r\n");
+    }
+
+    @Test
+    @DisplayName("Duży kalendarz jest wysyłany wieloma paczkami")
+    void shouldWriteInChunks() throws IOException {
+        // given
+        List<Integer> writes = new ArrayList<>();
+        OutputStream out = new OutputStream() {
+            @Override
+            public void write(int b) {
+                writes.add(1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                writes.add(len);
+            }
+        };
+
+        // when
+        service.writeICalForActivePizza(pizza(200), out);
+
+        // then
+        assertThat(writes).hasSizeGreaterThan(5);
+        assertThat(writes).allSatisfy(len -> assertThat(len).isLessThanOrEqualTo(16 * 1024));
+    }
+}
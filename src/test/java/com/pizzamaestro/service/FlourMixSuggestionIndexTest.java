@@ -0,0 +1,222 @@
+package com.pizzamaestro.service;
+
+import com.pizzamaestro.model.Ingredient;
+import com.pizzamaestro.model.PizzaStyle;
+import com.pizzamaestro.service.FlourMixSuggestionService.FlourMixSuggestion;
+import com.pizzamaestro.service.ingredient.IngredientCatalogChangedEvent;
+import com.pizzamaestro.service.ingredient.IngredientCatalogSnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testy indeksu sugestii miksów mąk.
+ */
+@DisplayName("FlourMixSuggestionIndex Tests")
+class FlourMixSuggestionIndexTest {
+
+    private static Ingredient flour(String id) {
+        return Ingredient.builder()
+                .id(id)
+                .type(Ingredient.IngredientType.FLOUR)
+                .active(true)
+                .flourParameters(Ingredient.FlourParameters.builder().proteinContent(12.5).build())
+                .build();
+    }
+
+    private final List<Ingredient> flours = new ArrayList<>(List.of(flour("a"), flour("b"), flour("c")));
+    private final AtomicReference<IngredientCatalogSnapshot> catalog =
+            new AtomicReference<>(new IngredientCatalogSnapshot(1, "3:0", flours));
+    private final List<String> computed = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean failIndexBuild = new AtomicBoolean();
+    private final AtomicLong nanos = new AtomicLong();
+    private final FlourMixSuggestionIndex index = new FlourMixSuggestionIndex((style, ids) -> {
+        if (failIndexBuild.get() && Thread.currentThread().getName().startsWith("flour-mix-index")) {
+            throw new IllegalStateException("Błąd przeliczenia");
+        }
+        computed.add(style + ":" + ids);
+        return FlourMixSuggestion.builder().success(true).message(style + " " + ids).build();
+    }, catalog::get, 100, 30, nanos::get);
+
+    private void awaitIndex() throws Exception {
+        index.styleIndexReady().get(5, TimeUnit.SECONDS);
+        computed.clear();
+    }
+
+    @Nested
+    @DisplayName("Cały katalog")
+    class WholeCatalogTests {
+
+        @Test
+        @DisplayName("Po zmianie katalogu wszystkie style są przeliczane raz, potem z indeksu")
+        void shouldServeAllStylesFromIndex() throws Exception {
+            // given
+            index.onCatalogChanged(new IngredientCatalogChangedEvent(catalog.get()));
+            awaitIndex();
+
+            // when
+            FlourMixSuggestion first = index.suggestForStyle(PizzaStyle.NEAPOLITAN, null);
+            FlourMixSuggestion second = index.suggestForStyle(PizzaStyle.NEAPOLITAN, List.of());
+
+            // then
+            assertThat(first).isSameAs(second);
+            assertThat(first.getMessage()).isEqualTo("NEAPOLITAN null");
+            assertThat(computed).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Lista obejmująca cały katalog trafia w indeks stylów")
+        void shouldTreatFullListAsWholeCatalog() throws Exception {
+            // given
+            index.onCatalogChanged(new IngredientCatalogChangedEvent(catalog.get()));
+            awaitIndex();
+
+            // when
+            FlourMixSuggestion suggestion = index.suggestForStyle(PizzaStyle.ROMAN, List.of("c", "a", "b", "a"));
+
+            // then
+            assertThat(suggestion.getMessage()).isEqualTo("ROMAN null");
+            assertThat(computed).isEmpty();
+            assertThat(index.memoSize()).isZero();
+        }
+
+        @Test
+        @DisplayName("Nowa wersja katalogu unieważnia indeks")
+        void shouldRebuildAfterCatalogChange() throws Exception {
+            // given
+            index.onCatalogChanged(new IngredientCatalogChangedEvent(catalog.get()));
+            awaitIndex();
+
+            // when
+            flours.add(flour("d"));
+            catalog.set(new IngredientCatalogSnapshot(2, "4:0", flours));
+            index.suggestForStyle(PizzaStyle.NEAPOLITAN, null);
+
+            // then - przeliczenie v2 obejmuje wszystkie style, potem znów z indeksu
+            index.styleIndexReady().get(5, TimeUnit.SECONDS);
+            assertThat(computed).contains("NEAPOLITAN:null", "ROMAN:null");
+            computed.clear();
+            index.suggestForStyle(PizzaStyle.NEAPOLITAN, null);
+            assertThat(computed).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Błąd przeliczenia")
+    class FailureTests {
+
+        private CompletableFuture<?> failedIndex() {
+            failIndexBuild.set(true);
+            index.onCatalogChanged(new IngredientCatalogChangedEvent(catalog.get()));
+            CompletableFuture<?> failed = index.styleIndexReady();
+            assertThatThrownBy(() -> failed.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+            failIndexBuild.set(false);
+            return failed;
+        }
+
+        @Test
+        @DisplayName("Przed upływem backoffu żądania liczą styl same, bez ponownego przeliczenia")
+        void shouldNotRebuildBeforeBackoff() {
+            // given
+            CompletableFuture<?> failed = failedIndex();
+            nanos.addAndGet(TimeUnit.SECONDS.toNanos(29));
+
+            // when
+            for (int i = 0; i < 10; i++) {
+                index.suggestForStyle(PizzaStyle.NEAPOLITAN, null);
+            }
+
+            // then
+            assertThat(index.styleIndexReady()).isSameAs(failed);
+            assertThat(computed).hasSize(10).containsOnly("NEAPOLITAN:null");
+        }
+
+        @Test
+        @DisplayName("Po backoffie pierwsze żądanie ponawia przeliczenie")
+        void shouldRetryAfterBackoff() throws Exception {
+            // given
+            CompletableFuture<?> failed = failedIndex();
+            nanos.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+            // when
+            index.suggestForStyle(PizzaStyle.NEAPOLITAN, null);
+
+            // then
+            assertThat(index.styleIndexReady()).isNotSameAs(failed);
+            awaitIndex();
+            index.suggestForStyle(PizzaStyle.ROMAN, null);
+            assertThat(computed).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Zdarzenie zmiany katalogu ponawia przeliczenie od razu")
+        void shouldRetryOnCatalogChangedEvent() throws Exception {
+            // given
+            CompletableFuture<?> failed = failedIndex();
+
+            // when
+            index.onCatalogChanged(new IngredientCatalogChangedEvent(catalog.get()));
+
+            // then
+            assertThat(index.styleIndexReady()).isNotSameAs(failed);
+            awaitIndex();
+            index.suggestForStyle(PizzaStyle.NEAPOLITAN, null);
+            assertThat(computed).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Własne listy mąk")
+    class UserMemoTests {
+
+        @Test
+        @DisplayName("Kolejność, duplikaty i nieznane id dają ten sam wpis memo")
+        void shouldMemoizeBySortedKnownIds() {
+            // when
+            FlourMixSuggestion first = index.suggestForStyle(PizzaStyle.NEAPOLITAN, List.of("b", "a"));
+            FlourMixSuggestion second = index.suggestForStyle(PizzaStyle.NEAPOLITAN, List.of("a", "b", "b", "zzz"));
+            index.suggestForStyle(PizzaStyle.ROMAN, List.of("a", "b"));
+
+            // then
+            assertThat(second).isSameAs(first);
+            assertThat(computed).containsExactly("NEAPOLITAN:[b, a]", "ROMAN:[a, b]");
+            assertThat(index.memoSize()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Lista bez znanych mąk trafia do serwisu w oryginale (komunikat o braku mąk)")
+        void shouldPassUnknownIdsToService() {
+            // when
+            index.suggestForStyle(PizzaStyle.NEAPOLITAN, List.of("nieznana"));
+
+            // then
+            assertThat(computed).containsExactly("NEAPOLITAN:[nieznana]");
+        }
+
+        @Test
+        @DisplayName("Memo jest kluczowane wersją katalogu")
+        void shouldKeyMemoByCatalogVersion() {
+            // given
+            index.suggestForStyle(PizzaStyle.NEAPOLITAN, List.of("a", "b"));
+
+            // when
+            catalog.set(new IngredientCatalogSnapshot(2, "3:1", flours));
+            index.suggestForStyle(PizzaStyle.NEAPOLITAN, List.of("a", "b"));
+
+            // then
+            assertThat(computed).hasSize(2);
+        }
+    }
+}
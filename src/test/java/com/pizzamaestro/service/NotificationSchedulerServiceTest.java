@@ -0,0 +1,135 @@
+package com.pizzamaestro.service;
+
+import com.pizzamaestro.model.ActivePizza;
+import com.pizzamaestro.model.ActivePizza.ActivePizzaStatus;
+import com.pizzamaestro.service.notification.SmsDeadLetterStore;
+import com.pizzamaestro.service.notification.SmsDispatcher;
+import com.pizzamaestro.service.notification.SmsSender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testy powiadomień o ukończonych pizzach - bez Mongo, Twilio i kontekstu Springa.
+ */
+@DisplayName("NotificationSchedulerService Tests")
+class NotificationSchedulerServiceTest {
+
+    private final List<String> sentTo = new CopyOnWriteArrayList<>();
+    private SmsDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        SmsSender sender = (to, body) -> sentTo.add(to);
+        SmsDeadLetterStore store = (to, body, userId, attempts, error) -> { };
+        dispatcher = new SmsDispatcher(sender, store, new SimpleMeterRegistry(), 100, 2, 1, 3, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    private NotificationSchedulerService shard(int shardCount, int shardIndex) {
+        return new NotificationSchedulerService(null, null, null, dispatcher, null, shardCount, shardIndex, 30);
+    }
+
+    private static ActivePizza completed(int i) {
+        return completed(i, "+4860000" + String.format("%04d", i));
+    }
+
+    private static ActivePizza completed(int i, String phone) {
+        return ActivePizza.builder()
+                .id("pizza-" + i)
+                .userId("user-" + i)
+                .name("Margherita " + i)
+                .status(ActivePizzaStatus.COMPLETED)
+                .smsNotificationsEnabled(true)
+                .notificationPhone(phone)
+                .build();
+    }
+
+    private void awaitDrained() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (dispatcher.inFlight() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(dispatcher.inFlight()).isZero();
+    }
+
+    @Nested
+    @DisplayName("Sharding")
+    class ShardingTests {
+
+        @Test
+        @DisplayName("Dwa shardy - każda ukończona pizza dostaje gratulacje dokładnie raz")
+        void shouldEnqueueEachCompletedPizzaExactlyOnce() throws InterruptedException {
+            // given
+            List<ActivePizza> pizzas = IntStream.range(0, 50).mapToObj(i -> completed(i)).toList();
+            NotificationSchedulerService first = shard(2, 0);
+            NotificationSchedulerService second = shard(2, 1);
+
+            // when
+            int enqueuedByFirst = first.notifyCompleted(pizzas);
+            int enqueuedBySecond = second.notifyCompleted(pizzas);
+            awaitDrained();
+
+            // then
+            assertThat(enqueuedByFirst).isPositive();
+            assertThat(enqueuedBySecond).isPositive();
+            assertThat(enqueuedByFirst + enqueuedBySecond).isEqualTo(pizzas.size());
+            assertThat(sentTo).doesNotHaveDuplicates()
+                    .containsExactlyInAnyOrderElementsOf(pizzas.stream().map(ActivePizza::getNotificationPhone).toList());
+        }
+
+        @Test
+        @DisplayName("Pizza bez numeru telefonu jest pomijana")
+        void shouldSkipPizzaWithoutPhone() {
+            // given
+            ActivePizza withoutPhone = completed(1, null);
+
+            // when
+            int enqueued = shard(1, 0).notifyCompleted(List.of(withoutPhone));
+
+            // then
+            assertThat(enqueued).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Zapytanie")
+    class QueryTests {
+
+        @Test
+        @DisplayName("Filtr po statusie, czasie i SMS po stronie Mongo, projekcja z nazwą")
+        void shouldNarrowCompletedPizzasQuery() {
+            // given
+            LocalDateTime since = LocalDateTime.of(2026, 10, 16, 12, 0);
+
+            // when
+            Query query = NotificationSchedulerService.completedPizzasQuery(since);
+
+            // then
+            Document criteria = query.getQueryObject();
+            assertThat(criteria.get("status")).isEqualTo(ActivePizzaStatus.COMPLETED);
+            assertThat(criteria.get("lastUpdatedAt", Document.class)).containsEntry("$gte", since);
+            assertThat(criteria.get("smsNotificationsEnabled")).isEqualTo(true);
+            assertThat(query.getFieldsObject())
+                    .containsKeys("name", "userId", "notificationPhone")
+                    .doesNotContainKey("steps");
+        }
+    }
+}
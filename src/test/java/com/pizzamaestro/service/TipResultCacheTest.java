@@ -0,0 +1,132 @@
+package com.pizzamaestro.service;
+
+import com.pizzamaestro.model.PizzaStyle;
+import com.pizzamaestro.model.Recipe;
+import com.pizzamaestro.service.TipEngineService.CalculationContext;
+import com.pizzamaestro.service.TipEngineService.TipCollection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testy cache tipów - bez kontekstu Springa.
+ */
+@DisplayName("TipResultCache Tests")
+class TipResultCacheTest {
+
+    private TipEngineService tipEngineService;
+    private SimpleMeterRegistry meterRegistry;
+    private TipResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        tipEngineService = new TipEngineService();
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TipResultCache(tipEngineService, meterRegistry, true, 100);
+    }
+
+    private static CalculationContext context(double hydration, int fermentationHours) {
+        return CalculationContext.builder()
+                .pizzaStyle(PizzaStyle.NEAPOLITAN)
+                .hydration(hydration)
+                .fermentationHours(fermentationHours)
+                .fermentationMethod(Recipe.FermentationMethod.COLD_FERMENTATION)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Klucz cache")
+    class KeyTests {
+
+        @Test
+        @DisplayName("Sąsiednie pozycje suwaka w jednym przedziale dzielą wpis, teksty są aktualne")
+        void shouldShareEntryWithinBand() {
+            // when
+            TipCollection first = cache.generateAllTips(context(61, 24));
+            TipCollection second = cache.generateAllTips(context(63.5, 24));
+
+            // then
+            assertThat(cache.size()).isEqualTo(1);
+            assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count())
+                    .isEqualTo(1.0);
+            assertThat(first.getTips().get(2).getTitle()).isEqualTo("Hydratacja 61% - Standardowa");
+            assertThat(second.getTips().get(2).getTitle()).isEqualTo("Hydratacja 63% - Standardowa");
+            assertThat(second.getContextSummary()).contains("Hydratacja: 64%");
+        }
+
+        @Test
+        @DisplayName("Przekroczenie progu reguły daje nowy wpis")
+        void shouldMissAcrossThreshold() {
+            // when
+            cache.generateAllTips(context(64.9, 24));
+            cache.generateAllTips(context(65, 24));
+            cache.generateAllTips(context(65, 25));
+
+            // then
+            assertThat(cache.size()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("Wynik z cache jest identyczny jak bez cache")
+        void shouldMatchUncachedResult() {
+            // given
+            Random random = new Random(5);
+            Integer[] strengths = {null, 180, 240, 280, 320, 400};
+            Double[] temperatures = {null, 16.0, 21.0, 24.5, 27.0, 29.0, 33.0};
+
+            for (int i = 0; i < 5_000; i++) {
+                CalculationContext context = CalculationContext.builder()
+                        .pizzaStyle(PizzaStyle.values()[random.nextInt(PizzaStyle.values().length)])
+                        .hydration(50 + random.nextInt(41))
+                        .fermentationHours(1 + random.nextInt(96))
+                        .fermentationMethod(Recipe.FermentationMethod.values()[random.nextInt(Recipe.FermentationMethod.values().length)])
+                        .roomTemperature(temperatures[random.nextInt(temperatures.length)])
+                        .flourStrength(strengths[random.nextInt(strengths.length)])
+                        .flourProtein(random.nextBoolean() ? 11.0 + random.nextInt(40) / 10.0 : null)
+                        .weatherTemperature(random.nextBoolean() ? 10.0 + random.nextInt(20) : null)
+                        .build();
+
+                // when
+                TipCollection cached = cache.generateAllTips(context);
+
+                // then
+                assertThat(cached).as(context.toString()).isEqualTo(tipEngineService.generateAllTips(context));
+            }
+            assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count())
+                    .isPositive();
+        }
+    }
+
+    @Nested
+    @DisplayName("Konfiguracja")
+    class ConfigurationTests {
+
+        @Test
+        @DisplayName("Wyłączony cache liczy każdorazowo i nic nie zapamiętuje")
+        void shouldBypassWhenDisabled() {
+            // given
+            TipResultCache disabled = new TipResultCache(tipEngineService, new SimpleMeterRegistry(), false, 100);
+
+            // when
+            TipCollection tips = disabled.generateAllTips(context(65, 24));
+
+            // then
+            assertThat(tips.getTips()).isNotEmpty();
+            assertThat(disabled.size()).isZero();
+        }
+
+        @Test
+        @DisplayName("Brak kontekstu - wyjątek z serwisu, bez wpisu w cache")
+        void shouldRejectNullContext() {
+            assertThatThrownBy(() -> cache.generateAllTips(null))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThat(cache.size()).isZero();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.pizzamaestro.service.engine;
+
+import com.pizzamaestro.model.Recipe;
+import com.pizzamaestro.service.strategy.ColdFermentationStrategy;
+import com.pizzamaestro.service.strategy.FermentationStrategyFactory;
+import com.pizzamaestro.service.strategy.MixedFermentationStrategy;
+import com.pizzamaestro.service.strategy.RoomTemperatureStrategy;
+import com.pizzamaestro.service.strategy.SameDayStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testy rdzenia obliczeń na prymitywach.
+ */
+@DisplayName("DoughCalculationEngine Tests")
+class DoughCalculationEngineTest {
+
+    private DoughCalculationEngine engine;
+    private DoughCalculationInput input;
+    private DoughCalculationOutput output;
+
+    @BeforeEach
+    void setUp() {
+        FermentationStrategyFactory factory = new FermentationStrategyFactory(List.of(
+                new RoomTemperatureStrategy(), new ColdFermentationStrategy(),
+                new MixedFermentationStrategy(), new SameDayStrategy()));
+        factory.init();
+        engine = new DoughCalculationEngine(factory);
+
+        input = new DoughCalculationInput();
+        input.setNumberOfPizzas(4);
+        input.setBallWeight(250);
+        input.setHydration(65.0);
+        input.setSaltPercentage(2.5);
+        input.setFermentationMethod(Recipe.FermentationMethod.COLD_FERMENTATION);
+        input.setTotalFermentationHours(24);
+        output = new DoughCalculationOutput();
+    }
+
+    @Test
+    @DisplayName("Suma składników odpowiada całkowitej wadze ciasta")
+    void shouldSplitTotalWeightByBakerPercentages() {
+        // when
+        engine.calculate(input, output);
+
+        // then - mąka = 1000 / (100 + 65 + 2.5 + 0.5) × 100
+        assertThat(output.getTotalDoughWeight()).isEqualTo(1000.0);
+        assertThat(output.getFlourGrams()).isCloseTo(1000.0 / 168.0 * 100.0, within(1e-9));
+        assertThat(output.getWaterGrams()).isCloseTo(output.getFlourGrams() * 0.65, within(1e-9));
+        assertThat(output.getSaltGrams()).isCloseTo(output.getFlourGrams() * 0.025, within(1e-9));
+        assertThat(output.getYeastGrams()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Ręczny procent drożdży jest przeliczany na wybrany typ")
+    void shouldConvertManualYeastPercentage() {
+        // given
+        input.setManualYeast(true);
+        input.setYeastPercentage(1.0);
+        input.setYeastConversionFactor(Recipe.YeastType.INSTANT_DRY.getConversionFactor());
+
+        // when
+        engine.calculate(input, output);
+
+        // then
+        assertThat(output.getYeastGrams()).isCloseTo(output.getFlourGrams() * 0.01 * 0.33, within(1e-9));
+        assertThat(output.getYeastBakerPercentage()).isCloseTo(0.33, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Preferment jest odejmowany od ciasta głównego")
+    void shouldSubtractPrefermentFromMainDough() {
+        // given
+        input.setPrefermentPercentage(30.0);
+        input.setPrefermentHydration(Recipe.PrefermentType.POOLISH.getHydration());
+        input.setPrefermentYeastRatio(0.001);
+
+        // when
+        engine.calculate(input, output);
+
+        // then
+        assertThat(output.getPrefermentFlourGrams()).isCloseTo(output.getFlourGrams() * 0.3, within(1e-9));
+        assertThat(output.getPrefermentWaterGrams()).isCloseTo(output.getPrefermentFlourGrams(), within(1e-9));
+        assertThat(output.getMainFlourGrams() + output.getPrefermentFlourGrams())
+                .isCloseTo(output.getFlourGrams(), within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Ponowne użycie struktur nadpisuje poprzedni wynik")
+    void shouldOverwriteReusedOutput() {
+        // given
+        input.setPrefermentPercentage(30.0);
+        input.setPrefermentHydration(100.0);
+        engine.calculate(input, output);
+
+        // when
+        input.reset();
+        input.setNumberOfPizzas(2);
+        input.setBallWeight(280);
+        input.setHydration(60.0);
+        input.setSaltPercentage(2.0);
+        input.setFermentationMethod(Recipe.FermentationMethod.ROOM_TEMPERATURE);
+        input.setTotalFermentationHours(8);
+        engine.calculate(input, output);
+
+        // then
+        assertThat(output.getTotalDoughWeight()).isEqualTo(560.0);
+        assertThat(output.getPrefermentFlourGrams()).isZero();
+        assertThat(output.getMainFlourGrams()).isEqualTo(output.getFlourGrams());
+    }
+
+    @Test
+    @DisplayName("Powinien rzucić wyjątek gdy waga ciasta jest zerowa")
+    void shouldThrowWhenDoughWeightIsZero() {
+        input.setBallWeight(0);
+
+        assertThatThrownBy(() -> engine.calculate(input, output))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("mąki");
+    }
+}
@@ -0,0 +1,196 @@
+package com.pizzamaestro.service.engine;
+
+import com.pizzamaestro.model.Ingredient;
+import com.pizzamaestro.service.engine.FlourMixOptimizer.Blend;
+import com.pizzamaestro.service.engine.FlourMixOptimizer.MixTarget;
+import com.pizzamaestro.service.engine.FlourMixOptimizer.Share;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testy optymalizatora miksów mąk.
+ */
+@DisplayName("FlourMixOptimizer Tests")
+class FlourMixOptimizerTest {
+
+    private final FlourMixOptimizer optimizer = new FlourMixOptimizer();
+
+    private static final MixTarget TARGET = MixTarget.builder()
+            .protein(12.5)
+            .proteinTolerance(1.0)
+            .strength(280.0)
+            .strengthTolerance(30.0)
+            .build();
+
+    private static Ingredient flour(String id, double protein, Double strength) {
+        return flour(id, protein, strength, Ingredient.FlourType.TYPE_0);
+    }
+
+    private static Ingredient flour(String id, double protein, Double strength, Ingredient.FlourType type) {
+        return Ingredient.builder()
+                .id(id)
+                .name(id)
+                .type(Ingredient.IngredientType.FLOUR)
+                .active(true)
+                .flourParameters(Ingredient.FlourParameters.builder()
+                        .flourType(type)
+                        .proteinContent(protein)
+                        .strength(strength)
+                        .build())
+                .build();
+    }
+
+    private static double protein(Blend blend) {
+        return blend.shares().stream()
+                .mapToDouble(share -> share.flour().getFlourParameters().getProteinContent() * share.percentage() / 100)
+                .sum();
+    }
+
+    @Nested
+    @DisplayName("Wybór mąk")
+    class SelectionTests {
+
+        @Test
+        @DisplayName("Mąka trafiająca w cel wygrywa z miksem")
+        void shouldPreferSingleFlourOnTarget() {
+            // when
+            List<Blend> blends = optimizer.optimize(List.of(
+                    flour("slaba", 10.0, 200.0), flour("idealna", 12.5, 280.0), flour("mocna", 15.0, 360.0)),
+                    TARGET, 4, 3);
+
+            // then
+            assertThat(blends.get(0).shares()).extracting(share -> share.flour().getId()).containsExactly("idealna");
+            assertThat(blends.get(0).score()).isZero();
+            assertThat(blends).hasSize(3).isSortedAccordingTo((a, b) -> Double.compare(a.score(), b.score()));
+        }
+
+        @Test
+        @DisplayName("Trójka trafia w białko i siłę W naraz, gdy żadna para nie może")
+        void shouldFindThreeFlourBlend() {
+            // given - para słaba+mocna daje białko, ale W 300; słaba W wymaga trzeciej mąki
+            List<Ingredient> flours = List.of(
+                    flour("a", 10.0, 300.0), flour("b", 15.0, 300.0), flour("c", 12.5, 180.0));
+
+            // when
+            Blend best = optimizer.optimize(flours, TARGET, 4, 1).get(0);
+
+            // then
+            assertThat(best.shares()).hasSize(3);
+            assertThat(best.score()).isLessThan(0.1 + 0.44);
+            assertThat(protein(best)).isCloseTo(12.5, within(0.3));
+        }
+
+        @Test
+        @DisplayName("Preferencja typu 00 przesuwa wybór na mąkę 00")
+        void shouldPreferType00() {
+            // given
+            List<Ingredient> flours = List.of(
+                    flour("zero", 12.5, 280.0, Ingredient.FlourType.TYPE_0),
+                    flour("podwojne-zero", 12.8, 290.0, Ingredient.FlourType.TYPE_00));
+            MixTarget target = TARGET.toBuilder().preferType00(true).build();
+
+            // when
+            Blend best = optimizer.optimize(flours, target, 4, 1).get(0);
+
+            // then
+            assertThat(best.shares()).extracting(share -> share.flour().getId()).containsExactly("podwojne-zero");
+        }
+
+        @Test
+        @DisplayName("Odcinanie gałęzi nie gubi najlepszego miksu (porównanie z pełnym przeglądem)")
+        void shouldMatchBruteForce() {
+            // given
+            Random random = new Random(42);
+            List<Ingredient> flours = new ArrayList<>();
+            for (int i = 0; i < 14; i++) {
+                flours.add(flour("m" + i, 9 + random.nextDouble() * 7,
+                        i % 5 == 0 ? null : 150 + random.nextDouble() * 250));
+            }
+            // cel w otoczce katalogu i poza nią (działa ograniczenie z płaszczyzny podpierającej)
+            for (MixTarget target : List.of(
+                    TARGET.toBuilder().protein(13.1).strength(335.0).build(),
+                    TARGET.toBuilder().protein(16.5).strength(450.0).preferType00(true).build())) {
+                double bruteForce = bruteForce(flours, target);
+
+                // when
+                Blend best = optimizer.optimize(flours, target, 4, 3).get(0);
+
+                // then - pula przed zaokrągleniem do 5% może minimalnie przetasować kolejność
+                assertThat(best.score()).isBetween(bruteForce, bruteForce + 0.05);
+            }
+        }
+
+        private double bruteForce(List<Ingredient> flours, MixTarget target) {
+            double best = Double.POSITIVE_INFINITY;
+            int n = flours.size();
+            for (int mask = 1; mask < (1 << n); mask++) {
+                if (Integer.bitCount(mask) > 4) {
+                    continue;
+                }
+                List<Ingredient> subset = new ArrayList<>();
+                for (int i = 0; i < n; i++) {
+                    if ((mask & (1 << i)) != 0) {
+                        subset.add(flours.get(i));
+                    }
+                }
+                best = Math.min(best, optimizer.blend(subset, target).score());
+            }
+            return best;
+        }
+    }
+
+    @Nested
+    @DisplayName("Udziały")
+    class ShareTests {
+
+        @Test
+        @DisplayName("Udziały w krokach 5%, każdy co najmniej 10%, suma 100%")
+        void shouldRoundSharesToSteps() {
+            // when
+            Blend blend = optimizer.blend(List.of(
+                    flour("a", 10.0, 220.0), flour("b", 14.0, 340.0), flour("c", 12.0, 260.0), flour("d", 16.0, 400.0)),
+                    TARGET);
+
+            // then
+            assertThat(blend.shares()).hasSize(4);
+            assertThat(blend.shares()).extracting(Share::percentage)
+                    .allSatisfy(percentage -> {
+                        assertThat(percentage).isGreaterThanOrEqualTo(10.0);
+                        assertThat(percentage % 5.0).isZero();
+                    });
+            assertThat(blend.shares().stream().mapToDouble(Share::percentage).sum()).isEqualTo(100.0);
+        }
+
+        @Test
+        @DisplayName("Para dobrana dokładnie pod białko")
+        void shouldSolvePairForProtein() {
+            // when
+            Blend blend = optimizer.blend(List.of(flour("a", 11.0, null), flour("b", 14.0, null)), TARGET);
+
+            // then
+            assertThat(blend.shares()).extracting(Share::percentage).containsExactly(50.0, 50.0);
+            assertThat(blend.score()).isCloseTo(0.1, within(1e-9));
+        }
+
+        @Test
+        @DisplayName("Niepoprawne argumenty")
+        void shouldRejectInvalidArguments() {
+            List<Ingredient> flours = List.of(flour("a", 11.0, null));
+
+            assertThatThrownBy(() -> optimizer.optimize(flours, TARGET, 5, 3))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> optimizer.optimize(flours, TARGET, 4, 0))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> optimizer.blend(List.of(), TARGET))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThat(optimizer.optimize(List.of(), TARGET, 4, 3)).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.pizzamaestro.service.engine;
+
+import com.pizzamaestro.dto.response.AdvancedCalculationResponse;
+import com.pizzamaestro.service.AdvancedDoughCalculationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testy całkowania aktywności drożdży po godzinowej prognozie temperatury.
+ */
+@DisplayName("HourlyFermentationProfile Tests")
+class HourlyFermentationProfileTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 6, 1, 0, 0);
+
+    private final AdvancedDoughCalculationService service = new AdvancedDoughCalculationService(false);
+
+    private static double q10(double temp) {
+        return Math.pow(2.5, (temp - 20) / 10);
+    }
+
+    private static double[] constant(double temp, int hours) {
+        double[] temps = new double[hours];
+        Arrays.fill(temps, temp);
+        return temps;
+    }
+
+    @Nested
+    @DisplayName("Całkowanie")
+    class IntegrationTests {
+
+        @Test
+        @DisplayName("Stała temperatura - godziny × współczynnik Q10")
+        void shouldMatchConstantTemperatureModel() {
+            // given
+            HourlyFermentationProfile profile =
+                    new HourlyFermentationProfile(START, constant(24, 48), HourlyFermentationProfileTest::q10);
+
+            // when / then
+            assertThat(profile.effectiveHours(START.plusHours(3), 6)).isCloseTo(6 * q10(24), within(1e-9));
+        }
+
+        @Test
+        @DisplayName("Ułamki godzin i zmienna temperatura są sumowane proporcjonalnie")
+        void shouldIntegrateFractionalHours() {
+            // given - 20°C, 30°C, 20°C
+            HourlyFermentationProfile profile = new HourlyFermentationProfile(
+                    START, new double[] { 20, 30, 20 }, HourlyFermentationProfileTest::q10);
+
+            // when - od 0:30 do 2:30
+            double effective = profile.effectiveHours(START.plusMinutes(30), 2);
+
+            // then - 0.5 × 1 + 1 × 2.5 + 0.5 × 1
+            assertThat(effective).isCloseTo(3.5, within(1e-9));
+        }
+
+        @Test
+        @DisplayName("Poza horyzontem prognozy obowiązuje ostatnia godzina")
+        void shouldExtrapolateBeyondForecast() {
+            // given
+            HourlyFermentationProfile profile = new HourlyFermentationProfile(
+                    START, new double[] { 20, 30 }, HourlyFermentationProfileTest::q10);
+
+            // when - 1:00 do 5:00, z czego 3 h poza prognozą
+            double effective = profile.effectiveHours(START.plusHours(1), 4);
+
+            // then
+            assertThat(effective).isCloseTo(4 * 2.5, within(1e-9));
+        }
+
+        @Test
+        @DisplayName("Czas do zebrania godzin efektywnych")
+        void shouldInvertIntegral() {
+            // given
+            HourlyFermentationProfile profile = new HourlyFermentationProfile(
+                    START, new double[] { 20, 30, 20, 10 }, HourlyFermentationProfileTest::q10);
+            LocalDateTime from = START.plusMinutes(15);
+
+            // when
+            double forward = profile.hoursToReach(from, 3.0);
+
+            // then - 0.75 × 1 + 1 × 2.5 = 3.25, więc przed końcem drugiej godziny
+            assertThat(profile.effectiveHours(from, forward)).isCloseTo(3.0, within(1e-9));
+            assertThat(forward).isCloseTo(0.75 + 2.25 / 2.5, within(1e-9));
+        }
+
+        @Test
+        @DisplayName("Pusta prognoza jest odrzucana")
+        void shouldRejectEmptyForecast() {
+            assertThatThrownBy(() -> new HourlyFermentationProfile(START, new double[0], t -> 1))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Korekta fermentacji z prognozy")
+    class CorrectionTests {
+
+        @Test
+        @DisplayName("Prognoza równa planowi nie zmienia fermentacji")
+        void shouldNotCorrectFlatForecast() {
+            // given
+            HourlyFermentationProfile profile = service.hourlyProfile(START, constant(22, 48));
+
+            // when
+            AdvancedCalculationResponse.ForecastFermentation correction =
+                    service.calculateForecastFermentation(profile, START.plusHours(10), 8, 22);
+
+            // then
+            assertThat(correction.getCorrectionFactor()).isEqualTo(1.0);
+            assertThat(correction.getYeastAdjustmentPercent()).isZero();
+            assertThat(correction.getAdjustedRoomHours()).isEqualTo(8.0);
+            assertThat(correction.getAverageForecastTemperature()).isEqualTo(22.0);
+        }
+
+        @Test
+        @DisplayName("Upalne popołudnie - mniej drożdży i krótsza fermentacja")
+        void shouldReduceYeastForHotAfternoon() {
+            // given - 22°C rano, od 12:00 28°C
+            double[] temps = constant(22, 48);
+            Arrays.fill(temps, 12, 24, 28);
+            HourlyFermentationProfile profile = service.hourlyProfile(START, temps);
+
+            // when
+            AdvancedCalculationResponse.ForecastFermentation correction =
+                    service.calculateForecastFermentation(profile, START.plusHours(10), 8, 22);
+
+            // then
+            assertThat(correction.getCorrectionFactor()).isGreaterThan(1.0);
+            assertThat(correction.getYeastAdjustmentPercent()).isNegative();
+            assertThat(correction.getAdjustedRoomHours()).isLessThan(8);
+        }
+
+        @Test
+        @DisplayName("Chłodne pomieszczenie - fermentacja wydłużona o współczynnik Q10")
+        void shouldStretchFermentationInColdRoom() {
+            // given - chłodno (18°C) przez cały dzień
+            HourlyFermentationProfile profile = service.hourlyProfile(START, constant(18, 48));
+
+            // when
+            AdvancedCalculationResponse.ForecastFermentation correction =
+                    service.calculateForecastFermentation(profile, START.plusHours(4), 6, 22);
+
+            // then - 6 h w 22°C ≈ 6 × 2.5^0.4 h w 18°C
+            assertThat(correction.getAdjustedRoomHours()).isCloseTo(6 * Math.pow(2.5, 0.4), within(0.01));
+            assertThat(correction.getAverageForecastTemperature()).isEqualTo(18.0);
+            assertThat(correction.getYeastAdjustmentPercent()).isPositive();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.pizzamaestro.service.ingredient;
+
+import com.pizzamaestro.model.Ingredient;
+import com.pizzamaestro.model.Ingredient.HardnessLevel;
+import com.pizzamaestro.model.Ingredient.IngredientType;
+import com.pizzamaestro.model.PizzaStyle;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testy katalogu składników w pamięci.
+ */
+@DisplayName("IngredientCatalog Tests")
+class IngredientCatalogTest {
+
+    private static Ingredient flour(String id, double protein, boolean verified, PizzaStyle... styles) {
+        return Ingredient.builder()
+                .id(id)
+                .type(IngredientType.FLOUR)
+                .name("Caputo " + id)
+                .active(true)
+                .verified(verified)
+                .flourParameters(Ingredient.FlourParameters.builder()
+                        .proteinContent(protein)
+                        .recommendedStyles(List.of(styles))
+                        .build())
+                .build();
+    }
+
+    private static Ingredient water(String id, HardnessLevel hardnessLevel) {
+        return Ingredient.builder()
+                .id(id)
+                .type(IngredientType.WATER)
+                .name("Woda " + id)
+                .active(true)
+                .waterParameters(Ingredient.WaterParameters.builder().hardnessLevel(hardnessLevel).build())
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Indeksy migawki")
+    class SnapshotTests {
+
+        private final Ingredient pizzeria = flour("pizzeria", 12.5, true, PizzaStyle.NEAPOLITAN);
+        private final Ingredient manitoba = flour("manitoba", 14.0, false, PizzaStyle.NEW_YORK, PizzaStyle.ROMAN);
+        private final Ingredient tipo1 = flour("tipo1", 12.5, false, PizzaStyle.ROMAN);
+        private final Ingredient soft = water("soft", HardnessLevel.SOFT);
+        private final Ingredient inactive = Ingredient.builder()
+                .id("old").type(IngredientType.FLOUR).name("Stara mąka").active(false).build();
+
+        private final IngredientCatalogSnapshot snapshot = new IngredientCatalogSnapshot(
+                1, "5:5", List.of(manitoba, pizzeria, soft, inactive, tipo1));
+
+        @Test
+        @DisplayName("Typ, weryfikacja, styl i twardość - tylko aktywne")
+        void shouldIndexActiveIngredients() {
+            assertThat(snapshot.active(IngredientType.FLOUR)).containsExactly(manitoba, pizzeria, tipo1);
+            assertThat(snapshot.verified(IngredientType.FLOUR)).containsExactly(pizzeria);
+            assertThat(snapshot.floursForStyle(PizzaStyle.ROMAN)).containsExactly(manitoba, tipo1);
+            assertThat(snapshot.watersByHardness(HardnessLevel.SOFT)).containsExactly(soft);
+            assertThat(snapshot.active(IngredientType.SALT)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Zakres białka domknięty, rosnąco po białku")
+        void shouldFindFloursByProteinRange() {
+            assertThat(snapshot.floursByProtein(12.5, 14.0)).containsExactly(pizzeria, tipo1, manitoba);
+            assertThat(snapshot.floursByProtein(12.6, 13.9)).isEmpty();
+            assertThat(snapshot.floursByProtein(13.0, 20.0)).containsExactly(manitoba);
+            assertThat(snapshot.floursByProtein(14.0, 12.0)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Po id także nieaktywne; lista po id bez powtórzeń i brakujących")
+        void shouldFindByIds() {
+            assertThat(snapshot.findById("old")).isSameAs(inactive);
+            assertThat(snapshot.findById("missing")).isNull();
+            assertThat(snapshot.findAllByIds(List.of("tipo1", "missing", "pizzeria", "tipo1")))
+                    .containsExactly(tipo1, pizzeria);
+        }
+
+        @Test
+        @DisplayName("Wyszukiwanie po nazwie bez rozróżniania wielkości liter, bez nieaktywnych")
+        void shouldSearchByName() {
+            assertThat(snapshot.searchByName("CAPUTO")).containsExactly(manitoba, pizzeria, tipo1);
+            assertThat(snapshot.searchByName("stara")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Indeksy są niemodyfikowalne")
+        void shouldExposeUnmodifiableLists() {
+            assertThatThrownBy(() -> snapshot.active(IngredientType.FLOUR).add(tipo1))
+                    .isInstanceOf(UnsupportedOperationException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Przeładowanie")
+    class ReloadTests {
+
+        private final List<Ingredient> collection = new ArrayList<>();
+        private final AtomicReference<String> fingerprint = new AtomicReference<>("1:0");
+        private final AtomicInteger loads = new AtomicInteger();
+        private final IngredientCatalog catalog = new IngredientCatalog(() -> {
+            loads.incrementAndGet();
+            return List.copyOf(collection);
+        }, fingerprint::get);
+
+        @Test
+        @DisplayName("Wczytanie przy pierwszym użyciu, potem ta sama migawka")
+        void shouldLoadOnce() {
+            // given
+            collection.add(flour("pizzeria", 12.5, true));
+
+            // when
+            IngredientCatalogSnapshot first = catalog.snapshot();
+            IngredientCatalogSnapshot second = catalog.snapshot();
+
+            // then
+            assertThat(second).isSameAs(first);
+            assertThat(first.version()).isEqualTo(1);
+            assertThat(loads).hasValue(1);
+        }
+
+        @Test
+        @DisplayName("Odpytywanie przeładowuje tylko po zmianie odcisku kolekcji")
+        void shouldReloadWhenFingerprintChanges() {
+            // given
+            IngredientCatalogSnapshot first = catalog.snapshot();
+            catalog.refreshIfChanged();
+            assertThat(catalog.snapshot()).isSameAs(first);
+
+            // when - zapis na innej instancji
+            collection.add(flour("manitoba", 14.0, false));
+            fingerprint.set("2:1");
+            catalog.refreshIfChanged();
+
+            // then
+            assertThat(catalog.snapshot().version()).isEqualTo(2);
+            assertThat(catalog.snapshot().findById("manitoba")).isNotNull();
+            assertThat(first.findById("manitoba")).isNull();
+        }
+
+        @Test
+        @DisplayName("Błąd sprawdzania zmian zostawia aktualną migawkę")
+        void shouldKeepSnapshotWhenPollFails() {
+            // given - pierwszy odcisk się udaje, kolejne rzucają
+            AtomicInteger calls = new AtomicInteger();
+            IngredientCatalog failing = new IngredientCatalog(List::of, () -> {
+                if (calls.getAndIncrement() > 0) {
+                    throw new IllegalStateException("Mongo niedostępne");
+                }
+                return "0:0";
+            });
+            IngredientCatalogSnapshot first = failing.snapshot();
+
+            // when / then
+            assertThatCode(failing::refreshIfChanged).doesNotThrowAnyException();
+            assertThat(failing.snapshot()).isSameAs(first);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.pizzamaestro.service.notification;
+
+import com.pizzamaestro.model.ActivePizza;
+import com.pizzamaestro.model.ActivePizza.ActivePizzaStatus;
+import com.pizzamaestro.model.ActivePizza.ScheduledStep;
+import com.pizzamaestro.model.ActivePizza.StepStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testy indeksu czasowego powiadomień.
+ */
+@DisplayName("NotificationTimeline Tests")
+class NotificationTimelineTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+    private NotificationTimeline timeline;
+
+    @BeforeEach
+    void setUp() {
+        timeline = new NotificationTimeline();
+    }
+
+    private ScheduledStep step(int number, LocalDateTime scheduledTime) {
+        return ScheduledStep.builder()
+                .stepNumber(number)
+                .title("Krok " + number)
+                .scheduledTime(scheduledTime)
+                .status(StepStatus.PENDING)
+                .build();
+    }
+
+    private ActivePizza pizza(String id, ScheduledStep... steps) {
+        return ActivePizza.builder()
+                .id(id)
+                .status(ActivePizzaStatus.IN_PROGRESS)
+                .smsNotificationsEnabled(true)
+                .notificationPhone("+48123456789")
+                .reminderMinutesBefore(15)
+                .steps(new ArrayList<>(List.of(steps)))
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Okna powiadomień")
+    class WindowTests {
+
+        private final long stepMinute = NotificationTimeline.epochMinute(NOW);
+
+        @Test
+        @DisplayName("Przed oknem przypomnienia - sprawdzenie na początku okna")
+        void shouldScheduleAtReminderStart() {
+            long next = NotificationTimeline.nextCheckMinute(step(1, NOW), 15, stepMinute - 60);
+
+            assertThat(next).isEqualTo(stepMinute - 15);
+        }
+
+        @Test
+        @DisplayName("W oknie przypomnienia lub 'teraz' - sprawdzenie od razu")
+        void shouldCheckImmediatelyInsideWindow() {
+            assertThat(NotificationTimeline.nextCheckMinute(step(1, NOW), 15, stepMinute - 5))
+                    .isEqualTo(stepMinute - 5);
+            assertThat(NotificationTimeline.nextCheckMinute(step(1, NOW), 15, stepMinute + 2))
+                    .isEqualTo(stepMinute + 2);
+        }
+
+        @Test
+        @DisplayName("Między 'teraz' a opóźnieniem - sprawdzenie na początku okna opóźnienia")
+        void shouldSkipToOverdueWindow() {
+            long next = NotificationTimeline.nextCheckMinute(step(1, NOW), 15, stepMinute + 3);
+
+            assertThat(next).isEqualTo(stepMinute + 11);
+        }
+
+        @Test
+        @DisplayName("Po oknie opóźnienia lub po powiadomieniu - brak sprawdzeń")
+        void shouldNotScheduleWhenNothingLeft() {
+            ScheduledStep notified = step(1, NOW);
+            notified.setNotificationSent(true);
+            ScheduledStep completed = step(2, NOW);
+            completed.setStatus(StepStatus.COMPLETED);
+
+            assertThat(NotificationTimeline.nextCheckMinute(step(1, NOW), 15, stepMinute + 31)).isEqualTo(-1);
+            assertThat(NotificationTimeline.nextCheckMinute(notified, 15, stepMinute)).isEqualTo(-1);
+            assertThat(NotificationTimeline.nextCheckMinute(completed, 15, stepMinute)).isEqualTo(-1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Zdejmowanie kroków")
+    class PollTests {
+
+        @Test
+        @DisplayName("Zwraca tylko kroki, których czas sprawdzenia nadszedł")
+        void shouldReturnOnlyDueSteps() {
+            // given - krok za 10 min (w oknie) i za 2 h (poza)
+            timeline.index(pizza("p1", step(1, NOW.plusMinutes(10)), step(2, NOW.plusHours(2))), NOW);
+
+            // when
+            List<NotificationTimeline.DueStep> due = timeline.pollDue(NOW);
+
+            // then
+            assertThat(due).extracting(d -> d.step().getStepNumber()).containsExactly(1);
+            assertThat(timeline.pollDue(NOW)).isEmpty();
+            assertThat(timeline.pollDue(NOW.plusHours(2).minusMinutes(15)))
+                    .extracting(d -> d.step().getStepNumber()).containsExactly(2);
+        }
+
+        @Test
+        @DisplayName("Re-indeksacja unieważnia poprzednie wpisy pizzy")
+        void shouldIgnoreStaleGeneration() {
+            // given - krok przesunięty o godzinę po ponownym zindeksowaniu
+            timeline.index(pizza("p1", step(1, NOW.plusMinutes(5))), NOW);
+            timeline.index(pizza("p1", step(1, NOW.plusMinutes(65))), NOW);
+
+            // when / then
+            assertThat(timeline.pollDue(NOW)).isEmpty();
+            assertThat(timeline.pollDue(NOW.plusMinutes(50))).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("Pizza bez SMS lub zakończona wypada z indeksu")
+        void shouldRemovePizzaWithoutNotifications() {
+            // given
+            timeline.index(pizza("p1", step(1, NOW.plusMinutes(5))), NOW);
+            ActivePizza cancelled = pizza("p1", step(1, NOW.plusMinutes(5)));
+            cancelled.setStatus(ActivePizzaStatus.CANCELLED);
+
+            // when
+            timeline.index(cancelled, NOW);
+
+            // then
+            assertThat(timeline.size()).isZero();
+            assertThat(timeline.pollDue(NOW)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Ponowne zaplanowanie sprawdza krok w kolejnej minucie")
+        void shouldRescheduleToNextMinute() {
+            // given
+            timeline.index(pizza("p1", step(1, NOW.plusMinutes(5))), NOW);
+            NotificationTimeline.DueStep due = timeline.pollDue(NOW).get(0);
+
+            // when
+            timeline.reschedule(due, NOW);
+
+            // then
+            assertThat(timeline.pollDue(NOW)).isEmpty();
+            assertThat(timeline.pollDue(NOW.plusMinutes(1))).hasSize(1);
+        }
+    }
+}
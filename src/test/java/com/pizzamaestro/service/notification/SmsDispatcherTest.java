@@ -0,0 +1,181 @@
+package com.pizzamaestro.service.notification;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testy potoku SMS z atrapą wysyłki - bez Twilio i bez kontekstu Springa.
+ */
+@DisplayName("SmsDispatcher Tests")
+class SmsDispatcherTest {
+
+    private static final String PHONE = "+48123456789";
+
+    private final List<String[]> sent = new CopyOnWriteArrayList<>();
+    private final List<String> deadLetters = new CopyOnWriteArrayList<>();
+    private SmsDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    private SmsDispatcher dispatcher(SmsSender sender, int capacity, long windowMs, int maxAttempts) {
+        SmsDeadLetterStore store = (to, body, userId, attempts, error) -> deadLetters.add(body + "|" + attempts);
+        dispatcher = new SmsDispatcher(sender, store, new SimpleMeterRegistry(), capacity, 2, windowMs, maxAttempts, 1);
+        return dispatcher;
+    }
+
+    private SmsSender recordingSender(CountDownLatch latch) {
+        return (to, body) -> {
+            sent.add(new String[]{to, body});
+            latch.countDown();
+        };
+    }
+
+    private void awaitDrained(SmsDispatcher dispatcher) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (dispatcher.inFlight() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(dispatcher.inFlight()).isZero();
+    }
+
+    @Nested
+    @DisplayName("Scalanie")
+    class CoalescingTests {
+
+        @Test
+        @DisplayName("Wiadomości na ten sam numer w oknie idą jednym SMS-em")
+        void shouldCoalesceMessagesForSameDestination() throws InterruptedException {
+            // given
+            CountDownLatch latch = new CountDownLatch(2);
+            SmsDispatcher dispatcher = dispatcher(recordingSender(latch), 100, 100, 3);
+
+            // when
+            dispatcher.enqueue(PHONE, "Krok 1", "u1");
+            dispatcher.enqueue(PHONE, "Krok 2", "u1");
+            dispatcher.enqueue(PHONE, "Krok 2", "u1");
+            dispatcher.enqueue("+48987654321", "Inny", "u2");
+
+            // then
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+            awaitDrained(dispatcher);
+            assertThat(sent).hasSize(2);
+            assertThat(sent).anySatisfy(sms -> {
+                assertThat(sms[0]).isEqualTo(PHONE);
+                assertThat(sms[1]).isEqualTo("Krok 1\nKrok 2");
+            });
+        }
+    }
+
+    @Nested
+    @DisplayName("Ponowienia i dead-letter")
+    class RetryTests {
+
+        @Test
+        @DisplayName("Błąd przejściowy jest ponawiany")
+        void shouldRetryTransientFailure() throws InterruptedException {
+            // given - dwie pierwsze próby kończą się błędem
+            AtomicInteger calls = new AtomicInteger();
+            CountDownLatch latch = new CountDownLatch(1);
+            SmsDispatcher dispatcher = dispatcher((to, body) -> {
+                if (calls.incrementAndGet() < 3) {
+                    throw new SmsSendException("503", true);
+                }
+                latch.countDown();
+            }, 100, 1, 4);
+
+            // when
+            dispatcher.enqueue(PHONE, "Krok", null);
+
+            // then
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+            awaitDrained(dispatcher);
+            assertThat(calls.get()).isEqualTo(3);
+            assertThat(deadLetters).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Po wyczerpaniu prób wiadomość trafia do dead-letter")
+        void shouldDeadLetterAfterMaxAttempts() throws InterruptedException {
+            // given
+            SmsDispatcher dispatcher = dispatcher((to, body) -> {
+                throw new SmsSendException("503", true);
+            }, 100, 1, 3);
+
+            // when
+            dispatcher.enqueue(PHONE, "Krok", null);
+
+            // then
+            awaitDrained(dispatcher);
+            assertThat(deadLetters).containsExactly("Krok|3");
+        }
+
+        @Test
+        @DisplayName("Błąd trwały nie jest ponawiany")
+        void shouldNotRetryPermanentFailure() throws InterruptedException {
+            // given
+            AtomicInteger calls = new AtomicInteger();
+            SmsDispatcher dispatcher = dispatcher((to, body) -> {
+                calls.incrementAndGet();
+                throw new SmsSendException("Nieprawidłowy numer", false);
+            }, 100, 1, 4);
+
+            // when
+            dispatcher.enqueue(PHONE, "Krok", null);
+
+            // then
+            awaitDrained(dispatcher);
+            assertThat(calls.get()).isEqualTo(1);
+            assertThat(deadLetters).containsExactly("Krok|1");
+        }
+    }
+
+    @Nested
+    @DisplayName("Backpressure")
+    class BackpressureTests {
+
+        @Test
+        @DisplayName("Pełny potok odrzuca nowe wiadomości")
+        void shouldRejectWhenFull() {
+            // given - długie okno, wiadomości czekają w paczkach
+            SmsDispatcher dispatcher = dispatcher(recordingSender(new CountDownLatch(0)), 2, 60_000, 3);
+
+            // when / then
+            assertThat(dispatcher.enqueue("+48111111111", "A", null)).isTrue();
+            assertThat(dispatcher.enqueue("+48222222222", "B", null)).isTrue();
+            assertThat(dispatcher.enqueue("+48333333333", "C", null)).isFalse();
+            assertThat(dispatcher.enqueue(null, "D", null)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Zamknięcie wysyła otwarte paczki")
+        void shouldFlushOpenBatchesOnShutdown() {
+            // given
+            SmsDispatcher dispatcher = dispatcher(recordingSender(new CountDownLatch(0)), 10, 60_000, 3);
+            dispatcher.enqueue(PHONE, "Krok", null);
+
+            // when
+            dispatcher.shutdown();
+
+            // then
+            assertThat(sent).hasSize(1);
+            assertThat(dispatcher.inFlight()).isZero();
+            assertThat(dispatcher.enqueue(PHONE, "Po zamknięciu", null)).isFalse();
+        }
+    }
+}
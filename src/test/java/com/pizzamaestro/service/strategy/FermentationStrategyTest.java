@@ -5,8 +5,13 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
 
 /**
  * Testy strategii obliczania drożdży.
@@ -105,4 +110,68 @@ class FermentationStrategyTest {
         // (w praktyce bliżej cold, bo większość czasu w lodówce)
         assertThat(mixedYeast).isGreaterThan(coldYeast);
     }
+
+    @ParameterizedTest
+    @EnumSource(Recipe.FermentationMethod.class)
+    @DisplayName("Tablica drożdży mieści się w 1% od modelu analitycznego")
+    void tabulatedStrategy_staysWithinErrorBound(Recipe.FermentationMethod method) {
+        // given
+        FermentationStrategyFactory analytic = factory("");
+        FermentationStrategyFactory tabulated = factory(method.name());
+        FermentationStrategy exact = analytic.getStrategy(method);
+        FermentationStrategy table = tabulated.getStrategy(method);
+
+        // then
+        assertThat(table).isInstanceOf(TabulatedFermentationStrategy.class);
+        assertThat(((TabulatedFermentationStrategy) table).getMaxRelativeError()).isLessThanOrEqualTo(0.01);
+        for (int hours : new int[] {1, 4, 8, 24, 48, 72, 120}) {
+            for (double room = 15.05; room < 32; room += 1.37) {
+                for (double fridge = 1.1; fridge < 8; fridge += 1.9) {
+                    double expected = exact.calculateYeastPercentage(hours, room, fridge, method);
+                    assertThat(table.calculateYeastPercentage(hours, room, fridge, method))
+                            .isCloseTo(expected, within(expected * 0.01));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Tablica poza siatką deleguje do modelu analitycznego")
+    void tabulatedStrategy_delegatesOutsideGrid() {
+        // given
+        TabulatedFermentationStrategy table = new TabulatedFermentationStrategy(coldStrategy);
+
+        // then - 200h i 45°C są poza siatką
+        assertThat(table.calculateYeastPercentage(200, 22.0, 4.0, Recipe.FermentationMethod.COLD_FERMENTATION))
+                .isEqualTo(coldStrategy.calculateYeastPercentage(200, 22.0, 4.0, Recipe.FermentationMethod.COLD_FERMENTATION));
+        assertThat(table.calculateYeastPercentage(24, 45.0, 4.0, Recipe.FermentationMethod.COLD_FERMENTATION))
+                .isEqualTo(coldStrategy.calculateYeastPercentage(24, 45.0, 4.0, Recipe.FermentationMethod.COLD_FERMENTATION));
+    }
+
+    @Test
+    @DisplayName("Tablica przekraczająca dopuszczalny błąd nie jest używana")
+    void factory_rejectsTableAboveErrorBound() {
+        // given - zerowa tolerancja
+        FermentationStrategyFactory factory = new FermentationStrategyFactory(
+                List.of(coldStrategy), "COLD_FERMENTATION", 0.0);
+        factory.init();
+
+        // then
+        assertThat(factory.getStrategy(Recipe.FermentationMethod.COLD_FERMENTATION)).isSameAs(coldStrategy);
+    }
+
+    @Test
+    @DisplayName("Nieznana metoda w konfiguracji tablic zatrzymuje start")
+    void factory_rejectsUnknownMethod() {
+        assertThatThrownBy(() -> new FermentationStrategyFactory(List.of(coldStrategy), "COLD,MIXED", 0.01))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("COLD");
+    }
+
+    private FermentationStrategyFactory factory(String tabulatedMethods) {
+        FermentationStrategyFactory factory = new FermentationStrategyFactory(
+                List.of(roomTempStrategy, coldStrategy, mixedStrategy, sameDayStrategy), tabulatedMethods, 0.01);
+        factory.init();
+        return factory;
+    }
 }
@@ -0,0 +1,169 @@
+package com.pizzamaestro.service.tips;
+
+import com.pizzamaestro.model.PizzaStyle;
+import com.pizzamaestro.model.Recipe;
+import com.pizzamaestro.service.TipEngineService.CalculationContext;
+import com.pizzamaestro.service.TipEngineService.TipCategory;
+import com.pizzamaestro.service.TipEngineService.TipType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testy indeksu reguł wskazówek i szablonów.
+ */
+@DisplayName("TipRuleIndex Tests")
+class TipRuleIndexTest {
+
+    private static final List<TipGenerator> GENERATORS = List.of(
+            new StyleTipGenerator(), new HydrationTipGenerator(), new FermentationTipGenerator(),
+            new FlourTipGenerator(), new TemperatureTipGenerator(), new WeatherTipGenerator(),
+            new OptimizationTipGenerator());
+
+    private final TipRuleIndex index = new TipRuleIndex(GENERATORS.stream()
+            .flatMap(generator -> generator.getRules().stream())
+            .toList());
+
+    private List<String> matchedIds(BitSet matched) {
+        List<String> ids = new ArrayList<>();
+        matched.stream().forEach(i -> ids.add(index.rule(i).getId()));
+        return ids;
+    }
+
+    private List<String> applicableIds(CalculationContext context) {
+        return index.rules().stream()
+                .filter(rule -> rule.isApplicable(context))
+                .map(TipRule::getId)
+                .toList();
+    }
+
+    @Nested
+    @DisplayName("Dopasowanie reguł")
+    class MatchTests {
+
+        @Test
+        @DisplayName("Indeks wybiera dokładnie reguły spełniające warunki (porównanie z oceną każdej reguły)")
+        void shouldMatchSameRulesAsFullEvaluation() {
+            // given
+            Random random = new Random(11);
+            Double[] temperatures = {null, 17.9, 18.0, 22.0, 24.0, 24.5, 28.0, 28.1, 30.0};
+            Integer[] strengths = {null, 180, 200, 240, 260, 280, 300, 350, 420};
+
+            for (int i = 0; i < 20_000; i++) {
+                CalculationContext context = CalculationContext.builder()
+                        .pizzaStyle(random.nextInt(6) == 0 ? null : PizzaStyle.values()[random.nextInt(PizzaStyle.values().length)])
+                        .hydration(random.nextBoolean() ? 50 + random.nextInt(8) * 5 : 45 + random.nextDouble() * 50)
+                        .fermentationHours(1 + random.nextInt(100))
+                        .fermentationMethod(random.nextInt(5) == 0 ? null
+                                : Recipe.FermentationMethod.values()[random.nextInt(Recipe.FermentationMethod.values().length)])
+                        .roomTemperature(temperatures[random.nextInt(temperatures.length)])
+                        .flourStrength(strengths[random.nextInt(strengths.length)])
+                        .flourProtein(random.nextBoolean() ? 8 + random.nextDouble() * 8 : null)
+                        .weatherTemperature(random.nextBoolean() ? 20.0 : null)
+                        .build();
+
+                // when
+                List<String> matched = matchedIds(index.match(context));
+
+                // then
+                assertThat(matched).as(context.toString()).isEqualTo(applicableIds(context));
+            }
+        }
+
+        @Test
+        @DisplayName("Progi ostre i nieostre na granicy przedziału")
+        void shouldRespectBoundaries() {
+            // given
+            CalculationContext atLimit = CalculationContext.builder()
+                    .pizzaStyle(PizzaStyle.NEAPOLITAN).hydration(70).fermentationHours(12).build();
+            CalculationContext overLimit = CalculationContext.builder()
+                    .pizzaStyle(PizzaStyle.NEAPOLITAN).hydration(70.5).fermentationHours(13).build();
+
+            // when
+            List<String> atLimitIds = matchedIds(index.match(atLimit));
+            List<String> overLimitIds = matchedIds(index.match(overLimit));
+
+            // then - 70% to już "Wysoka", ale ostrzeżenie dopiero powyżej 70%; 12h to jeszcze "krótka"
+            assertThat(atLimitIds).contains("hydration.high", "fermentation.short")
+                    .doesNotContain("hydration.neapolitan-too-high");
+            assertThat(overLimitIds).contains("hydration.high", "hydration.neapolitan-too-high", "fermentation.standard");
+        }
+
+        @Test
+        @DisplayName("Zmiana pola ocenia tylko reguły zależne od tego pola")
+        void shouldMatchOnlyDependentRules() {
+            // given
+            CalculationContext context = CalculationContext.builder()
+                    .pizzaStyle(PizzaStyle.NEAPOLITAN)
+                    .hydration(78)
+                    .fermentationHours(30)
+                    .fermentationMethod(Recipe.FermentationMethod.ROOM_TEMPERATURE)
+                    .roomTemperature(29.0)
+                    .flourStrength(240)
+                    .weatherTemperature(25.0)
+                    .build();
+
+            // when
+            BitSet matched = index.match(context, TipField.ROOM_TEMPERATURE);
+
+            // then
+            assertThat(matchedIds(matched)).containsExactly(
+                    "fermentation.over-fermentation", "temperature.warm", "temperature.hot-long-fermentation");
+            assertThat(matchedIds(index.match(context, TipField.YEAST_TYPE))).isEmpty();
+            assertThat(matchedIds(index.match(context, TipField.WEATHER_HUMIDITY)))
+                    .containsExactly("weather.current");
+        }
+    }
+
+    @Nested
+    @DisplayName("Szablony")
+    class TemplateTests {
+
+        @Test
+        @DisplayName("Szablon wstawia argumenty, a % i nawiasy bez indeksu zostawia")
+        void shouldRenderArguments() {
+            // given
+            TipTemplate template = TipTemplate.compile("{1}% z {0} {x} {} {0}");
+
+            // when
+            String text = template.render(new Object[]{"W280", 65});
+
+            // then
+            assertThat(text).isEqualTo("65% z W280 {x} {} W280");
+            assertThat(template.maxArgument()).isEqualTo(1);
+            assertThat(TipTemplate.compile("Stały tekst").render(null)).isEqualTo("Stały tekst");
+        }
+
+        @Test
+        @DisplayName("Zaokrąglenie jak w String.format")
+        void shouldRoundLikeFormat() {
+            for (double value : new double[]{12.25, 12.35, 0.05, 22.5, 99.95, -2.5, 1e-7}) {
+                assertThat(TipTemplate.decimal(value, 1)).isEqualTo(String.format(Locale.ROOT, "%.1f", value));
+                assertThat(TipTemplate.decimal(value, 0)).isEqualTo(String.format(Locale.ROOT, "%.0f", value));
+            }
+        }
+
+        @Test
+        @DisplayName("Reguła z argumentami w szablonie wymaga ich wartości")
+        void shouldRejectTemplateWithoutArguments() {
+            assertThatThrownBy(() -> TipRule.builder()
+                    .id("test")
+                    .section(TipRule.Section.TIP)
+                    .type(TipType.INFO)
+                    .category(TipCategory.STYLE)
+                    .title("Hydratacja {0}%")
+                    .build())
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> TipCondition.between(TipMeasure.HYDRATION, 70, 70))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.pizzamaestro.service.usage;
+
+import com.pizzamaestro.model.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testy licznika kalkulacji z zapisem odroczonym - baza jest atrapą w pamięci.
+ */
+@DisplayName("CalculationCountBuffer Tests")
+class CalculationCountBufferTest {
+
+    private final AtomicReference<LocalDateTime> now = new AtomicReference<>(LocalDateTime.of(2025, 3, 14, 12, 0));
+    private final Map<String, User> users = new ConcurrentHashMap<>();
+    private final List<Map<String, Integer>> writes = new ArrayList<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final AtomicBoolean failWrites = new AtomicBoolean();
+
+    private CalculationCountBuffer buffer(int maxPending) {
+        return new CalculationCountBuffer(
+                id -> {
+                    loads.incrementAndGet();
+                    return users.get(id);
+                },
+                batch -> {
+                    if (failWrites.get()) {
+                        throw new IllegalStateException("Mongo niedostępne");
+                    }
+                    writes.add(Map.copyOf(batch));
+                    return batch.size();
+                },
+                now::get, 0, maxPending);
+    }
+
+    private void user(String id, User.AccountType type, int usedThisMonth, LocalDateTime resetAt) {
+        users.put(id, User.builder()
+                .id(id)
+                .accountType(type)
+                .usageStats(User.UsageStats.builder()
+                        .calculationsThisMonth(usedThisMonth)
+                        .monthResetAt(resetAt)
+                        .build())
+                .build());
+    }
+
+    @Nested
+    @DisplayName("Limit")
+    class LimitTests {
+
+        @Test
+        @DisplayName("Limit liczony z zapisanego stanu i przyrostów w pamięci")
+        void shouldEnforceLimitLocally() {
+            // given
+            user("u1", User.AccountType.FREE, 8, now.get().minusDays(3));
+            CalculationCountBuffer buffer = buffer(1000);
+
+            // when / then
+            assertThat(buffer.tryConsume("u1", 10)).isTrue();
+            assertThat(buffer.tryConsume("u1", 10)).isTrue();
+            assertThat(buffer.tryConsume("u1", 10)).isFalse();
+            assertThat(loads.get()).isEqualTo(1);
+            assertThat(writes).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Zużycie z poprzedniego miesiąca nie blokuje")
+        void shouldIgnorePreviousMonthUsage() {
+            // given
+            user("u1", User.AccountType.FREE, 10, LocalDateTime.of(2025, 2, 27, 9, 0));
+
+            // when / then
+            assertThat(buffer(1000).tryConsume("u1", 10)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Premium bez limitu, nieznany użytkownik - null")
+        void shouldSkipLimitForPremium() {
+            // given
+            user("p1", User.AccountType.PRO, 50, now.get());
+            CalculationCountBuffer buffer = buffer(1000);
+
+            // when / then
+            assertThat(buffer.tryConsume("p1", 10)).isTrue();
+            assertThat(buffer.tryConsume("ghost", 10)).isNull();
+        }
+
+        @Test
+        @DisplayName("Równoległe kalkulacje jednego konta nie przekraczają limitu")
+        void shouldNotOvershootUnderConcurrency() throws Exception {
+            // given
+            user("u1", User.AccountType.FREE, 0, now.get());
+            CalculationCountBuffer buffer = buffer(1000);
+            ExecutorService pool = Executors.newFixedThreadPool(8);
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicInteger granted = new AtomicInteger();
+
+            // when
+            for (int i = 0; i < 100; i++) {
+                pool.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    if (Boolean.TRUE.equals(buffer.tryConsume("u1", 10))) {
+                        granted.incrementAndGet();
+                    }
+                });
+            }
+            start.countDown();
+            pool.shutdown();
+            assertThat(pool.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+            buffer.flush();
+
+            // then
+            assertThat(granted.get()).isEqualTo(10);
+            assertThat(writes).containsExactly(Map.of("u1", 10));
+        }
+    }
+
+    @Nested
+    @DisplayName("Zapis")
+    class FlushTests {
+
+        @Test
+        @DisplayName("Flush zapisuje przyrosty wielu kont jedną paczką")
+        void shouldFlushBatch() {
+            // given
+            user("u1", User.AccountType.FREE, 0, now.get());
+            user("u2", User.AccountType.FREE, 0, now.get());
+            CalculationCountBuffer buffer = buffer(1000);
+            buffer.tryConsume("u1", 10);
+            buffer.tryConsume("u1", 10);
+            buffer.tryConsume("u2", 10);
+
+            // when
+            buffer.flush();
+
+            // then
+            assertThat(writes).containsExactly(Map.of("u1", 2, "u2", 1));
+            assertThat(buffer.pendingCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Przekroczenie max-pending wymusza flush")
+        void shouldFlushWhenTooManyPending() {
+            // given
+            user("u1", User.AccountType.FREE, 0, now.get());
+            CalculationCountBuffer buffer = buffer(3);
+
+            // when
+            for (int i = 0; i < 3; i++) {
+                buffer.tryConsume("u1", 10);
+            }
+
+            // then
+            assertThat(writes).containsExactly(Map.of("u1", 3));
+        }
+
+        @Test
+        @DisplayName("Błąd zapisu zostawia przyrosty w buforze, zwrot zmniejsza przyrost")
+        void shouldRetainPendingOnWriteFailure() {
+            // given
+            user("u1", User.AccountType.FREE, 0, now.get());
+            CalculationCountBuffer buffer = buffer(1000);
+            buffer.tryConsume("u1", 10);
+            buffer.tryConsume("u1", 10);
+            failWrites.set(true);
+
+            // when
+            buffer.flush();
+            assertThat(buffer.release("u1")).isTrue();
+            failWrites.set(false);
+            buffer.flush();
+
+            // then
+            assertThat(writes).containsExactly(Map.of("u1", 1));
+        }
+
+        @Test
+        @DisplayName("Zwrot zapisanej kalkulacji zmniejsza zużycie w buforze, zwrot idzie do bazy")
+        void shouldReleaseFlushedCalculation() {
+            // given
+            user("u1", User.AccountType.FREE, 0, now.get());
+            CalculationCountBuffer buffer = buffer(1000);
+            buffer.tryConsume("u1", 2);
+            buffer.tryConsume("u1", 2);
+            buffer.flush();
+
+            // when
+            boolean releasedInBuffer = buffer.release("u1");
+
+            // then
+            assertThat(releasedInBuffer).isFalse();
+            assertThat(buffer.tryConsume("u1", 2)).isTrue();
+            assertThat(buffer.tryConsume("u1", 2)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Zwrot po zmianie miesiąca nie obniża zużycia nowego miesiąca")
+        void shouldNotReleaseIntoNewMonth() {
+            // given
+            user("u1", User.AccountType.FREE, 0, now.get());
+            CalculationCountBuffer buffer = buffer(1000);
+            buffer.tryConsume("u1", 1);
+            buffer.flush();
+            now.set(LocalDateTime.of(2025, 4, 1, 0, 0));
+
+            // when
+            boolean releasedInBuffer = buffer.release("u1");
+
+            // then - nowy miesiąc: jedna kalkulacja w limicie, druga już nie
+            assertThat(releasedInBuffer).isFalse();
+            assertThat(buffer.tryConsume("u1", 1)).isTrue();
+            assertThat(buffer.tryConsume("u1", 1)).isFalse();
+            buffer.flush();
+            assertThat(writes).containsExactly(Map.of("u1", 1), Map.of("u1", 1));
+        }
+
+        @Test
+        @DisplayName("Konta bez przyrostów wypadają z bufora")
+        void shouldEvictIdleAccounts() {
+            // given
+            user("u1", User.AccountType.FREE, 0, now.get());
+            CalculationCountBuffer buffer = buffer(1000);
+            buffer.tryConsume("u1", 10);
+
+            // when - pierwszy flush zapisuje, drugi usuwa bezczynne konto
+            buffer.flush();
+            buffer.flush();
+            buffer.tryConsume("u1", 10);
+
+            // then
+            assertThat(loads.get()).isEqualTo(2);
+        }
+    }
+}
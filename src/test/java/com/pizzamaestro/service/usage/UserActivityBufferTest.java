@@ -0,0 +1,121 @@
+package com.pizzamaestro.service.usage;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testy bufora dat logowania - zapis do bazy zastąpiony listą paczek.
+ */
+@DisplayName("UserActivityBuffer Tests")
+class UserActivityBufferTest {
+
+    private static final LocalDateTime LOGIN = LocalDateTime.of(2025, 3, 14, 8, 0);
+
+    private final AtomicLong nanos = new AtomicLong(1);
+    private final List<Map<String, LocalDateTime>> writes = new ArrayList<>();
+    private final AtomicBoolean failWrites = new AtomicBoolean();
+
+    private UserActivityBuffer buffer(long maxAgeMillis, int maxPending) {
+        return new UserActivityBuffer(batch -> {
+            if (failWrites.get()) {
+                throw new IllegalStateException("Mongo niedostępne");
+            }
+            writes.add(Map.copyOf(batch));
+            return batch.size();
+        }, nanos::get, maxAgeMillis, maxPending);
+    }
+
+    @Test
+    @DisplayName("Dla jednego użytkownika zostaje najpóźniejsze logowanie")
+    void shouldKeepLatestLoginPerUser() {
+        // given
+        UserActivityBuffer buffer = buffer(5000, 1000);
+        buffer.add("u1", LOGIN);
+        buffer.add("u1", LOGIN.plusMinutes(5));
+        buffer.add("u1", LOGIN.plusMinutes(2));
+        buffer.add("u2", LOGIN);
+
+        // when
+        buffer.flush();
+
+        // then
+        assertThat(writes).containsExactly(Map.of(
+                "u1", LOGIN.plusMinutes(5),
+                "u2", LOGIN));
+        assertThat(buffer.pendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Nic nie jest zapisywane przed flush, pusty flush nie woła bazy")
+    void shouldNotWriteUntilFlush() {
+        // given
+        UserActivityBuffer buffer = buffer(5000, 1000);
+
+        // when
+        buffer.flush();
+        buffer.add("u1", LOGIN);
+
+        // then
+        assertThat(writes).isEmpty();
+        assertThat(buffer.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("max-pending zdarzeń wymusza zapis")
+    void shouldFlushWhenTooManyPending() {
+        // given
+        UserActivityBuffer buffer = buffer(5000, 3);
+
+        // when
+        buffer.add("u1", LOGIN);
+        buffer.add("u2", LOGIN);
+        buffer.add("u3", LOGIN);
+
+        // then
+        assertThat(writes).hasSize(1);
+        assertThat(writes.get(0)).containsOnlyKeys("u1", "u2", "u3");
+    }
+
+    @Test
+    @DisplayName("Zdarzenie starsze niż max-age wymusza zapis przy kolejnym")
+    void shouldFlushWhenOldestTooOld() {
+        // given
+        UserActivityBuffer buffer = buffer(5000, 1000);
+        buffer.add("u1", LOGIN);
+
+        // when
+        nanos.addAndGet(5_000_000_000L);
+        buffer.add("u2", LOGIN.plusMinutes(1));
+
+        // then
+        assertThat(writes).hasSize(1);
+        assertThat(writes.get(0)).containsOnlyKeys("u1", "u2");
+    }
+
+    @Test
+    @DisplayName("Błąd zapisu zostawia zdarzenia w buforze")
+    void shouldRetainActivityOnWriteFailure() {
+        // given
+        UserActivityBuffer buffer = buffer(5000, 1000);
+        buffer.add("u1", LOGIN.plusMinutes(5));
+        failWrites.set(true);
+        buffer.flush();
+
+        // when
+        buffer.add("u1", LOGIN);
+        failWrites.set(false);
+        buffer.flush();
+
+        // then - nieudana paczka nie przegrywa ze starszym logowaniem
+        assertThat(writes).containsExactly(Map.of("u1", LOGIN.plusMinutes(5)));
+    }
+}
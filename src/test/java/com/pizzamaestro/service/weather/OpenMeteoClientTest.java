@@ -0,0 +1,220 @@
+package com.pizzamaestro.service.weather;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizzamaestro.service.WeatherService.GeocodingResponse;
+import com.pizzamaestro.service.WeatherService.OpenMeteoResponse;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testy klienta Open-Meteo na lokalnym serwerze-atrapie (bez sieci i bez Springa).
+ */
+@DisplayName("OpenMeteoClient Tests")
+class OpenMeteoClientTest {
+
+    private static final String FORECAST_JSON = """
+            {"latitude":52.23,"longitude":21.01,"timezone":"Europe/Warsaw",
+             "current":{"temperature_2m":18.5,"relative_humidity_2m":60,"surface_pressure":1012.0,"weather_code":1}}
+            """;
+
+    /** Obsługa żądania przez atrapę: status + body, opcjonalne opóźnienie */
+    private record StubResponse(int status, String body, long delayMs) {
+    }
+
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicReference<StubResponse> stub = new AtomicReference<>(new StubResponse(200, FORECAST_JSON, 0));
+    private final AtomicReference<String> lastQuery = new AtomicReference<>();
+    private HttpServer server;
+    private OpenMeteoClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", this::handle);
+        server.start();
+        client = client(300, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.shutdown();
+        server.stop(0);
+    }
+
+    private OpenMeteoClient client(long requestTimeoutMs, int failureThreshold) {
+        String base = "http://127.0.0.1:" + server.getAddress().getPort();
+        return new OpenMeteoClient(new ObjectMapper(), new SimpleMeterRegistry(),
+                base + "/v1/forecast", base + "/v1/search", 500, requestTimeoutMs, failureThreshold, 60);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        hits.incrementAndGet();
+        lastQuery.set(exchange.getRequestURI().getRawQuery());
+        StubResponse response = stub.get();
+        try {
+            Thread.sleep(response.delayMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(response.status(), body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        } catch (IOException e) {
+            // Klient zerwał połączenie (timeout)
+        }
+    }
+
+    @Nested
+    @DisplayName("Wywołania")
+    class CallTests {
+
+        @Test
+        @DisplayName("Prognoza jest pobierana i mapowana")
+        void shouldFetchForecast() {
+            // when
+            OpenMeteoResponse response = client.forecast(52.23, 21.01);
+
+            // then
+            assertThat(response.getCurrent().getTemperature()).isEqualTo(18.5);
+            assertThat(lastQuery.get()).contains("latitude=52.23", "longitude=21.01", "hourly=temperature_2m");
+        }
+
+        @Test
+        @DisplayName("Nazwa miasta jest kodowana w URL")
+        void shouldEncodeCityName() {
+            // given
+            stub.set(new StubResponse(200, "{\"results\":[{\"name\":\"Łódź\",\"latitude\":51.77,\"longitude\":19.46}]}", 0));
+
+            // when
+            GeocodingResponse response = client.geocode("Łódź Bałuty");
+
+            // then
+            assertThat(response.getResults()).hasSize(1);
+            assertThat(lastQuery.get()).startsWith("name=%C5%81%C3%B3d%C5%BA+Ba%C5%82uty&");
+        }
+
+        @Test
+        @DisplayName("Zawieszony serwer - timeout zamiast blokady")
+        void shouldTimeOutOnHungServer() {
+            // given
+            stub.set(new StubResponse(200, FORECAST_JSON, 2_000));
+
+            // when / then
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> client.forecast(1, 1)).isInstanceOf(WeatherUnavailableException.class);
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1_500);
+        }
+    }
+
+    @Nested
+    @DisplayName("Scalanie i bezpiecznik")
+    class ResilienceTests {
+
+        @Test
+        @DisplayName("Równoległe zapytania o te same współrzędne - jedno wywołanie")
+        void shouldCoalesceConcurrentRequests() throws Exception {
+            // given - wolna odpowiedź, żeby zapytania się nałożyły
+            client.shutdown();
+            client = client(3_000, 3);
+            stub.set(new StubResponse(200, FORECAST_JSON, 300));
+            ExecutorService pool = Executors.newFixedThreadPool(8);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<OpenMeteoResponse>> results = new ArrayList<>();
+
+            // when
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return client.forecast(50.06, 19.94);
+                }));
+            }
+            start.countDown();
+
+            // then
+            for (Future<OpenMeteoResponse> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS).getCurrent().getTemperature()).isEqualTo(18.5);
+            }
+            pool.shutdown();
+            assertThat(hits.get()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Seria błędów serwera otwiera bezpiecznik")
+        void shouldOpenCircuitAfterFailures() {
+            // given
+            stub.set(new StubResponse(503, "{}", 0));
+
+            // when
+            for (int i = 0; i < 3; i++) {
+                assertThatThrownBy(() -> client.forecast(1, 1)).isInstanceOf(WeatherUnavailableException.class);
+            }
+
+            // then - kolejne wywołanie nie dociera do serwera
+            assertThatThrownBy(() -> client.forecast(1, 1)).isInstanceOf(WeatherUnavailableException.class);
+            assertThat(hits.get()).isEqualTo(3);
+            assertThat(client.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+        }
+
+        @Test
+        @DisplayName("Błąd 4xx nie otwiera bezpiecznika")
+        void shouldNotCountClientErrors() {
+            // given
+            stub.set(new StubResponse(400, "{}", 0));
+
+            // when
+            for (int i = 0; i < 5; i++) {
+                assertThatThrownBy(() -> client.forecast(1, 1)).isInstanceOf(IllegalArgumentException.class);
+            }
+
+            // then
+            assertThat(client.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        }
+
+        @Test
+        @DisplayName("Po czasie otwarcia jedna próba; sukces zamyka bezpiecznik")
+        void shouldCloseAfterSuccessfulProbe() {
+            // given
+            AtomicInteger nanos = new AtomicInteger();
+            CircuitBreaker breaker = new CircuitBreaker(2, 1, nanos::get);
+            breaker.onFailure();
+            breaker.onFailure();
+            assertThat(breaker.tryAcquire()).isFalse();
+
+            // when - minęła 1 ms
+            nanos.set(1_000_000);
+
+            // then
+            assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+            assertThat(breaker.tryAcquire()).isTrue();
+            assertThat(breaker.tryAcquire()).isFalse();
+            breaker.onSuccess();
+            assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+            assertThat(breaker.tryAcquire()).isTrue();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.pizzamaestro.service.weather;
+
+import com.pizzamaestro.service.WeatherService.GeocodingResult;
+import com.pizzamaestro.service.WeatherService.WeatherData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Testy cache pogody w komórkach geohash - zegar i ładowanie pogody są atrapami.
+ */
+@DisplayName("WeatherCache Tests")
+class WeatherCacheTest {
+
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    /** 10:15 dowolnego dnia */
+    private final AtomicLong now = new AtomicLong(1_000 * HOUR + TimeUnit.MINUTES.toMillis(15));
+    private final AtomicInteger loads = new AtomicInteger();
+    private final WeatherCache cache = new WeatherCache(new SimpleMeterRegistry(), 5, 3600, 1000, 168, 1000, now::get);
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    private WeatherData load(double latitude, double longitude) {
+        loads.incrementAndGet();
+        return WeatherData.builder()
+                .latitude(latitude)
+                .longitude(longitude)
+                .temperature(10 + loads.get())
+                .hourlyIndoorTemperatures(new double[] { 21.0, 22.0 })
+                .build();
+    }
+
+    private void awaitLoads(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (loads.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    @Nested
+    @DisplayName("Geohash")
+    class GeohashTests {
+
+        @Test
+        @DisplayName("Znane wartości referencyjne")
+        void shouldEncodeKnownValues() {
+            assertThat(Geohash.encode(57.64911, 10.40744, 11)).isEqualTo("u4pruydqqvj");
+            assertThat(Geohash.encode(52.2297, 21.0122, 5)).isEqualTo("u3qcn");
+        }
+
+        @Test
+        @DisplayName("Środek komórki leży w tej samej komórce")
+        void shouldDecodeCenterInsideCell() {
+            String hash = Geohash.encode(50.0614, 19.9366, 5);
+            double[] center = Geohash.center(hash);
+
+            assertThat(Geohash.encode(center[0], center[1], 5)).isEqualTo(hash);
+            assertThat(center[0]).isCloseTo(50.0614, within(0.05));
+        }
+    }
+
+    @Nested
+    @DisplayName("Pogoda")
+    class WeatherTests {
+
+        @Test
+        @DisplayName("Punkty kilkaset metrów od siebie dzielą jeden wpis")
+        void shouldShareEntryWithinCell() {
+            // when
+            WeatherData first = cache.get(52.2297, 21.0122, WeatherCacheTest.this::load);
+            WeatherData second = cache.get(52.2310, 21.0140, WeatherCacheTest.this::load);
+
+            // then
+            assertThat(loads.get()).isEqualTo(1);
+            assertThat(second.getTemperature()).isEqualTo(first.getTemperature());
+            assertThat(second.getLatitude()).isEqualTo(52.2310);
+            assertThat(second).isNotSameAs(first);
+        }
+
+        @Test
+        @DisplayName("Zmiana prognozy godzinowej w kopii nie zmienia wpisu w cache")
+        void shouldNotShareHourlyForecastBetweenCopies() {
+            // given
+            WeatherData first = cache.get(52.2297, 21.0122, WeatherCacheTest.this::load);
+
+            // when
+            first.getHourlyIndoorTemperatures()[0] = 40.0;
+            WeatherData second = cache.get(52.2310, 21.0140, WeatherCacheTest.this::load);
+
+            // then
+            assertThat(second.getHourlyIndoorTemperatures()).containsExactly(21.0, 22.0);
+        }
+
+        @Test
+        @DisplayName("Po pełnej godzinie stary wpis + odświeżenie w tle")
+        void shouldServeStaleAndRefreshAfterHourBoundary() throws InterruptedException {
+            // given
+            cache.get(52.2297, 21.0122, WeatherCacheTest.this::load);
+
+            // when - 11:01
+            now.set(1_001 * HOUR + TimeUnit.MINUTES.toMillis(1));
+            WeatherData stale = cache.get(52.2297, 21.0122, WeatherCacheTest.this::load);
+            awaitLoads(2);
+
+            // then
+            assertThat(stale.getTemperature()).isEqualTo(11);
+            assertThat(loads.get()).isEqualTo(2);
+            assertThat(cache.get(52.2297, 21.0122, WeatherCacheTest.this::load).getTemperature()).isEqualTo(12);
+        }
+
+        @Test
+        @DisplayName("Świeżość do pełnej godziny lokalnej - strefa +5:30")
+        void shouldAlignFreshnessToLocalHour() throws InterruptedException {
+            // given - 10:15 UTC to 15:45 w Indiach, pełna godzina lokalna wypada o 10:30 UTC
+            WeatherCache.WeatherLoader india = (latitude, longitude) -> load(latitude, longitude).toBuilder()
+                    .utcOffsetSeconds((int) TimeUnit.MINUTES.toSeconds(330))
+                    .build();
+            cache.get(28.6139, 77.2090, india);
+
+            // when - 10:29 UTC
+            now.set(1_000 * HOUR + TimeUnit.MINUTES.toMillis(29));
+            WeatherData fresh = cache.get(28.6139, 77.2090, india);
+
+            // then
+            assertThat(fresh.getTemperature()).isEqualTo(11);
+            assertThat(loads.get()).isEqualTo(1);
+
+            // when - 10:31 UTC (16:01 czasu lokalnego)
+            now.set(1_000 * HOUR + TimeUnit.MINUTES.toMillis(31));
+            WeatherData stale = cache.get(28.6139, 77.2090, india);
+            awaitLoads(2);
+
+            // then - stary wpis + odświeżenie w tle
+            assertThat(stale.getTemperature()).isEqualTo(11);
+            assertThat(loads.get()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Po okresie stale wpis jest ładowany synchronicznie")
+        void shouldLoadSynchronouslyWhenTooStale() {
+            // given
+            cache.get(52.2297, 21.0122, WeatherCacheTest.this::load);
+
+            // when - 12:30, poza oknem stale (11:00 + 1 h)
+            now.set(1_002 * HOUR + TimeUnit.MINUTES.toMillis(30));
+            WeatherData weather = cache.get(52.2297, 21.0122, WeatherCacheTest.this::load);
+
+            // then
+            assertThat(weather.getTemperature()).isEqualTo(12);
+        }
+
+        @Test
+        @DisplayName("Wartości domyślne nie są cache'owane")
+        void shouldNotCacheDefaults() {
+            // when
+            for (int i = 0; i < 3; i++) {
+                cache.get(52.2297, 21.0122, (lat, lon) -> {
+                    loads.incrementAndGet();
+                    return WeatherData.builder().isDefault(true).build();
+                });
+            }
+
+            // then
+            assertThat(loads.get()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    @DisplayName("Geokodowanie bez wielkości liter, bez cache'owania braku wyniku")
+    void shouldCacheGeocodingCaseInsensitively() {
+        // given
+        AtomicInteger lookups = new AtomicInteger();
+        GeocodingResult krakow = new GeocodingResult();
+        krakow.setName("Kraków");
+
+        // when
+        cache.geocode("Kraków", city -> { lookups.incrementAndGet(); return krakow; });
+        GeocodingResult cached = cache.geocode(" KRAKÓW ", city -> { lookups.incrementAndGet(); return null; });
+        cache.geocode("Nibylandia", city -> { lookups.incrementAndGet(); return null; });
+        cache.geocode("Nibylandia", city -> { lookups.incrementAndGet(); return null; });
+
+        // then
+        assertThat(cached).isSameAs(krakow);
+        assertThat(lookups.get()).isEqualTo(3);
+    }
+}